@@ -0,0 +1,174 @@
+package es.readtoowell.api_biblioteca.config;
+
+import es.readtoowell.api_biblioteca.config.datasource.DatabaseUsage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en paralelo las consultas independientes con las que se construyen las respuestas compuestas
+ * (detalles de un libro, resumen anual...), de modo que la respuesta tarda lo que la consulta más lenta
+ * y no la suma de todas.
+ * Cada consulta se ejecuta en un hilo de un grupo acotado y en su propia transacción de solo lectura, con su
+ * propia conexión. Si el grupo está lleno, la consulta se ejecuta en el hilo que la pide, como si no hubiera
+ * paralelismo. El número de hilos debe ser menor que el tamaño del pool de conexiones.
+ * Las transacciones tienen el mismo tiempo máximo que la espera de su resultado, de modo que una consulta
+ * que ya no se espera se cancela en la base de datos y libera su hilo y su conexión.
+ */
+@Component
+public class CompositeQueryExecutor {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${readtoowell.composite-queries.threads:8}")
+    private int threads;
+    @Value("${readtoowell.composite-queries.queue-capacity:100}")
+    private int queueCapacity;
+    @Value("${readtoowell.composite-queries.timeout-ms:5000}")
+    private long timeoutMs;
+    @Value("${readtoowell.composite-queries.optional-timeout-ms:800}")
+    private long optionalTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private Executor securedExecutor;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate optionalReadOnly;
+
+    /**
+     * Crea el grupo de hilos y registra sus métricas.
+     */
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads(), new ThreadPoolExecutor.CallerRunsPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "composite-queries", List.of());
+        // Las consultas se ejecutan con el usuario de la petición, necesario para el reparto entre principal y réplica
+        securedExecutor = new DelegatingSecurityContextExecutor(executor);
+
+        readOnly = readOnlyTransaction(timeoutMs);
+        optionalReadOnly = readOnlyTransaction(optionalTimeoutMs);
+    }
+
+    /**
+     * Detiene el grupo de hilos al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Lanza una consulta en paralelo, en su propia transacción de solo lectura.
+     * El resultado debe construirse dentro de la consulta (DTOs), ya que las entidades quedan desvinculadas
+     * de la sesión al terminar la transacción.
+     *
+     * @param query Consulta a ejecutar
+     * @return Futuro con el resultado de la consulta
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return submit(readOnly, query);
+    }
+
+    /**
+     * Lanza una consulta prescindible en paralelo, en su propia transacción de solo lectura con el tiempo
+     * máximo de las consultas opcionales. Su resultado se espera con {@link #joinOrDefault}.
+     *
+     * @param query Consulta a ejecutar
+     * @return Futuro con el resultado de la consulta
+     */
+    public <T> CompletableFuture<T> submitOptional(Supplier<T> query) {
+        return submit(optionalReadOnly, query);
+    }
+
+    /**
+     * Espera el resultado de una consulta imprescindible para la respuesta.
+     * Las excepciones de la consulta se relanzan tal cual.
+     *
+     * @param future Futuro devuelto por {@link #submit}
+     * @return Resultado de la consulta
+     * @throws QueryTimeoutException La consulta no ha terminado en el tiempo máximo
+     */
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("El servidor está ocupado. Inténtalo de nuevo en unos segundos.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("La consulta ha sido interrumpida.", e);
+        }
+    }
+
+    /**
+     * Espera el resultado de una consulta prescindible: si tarda más que el tiempo máximo de las consultas
+     * opcionales o falla, se devuelve el valor por defecto y la respuesta se construye sin ella.
+     *
+     * @param future Futuro devuelto por {@link #submitOptional}
+     * @param fallback Valor a devolver si la consulta no termina a tiempo o falla
+     * @return Resultado de la consulta o el valor por defecto
+     */
+    public <T> T joinOrDefault(CompletableFuture<T> future, T fallback) {
+        try {
+            return future.get(optionalTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            meterRegistry.counter("readtoowell.composite-queries.degraded").increment();
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(TransactionTemplate transaction, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(
+                DatabaseUsage.propagate(() -> transaction.execute(status -> query.get())), securedExecutor);
+    }
+
+    /**
+     * Crea una transacción de solo lectura independiente de la de la petición. Las consultas que superan
+     * el tiempo máximo se cancelan en la base de datos; el tiempo se redondea hacia arriba a segundos.
+     *
+     * @param timeout Tiempo máximo de la transacción, en milisegundos
+     * @return Plantilla de la transacción
+     */
+    private TransactionTemplate readOnlyTransaction(long timeout) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(CompositeQueryExecutor.class.getName());
+        template.setReadOnly(true);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setTimeout((int) Math.max(1, (timeout + 999) / 1000));
+        return template;
+    }
+
+    private static CustomizableThreadFactory daemonThreads() {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("composite-queries-");
+        factory.setDaemon(true);
+        return factory;
+    }
+}
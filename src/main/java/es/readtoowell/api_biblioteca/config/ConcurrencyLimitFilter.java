@@ -0,0 +1,122 @@
+package es.readtoowell.api_biblioteca.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro que limita el número de peticiones que se procesan a la vez.
+ * Con hilos virtuales no hay un límite de hilos que frene las peticiones, así que todas llegarían a la vez
+ * al pool de conexiones y las que no consiguieran conexión fallarían al agotar {@code connection-timeout}.
+ * Con este filtro esperan en orden de llegada a que haya hueco y, si la espera supera el tiempo máximo,
+ * se responde con un 503 para que el cliente vuelva a intentarlo.
+ * Cada hueco equivale a una conexión: las respuestas compuestas, que consultan en paralelo con varias
+ * conexiones, ocupan tantos huecos como conexiones pueden usar a la vez.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final List<String> compositeRoutes;
+    private final int compositePermits;
+
+    /**
+     * Constructor del filtro para peticiones que usan una sola conexión.
+     *
+     * @param maxConcurrent Número máximo de conexiones ocupadas a la vez
+     * @param acquireTimeoutMs Tiempo máximo de espera de una petición, en milisegundos
+     */
+    public ConcurrencyLimitFilter(int maxConcurrent, long acquireTimeoutMs) {
+        this(maxConcurrent, acquireTimeoutMs, List.of(), 1);
+    }
+
+    /**
+     * Constructor del filtro.
+     *
+     * @param maxConcurrent Número máximo de conexiones ocupadas a la vez
+     * @param acquireTimeoutMs Tiempo máximo de espera de una petición, en milisegundos
+     * @param compositeRoutes Patrones de las rutas de las respuestas compuestas
+     * @param compositePermits Conexiones que puede ocupar a la vez una respuesta compuesta
+     */
+    public ConcurrencyLimitFilter(int maxConcurrent, long acquireTimeoutMs, List<String> compositeRoutes,
+                                  int compositePermits) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.compositeRoutes = compositeRoutes;
+        // Nunca más que el total, o las respuestas compuestas no podrían empezar nunca
+        this.compositePermits = Math.max(1, Math.min(compositePermits, maxConcurrent));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int needed = permitsFor(request);
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(needed, acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\":\"El servidor está ocupado. Inténtalo de nuevo en unos segundos.\"}");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release(needed);
+        }
+    }
+
+    private int permitsFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String route : compositeRoutes) {
+            if (PATH_MATCHER.match(route, path)) {
+                return compositePermits;
+            }
+        }
+        return 1;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    /**
+     * Devuelve el número de peticiones que pueden empezar a procesarse sin esperar.
+     *
+     * @return Número de huecos libres
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Devuelve el número aproximado de peticiones que están esperando.
+     *
+     * @return Número de peticiones en espera
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
@@ -0,0 +1,30 @@
+package es.readtoowell.api_biblioteca.config;
+
+import es.readtoowell.api_biblioteca.service.book.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint de monitorización ({@code /actuator/referencecache}) con las estadísticas
+ * de la caché de segundo nivel de los datos de referencia.
+ */
+@Component
+@Endpoint(id = "referencecache")
+public class ReferenceCacheEndpoint {
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * Devuelve las estadísticas de la caché.
+     *
+     * @return Mapa con las estadísticas de cada región y de la caché de consultas
+     */
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return referenceDataCache.getStatistics();
+    }
+}
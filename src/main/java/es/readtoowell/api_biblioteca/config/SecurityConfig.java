@@ -4,7 +4,9 @@ import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import es.readtoowell.api_biblioteca.config.security.JwtFilter;
 import es.readtoowell.api_biblioteca.config.security.JwtUtil;
+import es.readtoowell.api_biblioteca.config.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -37,17 +39,22 @@ import java.util.List;
 public class SecurityConfig {
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    @Value("${readtoowell.security.bcrypt-strength:10}")
+    private int bcryptStrength;
 
     /**
      * Constructor de SecurityConfig.
      *
      * @param jwtUtil        Utilidad para gestionar JWT.
      * @param userRepository Repositorio de usuarios.
+     * @param principalCache Caché de los usuarios autenticados.
      */
     @Autowired
-    public SecurityConfig(JwtUtil jwtUtil, UserRepository userRepository) {
+    public SecurityConfig(JwtUtil jwtUtil, UserRepository userRepository, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -86,6 +93,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/solicitud-autor/*").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/solicitud-autor/**").hasRole("ADMIN")
 
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // USER y AUTHOR
                         .requestMatchers(HttpMethod.PUT, "/usuarios").hasAnyRole("USER", "AUTHOR")
                         .requestMatchers(HttpMethod.PUT, "/usuarios/**").hasAnyRole("USER", "AUTHOR")
@@ -93,6 +102,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/usuarios/dejar-seguir/*").hasAnyRole("USER", "AUTHOR")
                         .requestMatchers("/recomendaciones/**").hasAnyRole("USER", "AUTHOR")
                         .requestMatchers("/objetivos/**").hasAnyRole("USER", "AUTHOR")
+                        .requestMatchers("/actividad/**").hasAnyRole("USER", "AUTHOR")
                         .requestMatchers("/listas/**").hasAnyRole("USER", "AUTHOR")
                         .requestMatchers(HttpMethod.POST, "/sugerencias/*").hasAnyRole("USER", "AUTHOR")
                         .requestMatchers("/biblioteca/**").hasAnyRole("USER", "AUTHOR")
@@ -113,12 +123,13 @@ public class SecurityConfig {
 
     /**
      * Proveedor de codificación de contraseñas.
+     * El factor de trabajo se configura con {@code readtoowell.security.bcrypt-strength}.
      *
      * @return Instancia de BCryptPasswordEncoder.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     /**
@@ -173,7 +184,7 @@ public class SecurityConfig {
      */
     @Bean
     public JwtFilter jwtFilter() { // Creamos el Bean de JwtFilter
-        return new JwtFilter(jwtUtil, userDetailsService());
+        return new JwtFilter(jwtUtil, userDetailsService(), principalCache);
     }
 
     @Bean
@@ -0,0 +1,79 @@
+package es.readtoowell.api_biblioteca.config;
+
+import es.readtoowell.api_biblioteca.config.datasource.DatabaseUsageFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.List;
+
+/**
+ * Configuración web de la aplicación.
+ */
+@Configuration
+public class WebConfig {
+    /**
+     * Añade un ETag a las respuestas de los datos de referencia (géneros y colecciones) y responde
+     * con 304 si el cliente ya tiene la versión actual.
+     *
+     * @return Registro del filtro de ETags
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> referenceDataEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registro.addUrlPatterns("/libros/generos", "/libros/colecciones");
+        return registro;
+    }
+
+    /**
+     * Limita las conexiones que ocupan a la vez las peticiones al tamaño del pool de conexiones. Se registra
+     * antes que el resto de filtros para que las peticiones en espera no ocupen conexiones ni hagan trabajo,
+     * y solo en las rutas que consultan la base de datos.
+     *
+     * @param maxConcurrent Número máximo de conexiones ocupadas a la vez
+     * @param acquireTimeoutMs Tiempo máximo de espera de una petición, en milisegundos
+     * @param compositeRoutes Patrones de las rutas de las respuestas compuestas
+     * @param compositePermits Conexiones que puede ocupar a la vez una respuesta compuesta
+     * @return Registro del filtro de concurrencia
+     */
+    @Bean
+    @ConditionalOnProperty(name = "readtoowell.concurrency-limit.enabled", havingValue = "true")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${readtoowell.concurrency-limit.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int maxConcurrent,
+            @Value("${readtoowell.concurrency-limit.acquire-timeout-ms:5000}") long acquireTimeoutMs,
+            @Value("${readtoowell.concurrency-limit.composite-routes:/libros/*/detalles,/biblioteca/resumen-anual}")
+            List<String> compositeRoutes,
+            @Value("${readtoowell.concurrency-limit.composite-permits:4}") int compositePermits) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registro = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxConcurrent, acquireTimeoutMs, compositeRoutes, compositePermits));
+        // Rutas de los controladores que consultan la base de datos (/auth/validar solo comprueba el token)
+        registro.addUrlPatterns("/auth/login", "/auth/register", "/objetivos/*", "/actividad/*",
+                "/solicitud-autor/*", "/usuarios/*", "/libros/*", "/recomendaciones/*", "/sugerencias/*",
+                "/listas/*", "/biblioteca/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+
+    /**
+     * Registra por endpoint las conexiones, transacciones y sentencias de cada petición.
+     *
+     * @param meterRegistry Registro de métricas
+     * @return Registro del filtro de uso de la base de datos
+     */
+    @Bean
+    @ConditionalOnProperty(name = "readtoowell.metrics.database-usage.enabled", havingValue = "true",
+            matchIfMissing = true)
+    public FilterRegistrationBean<DatabaseUsageFilter> databaseUsageFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DatabaseUsageFilter> registro =
+                new FilterRegistrationBean<>(new DatabaseUsageFilter(meterRegistry));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registro;
+    }
+}
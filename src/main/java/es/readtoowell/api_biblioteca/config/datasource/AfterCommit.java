@@ -0,0 +1,33 @@
+package es.readtoowell.api_biblioteca.config.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidad para ejecutar acciones cuando se confirma la transacción en curso.
+ * Se usa para actualizar las cachés y los índices en memoria solo con datos que ya son visibles
+ * para el resto de transacciones. Si no hay ninguna transacción en curso, la acción se ejecuta de inmediato.
+ */
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    /**
+     * Ejecuta una acción al confirmarse la transacción en curso. Si la transacción se deshace, no se ejecuta.
+     *
+     * @param action Acción a ejecutar
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package es.readtoowell.api_biblioteca.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuración de los orígenes de datos cuando hay una réplica de lectura.
+ * Solo se aplica si se indica la URL de la réplica; en caso contrario se usa el origen de datos por defecto.
+ */
+@Configuration
+@ConditionalOnProperty(name = "readtoowell.datasource.replica.url")
+public class DataSourceConfig {
+    /**
+     * Pool de conexiones de la base de datos principal, configurado con las propiedades
+     * {@code spring.datasource.*}.
+     *
+     * @param properties Propiedades del origen de datos
+     * @return Pool de conexiones de la principal
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Pool de conexiones de la réplica, configurado con las propiedades {@code readtoowell.datasource.replica.*}.
+     *
+     * @param properties Propiedades del origen de datos principal, de las que se toma el driver
+     * @param url URL de la réplica
+     * @param username Usuario de la réplica
+     * @param password Contraseña de la réplica
+     * @return Pool de conexiones de la réplica
+     */
+    @Bean
+    @ConfigurationProperties("readtoowell.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${readtoowell.datasource.replica.url}") String url,
+                                              @Value("${readtoowell.datasource.replica.username:${spring.datasource.username}}")
+                                              String username,
+                                              @Value("${readtoowell.datasource.replica.password:${spring.datasource.password}}")
+                                              String password) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * Origen de datos que reparte las conexiones entre la principal y la réplica.
+     *
+     * @param primary Pool de conexiones de la principal
+     * @param replica Pool de conexiones de la réplica
+     * @param readYourWritesMs Tiempo, en milisegundos, durante el que un usuario lee de la principal tras escribir
+     * @param maxLagMs Retraso máximo de la réplica, en milisegundos
+     * @return Origen de datos con el reparto entre principal y réplica
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${readtoowell.datasource.replica.read-your-writes-ms:10000}") long readYourWritesMs,
+            @Value("${readtoowell.datasource.replica.max-lag-ms:2000}") long maxLagMs) {
+        return new ReplicaRoutingDataSource(primary, replica, Duration.ofMillis(readYourWritesMs), maxLagMs);
+    }
+
+    /**
+     * Origen de datos que usa la aplicación. Retrasa la obtención de la conexión hasta la primera sentencia,
+     * cuando ya se sabe si la transacción es de solo lectura.
+     *
+     * @param routing Origen de datos con el reparto entre principal y réplica
+     * @return Origen de datos de la aplicación
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,98 @@
+package es.readtoowell.api_biblioteca.config.datasource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Uso de la base de datos durante una petición: conexiones obtenidas, transacciones terminadas
+ * y sentencias ejecutadas. Lo rellena {@link DatabaseUsageListener} y lo registra {@link DatabaseUsageFilter}.
+ */
+public final class DatabaseUsage {
+    private static final ThreadLocal<DatabaseUsage> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+    private final AtomicInteger statements = new AtomicInteger();
+
+    /**
+     * Empieza a contar el uso de la base de datos en el hilo actual.
+     *
+     * @return Contadores de la petición
+     */
+    public static DatabaseUsage start() {
+        DatabaseUsage uso = new DatabaseUsage();
+        CURRENT.set(uso);
+        return uso;
+    }
+
+    /**
+     * Deja de contar el uso de la base de datos en el hilo actual.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Devuelve los contadores de la petición que se está procesando en el hilo actual.
+     *
+     * @return Contadores de la petición, 'null' si no se está contando
+     */
+    public static DatabaseUsage current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Hace que una tarea que se ejecuta en otro hilo sume al uso de la petición que la lanza.
+     *
+     * @param task Tarea a ejecutar
+     * @return Tarea que cuenta en los contadores de la petición actual
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        DatabaseUsage uso = current();
+        if (uso == null) {
+            return task;
+        }
+        return () -> {
+            DatabaseUsage anterior = CURRENT.get();
+            CURRENT.set(uso);
+            try {
+                return task.get();
+            } finally {
+                if (anterior == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(anterior);
+                }
+            }
+        };
+    }
+
+    void connectionAcquired() {
+        connections.incrementAndGet();
+    }
+
+    void transactionCompleted(boolean successful) {
+        (successful ? commits : rollbacks).incrementAndGet();
+    }
+
+    void statementExecuted() {
+        statements.incrementAndGet();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public int getCommits() {
+        return commits.get();
+    }
+
+    public int getRollbacks() {
+        return rollbacks.get();
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+}
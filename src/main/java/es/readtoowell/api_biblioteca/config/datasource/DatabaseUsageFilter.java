@@ -0,0 +1,69 @@
+package es.readtoowell.api_biblioteca.config.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filtro que registra, por cada endpoint, cuántas conexiones obtiene cada petición, cuántas transacciones
+ * confirma o deshace y cuántas sentencias ejecuta. Sirve para comprobar que cada operación de escritura
+ * se hace en una sola transacción y que las lecturas no abren más conexiones de las necesarias.
+ */
+public class DatabaseUsageFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor del filtro.
+     *
+     * @param meterRegistry Registro de métricas
+     */
+    public DatabaseUsageFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DatabaseUsage uso = DatabaseUsage.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DatabaseUsage.stop();
+            record(request, uso);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private void record(HttpServletRequest request, DatabaseUsage uso) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", patron != null ? patron.toString() : "UNKNOWN");
+
+        summary("readtoowell.request.db.connections", "Conexiones obtenidas por petición", tags)
+                .record(uso.getConnections());
+        summary("readtoowell.request.db.transactions", "Transacciones terminadas por petición",
+                tags.and("outcome", "commit")).record(uso.getCommits());
+        summary("readtoowell.request.db.transactions", "Transacciones terminadas por petición",
+                tags.and("outcome", "rollback")).record(uso.getRollbacks());
+        summary("readtoowell.request.db.statements", "Sentencias ejecutadas por petición", tags)
+                .record(uso.getStatements());
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
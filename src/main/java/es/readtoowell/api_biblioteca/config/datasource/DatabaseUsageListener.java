@@ -0,0 +1,42 @@
+package es.readtoowell.api_biblioteca.config.datasource;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Escucha los eventos de las sesiones de Hibernate y los suma al uso de la base de datos de la petición actual.
+ * Hibernate crea una instancia por sesión a partir de la propiedad {@code hibernate.session.events.auto}.
+ */
+public class DatabaseUsageListener implements SessionEventListener {
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        DatabaseUsage uso = DatabaseUsage.current();
+        if (uso != null) {
+            uso.connectionAcquired();
+        }
+    }
+
+    @Override
+    public void transactionCompletion(boolean successful) {
+        DatabaseUsage uso = DatabaseUsage.current();
+        if (uso != null) {
+            uso.transactionCompleted(successful);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        DatabaseUsage uso = DatabaseUsage.current();
+        if (uso != null) {
+            uso.statementExecuted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        DatabaseUsage uso = DatabaseUsage.current();
+        if (uso != null) {
+            uso.statementExecuted();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package es.readtoowell.api_biblioteca.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import es.readtoowell.api_biblioteca.Application;
+import es.readtoowell.api_biblioteca.config.CustomUserDetails;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Origen de datos que envía las transacciones de solo lectura de la aplicación a la réplica
+ * y el resto de operaciones a la base de datos principal.
+ * Las lecturas vuelven a la principal cuando la réplica no responde o su retraso supera el máximo permitido,
+ * y durante un tiempo después de que un usuario escriba, para que vea sus propios cambios.
+ * Solo se usa la réplica en las transacciones abiertas por las clases de la aplicación: las transacciones
+ * de solo lectura que Spring Data abre por defecto en los repositorios siguen yendo a la principal.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String APPLICATION_PACKAGE = Application.class.getPackageName() + ".";
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN pg_is_in_recovery() AND pg_last_wal_receive_lsn() IS DISTINCT FROM pg_last_wal_replay_lsn()
+                        THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                        ELSE 0 END""";
+
+    private enum Target { PRIMARY, REPLICA }
+
+    private final JdbcTemplate replicaTemplate;
+    private final long maxLagMs;
+    private final Cache<Long, Boolean> recentWriters;
+    private volatile boolean replicaAvailable = true;
+
+    /**
+     * Constructor del origen de datos.
+     *
+     * @param primary Origen de datos de la base de datos principal
+     * @param replica Origen de datos de la réplica
+     * @param readYourWrites Tiempo durante el que las lecturas de un usuario van a la principal después de escribir
+     * @param maxLagMs Retraso máximo de la réplica, en milisegundos, para seguir usándola
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites, long maxLagMs) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaTemplate = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .build();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long idUser = currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (idUser != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(idUser, Boolean.TRUE);
+            }
+            return Target.PRIMARY;
+        }
+
+        String transaccion = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (!replicaAvailable || transaccion == null || !transaccion.startsWith(APPLICATION_PACKAGE)) {
+            return Target.PRIMARY;
+        }
+        if (idUser != null && recentWriters.getIfPresent(idUser) != null) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * Comprueba el retraso de la réplica y deja de usarla si no responde o si el retraso supera el máximo.
+     */
+    @Scheduled(fixedDelayString = "${readtoowell.datasource.replica.lag-check-ms:5000}")
+    public void checkReplicaLag() {
+        Double retraso;
+        try {
+            retraso = replicaTemplate.queryForObject(LAG_QUERY, Double.class);
+        } catch (RuntimeException e) {
+            retraso = null;
+        }
+        recordReplicaLag(retraso);
+    }
+
+    /**
+     * Registra el retraso actual de la réplica.
+     *
+     * @param lagMs Retraso de la réplica en milisegundos, o {@code null} si no responde
+     */
+    public void recordReplicaLag(Double lagMs) {
+        boolean disponible = lagMs != null && lagMs <= maxLagMs;
+        if (disponible != replicaAvailable) {
+            logger.warn(disponible
+                    ? "La réplica de lectura vuelve a estar disponible."
+                    : "La réplica de lectura no está disponible (retraso: " + lagMs + " ms). Se usa la principal.");
+        }
+        replicaAvailable = disponible;
+    }
+
+    /**
+     * Indica si las lecturas se están enviando a la réplica.
+     *
+     * @return 'true' si la réplica está disponible, 'false' en caso contrario
+     */
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
@@ -1,39 +1,50 @@
 package es.readtoowell.api_biblioteca.config.security;
 
+import es.readtoowell.api_biblioteca.config.CustomUserDetails;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
 
 /**
  * Filtro para interceptar solicitudes HTTP y gestionar la autenticación con JWT.
  * Verifica la validez del token y autentica al usuario si es válido.
+ * El usuario se construye a partir de los claims del token y se guarda en {@code PrincipalCache},
+ * por lo que solo se consulta la base de datos para tokens sin claims o de usuarios invalidados.
  */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     /**
      * Constructor del filtro JWT.
      *
      * @param jwtUtil Utilidad para gestionar JWT.
      * @param userDetailsService Servicio para cargar los detalles del usuario.
+     * @param principalCache Caché de los usuarios autenticados.
      */
     @Autowired
-    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -51,21 +62,66 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String token = request.getHeader("Authorization");
 
-        if (token != null && token.startsWith("Bearer ")) {
+        if (token != null && token.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             token = token.substring(7);
-            String email = jwtUtil.extractEmail(token);
+            UserDetails userDetails = resolvePrincipal(token);
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                if (jwtUtil.validateToken(token)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el usuario autenticado de un token, primero de la caché y, si no está, de sus claims.
+     * Si el token no tiene claims o el usuario se ha invalidado después de emitirlo, se carga de la base de datos.
+     *
+     * @param token Token JWT.
+     * @return Usuario autenticado, 'null' si el token no es válido o el usuario no existe.
+     */
+    private UserDetails resolvePrincipal(String token) {
+        CustomUserDetails cached = principalCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtUtil.parseClaims(token);
+        if (claims == null || claims.getSubject() == null) {
+            return null;
+        }
+
+        Long id = claims.get(JwtUtil.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        Instant issuedAt = claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+
+        if (id != null && role != null && !principalCache.isStale(id, issuedAt)) {
+            CustomUserDetails principal = new CustomUserDetails(id, claims.getSubject(), null,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+            principalCache.put(token, principal, claims.getExpiration().toInstant(), issuedAt);
+            return principal;
+        }
+
+        // Se toma el momento antes de la consulta: una invalidación durante la consulta impide guardarlo
+        Instant checkedAt = Instant.now();
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+
+        if (userDetails instanceof CustomUserDetails loaded) {
+            // La caché y el contexto de seguridad no necesitan el hash de la contraseña
+            CustomUserDetails principal = new CustomUserDetails(loaded.getId(), loaded.getUsername(), null,
+                    loaded.getAuthorities());
+            principalCache.put(token, principal, claims.getExpiration().toInstant(), checkedAt);
+            return principal;
+        }
+        return userDetails;
+    }
+}
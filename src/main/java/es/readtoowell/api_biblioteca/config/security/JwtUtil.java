@@ -1,10 +1,10 @@
 package es.readtoowell.api_biblioteca.config.security;
 
-import io.jsonwebtoken.ExpiredJwtException;
+import es.readtoowell.api_biblioteca.model.entity.User;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -15,8 +15,11 @@ import java.util.Date;
  */
 @Component
 public class JwtUtil {
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
     private static final SecretKey SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private static final long EXPIRATION_TIME = 86400000; // 24 horas
+    static final long EXPIRATION_TIME = 86400000; // 24 horas
 
     /**
      * Genera un token JWT basado en el correo electrónico del usuario.
@@ -34,25 +37,50 @@ public class JwtUtil {
     }
 
     /**
-     * Extrae el correo electrónico de un token JWT.
+     * Genera un token JWT para un usuario, incluyendo su ID y su rol como claims.
+     * Así, el filtro de autenticación puede construir el usuario autenticado sin consultar la base de datos.
+     *
+     * @param user Usuario autenticado.
+     * @return Token JWT generado.
+     */
+    public String generateToken(User user) {
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRoleEnum().name())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .signWith(SECRET_KEY)
+                .compact();
+    }
+
+    /**
+     * Valida un token JWT y devuelve sus claims, analizándolo una sola vez.
      *
      * @param token Token JWT.
-     * @return Correo electrónico extraído del token.
+     * @return Claims del token, 'null' si el token no es válido o ha expirado.
      */
-    public String extractEmail(String token) {
+    public Claims parseClaims(String token) {
         try {
             return Jwts.parserBuilder()
                     .setSigningKey(SECRET_KEY)
                     .build()
                     .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-        } catch (ExpiredJwtException e) {
-            System.out.println("Token expirado");
-        } catch (SignatureException e) {
-            System.out.println("Token inválido");
+                    .getBody();
+        } catch (Exception e) { // Token expirado, con firma inválida o mal formado
+            return null;
         }
-        return null;
+    }
+
+    /**
+     * Extrae el correo electrónico de un token JWT.
+     *
+     * @param token Token JWT.
+     * @return Correo electrónico extraído del token.
+     */
+    public String extractEmail(String token) {
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.getSubject();
     }
 
     /**
@@ -0,0 +1,149 @@
+package es.readtoowell.api_biblioteca.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import es.readtoowell.api_biblioteca.config.CustomUserDetails;
+import es.readtoowell.api_biblioteca.config.datasource.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Caché en memoria de los usuarios autenticados, indexada por el hash de su token JWT.
+ * Cada entrada caduca a la vez que su token y el número máximo de entradas está acotado.
+ * Cuando cambia el rol de un usuario o se elimina, se invalidan sus entradas y los tokens emitidos
+ * antes del cambio dejan de aceptarse sin comprobar antes el usuario en la base de datos.
+ */
+@Component
+public class PrincipalCache {
+    @Value("${readtoowell.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, Entry> cache;
+    private Cache<Long, Instant> invalidations;
+
+    /**
+     * Entrada de la caché: usuario autenticado, momento en el que caduca su token y momento
+     * en el que se comprobaron sus datos.
+     */
+    private record Entry(CustomUserDetails principal, Instant expiration, Instant checkedAt) {}
+
+    /**
+     * Crea las cachés de usuarios autenticados y de invalidaciones.
+     */
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiration()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        // Basta con recordar una invalidación mientras pueda existir un token emitido antes de ella
+        invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(JwtUtil.EXPIRATION_TIME))
+                .build();
+    }
+
+    /**
+     * Devuelve el usuario autenticado asociado a un token.
+     * Si el usuario se ha invalidado después de comprobar sus datos, la entrada se descarta.
+     *
+     * @param token Token JWT
+     * @return Usuario autenticado, 'null' si el token no está en la caché o sus datos pueden estar desactualizados
+     */
+    public CustomUserDetails get(String token) {
+        String key = hash(token);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isStale(entry.principal().getId(), entry.checkedAt())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    /**
+     * Guarda el usuario autenticado asociado a un token hasta que el token caduque.
+     * No se guarda si el usuario se ha invalidado después de comprobar sus datos.
+     *
+     * @param token Token JWT
+     * @param principal Usuario autenticado, sin credenciales
+     * @param expiration Momento en el que caduca el token
+     * @param checkedAt Momento en el que se comprobaron los datos del usuario (emisión del token o consulta)
+     */
+    public void put(String token, CustomUserDetails principal, Instant expiration, Instant checkedAt) {
+        if (expiration == null || !expiration.isAfter(Instant.now()) || isStale(principal.getId(), checkedAt)) {
+            return;
+        }
+        cache.put(hash(token), new Entry(principal, expiration, checkedAt));
+    }
+
+    /**
+     * Indica si los datos de un token emitido en un momento dado pueden estar desactualizados,
+     * porque el usuario se ha invalidado después.
+     *
+     * @param userId ID del usuario
+     * @param issuedAt Momento en el que se emitió el token
+     * @return 'true' si el usuario debe comprobarse en la base de datos, 'false' en caso contrario
+     */
+    public boolean isStale(Long userId, Instant issuedAt) {
+        Instant invalidatedAt = invalidations.getIfPresent(userId);
+        // Los tokens solo guardan segundos, así que un token del mismo segundo también se comprueba
+        return invalidatedAt != null && (issuedAt == null || !issuedAt.isAfter(invalidatedAt));
+    }
+
+    /**
+     * Invalida las entradas de un usuario, por ejemplo al cambiar su rol o al eliminarlo.
+     * Si hay una transacción en curso, se invalidan de nuevo al confirmarla: una petición que llegue antes
+     * de la confirmación todavía lee los datos anteriores, y la segunda invalidación descarta lo que guarde.
+     *
+     * @param userId ID del usuario
+     */
+    public void invalidate(Long userId) {
+        invalidateNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            AfterCommit.run(() -> invalidateNow(userId));
+        }
+    }
+
+    private void invalidateNow(Long userId) {
+        invalidations.put(userId, Instant.now());
+        cache.asMap().values().removeIf(e -> Objects.equals(e.principal().getId(), userId));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
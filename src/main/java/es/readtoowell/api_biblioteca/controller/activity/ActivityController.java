@@ -0,0 +1,44 @@
+package es.readtoowell.api_biblioteca.controller.activity;
+
+import es.readtoowell.api_biblioteca.model.DTO.ActivityDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.service.activity.ActivityService;
+import es.readtoowell.api_biblioteca.service.user.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador que gestiona las peticiones HTTP relativas a la actividad de los usuarios seguidos.
+ */
+@RestController
+@RequestMapping("/actividad")
+public class ActivityController {
+    @Autowired
+    private ActivityService activityService;
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Devuelve la actividad reciente de los usuarios a los que sigue el usuario autenticado,
+     * usando paginación por cursor.
+     *
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con las actividades como DTOs y el cursor de la siguiente
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<ActivityDTO>> getFeed(@RequestParam(defaultValue = "") String cursor,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        CursorPageDTO<ActivityDTO> actividad = activityService.getFeed(user.getId(), cursor, size);
+
+        return ResponseEntity.ok(actividad);
+    }
+}
@@ -10,8 +10,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controlador que gestiona las peticiones HTTP relativas a la autenticación de usuarios.
+ * El inicio de sesión y el registro se resuelven de forma asíncrona, sin ocupar el hilo de la petición
+ * mientras se calcula el hash de la contraseña.
  */
 @RestController
 @RequestMapping("/auth")
@@ -26,14 +30,14 @@ public class AuthenticationController {
      * @return Token de sesión para el usuario
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthenticatedUserDTO> login(@Valid @RequestBody LoginDTO login) {
-        AuthenticatedUserDTO user = authService.login(login);
-
-        if (user.getToken() != null) {
-            return ResponseEntity.ok(user);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(user);
-        }
+    public CompletableFuture<ResponseEntity<AuthenticatedUserDTO>> login(@Valid @RequestBody LoginDTO login) {
+        return authService.login(login).thenApply(user -> {
+            if (user.getToken() != null) {
+                return ResponseEntity.ok(user);
+            } else {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(user);
+            }
+        });
     }
 
     /**
@@ -43,10 +47,10 @@ public class AuthenticationController {
      * @return DTO con los datos del usuario registrado
      */
     @PostMapping("/register")
-    public ResponseEntity<AuthenticatedUserDTO> register(@Valid @RequestBody RegisterDTO register) {
-        AuthenticatedUserDTO user = authService.register(register);
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(user);
+    public CompletableFuture<ResponseEntity<AuthenticatedUserDTO>> register(
+            @Valid @RequestBody RegisterDTO register) {
+        return authService.register(register)
+                .thenApply(user -> ResponseEntity.status(HttpStatus.CREATED).body(user));
     }
 
     /**
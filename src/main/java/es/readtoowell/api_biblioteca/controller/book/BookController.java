@@ -1,15 +1,18 @@
 package es.readtoowell.api_biblioteca.controller.book;
 
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.CollectionDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.AuthorDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookDetailsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.ReviewDTO;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.service.user.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -46,6 +49,23 @@ public class BookController {
         return ResponseEntity.ok(bookPage);
     }
 
+    /**
+     * Devuelve todos los libros usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @return Porción con los libros resultantes como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<BookDTO>> getBooksByCursor(@RequestParam("cursor") String cursor,
+                                                                  @RequestParam(value = "size", defaultValue = "10") int size) {
+
+        CursorPageDTO<BookDTO> books = bookService.getAllBooks(cursor, size);
+
+        return ResponseEntity.ok(books);
+    }
+
     /**
      * Devuelve un libro según su ID.
      *
@@ -69,12 +89,7 @@ public class BookController {
     @PostMapping
     public ResponseEntity<BookDTO> createBook(@Valid @RequestBody BookDTO book,
                                               @RequestParam List<Long> genreIds) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        BookDTO newBook = bookService.createBook(book, genreIds, user);
+        BookDTO newBook = bookService.createBook(book, genreIds);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(newBook);
     }
@@ -91,12 +106,7 @@ public class BookController {
     public ResponseEntity<BookDTO> updateBook(@PathVariable Long idBook,
                                               @Valid @RequestBody BookDTO book,
                                               @RequestParam List<Long> genreIds) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        BookDTO libro = bookService.updateBook(idBook, book, genreIds, user);
+        BookDTO libro = bookService.updateBook(idBook, book, genreIds);
 
         return ResponseEntity.ok(libro);
     }
@@ -109,13 +119,8 @@ public class BookController {
      */
     @DeleteMapping("/{idBook}")
     public ResponseEntity<BookDTO> deleteBook(@PathVariable Long idBook) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
         BookDTO libro = bookService.getBook(idBook);
-        BookDTO dto = bookService.deleteBook(libro, user);
+        BookDTO dto = bookService.deleteBook(libro);
 
         return ResponseEntity.ok(dto);
     }
@@ -128,13 +133,8 @@ public class BookController {
      */
     @PutMapping("/reactivar/{idBook}")
     public ResponseEntity<BookDTO> reactivateBook(@PathVariable Long idBook) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
         BookDTO libro = bookService.getBook(idBook);
-        BookDTO dto = bookService.reactivateBook(libro, user);
+        BookDTO dto = bookService.reactivateBook(libro);
 
         return ResponseEntity.ok(dto);
     }
@@ -149,6 +149,7 @@ public class BookController {
      * @param maxYear Año de publicación máximo para filtrar
      * @param page Número de la página que se quiere devolver
      * @param size Tamaño de la página
+     * @param ranked 'true' para ordenar los resultados por relevancia
      * @return Página con los libros resultantes como DTOs
      */
     @GetMapping("/buscar")
@@ -159,7 +160,8 @@ public class BookController {
             @RequestParam(required = false) Integer minYear,
             @RequestParam(required = false) Integer maxYear,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size)
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean ranked)
     {
         User user = userService.getAuthenticatedUser();
         if (user == null) {
@@ -167,7 +169,43 @@ public class BookController {
         }
 
         Page<BookDTO> libros = bookService.filterBooks(searchString, minPages, maxPages, minYear,
-                maxYear, page, size);
+                maxYear, page, size, ranked);
+
+        return ResponseEntity.ok(libros);
+    }
+
+    /**
+     * Busca libros por su título, autor o colección usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param searchString Cadena que se compara con el título, autor o colección
+     * @param minPages Mínimo de páginas para filtrar
+     * @param maxPages Máximo de páginas para filtrar
+     * @param minYear Año de publicación mínimo para filtrar
+     * @param maxYear Año de publicación máximo para filtrar
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @param ranked 'true' para ordenar los resultados por relevancia
+     * @return Porción con los libros resultantes como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(value = "/buscar", params = "cursor")
+    public ResponseEntity<CursorPageDTO<BookDTO>> searchBooksByCursor(
+            @RequestParam(required = false) String searchString,
+            @RequestParam(required = false) Integer minPages,
+            @RequestParam(required = false) Integer maxPages,
+            @RequestParam(required = false) Integer minYear,
+            @RequestParam(required = false) Integer maxYear,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean ranked)
+    {
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        CursorPageDTO<BookDTO> libros = bookService.filterBooks(searchString, minPages, maxPages, minYear,
+                maxYear, ranked, cursor, size);
 
         return ResponseEntity.ok(libros);
     }
@@ -196,7 +234,7 @@ public class BookController {
 
     /**
      * Devuelve los detalles completos de un libro para un usuario.
-     * Incluye la calificación, reseña y listas del usuario.
+     * Incluye la calificación, reseña y listas del usuario, y la primera página de reseñas de otros usuarios.
      *
      * @param idBook ID del libro
      * @return DTO con los detalles completos del libro
@@ -214,6 +252,31 @@ public class BookController {
         return ResponseEntity.ok(details);
     }
 
+    /**
+     * Devuelve las reseñas de un libro escritas por otros usuarios, usando paginación por cursor.
+     *
+     * @param idBook ID del libro
+     * @param sort Orden de las reseñas: {@code recientes} o {@code calificacion}
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con las reseñas como DTOs y el cursor de la siguiente
+     */
+    @GetMapping("/{idBook}/resenas")
+    public ResponseEntity<CursorPageDTO<ReviewDTO>> getBookReviews(@PathVariable Long idBook,
+                                                                   @RequestParam(defaultValue = "recientes") String sort,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "10") int size) {
+
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        CursorPageDTO<ReviewDTO> reviews = bookService.getBookReviews(idBook, user, sort, cursor, size);
+
+        return ResponseEntity.ok(reviews);
+    }
+
     /**
      * Devuelve los libros escritos por un autor que tiene cuenta de usuario.
      *
@@ -279,7 +342,7 @@ public class BookController {
     public ResponseEntity<List<GenreDTO>> getGenres() {
         List<GenreDTO> genres = bookService.getGenres();
 
-        return ResponseEntity.ok(genres);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(genres);
     }
 
     /**
@@ -292,12 +355,7 @@ public class BookController {
     @GetMapping("/desactivados")
     public ResponseEntity<Page<BookDTO>> getDeletedBooks(@RequestParam(value = "page", defaultValue = "0") int page,
                                                          @RequestParam(value = "size", defaultValue = "10") int size) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        Page<BookDTO> books = bookService.getDeletedBooks(page, size, user);
+        Page<BookDTO> books = bookService.getDeletedBooks(page, size);
 
         return ResponseEntity.ok(books);
     }
@@ -311,7 +369,7 @@ public class BookController {
     public ResponseEntity<List<CollectionDTO>> getCollections() {
         List<CollectionDTO> collections = bookService.getCollections();
 
-        return ResponseEntity.ok(collections);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(collections);
     }
 
     /**
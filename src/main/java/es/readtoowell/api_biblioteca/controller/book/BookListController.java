@@ -1,6 +1,7 @@
 package es.readtoowell.api_biblioteca.controller.book;
 
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.BookListSummaryDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDetailsDTO;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.service.book.BookListService;
@@ -27,14 +28,14 @@ public class BookListController {
     private UserService userService;
 
     /**
-     * Devuelve las listas de un usuario.
+     * Devuelve los resúmenes de las listas de un usuario.
      *
      * @param page Número de la página que se quiere devolver
      * @param size Tamaño de la página
-     * @return Página con las listas resultantes como DTOs
+     * @return Página con los resúmenes de las listas como DTOs
      */
     @GetMapping
-    public ResponseEntity<Page<BookListDTO>> getListsByUser(
+    public ResponseEntity<Page<BookListSummaryDTO>> getListsByUser(
                                                     @RequestParam(value = "page", defaultValue = "0") int page,
                                                     @RequestParam(value = "size", defaultValue = "10") int size) {
 
@@ -43,7 +44,7 @@ public class BookListController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        Page<BookListDTO> listas = listService.getListsByUser(user.getId(), page, size);
+        Page<BookListSummaryDTO> listas = listService.getListsByUser(user.getId(), page, size);
         return ResponseEntity.ok(listas);
     }
 
@@ -69,6 +70,29 @@ public class BookListController {
         return ResponseEntity.ok(lista);
     }
 
+    /**
+     * Devuelve los detalles de una lista, con paginación por cursor para los libros incluidos en esta.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param idList ID de la lista
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @return DTO con los detalles de la lista incluyendo la porción de libros
+     */
+    @GetMapping(value = "/{idList}", params = "cursor")
+    public ResponseEntity<BookListDetailsDTO> getListDetailsByCursor(
+                                                        @PathVariable Long idList,
+                                                        @RequestParam("cursor") String cursor,
+                                                        @RequestParam(value = "size", defaultValue = "10") int size) {
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        BookListDetailsDTO lista = listService.getListDetails(user.getId(), idList, cursor, size);
+        return ResponseEntity.ok(lista);
+    }
+
     /**
      * Crea una nueva lista para un usuario.
      *
@@ -175,10 +199,10 @@ public class BookListController {
      * @param idBook ID del libro a excluir
      * @param page Número de la página
      * @param size Tamaño de la página
-     * @return Página con las listas resultantes de la búsqueda
+     * @return Página con los resúmenes de las listas resultantes de la búsqueda
      */
     @GetMapping("/{idBook}/otras-listas")
-    public ResponseEntity<Page<BookListDTO>> getListsWithoutBook(
+    public ResponseEntity<Page<BookListSummaryDTO>> getListsWithoutBook(
                                                         @PathVariable Long idBook,
                                                         @RequestParam(value = "page", defaultValue = "0") int page,
                                                         @RequestParam(value = "size", defaultValue = "100") int size) {
@@ -187,7 +211,7 @@ public class BookListController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        Page<BookListDTO> lists = listService.getListsWithoutBook(idBook, user.getId(), page, size);
+        Page<BookListSummaryDTO> lists = listService.getListsWithoutBook(idBook, user.getId(), page, size);
 
         return ResponseEntity.ok(lists);
     }
@@ -195,16 +219,16 @@ public class BookListController {
     /**
      * Devuelve todas las listas de un usuario que tienen al menos un libro o un género asociado.
      *
-     * @return Listado con las listas resultantes
+     * @return Listado con los resúmenes de las listas resultantes
      */
     @GetMapping("/todas-no-vacias")
-    public ResponseEntity<List<BookListDTO>> getAllListsExcludingEmpty() {
+    public ResponseEntity<List<BookListSummaryDTO>> getAllListsExcludingEmpty() {
         User user = userService.getAuthenticatedUser();
         if (user == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<BookListDTO> lists = listService.getAllListsExcludingEmpty(user.getId());
+        List<BookListSummaryDTO> lists = listService.getAllListsExcludingEmpty(user.getId());
 
         return ResponseEntity.ok(lists);
     }
@@ -1,5 +1,6 @@
 package es.readtoowell.api_biblioteca.controller.book;
 
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.SuggestionDTO;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.service.book.SuggestionService;
@@ -51,12 +52,7 @@ public class SuggestionController {
     @PutMapping("/{idSuggestion}")
     public ResponseEntity<SuggestionDTO> updateStatusSuggestion(@PathVariable Long idSuggestion,
                                                                 @RequestParam int newStatus) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        SuggestionDTO dto = suggestionService.updateStatusSuggestion(idSuggestion, newStatus, user);
+        SuggestionDTO dto = suggestionService.updateStatusSuggestion(idSuggestion, newStatus);
 
         return ResponseEntity.ok(dto);
     }
@@ -73,12 +69,25 @@ public class SuggestionController {
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size) {
 
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
+        Page<SuggestionDTO> suggestions = suggestionService.getAllSuggestions(page, size);
 
-        Page<SuggestionDTO> suggestions = suggestionService.getAllSuggestions(page, size, user);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Devuelve todas las sugerencias usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @return Porción con las sugerencias como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<SuggestionDTO>> getAllSuggestionsByCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+
+        CursorPageDTO<SuggestionDTO> suggestions = suggestionService.getAllSuggestions(cursor, size);
 
         return ResponseEntity.ok(suggestions);
     }
@@ -97,12 +106,27 @@ public class SuggestionController {
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "status", defaultValue = "0") int status) {
 
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
+        Page<SuggestionDTO> suggestions = suggestionService.getSuggestionsWithStatus(page, size, status);
 
-        Page<SuggestionDTO> suggestions = suggestionService.getSuggestionsWithStatus(page, size, status, user);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Devuelve todas las sugerencias con un estado específico usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @param status Estado por el que se quieren filtrar
+     * @return Porción con las sugerencias filtradas como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(value = "/estado", params = "cursor")
+    public ResponseEntity<CursorPageDTO<SuggestionDTO>> getSuggestionsWithStatusByCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "status", defaultValue = "0") int status) {
+
+        CursorPageDTO<SuggestionDTO> suggestions = suggestionService.getSuggestionsWithStatus(cursor, size, status);
 
         return ResponseEntity.ok(suggestions);
     }
@@ -115,12 +139,7 @@ public class SuggestionController {
      */
     @GetMapping("/{idSuggestion}")
     public ResponseEntity<SuggestionDTO> getSuggestion(@PathVariable Long idSuggestion) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        SuggestionDTO suggestion = suggestionService.getSuggestion(idSuggestion, user);
+        SuggestionDTO suggestion = suggestionService.getSuggestion(idSuggestion);
 
         return ResponseEntity.ok(suggestion);
     }
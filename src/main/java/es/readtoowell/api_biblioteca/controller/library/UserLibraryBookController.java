@@ -1,5 +1,6 @@
 package es.readtoowell.api_biblioteca.controller.library;
 
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.RatingDTO;
 import es.readtoowell.api_biblioteca.model.DTO.UserLibraryBookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.YearRecapDTO;
@@ -13,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 /**
  * Controlador que gestiona las peticiones HTTP relativas a las bibliotecas de los usuarios.
  */
@@ -46,6 +49,29 @@ public class UserLibraryBookController {
         return ResponseEntity.ok(libros);
     }
 
+    /**
+     * Devuelve los libros de la biblioteca de un usuario usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @return Porción con los libros de la biblioteca del usuario como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(value = "/todos", params = "cursor")
+    public ResponseEntity<CursorPageDTO<UserLibraryBookDTO>> getLibraryBooksByCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        CursorPageDTO<UserLibraryBookDTO> libros = libraryService.getLibraryFromUser(user, cursor, size);
+
+        return ResponseEntity.ok(libros);
+    }
+
     /**
      * Devuelve los libros de la biblioteca de un usuario con un estado de lectura concreto.
      *
@@ -70,6 +96,32 @@ public class UserLibraryBookController {
         return ResponseEntity.ok(libros);
     }
 
+    /**
+     * Devuelve los libros de la biblioteca de un usuario con un estado de lectura concreto
+     * usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @param status Estado por el que se quiere filtrar
+     * @return Porción con los libros de la biblioteca del usuario filtrados como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<UserLibraryBookDTO>> getLibraryBooksByStatusAndCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam int status) {
+
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        CursorPageDTO<UserLibraryBookDTO> libros = libraryService.getLibraryByStatus(user, status, cursor, size);
+
+        return ResponseEntity.ok(libros);
+    }
+
     /**
      * Añade un libro a la biblioteca de un usuario.
      *
@@ -191,16 +243,17 @@ public class UserLibraryBookController {
     /**
      * Devuelve el resumen anual de un usuario.
      *
+     * @param year Año del resumen. Si no se indica, se devuelve el del año actual
      * @return DTO con los datos del resumen anual
      */
     @GetMapping("/resumen-anual")
-    public ResponseEntity<YearRecapDTO> getYearRecap() {
+    public ResponseEntity<YearRecapDTO> getYearRecap(@RequestParam(required = false) Integer year) {
         User user = userService.getAuthenticatedUser();
         if (user == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        YearRecapDTO recap = libraryService.getYearRecap(user);
+        YearRecapDTO recap = libraryService.getYearRecap(user, year != null ? year : LocalDate.now().getYear());
 
         return ResponseEntity.ok(recap);
     }
@@ -1,6 +1,7 @@
 package es.readtoowell.api_biblioteca.controller.user;
 
 import es.readtoowell.api_biblioteca.model.DTO.AuthorRequestDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.service.user.AuthorRequestService;
 import es.readtoowell.api_biblioteca.service.user.UserService;
@@ -51,12 +52,7 @@ public class AuthorRequestController {
     @PutMapping("/{idRequest}")
     public ResponseEntity<AuthorRequestDTO> updateStatusRequest(@PathVariable Long idRequest,
                                                                 @RequestParam int newStatus) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        AuthorRequestDTO dto = requestService.updateStatusRequest(idRequest, newStatus, user);
+        AuthorRequestDTO dto = requestService.updateStatusRequest(idRequest, newStatus);
 
         return ResponseEntity.ok(dto);
     }
@@ -73,12 +69,25 @@ public class AuthorRequestController {
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size) {
 
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
+        Page<AuthorRequestDTO> requests = requestService.getAllRequests(page, size);
 
-        Page<AuthorRequestDTO> requests = requestService.getAllRequests(page, size, user);
+        return ResponseEntity.ok(requests);
+    }
+
+    /**
+     * Devuelve todas las solicitudes de verificación de autor usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @return Porción con las solicitudes como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<AuthorRequestDTO>> getAllRequestsByCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+
+        CursorPageDTO<AuthorRequestDTO> requests = requestService.getAllRequests(cursor, size);
 
         return ResponseEntity.ok(requests);
     }
@@ -97,12 +106,27 @@ public class AuthorRequestController {
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "status", defaultValue = "0") int status) {
 
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
+        Page<AuthorRequestDTO> requests = requestService.getRequestsWithStatus(page, size, status);
+
+        return ResponseEntity.ok(requests);
+    }
+
+    /**
+     * Devuelve todas las solicitudes de verificación de autor con un estado específico usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @param status Estado por el que se quieren filtrar
+     * @return Porción con las solicitudes filtradas como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(value = "/estado", params = "cursor")
+    public ResponseEntity<CursorPageDTO<AuthorRequestDTO>> getRequestsWithStatusByCursor(
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "status", defaultValue = "0") int status) {
 
-        Page<AuthorRequestDTO> requests = requestService.getRequestsWithStatus(page, size, status, user);
+        CursorPageDTO<AuthorRequestDTO> requests = requestService.getRequestsWithStatus(cursor, size, status);
 
         return ResponseEntity.ok(requests);
     }
@@ -115,12 +139,7 @@ public class AuthorRequestController {
      */
     @GetMapping("/{idRequest}")
     public ResponseEntity<AuthorRequestDTO> getRequest(@PathVariable Long idRequest) {
-        User user = userService.getAuthenticatedUser();
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-
-        AuthorRequestDTO request = requestService.getRequest(idRequest, user);
+        AuthorRequestDTO request = requestService.getRequest(idRequest);
 
         return ResponseEntity.ok(request);
     }
@@ -1,5 +1,7 @@
 package es.readtoowell.api_biblioteca.controller.user;
 
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.DTO.user.FollowCountsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UpdateProfileDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserFavoritesDTO;
@@ -170,6 +172,72 @@ public class UserController {
         return ResponseEntity.ok(seguidores);
     }
 
+    /**
+     * Devuelve los usuarios que sigue un usuario específico usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param id ID del usuario del que se consultan los seguidos
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @return Porción con los usuarios seguidos como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(value = "/{id}/seguidos", params = "cursor")
+    public ResponseEntity<CursorPageDTO<UserDTO>> getFollowsByCursor(
+            @PathVariable Long id,
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        CursorPageDTO<UserDTO> seguidos = userService.getFollows(id, cursor, size);
+
+        return ResponseEntity.ok(seguidos);
+    }
+
+    /**
+     * Devuelve los seguidores de un usuario específico usando paginación por cursor.
+     * Se usa cuando la petición incluye el parámetro {@code cursor} (vacío para la primera porción).
+     *
+     * @param id ID del usuario del que se consultan los seguidores
+     * @param cursor Cursor devuelto en la porción anterior
+     * @param size Tamaño de la porción
+     * @return Porción con los usuarios seguidores como DTOs y el cursor de la siguiente
+     */
+    @GetMapping(value = "/{id}/seguidores", params = "cursor")
+    public ResponseEntity<CursorPageDTO<UserDTO>> getFollowersByCursor(
+            @PathVariable Long id,
+            @RequestParam("cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        CursorPageDTO<UserDTO> seguidores = userService.getFollowers(id, cursor, size);
+
+        return ResponseEntity.ok(seguidores);
+    }
+
+    /**
+     * Devuelve el número de seguidores y seguidos de un usuario y si el usuario autenticado le sigue.
+     *
+     * @param id ID del usuario
+     * @return DTO con los contadores de seguimiento
+     */
+    @GetMapping("/{id}/seguimiento")
+    public ResponseEntity<FollowCountsDTO> getFollowCounts(@PathVariable Long id) {
+        User user = userService.getAuthenticatedUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        FollowCountsDTO contadores = userService.getFollowCounts(id, user.getId());
+
+        return ResponseEntity.ok(contadores);
+    }
+
     /**
      * Un usuario sigue a otro usuario.
      *
@@ -241,7 +309,7 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        userService.addFavoriteGenres(user, genreIds);
+        userService.addFavoriteGenres(user.getId(), genreIds);
 
         UserFavoritesDTO favorites = userService.getFavorites(user.getId());
 
@@ -261,7 +329,7 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        userService.addFavoriteBooks(user, bookIds);
+        userService.addFavoriteBooks(user.getId(), bookIds);
 
         UserFavoritesDTO favorites = userService.getFavorites(user.getId());
 
@@ -293,9 +361,7 @@ public class UserController {
      */
     @GetMapping("/verificar-admin")
     public ResponseEntity<Boolean> verifyAdmin() {
-        User user = userService.getAuthenticatedUser();
-
-        return ResponseEntity.ok(userService.verifyAdmin(user));
+        return ResponseEntity.ok(userService.verifyAdmin());
     }
 
     /**
@@ -2,6 +2,8 @@ package es.readtoowell.api_biblioteca.exception;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.nio.file.AccessDeniedException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Manejador de excepciones.
@@ -64,6 +67,22 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(e.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * Maneja el rechazo de operaciones por tener una cola de trabajo llena, o las consultas que superan
+     * su tiempo máximo, y devuelve un error 503, indicando al cliente que vuelva a intentarlo en unos segundos.
+     *
+     * @param e Excepción de operación rechazada o de tiempo agotado.
+     * @return Respuesta con el mensaje de error y código 503.
+     */
+    @ExceptionHandler({RejectedExecutionException.class, QueryTimeoutException.class})
+    public ResponseEntity<Map<String, String>> handleServiceBusyException(RuntimeException e) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     /**
      * Construye la respuesta de error.
      *
@@ -2,6 +2,7 @@ package es.readtoowell.api_biblioteca.mapper;
 
 import es.readtoowell.api_biblioteca.model.entity.BookListItem;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListItemDTO;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 
 /**
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Component;
 public class BookListItemMapper {
     /**
      * Convierte una instancia de {@code BookListItem} en {@code BookListItemDTO}.
+     * Carga los géneros del libro, ya que el DTO se serializa fuera de la transacción.
      *
      * @param item La entidad {@code BookListItem} a convertir.
      * @return Una instancia de {@code BookListItemDTO} con los datos del libro.
@@ -19,6 +21,7 @@ public class BookListItemMapper {
         BookListItemDTO dto = new BookListItemDTO();
 
         dto.setId(item.getId());
+        Hibernate.initialize(item.getBook().getGenres());
         dto.setBook(item.getBook());
         dto.setDateAdded(item.getDateAdded());
 
@@ -2,9 +2,13 @@ package es.readtoowell.api_biblioteca.mapper;
 
 import es.readtoowell.api_biblioteca.model.entity.BookList;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.BookListSummaryDTO;
+import es.readtoowell.api_biblioteca.model.projection.BookListSummaryRow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +44,28 @@ public class BookListMapper {
         return dto;
     }
 
+    /**
+     * Convierte el resumen de una lista obtenido de la base de datos en {@code BookListSummaryDTO}.
+     *
+     * @param row La proyección {@code BookListSummaryRow} a convertir.
+     * @return Una instancia de {@code BookListSummaryDTO} con los datos resumidos de la lista.
+     */
+    public BookListSummaryDTO toSummaryDTO(BookListSummaryRow row) {
+        BookListSummaryDTO dto = new BookListSummaryDTO();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setBookCount(row.getBookCount());
+        if (row.getCovers() != null && !row.getCovers().isEmpty()) {
+            dto.setCovers(List.of(row.getCovers().split("\n")));
+        }
+        if (row.getGenreIds() != null && !row.getGenreIds().isEmpty()) {
+            dto.setGenreIds(Arrays.stream(row.getGenreIds().split(","))
+                    .map(Long::valueOf)
+                    .collect(Collectors.toList()));
+        }
+        return dto;
+    }
+
     /**
      * Convierte una instancia de {@code BookListDTO} en {@code BookList}.
      *
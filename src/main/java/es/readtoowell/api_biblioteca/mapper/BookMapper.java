@@ -4,6 +4,7 @@ import es.readtoowell.api_biblioteca.model.DTO.book.BookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
 import es.readtoowell.api_biblioteca.model.entity.Book;
 import es.readtoowell.api_biblioteca.model.entity.Genre;
+import es.readtoowell.api_biblioteca.model.projection.BookRow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -49,6 +50,33 @@ public class BookMapper {
         return dto;
     }
 
+    /**
+     * Convierte las columnas de un libro obtenidas en una proyección en {@code BookDTO}.
+     *
+     * @param row La proyección {@code BookRow} a convertir.
+     * @param genres Géneros del libro, consultados aparte.
+     * @return Una instancia de {@code BookDTO} con los datos del libro.
+     */
+    public BookDTO toDTO(BookRow row, List<GenreDTO> genres) {
+        BookDTO dto = new BookDTO();
+
+        dto.setId(row.getBookId());
+        dto.setTitle(row.getTitle());
+        dto.setAuthor(row.getAuthor());
+        dto.setPublicationYear(row.getPublicationYear());
+        dto.setPageNumber(row.getPageNumber());
+        dto.setPublisher(row.getPublisher());
+        dto.setSynopsis(row.getSynopsis());
+        dto.setCover(row.getCover());
+        dto.setIsbn(row.getIsbn());
+        dto.setActive(row.isActive());
+        dto.setNumCollection(row.getNumCollection());
+        dto.setCollectionId(row.getCollectionId());
+        dto.setGenres(genres);
+
+        return dto;
+    }
+
     /**
      * Convierte una instancia de {@code BookDTO} en {@code Book}.
      *
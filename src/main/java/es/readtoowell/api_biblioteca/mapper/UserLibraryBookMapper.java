@@ -1,10 +1,15 @@
 package es.readtoowell.api_biblioteca.mapper;
 
 import es.readtoowell.api_biblioteca.model.DTO.UserLibraryBookDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
 import es.readtoowell.api_biblioteca.model.entity.UserLibraryBook;
+import es.readtoowell.api_biblioteca.model.entity.id.UserLibraryBookId;
+import es.readtoowell.api_biblioteca.model.projection.LibraryBookRow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Mapeador encargado de gestionar las conversiones de libros de una biblioteca entre entidades y DTOs.
  */
@@ -35,6 +40,29 @@ public class UserLibraryBookMapper {
         return dto;
     }
 
+    /**
+     * Convierte un libro de la biblioteca obtenido en una proyección en {@code UserLibraryBookDTO}.
+     *
+     * @param row La proyección {@code LibraryBookRow} a convertir.
+     * @param genres Géneros del libro, consultados aparte.
+     * @return Una instancia de {@code UserLibraryBookDTO} con los datos del libro.
+     */
+    public UserLibraryBookDTO toDTO(LibraryBookRow row, List<GenreDTO> genres) {
+        UserLibraryBookDTO dto = new UserLibraryBookDTO();
+
+        dto.setId(new UserLibraryBookId(row.getUserId(), row.getBookId()));
+        dto.setBook(bookMapper.toDTO(row, genres));
+        dto.setDateStart(row.getDateStart());
+        dto.setDateFinish(row.getDateFinish());
+        dto.setRating(row.getRating());
+        dto.setReview(row.getReview());
+        dto.setReadingStatus(row.getReadingStatus());
+        dto.setProgress(row.getProgress());
+        dto.setProgressType(row.getProgressType());
+
+        return dto;
+    }
+
     /**
      * Convierte una instancia de {@code UserLibraryBookDTO} en {@code UserLibraryBook}.
      *
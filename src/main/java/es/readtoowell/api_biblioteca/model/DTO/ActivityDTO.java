@@ -0,0 +1,222 @@
+package es.readtoowell.api_biblioteca.model.DTO;
+
+import es.readtoowell.api_biblioteca.model.DTO.book.SimpleBookDTO;
+
+import java.util.Date;
+
+/**
+ * DTO que representa una actividad de un usuario seguido en el inicio de otro usuario.
+ */
+public class ActivityDTO {
+    private Long id;
+    private int type;
+    private Long userId;
+    private String username;
+    private String profileName;
+    private String profilePic;
+    private SimpleBookDTO book;
+    private Long listId;
+    private String listName;
+    private double value;
+    private Date date;
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador de la actividad.
+     *
+     * @return ID de la actividad
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Establece un valor para el identificador de la actividad.
+     *
+     * @param id Nuevo ID de la actividad
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Devuelve el tipo de la actividad.
+     *
+     * @return Tipo de la actividad
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Establece un valor para el tipo de la actividad.
+     *
+     * @param type Nuevo tipo de la actividad
+     */
+    public void setType(int type) {
+        this.type = type;
+    }
+
+    /**
+     * Devuelve el identificador del usuario que ha realizado la actividad.
+     *
+     * @return ID del usuario
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Establece un valor para el identificador del usuario que ha realizado la actividad.
+     *
+     * @param userId Nuevo ID del usuario
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Devuelve el nombre de usuario de quien ha realizado la actividad.
+     *
+     * @return Nombre de usuario
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Establece un valor para el nombre de usuario de quien ha realizado la actividad.
+     *
+     * @param username Nuevo nombre de usuario
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Devuelve el nombre de perfil de quien ha realizado la actividad.
+     *
+     * @return Nombre de perfil
+     */
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * Establece un valor para el nombre de perfil de quien ha realizado la actividad.
+     *
+     * @param profileName Nuevo nombre de perfil
+     */
+    public void setProfileName(String profileName) {
+        this.profileName = profileName;
+    }
+
+    /**
+     * Devuelve la foto de perfil de quien ha realizado la actividad.
+     *
+     * @return Foto de perfil
+     */
+    public String getProfilePic() {
+        return profilePic;
+    }
+
+    /**
+     * Establece un valor para la foto de perfil de quien ha realizado la actividad.
+     *
+     * @param profilePic Nueva foto de perfil
+     */
+    public void setProfilePic(String profilePic) {
+        this.profilePic = profilePic;
+    }
+
+    /**
+     * Devuelve el libro al que se refiere la actividad.
+     *
+     * @return DTO con los datos resumidos del libro
+     */
+    public SimpleBookDTO getBook() {
+        return book;
+    }
+
+    /**
+     * Establece un valor para el libro al que se refiere la actividad.
+     *
+     * @param book Nuevo libro
+     */
+    public void setBook(SimpleBookDTO book) {
+        this.book = book;
+    }
+
+    /**
+     * Devuelve el identificador de la lista a la que se ha añadido el libro.
+     *
+     * @return ID de la lista, 'null' si la actividad no se refiere a una lista
+     */
+    public Long getListId() {
+        return listId;
+    }
+
+    /**
+     * Establece un valor para el identificador de la lista a la que se ha añadido el libro.
+     *
+     * @param listId Nuevo ID de la lista
+     */
+    public void setListId(Long listId) {
+        this.listId = listId;
+    }
+
+    /**
+     * Devuelve el nombre de la lista a la que se ha añadido el libro.
+     *
+     * @return Nombre de la lista, 'null' si la actividad no se refiere a una lista
+     */
+    public String getListName() {
+        return listName;
+    }
+
+    /**
+     * Establece un valor para el nombre de la lista a la que se ha añadido el libro.
+     *
+     * @param listName Nuevo nombre de la lista
+     */
+    public void setListName(String listName) {
+        this.listName = listName;
+    }
+
+    /**
+     * Devuelve el valor asociado a la actividad: el nuevo estado de lectura o la calificación.
+     *
+     * @return Valor de la actividad
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Establece un valor para el valor asociado a la actividad: el nuevo estado de lectura o la calificación.
+     *
+     * @param value Nuevo valor de la actividad
+     */
+    public void setValue(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Devuelve la fecha de la actividad.
+     *
+     * @return Fecha de la actividad
+     */
+    public Date getDate() {
+        return date;
+    }
+
+    /**
+     * Establece un valor para la fecha de la actividad.
+     *
+     * @param date Nueva fecha de la actividad
+     */
+    public void setDate(Date date) {
+        this.date = date;
+    }
+}
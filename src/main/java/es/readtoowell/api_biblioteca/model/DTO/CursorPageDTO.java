@@ -0,0 +1,106 @@
+package es.readtoowell.api_biblioteca.model.DTO;
+
+import java.util.List;
+
+/**
+ * DTO que representa una porción de resultados obtenida con paginación por cursor.
+ * No incluye el número total de resultados: para pedir la siguiente porción basta con enviar {@code nextCursor}.
+ *
+ * @param <T> Tipo de los elementos
+ */
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public CursorPageDTO() {}
+    /**
+     * Constructor que inicializa todos los campos de la porción.
+     *
+     * @param content Elementos de la porción
+     * @param size Tamaño de la porción solicitado
+     * @param hasNext Indica si hay más elementos después de esta porción
+     * @param nextCursor Cursor para pedir la siguiente porción, 'null' si no hay más elementos
+     */
+    public CursorPageDTO(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve los elementos de la porción.
+     *
+     * @return Lista de elementos
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Establece un nuevo valor para los elementos de la porción.
+     *
+     * @param content Nueva lista de elementos
+     */
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    /**
+     * Devuelve el tamaño de la porción solicitado.
+     *
+     * @return Tamaño de la porción
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Establece un nuevo valor para el tamaño de la porción.
+     *
+     * @param size Nuevo tamaño de la porción
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Indica si hay más elementos después de esta porción.
+     *
+     * @return 'true' si hay más elementos, 'false' en caso contrario
+     */
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Establece si hay más elementos después de esta porción.
+     *
+     * @param hasNext 'true' si hay más elementos, 'false' en caso contrario
+     */
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Devuelve el cursor para pedir la siguiente porción.
+     *
+     * @return Cursor de la siguiente porción, 'null' si no hay más elementos
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Establece un nuevo valor para el cursor de la siguiente porción.
+     *
+     * @param nextCursor Nuevo cursor
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
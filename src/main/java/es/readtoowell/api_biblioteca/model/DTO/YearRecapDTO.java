@@ -9,11 +9,15 @@ import java.util.List;
  * DTO que representa los detalles del resumen anual de un usuario.
  */
 public class YearRecapDTO {
+    private int year;
     private List<GoalDTO> annualGoals;
     private long totalBooksRead;
     private long totalPagesRead;
     private List<GenreDTO> mostReadGenres;
     private List<SimpleBookDTO> topRatedBooks;
+    private int[] ratingHistogram;
+    private int[] booksReadByMonth;
+    private long[] pagesReadByMonth;
 
     // Métodos Getters y Setters
 
@@ -106,4 +110,77 @@ public class YearRecapDTO {
     public void setTopRatedBooks(List<SimpleBookDTO> topRatedBooks) {
         this.topRatedBooks = topRatedBooks;
     }
+
+    /**
+     * Devuelve el año del resumen.
+     *
+     * @return Año del resumen
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Establece un valor para el año del resumen.
+     *
+     * @param year Nuevo año del resumen
+     */
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    /**
+     * Devuelve el histograma de calificaciones de los libros leídos en el año.
+     * La posición {@code i} contiene el número de calificaciones iguales a {@code (i + 1) / 2}.
+     *
+     * @return Histograma de calificaciones
+     */
+    public int[] getRatingHistogram() {
+        return ratingHistogram;
+    }
+
+    /**
+     * Establece un valor para el histograma de calificaciones de los libros leídos en el año.
+     *
+     * @param ratingHistogram Nuevo histograma de calificaciones
+     */
+    public void setRatingHistogram(int[] ratingHistogram) {
+        this.ratingHistogram = ratingHistogram;
+    }
+
+    /**
+     * Devuelve el número de libros leídos en cada mes del año (posición 0 para enero).
+     *
+     * @return Libros leídos por mes
+     */
+    public int[] getBooksReadByMonth() {
+        return booksReadByMonth;
+    }
+
+    /**
+     * Establece un valor para el número de libros leídos en cada mes del año.
+     *
+     * @param booksReadByMonth Nuevos libros leídos por mes
+     */
+    public void setBooksReadByMonth(int[] booksReadByMonth) {
+        this.booksReadByMonth = booksReadByMonth;
+    }
+
+    /**
+     * Devuelve el número de páginas leídas en cada mes del año (posición 0 para enero).
+     *
+     * @return Páginas leídas por mes
+     */
+    public long[] getPagesReadByMonth() {
+        return pagesReadByMonth;
+    }
+
+    /**
+     * Establece un valor para el número de páginas leídas en cada mes del año.
+     *
+     * @param pagesReadByMonth Nuevas páginas leídas por mes
+     */
+    public void setPagesReadByMonth(long[] pagesReadByMonth) {
+        this.pagesReadByMonth = pagesReadByMonth;
+    }
 }
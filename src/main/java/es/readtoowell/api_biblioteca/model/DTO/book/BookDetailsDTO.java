@@ -19,9 +19,13 @@ public class BookDetailsDTO {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd", timezone = "Europe/Madrid")
     private Date dateFinish;
     private double averageRating;
+    private int ratingCount;
+    private int[] ratingHistogram;
     private String collectionName;
     private List<SimpleBookListDTO> lists;
     private List<ReviewDTO> otherUsersReviews;
+    private long otherUsersReviewCount;
+    private String otherUsersReviewsCursor;
     private boolean saved;
 
     // Métodos Getters y Setters
@@ -152,6 +156,42 @@ public class BookDetailsDTO {
         this.averageRating = averageRating;
     }
 
+    /**
+     * Devuelve el número de calificaciones del libro.
+     *
+     * @return Número de calificaciones
+     */
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    /**
+     * Establece un valor para el número de calificaciones del libro.
+     *
+     * @param ratingCount Nuevo número de calificaciones
+     */
+    public void setRatingCount(int ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    /**
+     * Devuelve el histograma de calificaciones del libro, de 0.5 a 5 en incrementos de 0.5.
+     *
+     * @return Histograma de calificaciones
+     */
+    public int[] getRatingHistogram() {
+        return ratingHistogram;
+    }
+
+    /**
+     * Establece un valor para el histograma de calificaciones del libro.
+     *
+     * @param ratingHistogram Nuevo histograma de calificaciones
+     */
+    public void setRatingHistogram(int[] ratingHistogram) {
+        this.ratingHistogram = ratingHistogram;
+    }
+
     /**
      * Devuelve el nombre de la colección del libro.
      *
@@ -206,6 +246,42 @@ public class BookDetailsDTO {
         this.otherUsersReviews = otherUsersReviews;
     }
 
+    /**
+     * Devuelve el número total de reseñas de otros usuarios, incluidas las que no se devuelven en los detalles.
+     *
+     * @return Número total de reseñas de otros usuarios
+     */
+    public long getOtherUsersReviewCount() {
+        return otherUsersReviewCount;
+    }
+
+    /**
+     * Establece el número total de reseñas de otros usuarios.
+     *
+     * @param otherUsersReviewCount Nuevo número total de reseñas
+     */
+    public void setOtherUsersReviewCount(long otherUsersReviewCount) {
+        this.otherUsersReviewCount = otherUsersReviewCount;
+    }
+
+    /**
+     * Devuelve el cursor para obtener el resto de reseñas de otros usuarios.
+     *
+     * @return Cursor de la siguiente porción de reseñas, 'null' si no hay más
+     */
+    public String getOtherUsersReviewsCursor() {
+        return otherUsersReviewsCursor;
+    }
+
+    /**
+     * Establece el cursor para obtener el resto de reseñas de otros usuarios.
+     *
+     * @param otherUsersReviewsCursor Nuevo cursor de la siguiente porción de reseñas
+     */
+    public void setOtherUsersReviewsCursor(String otherUsersReviewsCursor) {
+        this.otherUsersReviewsCursor = otherUsersReviewsCursor;
+    }
+
     /**
      * Comprueba si el libro está guardado en la biblioteca del usuario.
      *
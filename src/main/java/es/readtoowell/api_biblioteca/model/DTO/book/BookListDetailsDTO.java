@@ -1,5 +1,6 @@
 package es.readtoowell.api_biblioteca.model.DTO.book;
 
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.Page;
@@ -17,6 +18,7 @@ public class BookListDetailsDTO {
     private String description;
     private List<GenreDTO> genres;
     private Page<BookListItemDTO> books;
+    private CursorPageDTO<BookListItemDTO> booksSlice;
 
     // Métodos Getters y Setters
 
@@ -109,4 +111,22 @@ public class BookListDetailsDTO {
     public void setBooks(Page<BookListItemDTO> books) {
         this.books = books;
     }
+
+    /**
+     * Devuelve los libros pertenecientes a una lista cuando se consultan con paginación por cursor.
+     *
+     * @return Porción con los libros de la lista
+     */
+    public CursorPageDTO<BookListItemDTO> getBooksSlice() {
+        return booksSlice;
+    }
+
+    /**
+     * Establece los libros pertenecientes a una lista consultados con paginación por cursor.
+     *
+     * @param booksSlice Nueva porción con los libros de la lista
+     */
+    public void setBooksSlice(CursorPageDTO<BookListItemDTO> booksSlice) {
+        this.booksSlice = booksSlice;
+    }
 }
@@ -0,0 +1,108 @@
+package es.readtoowell.api_biblioteca.model.DTO.book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO que representa el resumen de una lista de libros, usado en los listados de listas.
+ * Los libros completos solo se devuelven en los detalles de la lista.
+ */
+public class BookListSummaryDTO {
+    private Long id;
+    private String name;
+    private int bookCount;
+    private List<String> covers = new ArrayList<>();
+    private List<Long> genreIds = new ArrayList<>();
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador de la lista.
+     *
+     * @return ID de la lista
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Establece un valor para el identificador de la lista.
+     *
+     * @param id Nuevo ID de la lista
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Devuelve el nombre de la lista.
+     *
+     * @return Nombre de la lista
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Establece un valor para el nombre de la lista.
+     *
+     * @param name Nuevo nombre de la lista
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Devuelve el número de libros de la lista.
+     *
+     * @return Número de libros
+     */
+    public int getBookCount() {
+        return bookCount;
+    }
+
+    /**
+     * Establece el número de libros de la lista.
+     *
+     * @param bookCount Nuevo número de libros
+     */
+    public void setBookCount(int bookCount) {
+        this.bookCount = bookCount;
+    }
+
+    /**
+     * Devuelve las portadas de los últimos libros añadidos a la lista.
+     *
+     * @return Listado con las portadas
+     */
+    public List<String> getCovers() {
+        return covers;
+    }
+
+    /**
+     * Establece las portadas de los últimos libros añadidos a la lista.
+     *
+     * @param covers Nuevas portadas
+     */
+    public void setCovers(List<String> covers) {
+        this.covers = covers;
+    }
+
+    /**
+     * Devuelve los identificadores de los géneros de la lista.
+     *
+     * @return Listado con los IDs de los géneros
+     */
+    public List<Long> getGenreIds() {
+        return genreIds;
+    }
+
+    /**
+     * Establece los identificadores de los géneros de la lista.
+     *
+     * @param genreIds Nuevos IDs de los géneros
+     */
+    public void setGenreIds(List<Long> genreIds) {
+        this.genreIds = genreIds;
+    }
+}
@@ -1,5 +1,7 @@
 package es.readtoowell.api_biblioteca.model.DTO.book;
 
+import java.util.Date;
+
 /**
  * DTO que representa los detalles de una reseña de un libro.
  */
@@ -8,6 +10,7 @@ public class ReviewDTO {
     private String profileName;
     private double rating;
     private String review;
+    private Date dateReview;
 
     // Métodos Getters y Setters
 
@@ -82,4 +85,22 @@ public class ReviewDTO {
     public void setReview(String review) {
         this.review = review;
     }
+
+    /**
+     * Devuelve la fecha en la que se escribió la reseña.
+     *
+     * @return Fecha de la reseña
+     */
+    public Date getDateReview() {
+        return dateReview;
+    }
+
+    /**
+     * Establece un valor para la fecha en la que se escribió la reseña.
+     *
+     * @param dateReview Nueva fecha de la reseña
+     */
+    public void setDateReview(Date dateReview) {
+        this.dateReview = dateReview;
+    }
 }
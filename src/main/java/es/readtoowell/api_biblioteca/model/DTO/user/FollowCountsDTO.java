@@ -0,0 +1,80 @@
+package es.readtoowell.api_biblioteca.model.DTO.user;
+
+/**
+ * DTO que representa los contadores de seguimiento de un usuario y si el usuario autenticado le sigue.
+ */
+public class FollowCountsDTO {
+    private int followerCount;
+    private int followingCount;
+    private boolean followedByMe;
+
+    public FollowCountsDTO() {}
+    /**
+     * Constructor que inicializa todos los campos.
+     *
+     * @param followerCount Número de seguidores del usuario
+     * @param followingCount Número de usuarios a los que sigue
+     * @param followedByMe Indica si el usuario autenticado sigue al usuario
+     */
+    public FollowCountsDTO(int followerCount, int followingCount, boolean followedByMe) {
+        this.followerCount = followerCount;
+        this.followingCount = followingCount;
+        this.followedByMe = followedByMe;
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el número de seguidores del usuario.
+     *
+     * @return Número de seguidores
+     */
+    public int getFollowerCount() {
+        return followerCount;
+    }
+
+    /**
+     * Establece el número de seguidores del usuario.
+     *
+     * @param followerCount Nuevo número de seguidores
+     */
+    public void setFollowerCount(int followerCount) {
+        this.followerCount = followerCount;
+    }
+
+    /**
+     * Devuelve el número de usuarios a los que sigue el usuario.
+     *
+     * @return Número de usuarios seguidos
+     */
+    public int getFollowingCount() {
+        return followingCount;
+    }
+
+    /**
+     * Establece el número de usuarios a los que sigue el usuario.
+     *
+     * @param followingCount Nuevo número de usuarios seguidos
+     */
+    public void setFollowingCount(int followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    /**
+     * Indica si el usuario autenticado sigue al usuario.
+     *
+     * @return 'true' si le sigue, 'false' en caso contrario
+     */
+    public boolean isFollowedByMe() {
+        return followedByMe;
+    }
+
+    /**
+     * Establece si el usuario autenticado sigue al usuario.
+     *
+     * @param followedByMe 'true' si le sigue, 'false' en caso contrario
+     */
+    public void setFollowedByMe(boolean followedByMe) {
+        this.followedByMe = followedByMe;
+    }
+}
@@ -0,0 +1,193 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Entidad que representa una actividad de lectura de un usuario (cambio de estado, calificación, reseña
+ * o libro añadido a una lista), que se muestra en el inicio de sus seguidores.
+ * Se guarda una sola vez, con los identificadores de los datos a los que se refiere, y los seguidores
+ * la reciben en su bandeja o la consultan al leer su inicio según el número de seguidores del usuario.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "actividad", indexes = @Index(name = "idx_actividad_usuario", columnList = "id_usuario, id_actividad"))
+public class Activity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "actividad_seq")
+    @SequenceGenerator(name = "actividad_seq", sequenceName = "actividad_id_actividad_seq", allocationSize = 50)
+    @Column(name = "id_actividad", unique = true, updatable = false)
+    private Long id;
+    @Column(name = "id_usuario", nullable = false)
+    private Long userId;
+    @Column(name = "tipo")
+    private int type;
+    @Column(name = "id_libro")
+    private Long bookId;
+    @Column(name = "id_lista")
+    private Long listId;
+    @Column(name = "valor")
+    private double value;
+    @Column(name = "fecha")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date date;
+    /**
+     * Indica si la actividad se ha copiado a las bandejas de los seguidores. Si no, se consulta al leer el inicio.
+     */
+    @Column(name = "difundida")
+    private boolean fannedOut;
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador de la actividad.
+     *
+     * @return ID de la actividad
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Establece el identificador de la actividad.
+     *
+     * @param id Nuevo ID de la actividad
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Devuelve el identificador del usuario que ha realizado la actividad.
+     *
+     * @return ID del usuario
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Establece el identificador del usuario que ha realizado la actividad.
+     *
+     * @param userId Nuevo ID del usuario
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Devuelve el tipo de la actividad.
+     *
+     * @return Tipo de la actividad
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Establece el tipo de la actividad.
+     *
+     * @param type Nuevo tipo de la actividad
+     */
+    public void setType(int type) {
+        this.type = type;
+    }
+
+    /**
+     * Devuelve el identificador del libro al que se refiere la actividad.
+     *
+     * @return ID del libro
+     */
+    public Long getBookId() {
+        return bookId;
+    }
+
+    /**
+     * Establece el identificador del libro al que se refiere la actividad.
+     *
+     * @param bookId Nuevo ID del libro
+     */
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    /**
+     * Devuelve el identificador de la lista a la que se ha añadido el libro.
+     *
+     * @return ID de la lista, 'null' si la actividad no se refiere a una lista
+     */
+    public Long getListId() {
+        return listId;
+    }
+
+    /**
+     * Establece el identificador de la lista a la que se ha añadido el libro.
+     *
+     * @param listId Nuevo ID de la lista
+     */
+    public void setListId(Long listId) {
+        this.listId = listId;
+    }
+
+    /**
+     * Devuelve el valor asociado a la actividad: el nuevo estado de lectura o la calificación.
+     *
+     * @return Valor de la actividad
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Establece el valor asociado a la actividad.
+     *
+     * @param value Nuevo valor de la actividad
+     */
+    public void setValue(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Devuelve la fecha de la actividad.
+     *
+     * @return Fecha de la actividad
+     */
+    public Date getDate() {
+        return date;
+    }
+
+    /**
+     * Establece la fecha de la actividad.
+     *
+     * @param date Nueva fecha de la actividad
+     */
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+    /**
+     * Indica si la actividad se ha copiado a las bandejas de los seguidores.
+     *
+     * @return 'true' si se ha copiado, 'false' si se consulta al leer el inicio
+     */
+    public boolean isFannedOut() {
+        return fannedOut;
+    }
+
+    /**
+     * Establece si la actividad se ha copiado a las bandejas de los seguidores.
+     *
+     * @param fannedOut 'true' si se ha copiado, 'false' en caso contrario
+     */
+    public void setFannedOut(boolean fannedOut) {
+        this.fannedOut = fannedOut;
+    }
+}
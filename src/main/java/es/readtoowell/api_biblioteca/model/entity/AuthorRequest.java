@@ -18,7 +18,8 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "solicitud_autor")
+@Table(name = "solicitud_autor",
+        indexes = @Index(name = "idx_solicitud_autor_fecha", columnList = "fecha_enviada, id_solicitud"))
 public class AuthorRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -22,7 +23,8 @@ import java.util.Set;
 @Table(name = "lista")
 public class BookList {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lista_seq")
+    @SequenceGenerator(name = "lista_seq", sequenceName = "lista_id_lista_seq", allocationSize = 50)
     @Column(name = "id_lista", unique = true, updatable = false)
     private Long id;
     @ManyToOne
@@ -42,6 +44,13 @@ public class BookList {
      */
     @OneToMany(mappedBy = "list", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<BookListItem> books = new ArrayList<>();
+    /**
+     * Número de libros de la lista. Se actualiza en la misma transacción que añade o quita los libros, solo con
+     * sentencias de incremento: Hibernate no lo escribe, para no pisar los incrementos de otras transacciones.
+     */
+    @ColumnDefault("0")
+    @Column(name = "num_libros", nullable = false, insertable = false, updatable = false)
+    private int bookCount;
 
     // Métodos Getters y Setters
 
@@ -152,4 +161,22 @@ public class BookList {
     public void setBooks(List<BookListItem> books) {
         this.books = books;
     }
+
+    /**
+     * Devuelve el número de libros de la lista.
+     *
+     * @return Número de libros de la lista
+     */
+    public int getBookCount() {
+        return bookCount;
+    }
+
+    /**
+     * Establece el número de libros de la lista.
+     *
+     * @param bookCount Nuevo número de libros de la lista
+     */
+    public void setBookCount(int bookCount) {
+        this.bookCount = bookCount;
+    }
 }
@@ -18,7 +18,8 @@ import java.util.Objects;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "libro_lista")
+@Table(name = "libro_lista",
+        indexes = @Index(name = "idx_libro_lista_fecha", columnList = "id_lista, fecha_añadido, id_libro"))
 public class BookListItem {
     @EmbeddedId
     private BookListItemId id;
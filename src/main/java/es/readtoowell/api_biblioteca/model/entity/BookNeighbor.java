@@ -0,0 +1,63 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import es.readtoowell.api_biblioteca.model.entity.id.BookNeighborId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa un libro similar a otro, precalculado a partir de sus géneros
+ * y de su aparición conjunta en bibliotecas y listas de usuarios.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "libro_vecino", indexes = @Index(name = "idx_libro_vecino_vecino", columnList = "id_vecino"))
+public class BookNeighbor {
+    @EmbeddedId
+    private BookNeighborId id;
+    @Column(name = "similitud")
+    private double similarity;
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador de la relación de similitud.
+     *
+     * @return ID de la relación
+     */
+    public BookNeighborId getId() {
+        return id;
+    }
+
+    /**
+     * Establece el identificador de la relación de similitud.
+     *
+     * @param id Nuevo ID de la relación
+     */
+    public void setId(BookNeighborId id) {
+        this.id = id;
+    }
+
+    /**
+     * Devuelve la similitud entre los dos libros, mayor cuanto más parecidos son.
+     *
+     * @return Similitud entre los libros
+     */
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    /**
+     * Establece un valor para la similitud entre los dos libros.
+     *
+     * @param similarity Nueva similitud
+     */
+    public void setSimilarity(double similarity) {
+        this.similarity = similarity;
+    }
+}
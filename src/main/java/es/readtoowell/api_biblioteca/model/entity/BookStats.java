@@ -0,0 +1,149 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa las estadísticas agregadas de un libro: suma y número de calificaciones,
+ * histograma de calificaciones y número de usuarios que lo tienen en su biblioteca.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "estadisticas_libro")
+public class BookStats {
+    /**
+     * Número de intervalos del histograma (de 0.5 a 5, en incrementos de 0.5).
+     */
+    public static final int HISTOGRAM_BUCKETS = 10;
+
+    @Id
+    @Column(name = "id_libro")
+    private Long bookId;
+    @Column(name = "suma_calificaciones")
+    private double ratingSum;
+    @Column(name = "num_calificaciones")
+    private int ratingCount;
+    @Column(name = "num_lectores")
+    private int readerCount;
+    @Column(name = "histograma_calificaciones")
+    private int[] ratingHistogram = new int[HISTOGRAM_BUCKETS];
+
+    /**
+     * Calcula la calificación media del libro, ignorando los usuarios que no lo han calificado.
+     *
+     * @return Calificación media, 0 si no tiene calificaciones
+     */
+    public double getAverageRating() {
+        return ratingCount > 0 ? ratingSum / ratingCount : 0;
+    }
+
+    /**
+     * Devuelve la posición en el histograma (empezando en 1, como los arrays de PostgreSQL)
+     * que corresponde a una calificación.
+     *
+     * @param rating Calificación entre 0.5 y 5
+     * @return Posición del histograma
+     */
+    public static int histogramBucket(double rating) {
+        return (int) Math.round(rating * 2);
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del libro.
+     *
+     * @return ID del libro
+     */
+    public Long getBookId() {
+        return bookId;
+    }
+
+    /**
+     * Establece un valor para el identificador del libro.
+     *
+     * @param bookId Nuevo ID del libro
+     */
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    /**
+     * Devuelve la suma de las calificaciones del libro.
+     *
+     * @return Suma de las calificaciones
+     */
+    public double getRatingSum() {
+        return ratingSum;
+    }
+
+    /**
+     * Establece un valor para la suma de las calificaciones del libro.
+     *
+     * @param ratingSum Nueva suma de las calificaciones
+     */
+    public void setRatingSum(double ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    /**
+     * Devuelve el número de calificaciones del libro.
+     *
+     * @return Número de calificaciones
+     */
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    /**
+     * Establece un valor para el número de calificaciones del libro.
+     *
+     * @param ratingCount Nuevo número de calificaciones
+     */
+    public void setRatingCount(int ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    /**
+     * Devuelve el número de usuarios que tienen el libro en su biblioteca.
+     *
+     * @return Número de lectores
+     */
+    public int getReaderCount() {
+        return readerCount;
+    }
+
+    /**
+     * Establece un valor para el número de usuarios que tienen el libro en su biblioteca.
+     *
+     * @param readerCount Nuevo número de lectores
+     */
+    public void setReaderCount(int readerCount) {
+        this.readerCount = readerCount;
+    }
+
+    /**
+     * Devuelve el histograma de calificaciones. La posición {@code i} contiene el número de
+     * calificaciones con valor {@code (i + 1) * 0.5}.
+     *
+     * @return Histograma de calificaciones
+     */
+    public int[] getRatingHistogram() {
+        return ratingHistogram;
+    }
+
+    /**
+     * Establece un valor para el histograma de calificaciones.
+     *
+     * @param ratingHistogram Nuevo histograma de calificaciones
+     */
+    public void setRatingHistogram(int[] ratingHistogram) {
+        this.ratingHistogram = ratingHistogram;
+    }
+}
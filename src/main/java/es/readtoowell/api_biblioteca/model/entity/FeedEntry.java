@@ -0,0 +1,44 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import es.readtoowell.api_biblioteca.model.entity.id.FeedEntryId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa una actividad copiada en la bandeja de inicio de un seguidor.
+ * La clave primaria (usuario, actividad) permite leer la bandeja de un usuario de más reciente a más antigua
+ * sin ordenar, y el índice por actividad permite borrar las entradas de las actividades caducadas.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "bandeja_actividad", indexes = @Index(name = "idx_bandeja_actividad_actividad", columnList = "id_actividad"))
+public class FeedEntry {
+    @EmbeddedId
+    private FeedEntryId id;
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador de la entrada de la bandeja.
+     *
+     * @return ID de la entrada
+     */
+    public FeedEntryId getId() {
+        return id;
+    }
+
+    /**
+     * Establece el identificador de la entrada de la bandeja.
+     *
+     * @param id Nuevo ID de la entrada
+     */
+    public void setId(FeedEntryId id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,48 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import es.readtoowell.api_biblioteca.model.entity.id.FollowId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa que un usuario sigue a otro.
+ * El índice único sobre el par permite insertar el seguimiento sin comprobar antes si existe, también en las
+ * bases de datos en las que la tabla se creó sin clave primaria. El índice por usuario seguido permite
+ * recorrer los seguidores de un usuario en orden sin leer el resto de la tabla.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "seguimiento", indexes = {
+        @Index(name = "idx_seguimiento_par", columnList = "id_seguidor, id_seguido", unique = true),
+        @Index(name = "idx_seguimiento_seguido", columnList = "id_seguido, id_seguidor")
+})
+public class Follow {
+    @EmbeddedId
+    private FollowId id;
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del seguimiento.
+     *
+     * @return ID del seguimiento
+     */
+    public FollowId getId() {
+        return id;
+    }
+
+    /**
+     * Establece el identificador del seguimiento.
+     *
+     * @param id Nuevo ID del seguimiento
+     */
+    public void setId(FollowId id) {
+        this.id = id;
+    }
+}
@@ -16,7 +16,8 @@ import java.util.Date;
 @Table(name = "objetivo")
 public class Goal {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "objetivo_seq")
+    @SequenceGenerator(name = "objetivo_seq", sequenceName = "objetivo_id_objetivo_seq", allocationSize = 50)
     @Column(name = "id_objetivo")
     private Long id;
     @Column(name = "cantidad")
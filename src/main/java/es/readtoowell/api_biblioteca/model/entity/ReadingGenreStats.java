@@ -0,0 +1,62 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import es.readtoowell.api_biblioteca.model.entity.id.ReadingGenreStatsId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa el número de libros de un género terminados por un usuario en un año.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "estadisticas_lectura_genero")
+public class ReadingGenreStats {
+    @EmbeddedId
+    private ReadingGenreStatsId id;
+    @Column(name = "num_libros")
+    private int bookCount;
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador de las estadísticas.
+     *
+     * @return ID de las estadísticas
+     */
+    public ReadingGenreStatsId getId() {
+        return id;
+    }
+
+    /**
+     * Establece el identificador de las estadísticas.
+     *
+     * @param id Nuevo ID de las estadísticas
+     */
+    public void setId(ReadingGenreStatsId id) {
+        this.id = id;
+    }
+
+    /**
+     * Devuelve el número de libros del género terminados en el año.
+     *
+     * @return Número de libros
+     */
+    public int getBookCount() {
+        return bookCount;
+    }
+
+    /**
+     * Establece un valor para el número de libros del género terminados en el año.
+     *
+     * @param bookCount Nuevo número de libros
+     */
+    public void setBookCount(int bookCount) {
+        this.bookCount = bookCount;
+    }
+}
@@ -0,0 +1,104 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import es.readtoowell.api_biblioteca.model.entity.id.ReadingStatsId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa las estadísticas de lectura de un usuario en un año o en uno de sus meses:
+ * libros terminados, páginas leídas e histograma de las calificaciones de esos libros.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "estadisticas_lectura")
+public class ReadingStats {
+    @EmbeddedId
+    private ReadingStatsId id;
+    @Column(name = "libros_leidos")
+    private int booksRead;
+    @Column(name = "paginas_leidas")
+    private long pagesRead;
+    @Column(name = "histograma_calificaciones")
+    private int[] ratingHistogram = new int[BookStats.HISTOGRAM_BUCKETS];
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador de las estadísticas.
+     *
+     * @return ID de las estadísticas
+     */
+    public ReadingStatsId getId() {
+        return id;
+    }
+
+    /**
+     * Establece el identificador de las estadísticas.
+     *
+     * @param id Nuevo ID de las estadísticas
+     */
+    public void setId(ReadingStatsId id) {
+        this.id = id;
+    }
+
+    /**
+     * Devuelve el número de libros terminados en el periodo.
+     *
+     * @return Número de libros terminados
+     */
+    public int getBooksRead() {
+        return booksRead;
+    }
+
+    /**
+     * Establece un valor para el número de libros terminados en el periodo.
+     *
+     * @param booksRead Nuevo número de libros terminados
+     */
+    public void setBooksRead(int booksRead) {
+        this.booksRead = booksRead;
+    }
+
+    /**
+     * Devuelve la suma de las páginas de los libros terminados en el periodo.
+     *
+     * @return Número de páginas leídas
+     */
+    public long getPagesRead() {
+        return pagesRead;
+    }
+
+    /**
+     * Establece un valor para la suma de las páginas de los libros terminados en el periodo.
+     *
+     * @param pagesRead Nuevo número de páginas leídas
+     */
+    public void setPagesRead(long pagesRead) {
+        this.pagesRead = pagesRead;
+    }
+
+    /**
+     * Devuelve el histograma de calificaciones de los libros terminados en el periodo.
+     * La posición {@code i} contiene el número de calificaciones iguales a {@code (i + 1) / 2}.
+     *
+     * @return Histograma de calificaciones
+     */
+    public int[] getRatingHistogram() {
+        return ratingHistogram;
+    }
+
+    /**
+     * Establece un valor para el histograma de calificaciones.
+     *
+     * @param ratingHistogram Nuevo histograma de calificaciones
+     */
+    public void setRatingHistogram(int[] ratingHistogram) {
+        this.ratingHistogram = ratingHistogram;
+    }
+}
@@ -17,7 +17,8 @@ import lombok.Setter;
 @Table(name = "libro_solicitud")
 public class RequestBook {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "libro_solicitud_seq")
+    @SequenceGenerator(name = "libro_solicitud_seq", sequenceName = "libro_solicitud_id_seq", allocationSize = 50)
     @Column(name = "id", unique = true, updatable = false)
     private Long id;
     @ManyToOne
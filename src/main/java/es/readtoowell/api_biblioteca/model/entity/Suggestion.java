@@ -16,10 +16,12 @@ import java.util.Date;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "sugerencia")
+@Table(name = "sugerencia",
+        indexes = @Index(name = "idx_sugerencia_fecha", columnList = "fecha_enviada, id_sugerencia"))
 public class Suggestion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sugerencia_seq")
+    @SequenceGenerator(name = "sugerencia_seq", sequenceName = "sugerencia_id_sugerencia_seq", allocationSize = 50)
     @Column(name = "id_sugerencia", unique = true, updatable = false)
     private Long id;
     @Column(name = "titulo")
@@ -39,23 +39,6 @@ public class User {
     private String profilePic;
     @Column(name = "biografia", length = 2000)
     private String biography;
-    /**
-     * Lista de usuarios a los que sigue el propio usuario.
-     */
-    @ManyToMany
-    @JoinTable(
-            name="seguimiento",
-            joinColumns = @JoinColumn(name= "id_seguidor"),
-            inverseJoinColumns = @JoinColumn(name = "id_seguido")
-    )
-    @JsonIgnore
-    private List<User> followedUsers = new ArrayList<>();
-    /**
-     * Lista de usuarios que siguen al propio usuario.
-     */
-    @ManyToMany(mappedBy = "followedUsers")
-    @JsonIgnore
-    private List<User> followers = new ArrayList<>();
     /**
      * Lista de géneros favoritos del usuario.
      */
@@ -231,24 +214,6 @@ public class User {
         this.biography = biography;
     }
 
-    /**
-     * Devuelve los usuarios a los que sigue el propio usuario.
-     *
-     * @return Listado con los usuarios a los que sigue el propio usuario
-     */
-    public List<User> getFollowedUsers() {
-        return followedUsers;
-    }
-
-    /**
-     * Devuelve los usuarios seguidores del propio usuario.
-     *
-     * @return Listado con los usuarios seguidores del propio usuario
-     */
-    public List<User> getFollowers() {
-        return followers;
-    }
-
     /**
      * Devuelve los géneros favoritos del usuario.
      *
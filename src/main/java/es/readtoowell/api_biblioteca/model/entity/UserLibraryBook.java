@@ -19,7 +19,12 @@ import java.util.List;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "libro_biblioteca")
+@Table(name = "libro_biblioteca",
+        indexes = {
+        @Index(name = "idx_libro_biblioteca_resenas_fecha", columnList = "id_libro, fecha_reseña, id_usuario"),
+        @Index(name = "idx_libro_biblioteca_fin", columnList = "id_usuario, estado_lectura, fecha_fin, id_libro"),
+        @Index(name = "idx_libro_biblioteca_inicio", columnList = "id_usuario, estado_lectura, fecha_inicio, id_libro")
+})
 public class UserLibraryBook {
     @EmbeddedId
     private UserLibraryBookId id;
@@ -47,6 +52,9 @@ public class UserLibraryBook {
     private double rating;
     @Column(name = "reseña", length = 2000)
     private String review;
+    @Column(name = "fecha_reseña")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date dateReview;
 
     // Métodos Getters y Setters
 
@@ -247,4 +255,22 @@ public class UserLibraryBook {
     public void setReview(String review) {
         this.review = review;
     }
+
+    /**
+     * Devuelve la fecha en la que el usuario escribió la reseña.
+     *
+     * @return Fecha de la reseña
+     */
+    public Date getDateReview() {
+        return dateReview;
+    }
+
+    /**
+     * Establece un valor para la fecha en la que el usuario escribió la reseña.
+     *
+     * @param dateReview Nueva fecha de la reseña
+     */
+    public void setDateReview(Date dateReview) {
+        this.dateReview = dateReview;
+    }
 }
@@ -0,0 +1,83 @@
+package es.readtoowell.api_biblioteca.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad que representa los contadores de seguimiento de un usuario: cuántos usuarios le siguen
+ * y a cuántos sigue.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "estadisticas_usuario")
+public class UserStats {
+    @Id
+    @Column(name = "id_usuario")
+    private Long userId;
+    @Column(name = "num_seguidores")
+    private int followerCount;
+    @Column(name = "num_seguidos")
+    private int followingCount;
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del usuario.
+     *
+     * @return ID del usuario
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Establece el identificador del usuario.
+     *
+     * @param userId Nuevo ID del usuario
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Devuelve el número de seguidores del usuario.
+     *
+     * @return Número de seguidores
+     */
+    public int getFollowerCount() {
+        return followerCount;
+    }
+
+    /**
+     * Establece el número de seguidores del usuario.
+     *
+     * @param followerCount Nuevo número de seguidores
+     */
+    public void setFollowerCount(int followerCount) {
+        this.followerCount = followerCount;
+    }
+
+    /**
+     * Devuelve el número de usuarios a los que sigue el usuario.
+     *
+     * @return Número de usuarios seguidos
+     */
+    public int getFollowingCount() {
+        return followingCount;
+    }
+
+    /**
+     * Establece el número de usuarios a los que sigue el usuario.
+     *
+     * @param followingCount Nuevo número de usuarios seguidos
+     */
+    public void setFollowingCount(int followingCount) {
+        this.followingCount = followingCount;
+    }
+}
@@ -0,0 +1,81 @@
+package es.readtoowell.api_biblioteca.model.entity.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ *  Representa la clave primaria compuesta de la entidad {@code BookNeighbor}.
+ *  Esta clase es utilizada en la relación de similitud entre dos libros.
+ */
+@Embeddable
+public class BookNeighborId implements Serializable {
+    @Column(name = "id_libro")
+    private Long bookId;
+    @Column(name = "id_vecino")
+    private Long neighborId;
+
+    public BookNeighborId() {}
+    /**
+     * Constructor que inicializa los identificadores del libro y de su vecino.
+     *
+     * @param bookId Identificador del libro.
+     * @param neighborId Identificador del libro similar.
+     */
+    public BookNeighborId(Long bookId, Long neighborId) {
+        this.bookId = bookId;
+        this.neighborId = neighborId;
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del libro.
+     *
+     * @return ID del libro
+     */
+    public Long getBookId() {
+        return bookId;
+    }
+
+    /**
+     * Establece el identificador del libro.
+     *
+     * @param bookId Nuevo ID del libro
+     */
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    /**
+     * Devuelve el identificador del libro similar.
+     *
+     * @return ID del libro similar
+     */
+    public Long getNeighborId() {
+        return neighborId;
+    }
+
+    /**
+     * Establece el identificador del libro similar.
+     *
+     * @param neighborId Nuevo ID del libro similar
+     */
+    public void setNeighborId(Long neighborId) {
+        this.neighborId = neighborId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookNeighborId that = (BookNeighborId) o;
+        return Objects.equals(bookId, that.bookId) && Objects.equals(neighborId, that.neighborId);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, neighborId);
+    }
+}
@@ -0,0 +1,81 @@
+package es.readtoowell.api_biblioteca.model.entity.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ *  Representa la clave primaria compuesta de la entidad {@code FeedEntry}.
+ *  Esta clase es utilizada en la relación entre la bandeja de un usuario y las actividades que contiene.
+ */
+@Embeddable
+public class FeedEntryId implements Serializable {
+    @Column(name = "id_usuario")
+    private Long userId;
+    @Column(name = "id_actividad")
+    private Long activityId;
+
+    public FeedEntryId() {}
+    /**
+     * Constructor que inicializa los identificadores del usuario y de la actividad.
+     *
+     * @param userId Identificador del usuario propietario de la bandeja.
+     * @param activityId Identificador de la actividad.
+     */
+    public FeedEntryId(Long userId, Long activityId) {
+        this.userId = userId;
+        this.activityId = activityId;
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del usuario propietario de la bandeja.
+     *
+     * @return ID del usuario
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Establece el identificador del usuario propietario de la bandeja.
+     *
+     * @param userId Nuevo ID del usuario
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Devuelve el identificador de la actividad.
+     *
+     * @return ID de la actividad
+     */
+    public Long getActivityId() {
+        return activityId;
+    }
+
+    /**
+     * Establece el identificador de la actividad.
+     *
+     * @param activityId Nuevo ID de la actividad
+     */
+    public void setActivityId(Long activityId) {
+        this.activityId = activityId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FeedEntryId that = (FeedEntryId) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(activityId, that.activityId);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, activityId);
+    }
+}
@@ -0,0 +1,81 @@
+package es.readtoowell.api_biblioteca.model.entity.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ *  Representa la clave primaria compuesta de la entidad {@code Follow}.
+ *  Esta clase es utilizada en la relación de seguimiento entre dos usuarios.
+ */
+@Embeddable
+public class FollowId implements Serializable {
+    @Column(name = "id_seguidor")
+    private Long followerId;
+    @Column(name = "id_seguido")
+    private Long followedId;
+
+    public FollowId() {}
+    /**
+     * Constructor que inicializa los identificadores del seguidor y del usuario seguido.
+     *
+     * @param followerId Identificador del usuario seguidor.
+     * @param followedId Identificador del usuario seguido.
+     */
+    public FollowId(Long followerId, Long followedId) {
+        this.followerId = followerId;
+        this.followedId = followedId;
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del usuario seguidor.
+     *
+     * @return ID del seguidor
+     */
+    public Long getFollowerId() {
+        return followerId;
+    }
+
+    /**
+     * Establece el identificador del usuario seguidor.
+     *
+     * @param followerId Nuevo ID del seguidor
+     */
+    public void setFollowerId(Long followerId) {
+        this.followerId = followerId;
+    }
+
+    /**
+     * Devuelve el identificador del usuario seguido.
+     *
+     * @return ID del usuario seguido
+     */
+    public Long getFollowedId() {
+        return followedId;
+    }
+
+    /**
+     * Establece el identificador del usuario seguido.
+     *
+     * @param followedId Nuevo ID del usuario seguido
+     */
+    public void setFollowedId(Long followedId) {
+        this.followedId = followedId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FollowId that = (FollowId) o;
+        return Objects.equals(followerId, that.followerId) && Objects.equals(followedId, that.followedId);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(followerId, followedId);
+    }
+}
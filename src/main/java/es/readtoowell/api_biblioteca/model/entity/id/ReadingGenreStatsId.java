@@ -0,0 +1,105 @@
+package es.readtoowell.api_biblioteca.model.entity.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ *  Representa la clave primaria compuesta de la entidad {@code ReadingGenreStats}.
+ *  Identifica los libros leídos de un género por un usuario en un año.
+ */
+@Embeddable
+public class ReadingGenreStatsId implements Serializable {
+    @Column(name = "id_usuario")
+    private Long userId;
+    @Column(name = "anio")
+    private int year;
+    @Column(name = "id_genero")
+    private Long genreId;
+
+    public ReadingGenreStatsId() {}
+    /**
+     * Constructor que inicializa el usuario, el año y el género.
+     *
+     * @param userId Identificador del usuario.
+     * @param year Año de las estadísticas.
+     * @param genreId Identificador del género.
+     */
+    public ReadingGenreStatsId(Long userId, int year, Long genreId) {
+        this.userId = userId;
+        this.year = year;
+        this.genreId = genreId;
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del usuario.
+     *
+     * @return ID del usuario
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Establece un valor para el identificador del usuario.
+     *
+     * @param userId Nuevo ID del usuario
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Devuelve el año de las estadísticas.
+     *
+     * @return Año de las estadísticas
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Establece un valor para el año de las estadísticas.
+     *
+     * @param year Nuevo año
+     */
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    /**
+     * Devuelve el identificador del género.
+     *
+     * @return ID del género
+     */
+    public Long getGenreId() {
+        return genreId;
+    }
+
+    /**
+     * Establece un valor para el identificador del género.
+     *
+     * @param genreId Nuevo ID del género
+     */
+    public void setGenreId(Long genreId) {
+        this.genreId = genreId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReadingGenreStatsId that = (ReadingGenreStatsId) o;
+        return year == that.year &&
+                Objects.equals(userId, that.userId) &&
+                Objects.equals(genreId, that.genreId);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, year, genreId);
+    }
+}
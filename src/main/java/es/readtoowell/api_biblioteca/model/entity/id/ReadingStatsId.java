@@ -0,0 +1,107 @@
+package es.readtoowell.api_biblioteca.model.entity.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ *  Representa la clave primaria compuesta de la entidad {@code ReadingStats}.
+ *  Identifica las estadísticas de lectura de un usuario en un año o en uno de sus meses.
+ */
+@Embeddable
+public class ReadingStatsId implements Serializable {
+    @Column(name = "id_usuario")
+    private Long userId;
+    @Column(name = "anio")
+    private int year;
+    /**
+     * Mes del año (de 1 a 12), o 0 para las estadísticas del año completo.
+     */
+    @Column(name = "mes")
+    private int month;
+
+    public ReadingStatsId() {}
+    /**
+     * Constructor que inicializa el usuario, el año y el mes.
+     *
+     * @param userId Identificador del usuario.
+     * @param year Año de las estadísticas.
+     * @param month Mes de las estadísticas, 0 para el año completo.
+     */
+    public ReadingStatsId(Long userId, int year, int month) {
+        this.userId = userId;
+        this.year = year;
+        this.month = month;
+    }
+
+    // Métodos Getters y Setters
+
+    /**
+     * Devuelve el identificador del usuario.
+     *
+     * @return ID del usuario
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Establece un valor para el identificador del usuario.
+     *
+     * @param userId Nuevo ID del usuario
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Devuelve el año de las estadísticas.
+     *
+     * @return Año de las estadísticas
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Establece un valor para el año de las estadísticas.
+     *
+     * @param year Nuevo año
+     */
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    /**
+     * Devuelve el mes de las estadísticas.
+     *
+     * @return Mes de las estadísticas, 0 si son del año completo
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * Establece un valor para el mes de las estadísticas.
+     *
+     * @param month Nuevo mes, 0 para el año completo
+     */
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReadingStatsId that = (ReadingStatsId) o;
+        return year == that.year && month == that.month &&
+                Objects.equals(userId, that.userId);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, year, month);
+    }
+}
@@ -0,0 +1,27 @@
+package es.readtoowell.api_biblioteca.model.enums;
+
+/**
+ * Enumeración que representa los tipos de actividad de un usuario que se muestran a sus seguidores.
+ */
+public enum ActivityType {
+    STATUS_CHANGED(0), RATED(1), REVIEWED(2), ADDED_TO_LIST(3);
+
+    private final int value;
+
+    ActivityType(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public static ActivityType fromValue(int value) {
+        for (ActivityType type : ActivityType.values()) {
+            if (type.getValue() == value) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de actividad inválido: " + value);
+    }
+}
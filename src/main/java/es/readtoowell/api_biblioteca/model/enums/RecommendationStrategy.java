@@ -0,0 +1,19 @@
+package es.readtoowell.api_biblioteca.model.enums;
+
+/**
+ * Enumeración que representa las estrategias utilizadas para generar recomendaciones.
+ */
+public enum RecommendationStrategy {
+    FAVORITE_BOOKS("libros-favoritos"), FAVORITE_GENRES("generos-favoritos"), READ_BOOKS("libros-leidos"),
+    LIST("lista"), GENERAL("catalogo");
+
+    private final String tag;
+
+    RecommendationStrategy(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
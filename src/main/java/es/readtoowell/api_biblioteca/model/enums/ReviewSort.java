@@ -0,0 +1,27 @@
+package es.readtoowell.api_biblioteca.model.enums;
+
+/**
+ * Enumeración que representa los posibles órdenes de las reseñas de un libro.
+ */
+public enum ReviewSort {
+    RECENT("recientes"), RATING("calificacion");
+
+    private final String tag;
+
+    ReviewSort(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public static ReviewSort fromTag(String tag) {
+        for (ReviewSort sort : ReviewSort.values()) {
+            if (sort.getTag().equals(tag)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Orden inválido: " + tag);
+    }
+}
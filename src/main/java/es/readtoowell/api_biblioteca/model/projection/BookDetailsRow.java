@@ -0,0 +1,130 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+import java.util.Date;
+
+/**
+ * Proyección con los datos de los detalles de un libro que dependen del usuario que los consulta.
+ * Cada fila repite los datos comunes (libro en la biblioteca del usuario y estadísticas) y añade,
+ * como mucho, un elemento: una lista del usuario que contiene el libro ({@code L}) o una reseña
+ * de otro usuario ({@code R}). Si no hay elementos, se devuelve una única fila sin elemento.
+ */
+public interface BookDetailsRow {
+    /**
+     * Indica si el libro está en la biblioteca del usuario.
+     *
+     * @return 'true' si el libro está guardado, 'false' en caso contrario
+     */
+    Boolean getSaved();
+
+    /**
+     * Devuelve el estado de lectura del libro en la biblioteca del usuario.
+     *
+     * @return Estado de lectura, 'null' si no está guardado
+     */
+    Integer getReadingStatus();
+
+    /**
+     * Devuelve la calificación del usuario.
+     *
+     * @return Calificación, 'null' si no está guardado
+     */
+    Double getRating();
+
+    /**
+     * Devuelve la reseña del usuario.
+     *
+     * @return Reseña del usuario
+     */
+    String getReview();
+
+    /**
+     * Devuelve la fecha en la que el usuario empezó el libro.
+     *
+     * @return Fecha de inicio
+     */
+    Date getDateStart();
+
+    /**
+     * Devuelve la fecha en la que el usuario terminó el libro.
+     *
+     * @return Fecha de fin
+     */
+    Date getDateFinish();
+
+    /**
+     * Devuelve la suma de las calificaciones del libro.
+     *
+     * @return Suma de calificaciones, 'null' si el libro no tiene estadísticas
+     */
+    Double getRatingSum();
+
+    /**
+     * Devuelve el número de calificaciones del libro.
+     *
+     * @return Número de calificaciones, 'null' si el libro no tiene estadísticas
+     */
+    Integer getRatingCount();
+
+    /**
+     * Devuelve el histograma de calificaciones del libro como valores separados por comas.
+     *
+     * @return Histograma de calificaciones, 'null' si el libro no tiene estadísticas
+     */
+    String getRatingHistogram();
+
+    /**
+     * Devuelve el número total de reseñas de otros usuarios.
+     *
+     * @return Número de reseñas
+     */
+    Long getReviewCount();
+
+    /**
+     * Devuelve el tipo de elemento de la fila: {@code L} para una lista y {@code R} para una reseña.
+     *
+     * @return Tipo de elemento, 'null' si la fila no tiene elemento
+     */
+    String getItemKind();
+
+    /**
+     * Devuelve el ID de la lista o del autor de la reseña.
+     *
+     * @return ID de la lista o del usuario
+     */
+    Long getItemId();
+
+    /**
+     * Devuelve el nombre de la lista o el nombre de usuario del autor de la reseña.
+     *
+     * @return Nombre del elemento
+     */
+    String getItemName();
+
+    /**
+     * Devuelve el nombre de perfil del autor de la reseña.
+     *
+     * @return Nombre de perfil, 'null' si el elemento es una lista
+     */
+    String getItemProfileName();
+
+    /**
+     * Devuelve la calificación asociada a la reseña.
+     *
+     * @return Calificación, 'null' si el elemento es una lista
+     */
+    Double getItemRating();
+
+    /**
+     * Devuelve el texto de la reseña.
+     *
+     * @return Texto de la reseña, 'null' si el elemento es una lista
+     */
+    String getItemText();
+
+    /**
+     * Devuelve la fecha de la reseña.
+     *
+     * @return Fecha de la reseña, 'null' si el elemento es una lista o la reseña no tiene fecha
+     */
+    Date getItemDate();
+}
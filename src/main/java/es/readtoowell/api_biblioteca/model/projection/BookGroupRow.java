@@ -0,0 +1,21 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+/**
+ * Proyección que asocia un libro a un grupo: un género, la biblioteca de un usuario o una lista.
+ * Se utiliza para calcular la similitud entre libros.
+ */
+public interface BookGroupRow {
+    /**
+     * Devuelve el identificador del grupo.
+     *
+     * @return ID del género, del usuario o de la lista
+     */
+    Long getGroupId();
+
+    /**
+     * Devuelve el identificador del libro.
+     *
+     * @return ID del libro
+     */
+    Long getBookId();
+}
@@ -0,0 +1,41 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+/**
+ * Proyección con los datos resumidos de una lista de libros, calculados en una sola consulta.
+ */
+public interface BookListSummaryRow {
+    /**
+     * Devuelve el identificador de la lista.
+     *
+     * @return ID de la lista
+     */
+    Long getId();
+
+    /**
+     * Devuelve el nombre de la lista.
+     *
+     * @return Nombre de la lista
+     */
+    String getName();
+
+    /**
+     * Devuelve el número de libros de la lista.
+     *
+     * @return Número de libros
+     */
+    int getBookCount();
+
+    /**
+     * Devuelve las portadas de los últimos libros añadidos, separadas por saltos de línea.
+     *
+     * @return Portadas de los libros, o {@code null} si la lista no tiene libros con portada
+     */
+    String getCovers();
+
+    /**
+     * Devuelve los identificadores de los géneros de la lista, separados por comas.
+     *
+     * @return IDs de los géneros, o {@code null} si la lista no tiene géneros
+     */
+    String getGenreIds();
+}
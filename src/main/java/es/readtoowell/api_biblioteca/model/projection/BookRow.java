@@ -0,0 +1,90 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+/**
+ * Proyección con las columnas de un libro necesarias para construir su DTO, sin sus géneros.
+ */
+public interface BookRow {
+    /**
+     * Devuelve el identificador del libro.
+     *
+     * @return ID del libro
+     */
+    Long getBookId();
+
+    /**
+     * Devuelve el título del libro.
+     *
+     * @return Título del libro
+     */
+    String getTitle();
+
+    /**
+     * Devuelve el autor del libro.
+     *
+     * @return Autor del libro
+     */
+    String getAuthor();
+
+    /**
+     * Devuelve el año de publicación del libro.
+     *
+     * @return Año de publicación
+     */
+    int getPublicationYear();
+
+    /**
+     * Devuelve el número de páginas del libro.
+     *
+     * @return Número de páginas
+     */
+    int getPageNumber();
+
+    /**
+     * Devuelve la editorial del libro.
+     *
+     * @return Editorial del libro
+     */
+    String getPublisher();
+
+    /**
+     * Devuelve la sinopsis del libro.
+     *
+     * @return Sinopsis del libro
+     */
+    String getSynopsis();
+
+    /**
+     * Devuelve la portada del libro.
+     *
+     * @return Portada del libro
+     */
+    String getCover();
+
+    /**
+     * Devuelve el ISBN del libro.
+     *
+     * @return ISBN del libro
+     */
+    String getIsbn();
+
+    /**
+     * Indica si el libro está activo.
+     *
+     * @return 'true' si el libro está activo, 'false' en caso contrario
+     */
+    boolean isActive();
+
+    /**
+     * Devuelve el identificador de la colección del libro.
+     *
+     * @return ID de la colección, o {@code null} si no pertenece a ninguna
+     */
+    Long getCollectionId();
+
+    /**
+     * Devuelve la posición del libro en su colección.
+     *
+     * @return Número del libro en la colección
+     */
+    Integer getNumCollection();
+}
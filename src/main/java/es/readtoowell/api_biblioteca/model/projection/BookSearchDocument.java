@@ -0,0 +1,48 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+/**
+ * Proyección con los campos de un libro necesarios para construir el índice de búsqueda.
+ */
+public interface BookSearchDocument {
+    /**
+     * Devuelve el identificador del libro.
+     *
+     * @return ID del libro
+     */
+    Long getId();
+
+    /**
+     * Devuelve el título del libro.
+     *
+     * @return Título del libro
+     */
+    String getTitle();
+
+    /**
+     * Devuelve el autor del libro.
+     *
+     * @return Autor del libro
+     */
+    String getAuthor();
+
+    /**
+     * Devuelve el nombre de la colección a la que pertenece el libro.
+     *
+     * @return Nombre de la colección, 'null' si no pertenece a ninguna
+     */
+    String getCollectionName();
+
+    /**
+     * Devuelve el número de páginas del libro.
+     *
+     * @return Número de páginas
+     */
+    int getPageNumber();
+
+    /**
+     * Devuelve el año de publicación del libro.
+     *
+     * @return Año de publicación
+     */
+    int getPublicationYear();
+}
@@ -0,0 +1,65 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+import java.util.Date;
+
+/**
+ * Proyección con los datos de un libro de la biblioteca de un usuario y las columnas del libro.
+ * Se utiliza para listar la biblioteca sin cargar las entidades.
+ */
+public interface LibraryBookRow extends BookRow {
+    /**
+     * Devuelve el identificador del usuario propietario de la biblioteca.
+     *
+     * @return ID del usuario
+     */
+    Long getUserId();
+
+    /**
+     * Devuelve el estado de lectura del libro.
+     *
+     * @return Estado de lectura
+     */
+    int getReadingStatus();
+
+    /**
+     * Devuelve la fecha de inicio de lectura.
+     *
+     * @return Fecha de inicio, o {@code null} si no tiene
+     */
+    Date getDateStart();
+
+    /**
+     * Devuelve la fecha de fin de lectura.
+     *
+     * @return Fecha de fin, o {@code null} si no tiene
+     */
+    Date getDateFinish();
+
+    /**
+     * Devuelve el progreso de lectura.
+     *
+     * @return Progreso de lectura
+     */
+    int getProgress();
+
+    /**
+     * Devuelve el tipo de progreso de lectura.
+     *
+     * @return Tipo de progreso
+     */
+    String getProgressType();
+
+    /**
+     * Devuelve la calificación del usuario.
+     *
+     * @return Calificación del libro, 0 si no tiene
+     */
+    double getRating();
+
+    /**
+     * Devuelve la reseña del usuario.
+     *
+     * @return Reseña del libro
+     */
+    String getReview();
+}
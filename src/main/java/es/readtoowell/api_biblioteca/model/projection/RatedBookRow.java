@@ -0,0 +1,41 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+/**
+ * Proyección con los datos básicos de un libro y la calificación que le ha dado un usuario.
+ */
+public interface RatedBookRow {
+    /**
+     * Devuelve el identificador del libro.
+     *
+     * @return ID del libro
+     */
+    Long getId();
+
+    /**
+     * Devuelve el título del libro.
+     *
+     * @return Título del libro
+     */
+    String getTitle();
+
+    /**
+     * Devuelve el autor del libro.
+     *
+     * @return Autor del libro
+     */
+    String getAuthor();
+
+    /**
+     * Devuelve la portada del libro.
+     *
+     * @return Portada del libro
+     */
+    String getCover();
+
+    /**
+     * Devuelve la calificación del usuario.
+     *
+     * @return Calificación del libro
+     */
+    double getRating();
+}
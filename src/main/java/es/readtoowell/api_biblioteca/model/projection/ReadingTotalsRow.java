@@ -0,0 +1,20 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+/**
+ * Proyección con los totales de lectura de un usuario en un periodo.
+ */
+public interface ReadingTotalsRow {
+    /**
+     * Devuelve el número de libros terminados en el periodo.
+     *
+     * @return Número de libros terminados
+     */
+    long getBooks();
+
+    /**
+     * Devuelve la suma de las páginas de los libros terminados en el periodo.
+     *
+     * @return Número de páginas
+     */
+    long getPages();
+}
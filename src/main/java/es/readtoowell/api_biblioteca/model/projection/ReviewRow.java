@@ -0,0 +1,50 @@
+package es.readtoowell.api_biblioteca.model.projection;
+
+import java.util.Date;
+
+/**
+ * Proyección con los datos de una reseña y de su autor, sin cargar las entidades.
+ */
+public interface ReviewRow {
+    /**
+     * Devuelve el identificador del autor de la reseña.
+     *
+     * @return ID del usuario
+     */
+    Long getUserId();
+
+    /**
+     * Devuelve el nombre de usuario del autor de la reseña.
+     *
+     * @return Nombre de usuario
+     */
+    String getUsername();
+
+    /**
+     * Devuelve el nombre de perfil del autor de la reseña.
+     *
+     * @return Nombre de perfil
+     */
+    String getProfileName();
+
+    /**
+     * Devuelve la calificación que el autor dio al libro.
+     *
+     * @return Calificación
+     */
+    double getRating();
+
+    /**
+     * Devuelve el texto de la reseña.
+     *
+     * @return Texto de la reseña
+     */
+    String getReview();
+
+    /**
+     * Devuelve la fecha en la que se escribió la reseña.
+     *
+     * @return Fecha de la reseña, 'null' en las reseñas anteriores a que se guardara la fecha
+     */
+    Date getDateReview();
+}
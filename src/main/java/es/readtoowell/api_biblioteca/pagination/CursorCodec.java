@@ -0,0 +1,209 @@
+package es.readtoowell.api_biblioteca.pagination;
+
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import jakarta.validation.ValidationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utilidad para codificar y decodificar los cursores de la paginación por clave (keyset).
+ * Un cursor es una cadena opaca con los valores de la clave de ordenación del último elemento devuelto,
+ * terminando siempre en su ID para desempatar. Así, la siguiente porción se obtiene con una condición
+ * sobre la clave en lugar de con un OFFSET, y su coste no depende de lo lejos que se esté del principio.
+ * Los valores nulos se codifican como una cadena vacía.
+ */
+public final class CursorCodec {
+    private static final String SEPARATOR = "~";
+
+    /**
+     * Fecha usada como cursor de la primera porción en los listados de más reciente a más antiguo (31/12/9999).
+     */
+    public static final Date MAX_DATE = new Date(253402214400000L);
+
+    private CursorCodec() {}
+
+    /**
+     * Valores decodificados de un cursor.
+     *
+     * @param values Valores de la clave de ordenación, en el mismo orden en que se codificaron
+     */
+    public record Cursor(String[] values) {
+        /**
+         * Devuelve un valor del cursor como número entero.
+         *
+         * @param index Posición del valor
+         * @return Valor numérico
+         * @throws ValidationException El valor no es un número
+         */
+        public long getLong(int index) {
+            try {
+                return Long.parseLong(values[index]);
+            } catch (NumberFormatException e) {
+                throw invalid();
+            }
+        }
+
+        /**
+         * Devuelve un valor del cursor como número decimal.
+         *
+         * @param index Posición del valor
+         * @return Valor numérico
+         * @throws ValidationException El valor no es un número
+         */
+        public double getDouble(int index) {
+            try {
+                return Double.parseDouble(values[index]);
+            } catch (NumberFormatException e) {
+                throw invalid();
+            }
+        }
+
+        /**
+         * Devuelve un valor del cursor como fecha.
+         *
+         * @param index Posición del valor
+         * @return Fecha, 'null' si el elemento no tenía fecha
+         * @throws ValidationException El valor no es una fecha
+         */
+        public Date getDate(int index) {
+            return values[index].isEmpty() ? null : new Date(getLong(index));
+        }
+    }
+
+    /**
+     * Consulta de los elementos con fecha que van después de uno dado, ordenados por fecha descendente
+     * y por ID descendente.
+     *
+     * @param <T> Tipo de los elementos
+     */
+    @FunctionalInterface
+    public interface DatedQuery<T> {
+        Slice<T> find(Date date, Long lastId, Pageable pageable);
+    }
+
+    /**
+     * Consulta de los elementos sin fecha que van después de uno dado, ordenados por ID descendente.
+     *
+     * @param <T> Tipo de los elementos
+     */
+    @FunctionalInterface
+    public interface UndatedQuery<T> {
+        Slice<T> find(Long lastId, Pageable pageable);
+    }
+
+    /**
+     * Codifica los valores de la clave de ordenación de un elemento en un cursor.
+     * Las fechas se codifican como milisegundos desde 1970 y los valores nulos como una cadena vacía.
+     *
+     * @param values Valores de la clave de ordenación, terminando en el ID
+     * @return Cursor codificado
+     */
+    public static String encode(Object... values) {
+        String raw = Arrays.stream(values)
+                .map(value -> value == null ? ""
+                        : value instanceof Date date ? Long.toString(date.getTime()) : String.valueOf(value))
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor.
+     *
+     * @param cursor Cursor recibido en la petición
+     * @param length Número de valores que debe contener el cursor
+     * @return Valores del cursor, 'null' si el cursor está vacío (primera porción)
+     * @throws ValidationException El cursor es inválido
+     */
+    public static Cursor decode(String cursor, int length) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String[] values;
+        try {
+            values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (values.length != length) {
+            throw invalid();
+        }
+        return new Cursor(values);
+    }
+
+    /**
+     * Convierte una porción de entidades en una porción de DTOs, calculando el cursor de la siguiente porción
+     * a partir del último elemento.
+     *
+     * @param slice Porción de entidades
+     * @param mapper Función que convierte cada entidad en DTO
+     * @param cursorOf Función que calcula el cursor de una entidad
+     * @return Porción de DTOs con el cursor de la siguiente porción
+     * @param <T> Tipo de las entidades
+     * @param <R> Tipo de los DTOs
+     */
+    public static <T, R> CursorPageDTO<R> toCursorPage(Slice<T> slice, Function<? super T, R> mapper,
+                                                       Function<? super T, String> cursorOf) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty() ? cursorOf.apply(content.get(content.size() - 1)) : null;
+
+        return new CursorPageDTO<>(content.stream().map(mapper).collect(Collectors.toList()),
+                slice.getSize(), slice.hasNext(), nextCursor);
+    }
+
+    /**
+     * Obtiene la porción siguiente de un listado ordenado por fecha de más reciente a más antigua y por ID
+     * descendente, con los elementos sin fecha al final.
+     * Los elementos con fecha y sin fecha se consultan por separado, cada uno con una condición sobre las columnas
+     * tal cual, de modo que ambas consultas pueden recorrer un índice sobre (fecha, ID). Cuando se acaban los
+     * elementos con fecha, la porción se completa con los primeros elementos sin fecha.
+     *
+     * @param cursor Cursor decodificado con la fecha (posición 0) y el ID (posición 1) del último elemento devuelto,
+     *               'null' para obtener la primera porción
+     * @param size Tamaño de la porción
+     * @param dated Consulta de los elementos con fecha
+     * @param undated Consulta de los elementos sin fecha
+     * @return Porción con los elementos siguientes
+     * @param <T> Tipo de los elementos
+     */
+    public static <T> Slice<T> sliceByDateDesc(Cursor cursor, int size, DatedQuery<T> dated,
+                                               UndatedQuery<T> undated) {
+        Date fecha = cursor != null ? cursor.getDate(0) : MAX_DATE;
+        long lastId = cursor != null ? cursor.getLong(1) : Long.MAX_VALUE;
+
+        if (fecha == null) {
+            return undated.find(lastId, PageRequest.ofSize(size));
+        }
+
+        Slice<T> conFecha = dated.find(fecha, lastId, PageRequest.ofSize(size));
+        if (conFecha.hasNext()) {
+            return conFecha;
+        }
+
+        // Si la porción ya está completa, basta con saber si quedan elementos sin fecha
+        int restantes = size - conFecha.getNumberOfElements();
+        Slice<T> sinFecha = undated.find(Long.MAX_VALUE, PageRequest.ofSize(Math.max(restantes, 1)));
+        if (restantes == 0) {
+            return new SliceImpl<>(conFecha.getContent(), PageRequest.ofSize(size), sinFecha.hasContent());
+        }
+
+        List<T> content = new ArrayList<>(conFecha.getContent());
+        content.addAll(sinFecha.getContent());
+        return new SliceImpl<>(content, PageRequest.ofSize(size), sinFecha.hasNext());
+    }
+
+    private static ValidationException invalid() {
+        return new ValidationException("El cursor de paginación es inválido.");
+    }
+}
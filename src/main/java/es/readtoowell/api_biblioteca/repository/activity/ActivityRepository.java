@@ -0,0 +1,51 @@
+package es.readtoowell.api_biblioteca.repository.activity;
+
+import es.readtoowell.api_biblioteca.model.entity.Activity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repositorio para la gestión de entidades {@code Activity}.
+ */
+@Repository
+public interface ActivityRepository extends JpaRepository<Activity, Long> {
+    /**
+     * Busca las actividades no copiadas a las bandejas de varios usuarios anteriores al ID indicado,
+     * de más reciente a más antigua.
+     *
+     * @param userIds IDs de los usuarios
+     * @param lastId ID de la última actividad devuelta
+     * @param pageable Número máximo de actividades
+     * @return Lista con las actividades
+     */
+    @Query("""
+    SELECT a FROM Activity a
+    WHERE a.userId IN :userIds AND a.fannedOut = false AND a.id < :lastId
+    ORDER BY a.id DESC
+    """)
+    List<Activity> findNotFannedOutBefore(@Param("userIds") Collection<Long> userIds, @Param("lastId") Long lastId,
+                                          Pageable pageable);
+
+    /**
+     * Elimina las actividades anteriores a una fecha.
+     *
+     * @param date Fecha límite
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM actividad
+    WHERE fecha < :date
+    """, nativeQuery = true)
+    int deleteOlderThan(@Param("date") Date date);
+}
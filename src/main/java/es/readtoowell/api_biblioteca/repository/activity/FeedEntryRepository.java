@@ -0,0 +1,89 @@
+package es.readtoowell.api_biblioteca.repository.activity;
+
+import es.readtoowell.api_biblioteca.model.entity.Activity;
+import es.readtoowell.api_biblioteca.model.entity.FeedEntry;
+import es.readtoowell.api_biblioteca.model.entity.id.FeedEntryId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repositorio para la gestión de entidades {@code FeedEntry}.
+ */
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, FeedEntryId> {
+    /**
+     * Copia una actividad en las bandejas de todos los seguidores de un usuario, en una sola sentencia.
+     *
+     * @param userId ID del usuario que ha realizado la actividad
+     * @param activityId ID de la actividad
+     * @return Número de filas insertadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO bandeja_actividad (id_usuario, id_actividad)
+    SELECT s.id_seguidor, :activityId
+    FROM seguimiento s
+    WHERE s.id_seguido = :userId
+    ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int fanOut(@Param("userId") Long userId, @Param("activityId") Long activityId);
+
+    /**
+     * Busca las actividades de la bandeja de un usuario anteriores al ID indicado, de más reciente a más antigua.
+     * Se descartan las de los usuarios a los que ha dejado de seguir.
+     *
+     * @param userId ID del usuario propietario de la bandeja
+     * @param lastId ID de la última actividad devuelta
+     * @param pageable Número máximo de actividades
+     * @return Lista con las actividades
+     */
+    @Query("""
+    SELECT a FROM FeedEntry e
+    JOIN Activity a ON a.id = e.id.activityId
+    WHERE e.id.userId = :userId AND e.id.activityId < :lastId
+    AND EXISTS (SELECT 1 FROM Follow f WHERE f.id.followerId = :userId AND f.id.followedId = a.userId)
+    ORDER BY e.id.activityId DESC
+    """)
+    List<Activity> findInboxBefore(@Param("userId") Long userId, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Elimina de las bandejas las actividades anteriores a una fecha.
+     *
+     * @param date Fecha límite
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM bandeja_actividad b
+    USING actividad a
+    WHERE a.id_actividad = b.id_actividad AND a.fecha < :date
+    """, nativeQuery = true)
+    int deleteForActivitiesBefore(@Param("date") Date date);
+
+    /**
+     * Deja en cada bandeja solo las actividades más recientes.
+     *
+     * @param maxEntries Número máximo de actividades por bandeja
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM bandeja_actividad b
+    USING (SELECT id_usuario, id_actividad,
+                  ROW_NUMBER() OVER (PARTITION BY id_usuario ORDER BY id_actividad DESC) AS posicion
+           FROM bandeja_actividad) r
+    WHERE r.posicion > :maxEntries AND b.id_usuario = r.id_usuario AND b.id_actividad = r.id_actividad
+    """, nativeQuery = true)
+    int trimInboxes(@Param("maxEntries") int maxEntries);
+}
@@ -5,10 +5,14 @@ import es.readtoowell.api_biblioteca.model.entity.BookListItem;
 import es.readtoowell.api_biblioteca.model.entity.id.BookListItemId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -35,26 +39,72 @@ public interface BookListItemRepository extends JpaRepository<BookListItem, Book
     Page<BookListItem> findByListId(Long listId, Pageable pageable);
 
     /**
-     * Devuelve las listas de un usuario que no contienen un libro.
+     * Devuelve los libros de una lista con fecha de inclusión que van después de un libro, ordenados por fecha
+     * de inclusión descendente y por ID del libro descendente (paginación por cursor).
      *
-     * @param userId ID del usuario
-     * @param bookId ID del libro
-     * @return Listado de las listas del usuario que no contienen el libro
+     * @param listId ID de la lista
+     * @param date Fecha de inclusión del último libro devuelto
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la lista
      */
     @Query("""
-    SELECT bl
-    FROM BookList bl
-    WHERE bl.user.id = :userId
-    AND NOT EXISTS (
-        SELECT 1
-        FROM BookListItem bli
-        WHERE bli.list = bl
-        AND bli.book.id = :bookId
-    )
+    SELECT bli FROM BookListItem bli
+    WHERE bli.id.listId = :listId
+    AND (bli.dateAdded < :date OR (bli.dateAdded = :date AND bli.id.bookId < :lastBookId))
+    ORDER BY bli.dateAdded DESC, bli.id.bookId DESC
     """)
-    Page<BookList> findAllListsByUserIdAndBookIdNotIn(
-            @Param("userId") Long userId,
-            @Param("bookId") Long bookId,
-            Pageable pageable
-    );
+    Slice<BookListItem> findByListIdAddedBefore(@Param("listId") Long listId, @Param("date") Date date,
+                                                @Param("lastBookId") Long lastBookId, Pageable pageable);
+
+    /**
+     * Devuelve los libros de una lista sin fecha de inclusión que van después de un libro, ordenados por ID
+     * del libro descendente (paginación por cursor). Se listan detrás de los libros con fecha.
+     *
+     * @param listId ID de la lista
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la lista
+     */
+    @Query("""
+    SELECT bli FROM BookListItem bli
+    WHERE bli.id.listId = :listId
+    AND bli.dateAdded IS NULL AND bli.id.bookId < :lastBookId
+    ORDER BY bli.id.bookId DESC
+    """)
+    Slice<BookListItem> findByListIdUndatedBefore(@Param("listId") Long listId,
+                                                  @Param("lastBookId") Long lastBookId, Pageable pageable);
+
+    /**
+     * Añade un libro a una lista si no estaba ya en ella.
+     *
+     * @param listId ID de la lista
+     * @param bookId ID del libro
+     * @param dateAdded Fecha en la que se añade el libro
+     * @return 1 si se ha añadido el libro, 0 si ya estaba en la lista
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO libro_lista (id_lista, id_libro, fecha_añadido)
+    VALUES (:listId, :bookId, :dateAdded)
+    ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("listId") Long listId, @Param("bookId") Long bookId,
+                       @Param("dateAdded") Date dateAdded);
+
+    /**
+     * Quita un libro de una lista.
+     *
+     * @param listId ID de la lista
+     * @param bookId ID del libro
+     * @return 1 si se ha quitado el libro, 0 si no estaba en la lista
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM libro_lista
+    WHERE id_lista = :listId AND id_libro = :bookId
+    """, nativeQuery = true)
+    int deleteByKey(@Param("listId") Long listId, @Param("bookId") Long bookId);
 }
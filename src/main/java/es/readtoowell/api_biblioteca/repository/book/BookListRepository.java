@@ -1,13 +1,15 @@
 package es.readtoowell.api_biblioteca.repository.book;
 
 import es.readtoowell.api_biblioteca.model.entity.BookList;
+import es.readtoowell.api_biblioteca.model.projection.BookListSummaryRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,28 +17,100 @@ import java.util.Optional;
  */
 public interface BookListRepository extends JpaRepository<BookList, Long> {
     /**
-     * Devuelve las listas de un usuario.
+     * Devuelve una lista de libros y sus géneros asociados.
+     *
+     * Los libros no se cargan en la misma consulta para no multiplicar las filas por los géneros.
      *
-     * @param id ID del usuario
-     * @param pageable Información de paginación.
-     * @return Página con listas asociadas al usuario, paginada según {@code pageable}
+     * @param id ID de la lista
+     * @return Un {@code Optional} con la lista. Si no se encuentra, estará vacío.
      */
-    Page<BookList> findByUserId(Long id, Pageable pageable);
+    @Query("SELECT l FROM BookList l LEFT JOIN FETCH l.genres WHERE l.id = :id")
+    Optional<BookList> findByIdWithRelations(@Param("id") Long id);
 
     /**
-     * Devuelve una lista de libros y sus géneros asociados.
+     * Suma una cantidad al número de libros de una lista.
      *
      * @param id ID de la lista
-     * @return Un {@code Optional} con la lista. Si no se encuentra, estará vacío.
+     * @param delta Cantidad a sumar, negativa para restar
+     * @return Número de filas actualizadas
      */
-    @Query("SELECT l FROM BookList l LEFT JOIN FETCH l.books LEFT JOIN FETCH l.genres WHERE l.id = :id")
-    Optional<BookList> findByIdWithRelations(@Param("id") Long id);
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE lista
+    SET num_libros = num_libros + :delta
+    WHERE id_lista = :id
+    """, nativeQuery = true)
+    int addToBookCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Indica si alguna lista con libros tiene su contador a cero, como ocurre al crear la columna del contador
+     * en una base de datos con listas.
+     *
+     * @return 'true' si hay listas sin contar, 'false' en caso contrario
+     */
+    @Query(value = """
+    SELECT EXISTS (SELECT 1 FROM lista l
+                   WHERE l.num_libros = 0
+                   AND EXISTS (SELECT 1 FROM libro_lista ll WHERE ll.id_lista = l.id_lista))
+    """, nativeQuery = true)
+    boolean existsUncountedList();
+
+    /**
+     * Recalcula el número de libros de las listas cuyo contador no coincide con sus libros.
+     *
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE lista l
+    SET num_libros = c.total
+    FROM (SELECT l2.id_lista, COUNT(ll.id_libro) AS total
+          FROM lista l2
+          LEFT JOIN libro_lista ll ON ll.id_lista = l2.id_lista
+          GROUP BY l2.id_lista) c
+    WHERE c.id_lista = l.id_lista AND l.num_libros <> c.total
+    """, nativeQuery = true)
+    int rebuildBookCounts();
 
     /**
-     * Devuelve todas las listas de un usuario.
+     * Devuelve los resúmenes de las listas de un usuario: nombre, número de libros, portadas de los últimos
+     * libros añadidos e IDs de los géneros, todo en una sola consulta y sin cargar las entidades.
      *
-     * @param idUser ID del usuario
-     * @return Lista con todas las listas del usuario
+     * @param userId ID del usuario
+     * @param excludedBookId ID de un libro: se omiten las listas que lo contienen. 0 para no omitir ninguna
+     * @param includeEmpty 'true' para incluir las listas sin libros ni géneros, 'false' para omitirlas
+     * @param coverLimit Número máximo de portadas por lista
+     * @param pageable Información de paginación
+     * @return Página con los resúmenes de las listas, ordenadas por ID
      */
-    List<BookList> findAllByUserId(Long idUser);
+    @Query(value = """
+    SELECT l.id_lista AS id, l.nombre AS name, l.num_libros AS bookCount,
+           array_to_string(ARRAY(
+               SELECT b.portada
+               FROM libro_lista ll
+               JOIN libro b ON b.id_libro = ll.id_libro
+               WHERE ll.id_lista = l.id_lista AND b.portada IS NOT NULL AND b.portada <> ''
+               ORDER BY ll.fecha_añadido DESC NULLS LAST, ll.id_libro DESC
+               LIMIT :coverLimit), chr(10)) AS covers,
+           (SELECT string_agg(CAST(gl.id_genero AS text), ',' ORDER BY gl.id_genero)
+            FROM genero_lista gl
+            WHERE gl.id_lista = l.id_lista) AS genreIds
+    FROM lista l
+    WHERE l.id_usuario = :userId
+    AND NOT EXISTS (SELECT 1 FROM libro_lista x WHERE x.id_lista = l.id_lista AND x.id_libro = :excludedBookId)
+    AND (:includeEmpty OR l.num_libros > 0 OR EXISTS (SELECT 1 FROM genero_lista g WHERE g.id_lista = l.id_lista))
+    ORDER BY l.id_lista
+    """, countQuery = """
+    SELECT COUNT(*)
+    FROM lista l
+    WHERE l.id_usuario = :userId
+    AND NOT EXISTS (SELECT 1 FROM libro_lista x WHERE x.id_lista = l.id_lista AND x.id_libro = :excludedBookId)
+    AND (:includeEmpty OR l.num_libros > 0 OR EXISTS (SELECT 1 FROM genero_lista g WHERE g.id_lista = l.id_lista))
+    """, nativeQuery = true)
+    Page<BookListSummaryRow> findSummariesByUserId(@Param("userId") Long userId,
+                                                   @Param("excludedBookId") Long excludedBookId,
+                                                   @Param("includeEmpty") boolean includeEmpty,
+                                                   @Param("coverLimit") int coverLimit, Pageable pageable);
 }
@@ -0,0 +1,139 @@
+package es.readtoowell.api_biblioteca.repository.book;
+
+import es.readtoowell.api_biblioteca.model.entity.BookNeighbor;
+import es.readtoowell.api_biblioteca.model.entity.id.BookNeighborId;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para la gestión de entidades {@code BookNeighbor}.
+ */
+@Repository
+public interface BookNeighborRepository extends JpaRepository<BookNeighbor, BookNeighborId> {
+    /**
+     * Busca los vecinos precalculados de varios libros.
+     *
+     * @param bookIds IDs de los libros
+     * @return Lista con los vecinos de todos los libros indicados
+     */
+    List<BookNeighbor> findByIdBookIdIn(Collection<Long> bookIds);
+
+    /**
+     * Inserta o actualiza los vecinos de un grupo de libros.
+     * Los tres arreglos van en paralelo: cada posición es una relación de similitud.
+     *
+     * @param bookIds ID del libro de cada relación
+     * @param neighborIds ID del libro similar de cada relación
+     * @param similarities Similitud de cada relación
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO libro_vecino (id_libro, id_vecino, similitud)
+    SELECT v.id_libro, v.id_vecino, v.similitud
+    FROM unnest(CAST(:bookIds AS bigint[]), CAST(:neighborIds AS bigint[]),
+                CAST(:similarities AS double precision[])) AS v(id_libro, id_vecino, similitud)
+    ON CONFLICT (id_libro, id_vecino) DO UPDATE
+    SET similitud = EXCLUDED.similitud
+    """, nativeQuery = true)
+    int upsertNeighbors(@Param("bookIds") Long[] bookIds, @Param("neighborIds") Long[] neighborIds,
+                        @Param("similarities") Double[] similarities);
+
+    /**
+     * Elimina los vecinos de un grupo de libros que ya no están entre los indicados.
+     * {@code keptBookIds} y {@code keptNeighborIds} van en paralelo: cada posición es una relación que se conserva.
+     *
+     * @param bookIds IDs de los libros del grupo
+     * @param keptBookIds ID del libro de cada relación que se conserva
+     * @param keptNeighborIds ID del vecino de cada relación que se conserva
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM libro_vecino lv
+    WHERE lv.id_libro = ANY(CAST(:bookIds AS bigint[]))
+      AND NOT EXISTS (
+          SELECT 1
+          FROM unnest(CAST(:keptBookIds AS bigint[]), CAST(:keptNeighborIds AS bigint[])) AS v(id_libro, id_vecino)
+          WHERE v.id_libro = lv.id_libro AND v.id_vecino = lv.id_vecino)
+    """, nativeQuery = true)
+    int deleteNeighborsNotIn(@Param("bookIds") Long[] bookIds, @Param("keptBookIds") Long[] keptBookIds,
+                             @Param("keptNeighborIds") Long[] keptNeighborIds);
+
+    /**
+     * Elimina todas las relaciones de similitud en las que participa un libro.
+     *
+     * @param bookId ID del libro
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM libro_vecino
+    WHERE id_libro = :bookId OR id_vecino = :bookId
+    """, nativeQuery = true)
+    int deleteByBook(@Param("bookId") Long bookId);
+
+    /**
+     * Elimina los vecinos de los libros que no se han incluido en el último cálculo.
+     *
+     * @param bookIds IDs de los libros incluidos en el cálculo
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM libro_vecino
+    WHERE id_libro <> ALL(CAST(:bookIds AS bigint[]))
+    """, nativeQuery = true)
+    int deleteBooksNotIn(@Param("bookIds") Long[] bookIds);
+
+    /**
+     * Devuelve los géneros de todos los libros activos.
+     *
+     * @return Filas con el ID del género (grupo) y el ID del libro
+     */
+    @Query(value = """
+    SELECT lg.id_genero AS groupId, lg.id_libro AS bookId
+    FROM libro_genero lg
+    JOIN libro b ON b.id_libro = lg.id_libro
+    WHERE b.activo = true
+    """, nativeQuery = true)
+    List<BookGroupRow> findActiveBookGenres();
+
+    /**
+     * Devuelve los libros activos de las bibliotecas de todos los usuarios.
+     *
+     * @return Filas con el ID del usuario (grupo) y el ID del libro
+     */
+    @Query(value = """
+    SELECT lb.id_usuario AS groupId, lb.id_libro AS bookId
+    FROM libro_biblioteca lb
+    JOIN libro b ON b.id_libro = lb.id_libro
+    WHERE b.activo = true
+    """, nativeQuery = true)
+    List<BookGroupRow> findActiveLibraryBooks();
+
+    /**
+     * Devuelve los libros activos de todas las listas.
+     *
+     * @return Filas con el ID de la lista (grupo) y el ID del libro
+     */
+    @Query(value = """
+    SELECT ll.id_lista AS groupId, ll.id_libro AS bookId
+    FROM libro_lista ll
+    JOIN libro b ON b.id_libro = ll.id_libro
+    WHERE b.activo = true
+    """, nativeQuery = true)
+    List<BookGroupRow> findActiveListBooks();
+}
@@ -1,13 +1,18 @@
 package es.readtoowell.api_biblioteca.repository.book;
 
 import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.model.projection.BookDetailsRow;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import es.readtoowell.api_biblioteca.model.projection.BookSearchDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -80,6 +85,175 @@ public interface BookRepository extends JpaRepository<Book, Long> {
             Pageable pageable
     );
 
+    /**
+     * Busca libros por título, autor o colección continuando a partir de un libro (paginación por cursor).
+     * Los resultados se ordenan por ID.
+     *
+     * @param searchString Cadena por la que se buscará por título, autor o colección
+     * @param minPages Número mínimo de páginas
+     * @param maxPages Número máximo de páginas
+     * @param minYear Año mínimo de publicación
+     * @param maxYear Año máximo de publicación
+     * @param lastId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros con ID mayor que {@code lastId}
+     */
+    @Query("""
+            select b from Book b left join b.collection c
+            where (:searchString is null or
+                lower(b.title) like lower(concat('%', :searchString, '%'))
+                or lower(b.author) like lower(concat('%', :searchString, '%'))
+                or lower(c.name) like lower(concat('%', :searchString, '%')))
+            and (:minPages is null or b.pageNumber >= :minPages)
+            and (:maxPages is null or b.pageNumber <= :maxPages)
+            and (:minYear is null or b.publicationYear >= :minYear)
+            and (:maxYear is null or b.publicationYear <= :maxYear)
+            and b.active is true
+            and b.id > :lastId
+            order by b.id""")
+    Slice<Book> filterBooksAfter(
+            @Param("searchString") String searchString,
+            @Param("minPages") Integer minPages,
+            @Param("maxPages") Integer maxPages,
+            @Param("minYear") Integer minYear,
+            @Param("maxYear") Integer maxYear,
+            @Param("lastId") Long lastId,
+            Pageable pageable
+    );
+
+    /**
+     * Busca los libros activos que van después de un libro, ordenados por año de publicación
+     * descendente y por ID descendente (paginación por cursor).
+     *
+     * @param year Año de publicación del último libro devuelto
+     * @param lastId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes
+     */
+    @Query("""
+            select b from Book b
+            where b.active = true
+            and (b.publicationYear < :year or (b.publicationYear = :year and b.id < :lastId))
+            order by b.publicationYear desc, b.id desc""")
+    Slice<Book> findActiveAfter(@Param("year") int year, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Devuelve los datos necesarios para indexar todos los libros activos en el buscador.
+     *
+     * @return Lista con las proyecciones de los libros activos
+     */
+    @Query("""
+            select b.id as id, b.title as title, b.author as author, c.name as collectionName,
+                b.pageNumber as pageNumber, b.publicationYear as publicationYear
+            from Book b left join b.collection c
+            where b.active is true""")
+    List<BookSearchDocument> findSearchDocuments();
+
+    /**
+     * Busca varios libros por su ID, cargando en la misma consulta sus géneros y su colección.
+     *
+     * @param ids IDs de los libros
+     * @return Lista con los libros encontrados, sin un orden concreto
+     */
+    @Query("""
+            select distinct b from Book b
+            left join fetch b.genres
+            left join fetch b.collection
+            where b.id in :ids""")
+    List<Book> findAllWithGenresByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca un libro por su ID, cargando en la misma consulta sus géneros y su colección.
+     *
+     * @param id ID del libro
+     * @return Un {@code Optional} con el libro. Si no se encuentra, estará vacío.
+     */
+    @Query("""
+            select distinct b from Book b
+            left join fetch b.genres
+            left join fetch b.collection
+            where b.id = :id""")
+    Optional<Book> findWithGenresById(@Param("id") Long id);
+
+    /**
+     * Devuelve, en una sola consulta, los datos de los detalles de un libro que dependen del usuario:
+     * el libro en su biblioteca, las estadísticas de calificación, las listas del usuario que contienen
+     * el libro y las reseñas más recientes de otros usuarios.
+     *
+     * @param bookId ID del libro
+     * @param userId ID del usuario que consulta los detalles
+     * @param reviewLimit Número máximo de reseñas a devolver
+     * @return Filas con los datos comunes y un elemento (lista o reseña) cada una; al menos una fila
+     */
+    @Query(value = """
+    WITH contexto AS (
+        SELECT lb.id_libro IS NOT NULL AS saved,
+               lb.estado_lectura AS readingStatus,
+               lb.calificacion AS rating,
+               lb.reseña AS review,
+               lb.fecha_inicio AS dateStart,
+               lb.fecha_fin AS dateFinish,
+               s.suma_calificaciones AS ratingSum,
+               s.num_calificaciones AS ratingCount,
+               array_to_string(s.histograma_calificaciones, ',') AS ratingHistogram,
+               (SELECT COUNT(*) FROM libro_biblioteca r
+                WHERE r.id_libro = :bookId AND r.id_usuario <> :userId
+                AND r.reseña IS NOT NULL AND r.reseña <> '') AS reviewCount
+        FROM (SELECT 1) AS uno
+        LEFT JOIN libro_biblioteca lb ON lb.id_libro = :bookId AND lb.id_usuario = :userId
+        LEFT JOIN estadisticas_libro s ON s.id_libro = :bookId
+    )
+    SELECT c.*, e.kind AS itemKind, e.item_id AS itemId, e.name AS itemName,
+           e.profile_name AS itemProfileName, e.rating AS itemRating, e.text AS itemText, e.fecha AS itemDate
+    FROM contexto c
+    LEFT JOIN LATERAL (
+        (SELECT 'L' AS kind, l.id_lista AS item_id, l.nombre AS name, NULL AS profile_name,
+                NULL AS rating, NULL AS text, NULL AS fecha
+         FROM libro_lista ll
+         JOIN lista l ON l.id_lista = ll.id_lista
+         WHERE ll.id_libro = :bookId AND l.id_usuario = :userId
+         ORDER BY l.id_lista)
+        UNION ALL
+        (SELECT 'R', r.id_usuario, u.nombre_usuario, u.nombre_perfil, r.calificacion, r.reseña, r.fecha_reseña
+         FROM libro_biblioteca r
+         JOIN usuario u ON u.id_usuario = r.id_usuario
+         WHERE r.id_libro = :bookId AND r.id_usuario <> :userId
+         AND r.reseña IS NOT NULL AND r.reseña <> ''
+         ORDER BY r.fecha_reseña DESC NULLS LAST, r.id_usuario DESC
+         LIMIT :reviewLimit)
+    ) e ON true
+    """, nativeQuery = true)
+    List<BookDetailsRow> findDetailsContext(@Param("bookId") Long bookId, @Param("userId") Long userId,
+                                            @Param("reviewLimit") int reviewLimit);
+
+    /**
+     * Devuelve los géneros de todos los libros, activos o no.
+     *
+     * @return Filas con el ID del género (grupo) y el ID del libro
+     */
+    @Query(value = """
+    SELECT lg.id_genero AS groupId, lg.id_libro AS bookId
+    FROM libro_genero lg
+    """, nativeQuery = true)
+    List<BookGroupRow> findAllBookGenres();
+
+    /**
+     * Devuelve los géneros de varios libros.
+     *
+     * @param bookIds IDs de los libros
+     * @return Filas con el ID del género (grupo) y el ID del libro
+     */
+    @Query("SELECT g.id AS groupId, b.id AS bookId FROM Book b JOIN b.genres g WHERE b.id IN :bookIds")
+    List<BookGroupRow> findGenresOfBooks(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * Devuelve los IDs de todos los libros activos.
+     *
+     * @return Lista con los IDs de los libros activos
+     */
+    @Query("select b.id from Book b where b.active = true")
+    List<Long> findActiveIds();
+
     /**
      * Busca libros por género.
      *
@@ -133,12 +307,13 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      *
      * @param bookIds Lista de IDs de libros
      * @param userId ID del usuario
-     * @return Lista de libros resultantes
+     * @return Lista con los IDs de los libros resultantes, ordenados por relevancia
      */
     @Query(value = """
-    SELECT b.*, COUNT(*) AS generos_similares
+    SELECT b.id_libro
     FROM libro b
     JOIN libro_genero lg ON b.id_libro = lg.id_libro
+    LEFT JOIN estadisticas_libro s ON s.id_libro = b.id_libro
     WHERE lg.id_genero IN (
         SELECT lg2.id_genero
         FROM libro_genero lg2
@@ -151,14 +326,12 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     )
     AND b.id_libro NOT IN (:bookIds)
     AND b.activo = true
-    GROUP BY b.id_libro
-    ORDER BY generos_similares DESC,
-             (SELECT AVG(ub2.calificacion)
-              FROM libro_biblioteca ub2
-              WHERE ub2.id_libro = b.id_libro) DESC
+    GROUP BY b.id_libro, s.suma_calificaciones, s.num_calificaciones
+    ORDER BY COUNT(*) DESC,
+             COALESCE(s.suma_calificaciones / NULLIF(s.num_calificaciones, 0), 0) DESC
     LIMIT 30
     """, nativeQuery = true)
-    List<Book> findSimilarBooksByFavoriteBooks(@Param("bookIds") List<Long> bookIds, @Param("userId") Long userId);
+    List<Long> findSimilarBooksByFavoriteBooks(@Param("bookIds") List<Long> bookIds, @Param("userId") Long userId);
 
     /**
      * Busca libros que tengan géneros similares a los que se pasan como parámetro.
@@ -166,12 +339,13 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      *
      * @param genreIds Lista de IDs de géneros
      * @param userId ID del usuario
-     * @return Lista de libros resultantes
+     * @return Lista con los IDs de los libros resultantes, ordenados por relevancia
      */
     @Query(value = """
-    SELECT b.*, COUNT(*) AS generos_similares
+    SELECT b.id_libro
     FROM libro b
     JOIN libro_genero lg ON b.id_libro = lg.id_libro
+    LEFT JOIN estadisticas_libro s ON s.id_libro = b.id_libro
     WHERE lg.id_genero IN (:genreIds)
     AND b.id_libro NOT IN (
         SELECT ub.id_libro
@@ -179,26 +353,25 @@ public interface BookRepository extends JpaRepository<Book, Long> {
         WHERE ub.id_usuario = :userId
     )
     AND b.activo = true
-    GROUP BY b.id_libro
-    ORDER BY generos_similares DESC,
-             (SELECT AVG(ub2.calificacion)
-              FROM libro_biblioteca ub2
-              WHERE ub2.id_libro = b.id_libro) DESC
+    GROUP BY b.id_libro, s.suma_calificaciones, s.num_calificaciones
+    ORDER BY COUNT(*) DESC,
+             COALESCE(s.suma_calificaciones / NULLIF(s.num_calificaciones, 0), 0) DESC
     LIMIT 30
     """, nativeQuery = true)
-    List<Book> findBooksWithSimilarGenres(@Param("genreIds") List<Long> genreIds, @Param("userId") Long userId);
+    List<Long> findBooksWithSimilarGenres(@Param("genreIds") List<Long> genreIds, @Param("userId") Long userId);
 
     /**
      * Busca libros que tengan géneros similares los leídos y mejor calificados por el usuario.
      * Ignora los libros guardados en la biblioteca personal del usuario.
      *
      * @param userId ID del usuario
-     * @return Lista de libros resultantes
+     * @return Lista con los IDs de los libros resultantes, ordenados por relevancia
      */
     @Query(value = """
-    SELECT b.*
+    SELECT b.id_libro
     FROM libro b
     JOIN libro_genero lg ON b.id_libro = lg.id_libro
+    LEFT JOIN estadisticas_libro s ON s.id_libro = b.id_libro
     WHERE b.id_libro NOT IN (
         SELECT ub.id_libro
         FROM libro_biblioteca ub
@@ -211,14 +384,12 @@ public interface BookRepository extends JpaRepository<Book, Long> {
         WHERE ub2.id_usuario = :userId AND ub2.estado_lectura = 2 AND ub2.calificacion >= 3
     )
     AND b.activo = true
-    GROUP BY b.id_libro
+    GROUP BY b.id_libro, s.suma_calificaciones, s.num_calificaciones
     ORDER BY COUNT(lg.id_genero) DESC,
-             (SELECT AVG(ub3.calificacion)
-              FROM libro_biblioteca ub3
-              WHERE ub3.id_libro = b.id_libro) DESC
+             COALESCE(s.suma_calificaciones / NULLIF(s.num_calificaciones, 0), 0) DESC
     LIMIT 30
     """, nativeQuery = true)
-    List<Book> findBooksSimilarToReadOnes(@Param("userId") Long userId);
+    List<Long> findBooksSimilarToReadOnes(@Param("userId") Long userId);
 
 
     /**
@@ -227,11 +398,12 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      *
      * @param userId ID del usuario
      * @param minPublicationYear Año mínimo de publicación
-     * @return Lista de libros resultantes
+     * @return Lista con los IDs de los libros resultantes, ordenados por relevancia
      */
     @Query(value = """
-    SELECT b.*
+    SELECT b.id_libro
     FROM libro b
+    LEFT JOIN estadisticas_libro s ON s.id_libro = b.id_libro
     WHERE b.activo = true
       AND b.año_publicacion >= :minPublicationYear
       AND b.id_libro NOT IN (
@@ -239,14 +411,10 @@ public interface BookRepository extends JpaRepository<Book, Long> {
           FROM libro_biblioteca ub
           WHERE ub.id_usuario = :userId
       )
-    ORDER BY (
-        SELECT COALESCE(AVG(ub2.calificacion), 0)
-        FROM libro_biblioteca ub2
-        WHERE ub2.id_libro = b.id_libro
-    ) DESC
+    ORDER BY COALESCE(s.suma_calificaciones / NULLIF(s.num_calificaciones, 0), 0) DESC
     LIMIT 30
     """, nativeQuery = true)
-    List<Book> findGeneralRecommendations(@Param("userId") Long userId,
+    List<Long> findGeneralRecommendations(@Param("userId") Long userId,
                                           @Param("minPublicationYear") int minPublicationYear);
 
 }
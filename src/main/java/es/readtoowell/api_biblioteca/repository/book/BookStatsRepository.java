@@ -0,0 +1,113 @@
+package es.readtoowell.api_biblioteca.repository.book;
+
+import es.readtoowell.api_biblioteca.model.entity.BookStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositorio para la gestión de entidades {@code BookStats}.
+ * Las actualizaciones se hacen de forma atómica en la base de datos para no perder
+ * incrementos cuando varios usuarios califican el mismo libro a la vez.
+ */
+@Repository
+public interface BookStatsRepository extends JpaRepository<BookStats, Long> {
+    /**
+     * Crea la fila de estadísticas de un libro, si todavía no existe.
+     *
+     * @param bookId ID del libro
+     * @return Número de filas insertadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_libro (id_libro, suma_calificaciones, num_calificaciones, num_lectores,
+                                    histograma_calificaciones)
+    VALUES (:bookId, 0, 0, 0, ARRAY[0, 0, 0, 0, 0, 0, 0, 0, 0, 0])
+    ON CONFLICT (id_libro) DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("bookId") Long bookId);
+
+    /**
+     * Suma (o resta, con {@code delta} negativo) una calificación a las estadísticas de un libro.
+     *
+     * @param bookId ID del libro
+     * @param rating Calificación
+     * @param bucket Posición del histograma correspondiente a la calificación
+     * @param delta 1 para añadir la calificación, -1 para quitarla
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE estadisticas_libro
+    SET suma_calificaciones = suma_calificaciones + :delta * :rating,
+        num_calificaciones = num_calificaciones + :delta,
+        histograma_calificaciones[:bucket] = histograma_calificaciones[:bucket] + :delta
+    WHERE id_libro = :bookId
+    """, nativeQuery = true)
+    int addRating(@Param("bookId") Long bookId, @Param("rating") double rating,
+                  @Param("bucket") int bucket, @Param("delta") int delta);
+
+    /**
+     * Suma (o resta, con {@code delta} negativo) lectores a las estadísticas de un libro.
+     *
+     * @param bookId ID del libro
+     * @param delta Cantidad de lectores a sumar
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE estadisticas_libro
+    SET num_lectores = num_lectores + :delta
+    WHERE id_libro = :bookId
+    """, nativeQuery = true)
+    int addReaders(@Param("bookId") Long bookId, @Param("delta") int delta);
+
+    /**
+     * Recalcula las estadísticas de todos los libros presentes en alguna biblioteca
+     * a partir de la tabla {@code libro_biblioteca}.
+     *
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_libro (id_libro, suma_calificaciones, num_calificaciones, num_lectores,
+                                    histograma_calificaciones)
+    SELECT lb.id_libro,
+           COALESCE(SUM(lb.calificacion) FILTER (WHERE lb.calificacion > 0), 0),
+           COUNT(*) FILTER (WHERE lb.calificacion > 0),
+           COUNT(*),
+           ARRAY(SELECT CAST(COUNT(h.id_libro) AS integer)
+                 FROM generate_series(1, 10) AS s(i)
+                 LEFT JOIN libro_biblioteca h ON h.id_libro = lb.id_libro AND h.calificacion * 2 = s.i
+                 GROUP BY s.i
+                 ORDER BY s.i)
+    FROM libro_biblioteca lb
+    GROUP BY lb.id_libro
+    ON CONFLICT (id_libro) DO UPDATE
+    SET suma_calificaciones = EXCLUDED.suma_calificaciones,
+        num_calificaciones = EXCLUDED.num_calificaciones,
+        num_lectores = EXCLUDED.num_lectores,
+        histograma_calificaciones = EXCLUDED.histograma_calificaciones
+    """, nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * Elimina las estadísticas de los libros que ya no están en ninguna biblioteca.
+     *
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM estadisticas_libro s
+    WHERE NOT EXISTS (SELECT 1 FROM libro_biblioteca lb WHERE lb.id_libro = s.id_libro)
+    """, nativeQuery = true)
+    int deleteOrphans();
+}
@@ -1,8 +1,12 @@
 package es.readtoowell.api_biblioteca.repository.book;
 
 import es.readtoowell.api_biblioteca.model.entity.Collection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,5 +19,17 @@ public interface CollectionRepository extends JpaRepository<Collection, Long> {
      * @param name Nombre de la colección
      * @return Un {@code Optional} con la colección. Si no se encuentra, estará vacío.
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "colecciones")})
     Optional<Collection> findByName(String name);
+
+    /**
+     * Devuelve todas las colecciones. El resultado se guarda en la caché de consultas.
+     *
+     * @return Lista con todas las colecciones
+     */
+    @Override
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "colecciones")})
+    List<Collection> findAll();
 }
@@ -1,12 +1,26 @@
 package es.readtoowell.api_biblioteca.repository.book;
 
 import es.readtoowell.api_biblioteca.model.entity.Genre;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Repositorio para la gestión de entidades {@code Genre}
  */
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, Long> {
+    /**
+     * Devuelve todos los géneros. El resultado se guarda en la caché de consultas.
+     *
+     * @return Lista con todos los géneros
+     */
+    @Override
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "generos")})
+    List<Genre> findAll();
 }
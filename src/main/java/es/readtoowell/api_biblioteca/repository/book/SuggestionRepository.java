@@ -3,8 +3,12 @@ package es.readtoowell.api_biblioteca.repository.book;
 import es.readtoowell.api_biblioteca.model.entity.Suggestion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -27,4 +31,41 @@ public interface SuggestionRepository extends JpaRepository<Suggestion, Long> {
      * @return Lista con las sugerencias filtradas
      */
     List<Suggestion> findByStatus(int status);
+
+    /**
+     * Busca sugerencias de libro con fecha de envío que van después de una dada, ordenadas por fecha de envío
+     * descendente y por ID descendente (paginación por cursor).
+     *
+     * @param status Estado por el que se quiere filtrar, 'null' para no filtrar
+     * @param date Fecha de envío de la última sugerencia devuelta
+     * @param lastId ID de la última sugerencia devuelta
+     * @param pageable Tamaño de la porción
+     * @return Porción con las sugerencias siguientes
+     */
+    @Query("""
+    SELECT s FROM Suggestion s
+    WHERE (:status IS NULL OR s.status = :status)
+    AND (s.dateSent < :date OR (s.dateSent = :date AND s.id < :lastId))
+    ORDER BY s.dateSent DESC, s.id DESC
+    """)
+    Slice<Suggestion> findSentBefore(@Param("status") Integer status, @Param("date") Date date,
+                                     @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Busca sugerencias de libro sin fecha de envío que van después de una dada, ordenadas por ID descendente
+     * (paginación por cursor). Se listan detrás de las sugerencias con fecha.
+     *
+     * @param status Estado por el que se quiere filtrar, 'null' para no filtrar
+     * @param lastId ID de la última sugerencia devuelta
+     * @param pageable Tamaño de la porción
+     * @return Porción con las sugerencias siguientes
+     */
+    @Query("""
+    SELECT s FROM Suggestion s
+    WHERE (:status IS NULL OR s.status = :status)
+    AND s.dateSent IS NULL AND s.id < :lastId
+    ORDER BY s.id DESC
+    """)
+    Slice<Suggestion> findUnsentBefore(@Param("status") Integer status, @Param("lastId") Long lastId,
+                                       Pageable pageable);
 }
@@ -1,7 +1,10 @@
 package es.readtoowell.api_biblioteca.repository.goal;
 
 import es.readtoowell.api_biblioteca.model.entity.GoalDuration;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
@@ -15,5 +18,7 @@ public interface GoalDurationRepository extends JpaRepository<GoalDuration, Long
      * @param name Nombre de la duración de objetivo.
      * @return Un {@code Optional} con la duración de objetivo. Si no se encuentra, estará vacío.
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "objetivos")})
     Optional<GoalDuration> findByName(String name);
 }
@@ -2,10 +2,13 @@ package es.readtoowell.api_biblioteca.repository.goal;
 
 import es.readtoowell.api_biblioteca.model.entity.Goal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -35,4 +38,62 @@ public interface GoalRepository extends JpaRepository<Goal, Long> {
     AND EXTRACT(YEAR FROM g.dateFinish) = :year
     """)
     List<Goal> findAnnualGoalsByYear(@Param("userId") Long userId, @Param("year") int year);
+
+    /**
+     * Suma libros o páginas a los objetivos en curso de un usuario cuyo periodo incluye la fecha indicada.
+     * Los objetivos de tipo 'Libros' reciben {@code books} y el resto {@code pages}. Los objetivos ya
+     * completados no se modifican.
+     *
+     * @param userId ID del usuario
+     * @param date Fecha del progreso
+     * @param books Libros a sumar (negativo para restar)
+     * @param pages Páginas a sumar (negativo para restar)
+     * @return Número de objetivos actualizados
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE objetivo o
+    SET cantidad_actual = o.cantidad_actual + CASE WHEN t.nombre = 'Libros' THEN :books ELSE :pages END
+    FROM tipo_objetivo t
+    WHERE t.id_tipo = o.id_tipo
+    AND o.id_usuario = :userId
+    AND o.fecha_fin >= CURRENT_DATE
+    AND o.cantidad_actual < o.cantidad
+    AND :date BETWEEN o.fecha_inicio AND o.fecha_fin
+    """, nativeQuery = true)
+    int addProgress(@Param("userId") Long userId, @Param("date") LocalDate date,
+                    @Param("books") int books, @Param("pages") int pages);
+
+    /**
+     * Recalcula la cantidad actual de los objetivos en curso a partir de la tabla {@code libro_biblioteca}.
+     * Los objetivos de tipo 'Libros' toman el número de libros terminados en su periodo. Los de páginas
+     * toman las páginas de los libros terminados en su periodo más el progreso de los libros que se están
+     * leyendo, si el periodo incluye la fecha actual. Los objetivos ya completados no se modifican.
+     *
+     * @return Número de objetivos actualizados
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE objetivo o
+    SET cantidad_actual = CASE WHEN t.nombre = 'Libros'
+        THEN (SELECT COUNT(*) FROM libro_biblioteca lb
+              WHERE lb.id_usuario = o.id_usuario
+              AND lb.fecha_fin BETWEEN o.fecha_inicio AND o.fecha_fin)
+        ELSE (SELECT COALESCE(SUM(CASE
+                  WHEN lb.fecha_fin BETWEEN o.fecha_inicio AND o.fecha_fin THEN l.numero_paginas
+                  WHEN lb.estado_lectura <> 1 OR CURRENT_DATE < o.fecha_inicio THEN 0
+                  WHEN lb.tipo_progreso = 'porcentaje' THEN lb.progreso * l.numero_paginas / 100
+                  ELSE lb.progreso END), 0)
+              FROM libro_biblioteca lb
+              JOIN libro l ON l.id_libro = lb.id_libro
+              WHERE lb.id_usuario = o.id_usuario)
+        END
+    FROM tipo_objetivo t
+    WHERE t.id_tipo = o.id_tipo
+    AND o.fecha_fin >= CURRENT_DATE
+    AND o.cantidad_actual < o.cantidad
+    """, nativeQuery = true)
+    int reconcileInProgress();
 }
@@ -1,7 +1,10 @@
 package es.readtoowell.api_biblioteca.repository.goal;
 
 import es.readtoowell.api_biblioteca.model.entity.GoalType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -17,5 +20,7 @@ public interface GoalTypeRepository extends JpaRepository<GoalType, Long> {
      * @param name Nombre del tipo de objetivo.
      * @return Un {@code Optional} con el tipo de objetivo. Si no se encuentra, estará vacío.
      */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "objetivos")})
     Optional<GoalType> findByName(String name);
 }
@@ -0,0 +1,206 @@
+package es.readtoowell.api_biblioteca.repository.library;
+
+import es.readtoowell.api_biblioteca.model.entity.Genre;
+import es.readtoowell.api_biblioteca.model.entity.ReadingStats;
+import es.readtoowell.api_biblioteca.model.entity.id.ReadingStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repositorio para la gestión de entidades {@code ReadingStats} y de los libros leídos por género
+ * ({@code ReadingGenreStats}). Las actualizaciones se hacen de forma atómica en la base de datos.
+ */
+@Repository
+public interface ReadingStatsRepository extends JpaRepository<ReadingStats, ReadingStatsId> {
+    /**
+     * Busca las estadísticas de un usuario en un año: la del año completo y las de cada mes con lecturas.
+     *
+     * @param userId ID del usuario
+     * @param year Año de las estadísticas
+     * @return Lista con las estadísticas del año y de sus meses
+     */
+    List<ReadingStats> findByIdUserIdAndIdYear(Long userId, int year);
+
+    /**
+     * Busca los géneros más leídos por un usuario en un año.
+     *
+     * @param userId ID del usuario
+     * @param year Año de las estadísticas
+     * @param limit Cantidad de géneros que se quieren buscar
+     * @return Lista con los géneros, de más a menos leído
+     */
+    @Query(value = """
+    SELECT g.*
+    FROM genero g
+    JOIN estadisticas_lectura_genero s ON s.id_genero = g.id_genero
+    WHERE s.id_usuario = :userId
+    AND s.anio = :year
+    AND s.num_libros > 0
+    ORDER BY s.num_libros DESC, g.id_genero
+    LIMIT :limit
+    """, nativeQuery = true)
+    List<Genre> findTopGenres(@Param("userId") Long userId, @Param("year") int year, @Param("limit") int limit);
+
+    /**
+     * Suma (o resta, con {@code delta} negativo) un libro terminado y sus páginas a las estadísticas
+     * del año y del mes indicados, creando las filas si no existen.
+     *
+     * @param userId ID del usuario
+     * @param bookId ID del libro
+     * @param year Año en el que se terminó el libro
+     * @param month Mes en el que se terminó el libro
+     * @param delta 1 para añadir el libro, -1 para quitarlo
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_lectura (id_usuario, anio, mes, libros_leidos, paginas_leidas,
+                                      histograma_calificaciones)
+    SELECT :userId, :year, m.mes, :delta, :delta * l.numero_paginas, ARRAY[0, 0, 0, 0, 0, 0, 0, 0, 0, 0]
+    FROM libro l
+    CROSS JOIN (VALUES (0), (:month)) AS m(mes)
+    WHERE l.id_libro = :bookId
+    ON CONFLICT (id_usuario, anio, mes) DO UPDATE
+    SET libros_leidos = estadisticas_lectura.libros_leidos + EXCLUDED.libros_leidos,
+        paginas_leidas = estadisticas_lectura.paginas_leidas + EXCLUDED.paginas_leidas
+    """, nativeQuery = true)
+    int addBook(@Param("userId") Long userId, @Param("bookId") Long bookId, @Param("year") int year,
+                @Param("month") int month, @Param("delta") int delta);
+
+    /**
+     * Suma (o resta, con {@code delta} negativo) un libro terminado a cada uno de sus géneros
+     * en las estadísticas del año indicado.
+     *
+     * @param userId ID del usuario
+     * @param bookId ID del libro
+     * @param year Año en el que se terminó el libro
+     * @param delta 1 para añadir el libro, -1 para quitarlo
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_lectura_genero (id_usuario, anio, id_genero, num_libros)
+    SELECT :userId, :year, lg.id_genero, :delta
+    FROM libro_genero lg
+    WHERE lg.id_libro = :bookId
+    ON CONFLICT (id_usuario, anio, id_genero) DO UPDATE
+    SET num_libros = estadisticas_lectura_genero.num_libros + EXCLUDED.num_libros
+    """, nativeQuery = true)
+    int addGenres(@Param("userId") Long userId, @Param("bookId") Long bookId, @Param("year") int year,
+                  @Param("delta") int delta);
+
+    /**
+     * Suma (o resta, con {@code delta} negativo) una calificación al histograma del año y del mes indicados.
+     *
+     * @param userId ID del usuario
+     * @param year Año en el que se terminó el libro calificado
+     * @param month Mes en el que se terminó el libro calificado
+     * @param bucket Posición del histograma correspondiente a la calificación
+     * @param delta 1 para añadir la calificación, -1 para quitarla
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE estadisticas_lectura
+    SET histograma_calificaciones[:bucket] = histograma_calificaciones[:bucket] + :delta
+    WHERE id_usuario = :userId
+    AND anio = :year
+    AND mes IN (0, :month)
+    """, nativeQuery = true)
+    int addRating(@Param("userId") Long userId, @Param("year") int year, @Param("month") int month,
+                  @Param("bucket") int bucket, @Param("delta") int delta);
+
+    /**
+     * Recalcula las estadísticas de lectura anuales y mensuales de todos los usuarios
+     * a partir de la tabla {@code libro_biblioteca}.
+     *
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_lectura (id_usuario, anio, mes, libros_leidos, paginas_leidas,
+                                      histograma_calificaciones)
+    SELECT d.id_usuario, d.anio, COALESCE(d.mes, 0), COUNT(*), SUM(d.paginas),
+           CAST(ARRAY[COUNT(*) FILTER (WHERE d.cubo = 1), COUNT(*) FILTER (WHERE d.cubo = 2),
+                      COUNT(*) FILTER (WHERE d.cubo = 3), COUNT(*) FILTER (WHERE d.cubo = 4),
+                      COUNT(*) FILTER (WHERE d.cubo = 5), COUNT(*) FILTER (WHERE d.cubo = 6),
+                      COUNT(*) FILTER (WHERE d.cubo = 7), COUNT(*) FILTER (WHERE d.cubo = 8),
+                      COUNT(*) FILTER (WHERE d.cubo = 9), COUNT(*) FILTER (WHERE d.cubo = 10)] AS integer[])
+    FROM (SELECT lb.id_usuario,
+                 CAST(EXTRACT(YEAR FROM lb.fecha_fin) AS integer) AS anio,
+                 CAST(EXTRACT(MONTH FROM lb.fecha_fin) AS integer) AS mes,
+                 l.numero_paginas AS paginas,
+                 CAST(ROUND(lb.calificacion * 2) AS integer) AS cubo
+          FROM libro_biblioteca lb
+          JOIN libro l ON l.id_libro = lb.id_libro
+          WHERE lb.fecha_fin IS NOT NULL) d
+    GROUP BY GROUPING SETS ((d.id_usuario, d.anio), (d.id_usuario, d.anio, d.mes))
+    ON CONFLICT (id_usuario, anio, mes) DO UPDATE
+    SET libros_leidos = EXCLUDED.libros_leidos,
+        paginas_leidas = EXCLUDED.paginas_leidas,
+        histograma_calificaciones = EXCLUDED.histograma_calificaciones
+    """, nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * Recalcula los libros leídos por género, usuario y año a partir de la tabla {@code libro_biblioteca}.
+     *
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_lectura_genero (id_usuario, anio, id_genero, num_libros)
+    SELECT lb.id_usuario, CAST(EXTRACT(YEAR FROM lb.fecha_fin) AS integer), lg.id_genero, COUNT(*)
+    FROM libro_biblioteca lb
+    JOIN libro_genero lg ON lg.id_libro = lb.id_libro
+    WHERE lb.fecha_fin IS NOT NULL
+    GROUP BY lb.id_usuario, CAST(EXTRACT(YEAR FROM lb.fecha_fin) AS integer), lg.id_genero
+    ON CONFLICT (id_usuario, anio, id_genero) DO UPDATE
+    SET num_libros = EXCLUDED.num_libros
+    """, nativeQuery = true)
+    int rebuildGenres();
+
+    /**
+     * Elimina las estadísticas de los periodos en los que el usuario ya no tiene ningún libro terminado.
+     *
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM estadisticas_lectura s
+    WHERE NOT EXISTS (SELECT 1 FROM libro_biblioteca lb
+                      WHERE lb.id_usuario = s.id_usuario
+                      AND EXTRACT(YEAR FROM lb.fecha_fin) = s.anio
+                      AND (s.mes = 0 OR EXTRACT(MONTH FROM lb.fecha_fin) = s.mes))
+    """, nativeQuery = true)
+    int deleteOrphans();
+
+    /**
+     * Elimina los géneros de los que el usuario ya no tiene ningún libro terminado en el año.
+     *
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM estadisticas_lectura_genero s
+    WHERE NOT EXISTS (SELECT 1 FROM libro_biblioteca lb
+                      JOIN libro_genero lg ON lg.id_libro = lb.id_libro
+                      WHERE lb.id_usuario = s.id_usuario
+                      AND lg.id_genero = s.id_genero
+                      AND EXTRACT(YEAR FROM lb.fecha_fin) = s.anio)
+    """, nativeQuery = true)
+    int deleteGenreOrphans();
+}
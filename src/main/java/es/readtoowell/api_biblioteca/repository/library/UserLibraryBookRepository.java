@@ -2,12 +2,18 @@ package es.readtoowell.api_biblioteca.repository.library;
 
 import es.readtoowell.api_biblioteca.model.entity.*;
 import es.readtoowell.api_biblioteca.model.entity.id.UserLibraryBookId;
+import es.readtoowell.api_biblioteca.model.projection.LibraryBookRow;
+import es.readtoowell.api_biblioteca.model.projection.RatedBookRow;
+import es.readtoowell.api_biblioteca.model.projection.ReadingTotalsRow;
+import es.readtoowell.api_biblioteca.model.projection.ReviewRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +21,21 @@ import java.util.Optional;
  * Repositorio para la gestión de entidades {@code UserLibraryBook}
  */
 public interface UserLibraryBookRepository extends JpaRepository<UserLibraryBook, UserLibraryBookId> {
+    /**
+     * Inicio de las consultas que listan la biblioteca: selecciona solo las columnas de la biblioteca y del libro
+     * que necesitan los DTOs, sin cargar las entidades. Los géneros de los libros se consultan aparte.
+     */
+    String LIBRARY_ROW = """
+    SELECT ulb.id.userId AS userId, ulb.readingStatus AS readingStatus, ulb.dateStart AS dateStart,
+           ulb.dateFinish AS dateFinish, ulb.progress AS progress, ulb.progressType AS progressType,
+           ulb.rating AS rating, ulb.review AS review,
+           b.id AS bookId, b.title AS title, b.author AS author, b.publicationYear AS publicationYear,
+           b.pageNumber AS pageNumber, b.publisher AS publisher, b.synopsis AS synopsis, b.cover AS cover,
+           b.isbn AS isbn, b.active AS active, b.collection.id AS collectionId, b.numCollection AS numCollection
+    FROM UserLibraryBook ulb
+    JOIN ulb.book b
+    """;
+
     /**
      * Busca un libro de la biblioteca de un usuario.
      *
@@ -27,128 +48,273 @@ public interface UserLibraryBookRepository extends JpaRepository<UserLibraryBook
     /**
      * Busca los libros de la biblioteca de un usuario.
      *
-     * @param user Usuario del que se buscan los libros
+     * @param userId ID del usuario del que se buscan los libros
      * @param pageable Información de paginación
      * @return Página con los libros de la biblioteca del usuario, paginada según {@code pageable}
      */
-    Page<UserLibraryBook> findByUser(User user, Pageable pageable);
+    @Query(LIBRARY_ROW + "WHERE ulb.id.userId = :userId")
+    Page<LibraryBookRow> findByUser(@Param("userId") Long userId, Pageable pageable);
 
     /**
      * Busca los libros de la biblioteca de un usuario según su estado.
      *
-     * @param user Usuario del que se buscan los libros
+     * @param userId ID del usuario del que se buscan los libros
      * @param status Estado de los libros que se quieren buscar
      * @param pageable Información de paginación
      * @return Página con los libros de la biblioteca filtrados por estado, paginada según {@code pageable}
      */
-    Page<UserLibraryBook> findByUserAndReadingStatus(User user, int status, Pageable pageable);
+    @Query(LIBRARY_ROW + "WHERE ulb.id.userId = :userId AND ulb.readingStatus = :status")
+    Page<LibraryBookRow> findByUserAndReadingStatus(@Param("userId") Long userId, @Param("status") int status,
+                                                    Pageable pageable);
+
+    /**
+     * Busca los libros de la biblioteca de un usuario que van después de un libro, ordenados por ID del libro
+     * (paginación por cursor).
+     *
+     * @param userId ID del usuario
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la biblioteca
+     */
+    @Query(LIBRARY_ROW + """
+    WHERE ulb.id.userId = :userId AND ulb.id.bookId > :lastBookId
+    ORDER BY ulb.id.bookId
+    """)
+    Slice<LibraryBookRow> findByUserAfter(@Param("userId") Long userId, @Param("lastBookId") Long lastBookId,
+                                          Pageable pageable);
+
+    /**
+     * Busca los libros de la biblioteca de un usuario con un estado concreto que van después de un libro,
+     * ordenados por ID del libro (paginación por cursor).
+     *
+     * @param userId ID del usuario
+     * @param status Estado de los libros
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la biblioteca
+     */
+    @Query(LIBRARY_ROW + """
+    WHERE ulb.id.userId = :userId AND ulb.readingStatus = :status AND ulb.id.bookId > :lastBookId
+    ORDER BY ulb.id.bookId
+    """)
+    Slice<LibraryBookRow> findByUserAndStatusAfter(@Param("userId") Long userId, @Param("status") int status,
+                                                   @Param("lastBookId") Long lastBookId, Pageable pageable);
+
+    /**
+     * Busca los libros de la biblioteca de un usuario con un estado concreto y con fecha de fin que van después
+     * de un libro, ordenados por fecha de fin descendente y por ID del libro descendente (paginación por cursor).
+     *
+     * @param userId ID del usuario
+     * @param status Estado de los libros
+     * @param date Fecha de fin del último libro devuelto
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la biblioteca
+     */
+    @Query(LIBRARY_ROW + """
+    WHERE ulb.id.userId = :userId AND ulb.readingStatus = :status
+    AND (ulb.dateFinish < :date OR (ulb.dateFinish = :date AND ulb.id.bookId < :lastBookId))
+    ORDER BY ulb.dateFinish DESC, ulb.id.bookId DESC
+    """)
+    Slice<LibraryBookRow> findByUserAndStatusFinishedBefore(@Param("userId") Long userId,
+                                                            @Param("status") int status,
+                                                            @Param("date") Date date,
+                                                            @Param("lastBookId") Long lastBookId,
+                                                            Pageable pageable);
+
+    /**
+     * Busca los libros de la biblioteca de un usuario con un estado concreto y sin fecha de fin que van después
+     * de un libro, ordenados por ID del libro descendente (paginación por cursor).
+     * Se listan detrás de los libros con fecha.
+     *
+     * @param userId ID del usuario
+     * @param status Estado de los libros
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la biblioteca
+     */
+    @Query(LIBRARY_ROW + """
+    WHERE ulb.id.userId = :userId AND ulb.readingStatus = :status
+    AND ulb.dateFinish IS NULL AND ulb.id.bookId < :lastBookId
+    ORDER BY ulb.id.bookId DESC
+    """)
+    Slice<LibraryBookRow> findByUserAndStatusUnfinishedBefore(@Param("userId") Long userId, @Param("status") int status,
+                                                              @Param("lastBookId") Long lastBookId, Pageable pageable);
+
+    /**
+     * Busca los libros de la biblioteca de un usuario con un estado concreto y con fecha de inicio que van después
+     * de un libro, ordenados por fecha de inicio descendente y por ID del libro descendente (paginación por cursor).
+     *
+     * @param userId ID del usuario
+     * @param status Estado de los libros
+     * @param date Fecha de inicio del último libro devuelto
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la biblioteca
+     */
+    @Query(LIBRARY_ROW + """
+    WHERE ulb.id.userId = :userId AND ulb.readingStatus = :status
+    AND (ulb.dateStart < :date OR (ulb.dateStart = :date AND ulb.id.bookId < :lastBookId))
+    ORDER BY ulb.dateStart DESC, ulb.id.bookId DESC
+    """)
+    Slice<LibraryBookRow> findByUserAndStatusStartedBefore(@Param("userId") Long userId,
+                                                           @Param("status") int status,
+                                                           @Param("date") Date date,
+                                                           @Param("lastBookId") Long lastBookId,
+                                                           Pageable pageable);
 
     /**
-     * Calcula la puntuación media de un libro.
+     * Busca los libros de la biblioteca de un usuario con un estado concreto y sin fecha de inicio que van después
+     * de un libro, ordenados por ID del libro descendente (paginación por cursor).
+     * Se listan detrás de los libros con fecha.
      *
-     * @param bookId ID del libro
-     * @return Calificación media del libro
+     * @param userId ID del usuario
+     * @param status Estado de los libros
+     * @param lastBookId ID del último libro devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los libros siguientes de la biblioteca
+     */
+    @Query(LIBRARY_ROW + """
+    WHERE ulb.id.userId = :userId AND ulb.readingStatus = :status
+    AND ulb.dateStart IS NULL AND ulb.id.bookId < :lastBookId
+    ORDER BY ulb.id.bookId DESC
+    """)
+    Slice<LibraryBookRow> findByUserAndStatusUnstartedBefore(@Param("userId") Long userId, @Param("status") int status,
+                                                             @Param("lastBookId") Long lastBookId, Pageable pageable);
+
+    /**
+     * Busca, para un libro, las reseñas con fecha de otros usuarios que van después de una reseña, ordenadas
+     * de más a menos reciente y por ID del autor descendente (paginación por cursor).
+     *
+     * @param bookId Libro del que se buscan las reseñas
+     * @param userId Usuario del cual se excluye la reseña
+     * @param date Fecha de la última reseña devuelta
+     * @param lastUserId ID del autor de la última reseña devuelta
+     * @param pageable Tamaño de la porción
+     * @return Porción con las reseñas siguientes
      */
     @Query("""
-    SELECT COALESCE(AVG(ulb.rating), 0)
-    FROM UserLibraryBook ulb
-    WHERE ulb.book.id = :bookId AND ulb.rating > 0
+    SELECT u.id AS userId, u.username AS username, u.profileName AS profileName,
+           ulb.rating AS rating, ulb.review AS review, ulb.dateReview AS dateReview
+    FROM UserLibraryBook ulb JOIN ulb.user u
+    WHERE ulb.book.id = :bookId
+    AND ulb.review IS NOT NULL AND ulb.review <> ''
+    AND u.id <> :userId
+    AND (ulb.dateReview < :date OR (ulb.dateReview = :date AND u.id < :lastUserId))
+    ORDER BY ulb.dateReview DESC, u.id DESC
     """)
-    double findAverageRatingByBookId(@Param("bookId") Long bookId);
+    Slice<ReviewRow> findReviewsByRecency(@Param("bookId") Long bookId, @Param("userId") Long userId,
+                                          @Param("date") Date date, @Param("lastUserId") Long lastUserId,
+                                          Pageable pageable);
 
     /**
-     * Busca, para un libro, las reseñas de todos los usuarios, excluyendo el usuario especificado.
+     * Busca, para un libro, las reseñas sin fecha de otros usuarios (escritas antes de que se guardara la fecha)
+     * que van después de una reseña, ordenadas por ID del autor descendente (paginación por cursor).
+     * Se listan detrás de las reseñas con fecha.
      *
      * @param bookId Libro del que se buscan las reseñas
      * @param userId Usuario del cual se excluye la reseña
-     * @return Lista con las reseñas del libro
+     * @param lastUserId ID del autor de la última reseña devuelta
+     * @param pageable Tamaño de la porción
+     * @return Porción con las reseñas siguientes
      */
     @Query("""
-    SELECT ulb FROM UserLibraryBook ulb
+    SELECT u.id AS userId, u.username AS username, u.profileName AS profileName,
+           ulb.rating AS rating, ulb.review AS review, ulb.dateReview AS dateReview
+    FROM UserLibraryBook ulb JOIN ulb.user u
     WHERE ulb.book.id = :bookId
     AND ulb.review IS NOT NULL AND ulb.review <> ''
-    AND ulb.user.id <> :userId
+    AND u.id <> :userId
+    AND ulb.dateReview IS NULL AND u.id < :lastUserId
+    ORDER BY u.id DESC
     """)
-    List<UserLibraryBook> findAllWithReviewByBookIdExcludingUser(@Param("bookId") Long bookId,
-                                                                @Param("userId") Long userId);
+    Slice<ReviewRow> findUndatedReviews(@Param("bookId") Long bookId, @Param("userId") Long userId,
+                                        @Param("lastUserId") Long lastUserId, Pageable pageable);
 
     /**
-     * Suma las páginas de los libros leídos en el año actual por un usuario.
+     * Busca, para un libro, las reseñas de otros usuarios que van después de una reseña, ordenadas de mayor
+     * a menor calificación y por ID del autor descendente (paginación por cursor).
      *
-     * @param userId Usuario del que se suman las páginas leídas
-     * @return Cantidad de páginas leídas en el año actual por el usuario
+     * @param bookId Libro del que se buscan las reseñas
+     * @param userId Usuario del cual se excluye la reseña
+     * @param rating Calificación de la última reseña devuelta
+     * @param lastUserId ID del autor de la última reseña devuelta
+     * @param pageable Tamaño de la porción
+     * @return Porción con las reseñas siguientes
      */
     @Query("""
-    SELECT COALESCE(SUM(ulb.book.pageNumber), 0)
-    FROM UserLibraryBook ulb
-    WHERE ulb.dateFinish IS NOT NULL
-    AND YEAR(ulb.dateFinish) = YEAR(CURRENT_DATE) AND ulb.user.id = :userId
+    SELECT u.id AS userId, u.username AS username, u.profileName AS profileName,
+           ulb.rating AS rating, ulb.review AS review, ulb.dateReview AS dateReview
+    FROM UserLibraryBook ulb JOIN ulb.user u
+    WHERE ulb.book.id = :bookId
+    AND ulb.review IS NOT NULL AND ulb.review <> ''
+    AND u.id <> :userId
+    AND (ulb.rating < :rating OR (ulb.rating = :rating AND u.id < :lastUserId))
+    ORDER BY ulb.rating DESC, u.id DESC
     """)
-    long sumPagesReadInCurrentYear(@Param("userId") Long userId);
+    Slice<ReviewRow> findReviewsByRating(@Param("bookId") Long bookId, @Param("userId") Long userId,
+                                         @Param("rating") double rating, @Param("lastUserId") Long lastUserId,
+                                         Pageable pageable);
 
     /**
-     * Busca los géneros más leídos por un usuario en el año actual.
+     * Busca los libros mejor valorados por un usuario entre los que terminó en un año.
      *
-     * @param userId Usuario del que se buscan los géneros más leídos
-     * @param limit Cantidad de géneros que se quieren buscar
-     * @return Lista con los géneros más leídos por el usuario
+     * @param userId ID del usuario
+     * @param year Año en el que se terminaron los libros
+     * @param pageable Número máximo de libros a devolver
+     * @return Lista con los libros y su calificación, de mejor a peor valorado
      */
-    @Query(value = """
-    SELECT g.*
-    FROM genero g
-    JOIN libro_genero lg ON g.id_genero = lg.id_genero
-    JOIN libro_biblioteca ulb ON lg.id_libro = ulb.id_libro
-    WHERE ulb.id_usuario = :userId
-    AND EXTRACT(YEAR FROM ulb.fecha_fin) = EXTRACT(YEAR FROM CURRENT_DATE)
-    GROUP BY g.id_genero, g.nombre
-    ORDER BY COUNT(g.id_genero) DESC
-    LIMIT :limit
-    """, nativeQuery = true)
-    List<Genre> findTopGenresForCurrentYear(@Param("userId") Long userId, @Param("limit") int limit);
+    @Query("""
+    SELECT b.id AS id, b.title AS title, b.author AS author, b.cover AS cover, ulb.rating AS rating
+    FROM UserLibraryBook ulb
+    JOIN ulb.book b
+    WHERE ulb.user.id = :userId
+    AND ulb.rating > 0
+    AND EXTRACT(YEAR FROM ulb.dateFinish) = :year
+    ORDER BY ulb.rating DESC, ulb.dateFinish DESC
+    """)
+    List<RatedBookRow> findTopRatedByYear(@Param("userId") Long userId, @Param("year") int year,
+                                          Pageable pageable);
 
     /**
-     * Busca los libros mejor valorados por un usuario en el año actual.
+     * Cuenta los libros terminados por un usuario entre dos fechas y suma sus páginas.
      *
-     * @param userId Usuario del que se buscan los libros mejor valorados
-     * @param limit Cantidad de libros que se quieren buscar
-     * @return Lista con los libros mejor valorados por el usuario
+     * @param userId ID del usuario
+     * @param start Fecha de inicio del periodo
+     * @param end Fecha de fin del periodo
+     * @return Número de libros terminados y total de páginas
      */
-    @Query(value = """
-    SELECT l.*
-    FROM libro l
-    JOIN libro_biblioteca ulb ON l.id_libro = ulb.id_libro
-    WHERE ulb.id_usuario = :userId
-    AND ulb.calificacion > 0
-    AND EXTRACT(YEAR FROM ulb.fecha_fin) = EXTRACT(YEAR FROM CURRENT_DATE)
-    ORDER BY ulb.calificacion DESC
-    LIMIT :limit
-    """, nativeQuery = true)
-    List<Book> findTopRatedBooksByUserForCurrentYear(@Param("userId") Long userId, @Param("limit") int limit);
+    @Query("""
+    SELECT COUNT(ulb) AS books, COALESCE(SUM(ulb.book.pageNumber), 0) AS pages
+    FROM UserLibraryBook ulb
+    WHERE ulb.user.id = :userId
+    AND ulb.dateFinish BETWEEN :start AND :end
+    """)
+    ReadingTotalsRow sumBooksReadBetween(@Param("userId") Long userId, @Param("start") Date start,
+                                         @Param("end") Date end);
 
     /**
-     * Busca los libros leídos por el usuario en el año actual.
+     * Busca los IDs de los libros de la biblioteca de un usuario.
      *
-     * @param userId Usuario del que se buscan los libros leídos
-     * @return Lista con los libros leídos del usuario en el año actual
+     * @param userId ID del usuario
+     * @return Lista con los IDs de los libros de la biblioteca
      */
     @Query("""
-    SELECT ulb.book FROM UserLibraryBook ulb
+    SELECT ulb.book.id FROM UserLibraryBook ulb
     WHERE ulb.user.id = :userId
-    AND EXTRACT(YEAR FROM ulb.dateFinish) = EXTRACT(YEAR FROM CURRENT_DATE)
     """)
-    List<Book> findBooksReadActualYear(@Param("userId") Long userId);
+    List<Long> findBookIdsByUserId(@Param("userId") Long userId);
 
     /**
-     * Busca los libros leídos por el usuario en el mes actual.
+     * Busca los IDs de los libros leídos por un usuario con una calificación superior o igual a 3.
      *
-     * @param userId Usuario del que se buscan los libros leídos
-     * @return Lista con los libros leídos del usuario en el mes actual
+     * @param userId ID del usuario
+     * @return Lista con los IDs de los libros leídos y bien calificados
      */
     @Query("""
-    SELECT ulb.book FROM UserLibraryBook ulb
+    SELECT ulb.book.id FROM UserLibraryBook ulb
     WHERE ulb.user.id = :userId
-    AND EXTRACT(YEAR FROM ulb.dateFinish) = EXTRACT(YEAR FROM CURRENT_DATE)
-    AND EXTRACT(MONTH FROM ulb.dateFinish) = EXTRACT(MONTH FROM CURRENT_DATE)
+    AND ulb.readingStatus = 2 AND ulb.rating >= 3
     """)
-    List<Book> findBooksReadActualMonth(@Param("userId") Long userId);
+    List<Long> findWellRatedReadBookIds(@Param("userId") Long userId);
 }
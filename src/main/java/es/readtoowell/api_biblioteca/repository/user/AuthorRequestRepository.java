@@ -3,10 +3,12 @@ package es.readtoowell.api_biblioteca.repository.user;
 import es.readtoowell.api_biblioteca.model.entity.AuthorRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +46,43 @@ public interface AuthorRequestRepository extends JpaRepository<AuthorRequest, Lo
      */
     Page<AuthorRequest> findByStatus(int status, Pageable pageable);
 
+    /**
+     * Busca solicitudes de autor con fecha de envío que van después de una dada, ordenadas por fecha de envío
+     * descendente y por ID descendente (paginación por cursor).
+     *
+     * @param status Estado por el que se quiere filtrar, 'null' para no filtrar
+     * @param date Fecha de envío de la última solicitud devuelta
+     * @param lastId ID de la última solicitud devuelta
+     * @param pageable Tamaño de la porción
+     * @return Porción con las solicitudes siguientes
+     */
+    @Query("""
+    SELECT ar FROM AuthorRequest ar
+    WHERE (:status IS NULL OR ar.status = :status)
+    AND (ar.dateSent < :date OR (ar.dateSent = :date AND ar.id < :lastId))
+    ORDER BY ar.dateSent DESC, ar.id DESC
+    """)
+    Slice<AuthorRequest> findSentBefore(@Param("status") Integer status, @Param("date") Date date,
+                                        @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Busca solicitudes de autor sin fecha de envío que van después de una dada, ordenadas por ID descendente
+     * (paginación por cursor). Se listan detrás de las solicitudes con fecha.
+     *
+     * @param status Estado por el que se quiere filtrar, 'null' para no filtrar
+     * @param lastId ID de la última solicitud devuelta
+     * @param pageable Tamaño de la porción
+     * @return Porción con las solicitudes siguientes
+     */
+    @Query("""
+    SELECT ar FROM AuthorRequest ar
+    WHERE (:status IS NULL OR ar.status = :status)
+    AND ar.dateSent IS NULL AND ar.id < :lastId
+    ORDER BY ar.id DESC
+    """)
+    Slice<AuthorRequest> findUnsentBefore(@Param("status") Integer status, @Param("lastId") Long lastId,
+                                          Pageable pageable);
+
     /**
      * Busca la última solicitud de autor enviada por un usuario con unos estados específicos.
      *
@@ -0,0 +1,144 @@
+package es.readtoowell.api_biblioteca.repository.user;
+
+import es.readtoowell.api_biblioteca.model.entity.Follow;
+import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.entity.id.FollowId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repositorio para la gestión de entidades {@code Follow}.
+ * Los seguimientos se insertan y eliminan directamente por su clave, sin cargar las listas de seguidores
+ * de ninguno de los dos usuarios.
+ */
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, FollowId> {
+    /**
+     * Crea un seguimiento, si todavía no existe.
+     *
+     * @param followerId ID del usuario seguidor
+     * @param followedId ID del usuario seguido
+     * @return Número de filas insertadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO seguimiento (id_seguidor, id_seguido)
+    VALUES (:followerId, :followedId)
+    ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+
+    /**
+     * Elimina un seguimiento.
+     *
+     * @param followerId ID del usuario seguidor
+     * @param followedId ID del usuario seguido
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM seguimiento
+    WHERE id_seguidor = :followerId AND id_seguido = :followedId
+    """, nativeQuery = true)
+    int deleteByKey(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+
+    /**
+     * Elimina todos los seguimientos en los que participa un usuario, como seguidor o como seguido.
+     *
+     * @param userId ID del usuario
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM seguimiento
+    WHERE id_seguidor = :userId OR id_seguido = :userId
+    """, nativeQuery = true)
+    int deleteAllByUser(@Param("userId") Long userId);
+
+    /**
+     * Busca la porción de seguidores de un usuario siguiente al ID indicado, ordenados por ID.
+     *
+     * @param userId ID del usuario seguido
+     * @param lastId ID del último seguidor devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los seguidores siguientes
+     */
+    @Query("""
+    SELECT u FROM Follow f
+    JOIN User u ON u.id = f.id.followerId
+    WHERE f.id.followedId = :userId AND f.id.followerId > :lastId
+    ORDER BY f.id.followerId
+    """)
+    Slice<User> findFollowersAfter(@Param("userId") Long userId, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Busca la porción de usuarios seguidos por un usuario siguiente al ID indicado, ordenados por ID.
+     *
+     * @param userId ID del usuario seguidor
+     * @param lastId ID del último usuario seguido devuelto
+     * @param pageable Tamaño de la porción
+     * @return Porción con los usuarios seguidos siguientes
+     */
+    @Query("""
+    SELECT u FROM Follow f
+    JOIN User u ON u.id = f.id.followedId
+    WHERE f.id.followerId = :userId AND f.id.followedId > :lastId
+    ORDER BY f.id.followedId
+    """)
+    Slice<User> findFollowingAfter(@Param("userId") Long userId, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Busca todos los seguidores de un usuario.
+     *
+     * @param userId ID del usuario seguido
+     * @return Lista con los seguidores, ordenados por ID
+     */
+    @Query("""
+    SELECT u FROM Follow f
+    JOIN User u ON u.id = f.id.followerId
+    WHERE f.id.followedId = :userId
+    ORDER BY f.id.followerId
+    """)
+    List<User> findAllFollowers(@Param("userId") Long userId);
+
+    /**
+     * Busca todos los usuarios seguidos por un usuario.
+     *
+     * @param userId ID del usuario seguidor
+     * @return Lista con los usuarios seguidos, ordenados por ID
+     */
+    @Query("""
+    SELECT u FROM Follow f
+    JOIN User u ON u.id = f.id.followedId
+    WHERE f.id.followerId = :userId
+    ORDER BY f.id.followedId
+    """)
+    List<User> findAllFollowing(@Param("userId") Long userId);
+
+    /**
+     * Busca los usuarios seguidos por un usuario que tienen al menos un número de seguidores.
+     *
+     * @param userId ID del usuario seguidor
+     * @param minFollowers Número mínimo de seguidores
+     * @return Lista con los IDs de los usuarios seguidos
+     */
+    @Query(value = """
+    SELECT s.id_seguido
+    FROM seguimiento s
+    JOIN estadisticas_usuario e ON e.id_usuario = s.id_seguido
+    WHERE s.id_seguidor = :userId AND e.num_seguidores >= :minFollowers
+    """, nativeQuery = true)
+    List<Long> findFollowedWithFollowersAtLeast(@Param("userId") Long userId,
+                                                @Param("minFollowers") int minFollowers);
+}
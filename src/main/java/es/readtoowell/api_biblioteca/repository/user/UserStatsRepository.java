@@ -0,0 +1,106 @@
+package es.readtoowell.api_biblioteca.repository.user;
+
+import es.readtoowell.api_biblioteca.model.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositorio para la gestión de entidades {@code UserStats}.
+ * Los contadores se actualizan de forma atómica en la base de datos para no perder
+ * incrementos cuando varios usuarios siguen al mismo usuario a la vez.
+ */
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+    /**
+     * Suma (o resta, con {@code delta} negativo) seguidores a un usuario, creando su fila si no existe.
+     *
+     * @param userId ID del usuario
+     * @param delta Cantidad de seguidores a sumar
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_usuario (id_usuario, num_seguidores, num_seguidos)
+    VALUES (:userId, GREATEST(:delta, 0), 0)
+    ON CONFLICT (id_usuario) DO UPDATE
+    SET num_seguidores = estadisticas_usuario.num_seguidores + :delta
+    """, nativeQuery = true)
+    int addFollowers(@Param("userId") Long userId, @Param("delta") int delta);
+
+    /**
+     * Suma (o resta, con {@code delta} negativo) usuarios seguidos a un usuario, creando su fila si no existe.
+     *
+     * @param userId ID del usuario
+     * @param delta Cantidad de usuarios seguidos a sumar
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_usuario (id_usuario, num_seguidores, num_seguidos)
+    VALUES (:userId, 0, GREATEST(:delta, 0))
+    ON CONFLICT (id_usuario) DO UPDATE
+    SET num_seguidos = estadisticas_usuario.num_seguidos + :delta
+    """, nativeQuery = true)
+    int addFollowing(@Param("userId") Long userId, @Param("delta") int delta);
+
+    /**
+     * Descuenta de los contadores de otros usuarios los seguimientos en los que participa un usuario.
+     * Debe ejecutarse antes de eliminar sus seguimientos.
+     *
+     * @param userId ID del usuario
+     * @return Número de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE estadisticas_usuario e
+    SET num_seguidores = e.num_seguidores - (SELECT COUNT(*) FROM seguimiento s
+                                             WHERE s.id_seguidor = :userId AND s.id_seguido = e.id_usuario),
+        num_seguidos = e.num_seguidos - (SELECT COUNT(*) FROM seguimiento s
+                                         WHERE s.id_seguido = :userId AND s.id_seguidor = e.id_usuario)
+    WHERE e.id_usuario IN (SELECT id_seguido FROM seguimiento WHERE id_seguidor = :userId
+                           UNION
+                           SELECT id_seguidor FROM seguimiento WHERE id_seguido = :userId)
+    """, nativeQuery = true)
+    int discountFollowsOf(@Param("userId") Long userId);
+
+    /**
+     * Recalcula los contadores de todos los usuarios con algún seguimiento
+     * a partir de la tabla {@code seguimiento}.
+     *
+     * @return Número de filas insertadas o actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO estadisticas_usuario (id_usuario, num_seguidores, num_seguidos)
+    SELECT c.id_usuario, SUM(c.seguidores), SUM(c.seguidos)
+    FROM (SELECT id_seguido AS id_usuario, 1 AS seguidores, 0 AS seguidos FROM seguimiento
+          UNION ALL
+          SELECT id_seguidor, 0, 1 FROM seguimiento) c
+    GROUP BY c.id_usuario
+    ON CONFLICT (id_usuario) DO UPDATE
+    SET num_seguidores = EXCLUDED.num_seguidores,
+        num_seguidos = EXCLUDED.num_seguidos
+    """, nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * Elimina los contadores de los usuarios que ya no participan en ningún seguimiento.
+     *
+     * @return Número de filas eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    DELETE FROM estadisticas_usuario e
+    WHERE NOT EXISTS (SELECT 1 FROM seguimiento s WHERE s.id_seguidor = e.id_usuario OR s.id_seguido = e.id_usuario)
+    """, nativeQuery = true)
+    int deleteOrphans();
+}
@@ -0,0 +1,15 @@
+package es.readtoowell.api_biblioteca.service.activity;
+
+import es.readtoowell.api_biblioteca.model.enums.ActivityType;
+
+/**
+ * Evento que indica que un usuario ha realizado una actividad que deben ver sus seguidores.
+ * Lo recibe {@link ActivityService}, que la guarda y la reparte entre las bandejas de los seguidores.
+ *
+ * @param userId ID del usuario
+ * @param type Tipo de actividad
+ * @param bookId ID del libro
+ * @param listId ID de la lista a la que se ha añadido el libro, 'null' en el resto de actividades
+ * @param value Nuevo estado de lectura o calificación, 0 en el resto de actividades
+ */
+public record ActivityEvent(Long userId, ActivityType type, Long bookId, Long listId, double value) {}
@@ -0,0 +1,202 @@
+package es.readtoowell.api_biblioteca.service.activity;
+
+import es.readtoowell.api_biblioteca.model.DTO.ActivityDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.SimpleBookDTO;
+import es.readtoowell.api_biblioteca.model.entity.Activity;
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.model.entity.BookList;
+import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.entity.UserStats;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
+import es.readtoowell.api_biblioteca.repository.activity.ActivityRepository;
+import es.readtoowell.api_biblioteca.repository.activity.FeedEntryRepository;
+import es.readtoowell.api_biblioteca.repository.book.BookListRepository;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
+import es.readtoowell.api_biblioteca.service.book.BookStatsService;
+import es.readtoowell.api_biblioteca.service.user.FollowService;
+import jakarta.validation.ValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio encargado de registrar la actividad de lectura de los usuarios y de construir el inicio de cada usuario
+ * con la actividad de los usuarios a los que sigue.
+ * Cada actividad se guarda una sola vez. Si el usuario tiene menos seguidores que
+ * {@code readtoowell.feed.fan-out-threshold}, se copia al momento en la bandeja de cada seguidor; si tiene más,
+ * no se copia y sus seguidores la consultan al leer su inicio, de modo que el coste de escribir no crece con
+ * el número de seguidores. Las bandejas guardan un número máximo de actividades y las actividades caducan
+ * pasados unos días.
+ */
+@Service
+public class ActivityService {
+    @Autowired
+    private ActivityRepository activityRepository;
+    @Autowired
+    private FeedEntryRepository feedRepository;
+    @Autowired
+    private FollowService followService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookListRepository listRepository;
+    @Autowired
+    private BookStatsService bookStatsService;
+    @Value("${readtoowell.feed.fan-out-threshold:1000}")
+    private int fanOutThreshold;
+    @Value("${readtoowell.feed.inbox-size:500}")
+    private int inboxSize;
+    @Value("${readtoowell.feed.retention-days:90}")
+    private int retentionDays;
+
+    /**
+     * Guarda una actividad y la copia en las bandejas de los seguidores del usuario, si no tiene demasiados.
+     *
+     * @param event Evento con los datos de la actividad
+     */
+    @Transactional
+    @EventListener
+    public void onActivity(ActivityEvent event) {
+        int seguidores = followService.getStats(event.userId())
+                .map(UserStats::getFollowerCount)
+                .orElse(0);
+
+        Activity actividad = new Activity();
+        actividad.setUserId(event.userId());
+        actividad.setType(event.type().getValue());
+        actividad.setBookId(event.bookId());
+        actividad.setListId(event.listId());
+        actividad.setValue(event.value());
+        actividad.setDate(new Date());
+        actividad.setFannedOut(seguidores < fanOutThreshold);
+
+        actividad = activityRepository.save(actividad);
+
+        if (actividad.isFannedOut() && seguidores > 0) {
+            feedRepository.fanOut(event.userId(), actividad.getId());
+        }
+    }
+
+    /**
+     * Devuelve el inicio de un usuario usando paginación por cursor: la actividad de los usuarios a los que sigue,
+     * de más reciente a más antigua. Junta las actividades de su bandeja con las de los usuarios seguidos cuya
+     * actividad no se copia a las bandejas.
+     *
+     * @param idUser ID del usuario
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con las actividades como DTOs y el cursor de la siguiente
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ActivityDTO> getFeed(Long idUser, String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 1);
+        long lastId = anterior != null ? anterior.getLong(0) : Long.MAX_VALUE;
+        // Se pide uno más de cada origen para saber si hay una porción siguiente
+        Pageable limite = PageRequest.ofSize(size + 1);
+
+        List<Activity> actividades = new ArrayList<>(feedRepository.findInboxBefore(idUser, lastId, limite));
+        List<Long> populares = followService.getFollowedWithFollowersAtLeast(idUser, fanOutThreshold);
+        if (!populares.isEmpty()) {
+            actividades.addAll(activityRepository.findNotFannedOutBefore(populares, lastId, limite));
+        }
+        actividades.sort(Comparator.comparing(Activity::getId).reversed());
+
+        boolean hayMas = actividades.size() > size;
+        List<Activity> porcion = actividades.subList(0, Math.min(size, actividades.size()));
+        String siguiente = hayMas ? CursorCodec.encode(porcion.get(porcion.size() - 1).getId()) : null;
+
+        return new CursorPageDTO<>(toDTOs(porcion), size, hayMas, siguiente);
+    }
+
+    /**
+     * Elimina las actividades caducadas y deja en cada bandeja solo las más recientes.
+     * Se ejecuta periódicamente según la expresión {@code readtoowell.feed.trim-cron}.
+     */
+    @Transactional
+    @Scheduled(cron = "${readtoowell.feed.trim-cron:0 0 5 * * *}")
+    public void trim() {
+        Date limite = Date.from(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+
+        feedRepository.deleteForActivitiesBefore(limite);
+        activityRepository.deleteOlderThan(limite);
+        feedRepository.trimInboxes(inboxSize);
+    }
+
+    /**
+     * Convierte las actividades en DTOs, cargando de una vez los usuarios, libros y listas a los que se refieren.
+     * Se omiten las actividades cuyo usuario o libro ya no existe.
+     */
+    private List<ActivityDTO> toDTOs(List<Activity> actividades) {
+        Map<Long, User> usuarios = userRepository.findAllById(idsOf(actividades, Activity::getUserId)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<Long> idsLibros = idsOf(actividades, Activity::getBookId);
+        Map<Long, Book> libros = bookRepository.findAllById(idsLibros).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        Map<Long, BookList> listas = listRepository.findAllById(idsOf(actividades, Activity::getListId)).stream()
+                .collect(Collectors.toMap(BookList::getId, Function.identity()));
+        Map<Long, Double> calificaciones = bookStatsService.getAverageRatings(idsLibros);
+
+        List<ActivityDTO> dtos = new ArrayList<>();
+        for (Activity actividad : actividades) {
+            User usuario = usuarios.get(actividad.getUserId());
+            Book libro = libros.get(actividad.getBookId());
+            if (usuario == null || libro == null) {
+                continue;
+            }
+
+            SimpleBookDTO book = new SimpleBookDTO();
+            book.setId(libro.getId());
+            book.setTitle(libro.getTitle());
+            book.setAuthor(libro.getAuthor());
+            book.setCover(libro.getCover());
+            book.setRating(calificaciones.getOrDefault(libro.getId(), 0.0));
+
+            ActivityDTO dto = new ActivityDTO();
+            dto.setId(actividad.getId());
+            dto.setType(actividad.getType());
+            dto.setUserId(usuario.getId());
+            dto.setUsername(usuario.getUsername());
+            dto.setProfileName(usuario.getProfileName());
+            dto.setProfilePic(usuario.getProfilePic());
+            dto.setBook(book);
+            dto.setValue(actividad.getValue());
+            dto.setDate(actividad.getDate());
+            BookList lista = actividad.getListId() != null ? listas.get(actividad.getListId()) : null;
+            if (lista != null) {
+                dto.setListId(lista.getId());
+                dto.setListName(lista.getName());
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private static List<Long> idsOf(List<Activity> actividades, Function<Activity, Long> id) {
+        return actividades.stream()
+                .map(id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
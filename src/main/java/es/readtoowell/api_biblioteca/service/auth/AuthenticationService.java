@@ -10,33 +10,45 @@ import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import es.readtoowell.api_biblioteca.config.security.JwtUtil;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Servicio encargado de gestionar la lógica relacionada con la autenticación de usuarios.
+ * El cálculo y la comprobación de contraseñas se delegan en {@code PasswordHashingService},
+ * por lo que el registro y el inicio de sesión se completan de forma asíncrona. Las escrituras en la
+ * base de datos posteriores al hash se hacen en el ejecutor de tareas de la aplicación, para no ocupar
+ * los hilos de hashes con consultas.
  */
 @Service
 public class AuthenticationService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     @Autowired
     private UserMapper userMapper;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor taskExecutor;
 
     /**
      * Registro de un nuevo usuario.
      *
      * @param registerDTO DTO con los datos de registro del usuario
-     * @return DTO con los datos del usuario registrado
+     * @return Futuro con el DTO con los datos del usuario registrado
      * @throws ValidationException El correo está en uso o las contraseñas no coinciden
+     * @throws RejectedExecutionException La cola de hashes de contraseñas está llena
      */
-    public AuthenticatedUserDTO register(RegisterDTO registerDTO) {
+    public CompletableFuture<AuthenticatedUserDTO> register(RegisterDTO registerDTO) {
         if (userRepository.findByEmail(registerDTO.getEmail()).isPresent()) {
             throw new ValidationException("El correo ya está en uso.");
         }
@@ -44,36 +56,42 @@ public class AuthenticationService {
             throw new ValidationException("Las contraseñas no coinciden.");
         }
 
-        User user = new User();
-        user.setUsername(registerDTO.getUsername().replaceAll("\\s+", ""));
-        user.setEmail(registerDTO.getEmail().toLowerCase().trim());
+        return passwordHashingService.encode(registerDTO.getPassword()).thenApplyAsync(hash -> {
+            User user = new User();
+            user.setUsername(registerDTO.getUsername().replaceAll("\\s+", ""));
+            user.setEmail(registerDTO.getEmail().toLowerCase().trim());
 
-        user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
+            user.setPassword(hash);
 
-        user.setProfilePic("https://res.cloudinary.com/dfrgrfw4c/image/" +
-                "upload/v1741801696/readtoowell/profilepics/pfp.jpg"); // Foto de perfil por defecto
-        user.setRole(Role.USER.getValue());
-        user.setProfileName(registerDTO.getUsername().toLowerCase());
+            user.setProfilePic("https://res.cloudinary.com/dfrgrfw4c/image/" +
+                    "upload/v1741801696/readtoowell/profilepics/pfp.jpg"); // Foto de perfil por defecto
+            user.setRole(Role.USER.getValue());
+            user.setProfileName(registerDTO.getUsername().toLowerCase());
 
-        user = userRepository.save(user);
+            user = userRepository.save(user);
 
-        String token = jwtUtil.generateToken(user.getEmail());
+            String token = jwtUtil.generateToken(user);
 
-        AuthenticatedUserDTO dto = new AuthenticatedUserDTO();
-        dto.setUser(userMapper.toDTO(user));
-        dto.setToken(token);
+            AuthenticatedUserDTO dto = new AuthenticatedUserDTO();
+            dto.setUser(userMapper.toDTO(user));
+            dto.setToken(token);
 
-        return dto;
+            return dto;
+        }, taskExecutor);
     }
 
     /**
      * Inicio de sesión para un usuario.
+     * Si el hash guardado se calculó con un factor de trabajo menor que el configurado,
+     * se vuelve a calcular con la contraseña recibida.
      *
      * @param loginDTO Datos del inicio de sesión
-     * @return DTO con los datos del usuario auenticado
-     * @throws ValidationException El usuario no existe o la contraseña es incorrecta
+     * @return Futuro con el DTO con los datos del usuario autenticado. Si la contraseña es incorrecta,
+     *         se completa con una {@code ValidationException}.
+     * @throws ValidationException El usuario no existe
+     * @throws RejectedExecutionException La cola de hashes de contraseñas está llena
      */
-    public AuthenticatedUserDTO login(LoginDTO loginDTO) {
+    public CompletableFuture<AuthenticatedUserDTO> login(LoginDTO loginDTO) {
         Optional<User> userOpt = userRepository.findByEmail(loginDTO.getEmail().toLowerCase());
 
         if (userOpt.isEmpty()) {
@@ -81,17 +99,41 @@ public class AuthenticationService {
         }
         User user = userOpt.get();
 
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
-            throw new ValidationException("La contraseña es incorrecta");
-        }
+        return passwordHashingService.matches(loginDTO.getPassword(), user.getPassword()).thenApply(coincide -> {
+            if (!coincide) {
+                throw new ValidationException("La contraseña es incorrecta");
+            }
+            upgradePasswordHash(user, loginDTO.getPassword());
+
+            String token = jwtUtil.generateToken(user);
 
-        String token = jwtUtil.generateToken(user.getEmail());
+            AuthenticatedUserDTO authUser = new AuthenticatedUserDTO();
+            authUser.setUser(userMapper.toDTO(user));
+            authUser.setToken(token);
+
+            return authUser;
+        });
+    }
 
-        AuthenticatedUserDTO authUser = new AuthenticatedUserDTO();
-        authUser.setUser(userMapper.toDTO(user));
-        authUser.setToken(token);
+    /**
+     * Vuelve a calcular el hash de la contraseña de un usuario si se calculó con un factor de trabajo
+     * menor que el configurado. Se hace en segundo plano y, si la cola de hashes está llena,
+     * se deja para el siguiente inicio de sesión.
+     *
+     * @param user Usuario que ha iniciado sesión
+     * @param rawPassword Contraseña sin cifrar, ya comprobada
+     */
+    private void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
 
-        return authUser;
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAcceptAsync(hash -> userRepository.updatePassword(user.getId(), hash), taskExecutor);
+        } catch (RejectedExecutionException e) {
+            // Se volverá a intentar en el siguiente inicio de sesión
+        }
     }
 
     /**
@@ -0,0 +1,120 @@
+package es.readtoowell.api_biblioteca.service.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Servicio encargado de calcular y comprobar los hashes de las contraseñas fuera de los hilos de las peticiones.
+ * El cálculo se hace en un grupo de hilos propio, con un número de hilos y una cola acotados: cuando la cola
+ * está llena, las nuevas operaciones se rechazan de inmediato en lugar de acumularse, de modo que un pico de
+ * inicios de sesión no puede ocupar todos los hilos del servidor.
+ */
+@Service
+public class PasswordHashingService {
+    static final String METRIC_NAME = "readtoowell.password.hash";
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${readtoowell.security.password-hashing.threads:2}")
+    private int threads;
+    @Value("${readtoowell.security.password-hashing.queue-capacity:50}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;
+    private Timer matchTimer;
+    private Counter rejected;
+
+    /**
+     * Crea el grupo de hilos y registra sus métricas y las de duración de los hashes.
+     */
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hashing", List.of());
+
+        encodeTimer = Timer.builder(METRIC_NAME)
+                .description("Duración del cálculo de hashes de contraseñas")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        matchTimer = Timer.builder(METRIC_NAME)
+                .description("Duración de la comprobación de contraseñas")
+                .tag("operation", "match")
+                .register(meterRegistry);
+        rejected = Counter.builder(METRIC_NAME + ".rejected")
+                .description("Operaciones rechazadas por tener la cola de hashes llena")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Detiene el grupo de hilos al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Calcula el hash de una contraseña.
+     *
+     * @param rawPassword Contraseña sin cifrar
+     * @return Futuro con el hash de la contraseña
+     * @throws RejectedExecutionException La cola de hashes está llena
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Comprueba si una contraseña coincide con un hash.
+     *
+     * @param rawPassword Contraseña sin cifrar
+     * @param encodedPassword Hash guardado de la contraseña
+     * @return Futuro con 'true' si la contraseña coincide, 'false' en caso contrario
+     * @throws RejectedExecutionException La cola de hashes está llena
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si un hash se calculó con un factor de trabajo menor que el configurado
+     * y, por tanto, debe volver a calcularse.
+     *
+     * @param encodedPassword Hash guardado de la contraseña
+     * @return 'true' si el hash debe actualizarse, 'false' en caso contrario
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("El servidor está ocupado. Inténtalo de nuevo en unos segundos.", e);
+        }
+    }
+}
@@ -5,21 +5,34 @@ import es.readtoowell.api_biblioteca.mapper.BookListMapper;
 import es.readtoowell.api_biblioteca.mapper.GenreMapper;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDetailsDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.BookListSummaryDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
-import es.readtoowell.api_biblioteca.model.entity.id.BookListItemId;
+import es.readtoowell.api_biblioteca.model.enums.ActivityType;
+import es.readtoowell.api_biblioteca.model.projection.BookListSummaryRow;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.BookListItemRepository;
 import es.readtoowell.api_biblioteca.repository.book.BookListRepository;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
 import es.readtoowell.api_biblioteca.repository.book.GenreRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
+import es.readtoowell.api_biblioteca.service.activity.ActivityEvent;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Date;
 import java.time.LocalDate;
@@ -33,6 +46,11 @@ import java.util.stream.Collectors;
  */
 @Service
 public class BookListService {
+    /**
+     * ID que no corresponde a ningún libro, para no excluir ninguna lista de los resúmenes.
+     */
+    private static final long NO_BOOK = 0L;
+
     @Autowired
     private BookListRepository listRepository;
     @Autowired
@@ -42,25 +60,35 @@ public class BookListService {
     @Autowired
     private GenreMapper genreMapper;
     @Autowired
+    private UserRepository userRepository;
+    @Autowired
     private BookRepository bookRepository;
     @Autowired
     private BookListItemRepository bookItemRepository;
     @Autowired
     private BookListItemMapper bookItemMapper;
+    @Autowired
+    private RecommendationCache recommendationCache;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Value("${readtoowell.lists.summary-covers:4}")
+    private int summaryCovers;
 
     /**
-     * Devuelve las listas de un usuario.
+     * Devuelve los resúmenes de las listas de un usuario. Los libros de cada lista se consultan en sus detalles.
      *
      * @param idUser ID del usuario
      * @param page Número de la página que se quiere devolver
      * @param size Tamaño de la página
-     * @return Página con las listas resultantes como DTOs
+     * @return Página con los resúmenes de las listas como DTOs
      */
-    public Page<BookListDTO> getListsByUser(Long idUser, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<BookListSummaryDTO> getListsByUser(Long idUser, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<BookList> lists = listRepository.findByUserId(idUser, pageable);
+        Page<BookListSummaryRow> lists = listRepository.findSummariesByUserId(idUser, NO_BOOK, true,
+                summaryCovers, pageable);
 
-        return lists.map(listMapper::toDTO);
+        return lists.map(listMapper::toSummaryDTO);
     }
 
     /**
@@ -73,6 +101,7 @@ public class BookListService {
      * @return DTO con los datos de la lista y los libros paginados
      * @throws AccessDeniedException El usuario no es el propietario de la lista
      */
+    @Transactional(readOnly = true)
     public BookListDetailsDTO getListDetails(Long idUser, Long idList, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateAdded"));
         Page<BookListItem> booksInList = bookItemRepository.findByListId(idList, pageable);
@@ -95,6 +124,47 @@ public class BookListService {
         return listDetails;
     }
 
+    /**
+     * Devuelve los libros de una lista usando paginación por cursor, junto con los detalles de esta.
+     * Los libros se ordenan del añadido más recientemente al más antiguo.
+     *
+     * @param idUser ID del usuario
+     * @param idList ID de la lista
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return DTO con los datos de la lista y la porción de libros en {@code booksSlice}
+     * @throws EntityNotFoundException La lista no existe
+     * @throws AccessDeniedException El usuario no es el propietario de la lista
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    public BookListDetailsDTO getListDetails(Long idUser, Long idList, String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 2);
+
+        BookList list = listRepository.findByIdWithRelations(idList)
+                .orElseThrow(() -> new EntityNotFoundException("La lista con ID " + idList + " no existe."));
+
+        if (!list.getUser().getId().equals(idUser)) {
+            throw new AccessDeniedException("No tienes permiso para consultar esta lista.");
+        }
+
+        Slice<BookListItem> booksInList = CursorCodec.sliceByDateDesc(anterior, size,
+                (fecha, lastBookId, pageable) ->
+                        bookItemRepository.findByListIdAddedBefore(idList, fecha, lastBookId, pageable),
+                (lastBookId, pageable) -> bookItemRepository.findByListIdUndatedBefore(idList, lastBookId, pageable));
+
+        BookListDetailsDTO listDetails = new BookListDetailsDTO();
+        listDetails.setBooksSlice(CursorCodec.toCursorPage(booksInList, bookItemMapper::toDTO,
+                item -> CursorCodec.encode(item.getDateAdded(), item.getBook().getId())));
+        listDetails.setId(idList);
+        listDetails.setName(list.getName());
+        listDetails.setDescription(list.getDescription());
+        List<GenreDTO> genres = list.getGenres().stream().map(genreMapper::toDTO).collect(Collectors.toList());
+        listDetails.setGenres(genres);
+
+        return listDetails;
+    }
+
     /**
      * Crea una nueva lista para un usuario.
      *
@@ -103,12 +173,17 @@ public class BookListService {
      * @param genreIds Lista con los IDs de los géneros asociados a la lista
      * @return DTO con los detalles de la lista creada
      */
+    @Transactional
     public BookListDTO createList(User user, BookListDTO dto, List<Long> genreIds) {
+        // El DTO de la lista incluye los datos de su creador
+        User usuario = userRepository.findById(user.getId())
+                .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + user.getId() + " no existe."));
+
         BookList lista = new BookList();
 
         lista.setName(dto.getName().trim());
         lista.setDescription(dto.getDescription().trim());
-        lista.setUser(user);
+        lista.setUser(usuario);
 
         List<Genre> genres = new ArrayList<>(genreRepository.findAllById(genreIds));
 
@@ -130,6 +205,7 @@ public class BookListService {
      * @throws EntityNotFoundException La lista no existe
      * @throws AccessDeniedException Otro usuario intenta acceder a la lista
      */
+    @Transactional
     public BookListDTO updateList(Long idUser, Long idList, BookListDTO dto, List<Long> genreIds) {
         BookList lista = listRepository.findByIdWithRelations(idList)
                 .orElseThrow(() -> new EntityNotFoundException("La lista con ID " + idList + " no existe."));
@@ -145,6 +221,7 @@ public class BookListService {
         lista.setGenres(new HashSet<>(genres));
 
         lista = listRepository.save(lista);
+        recommendationCache.invalidateList(idUser, idList);
 
         return listMapper.toDTO(lista);
     }
@@ -158,6 +235,7 @@ public class BookListService {
      * @throws EntityNotFoundException La lista no existe
      * @throws AccessDeniedException El usuario no es el propietario de la lista
      */
+    @Transactional
     public BookListDTO deleteList(Long idUser, Long idList) {
         BookList list = listRepository.findByIdWithRelations(idList)
                 .orElseThrow(() -> new EntityNotFoundException("Lista con ID " + idList + " no encontrada."));
@@ -167,6 +245,7 @@ public class BookListService {
         }
 
         listRepository.delete(list);
+        recommendationCache.invalidateList(idUser, idList);
 
         return listMapper.toDTO(list);
     }
@@ -181,6 +260,7 @@ public class BookListService {
      * @throws EntityNotFoundException La lista o el libro no existen
      * @throws AccessDeniedException El usuario no es el propietario de la lista
      */
+    @Transactional
     public BookListDTO addBookToList(Long idUser, Long idList, Long idBook) {
         BookList list = listRepository.findByIdWithRelations(idList)
                 .orElseThrow(() -> new EntityNotFoundException("Lista con ID " + idList + " no encontrada."));
@@ -192,15 +272,11 @@ public class BookListService {
         Book book = bookRepository.findById(idBook)
                 .orElseThrow(() -> new EntityNotFoundException("Libro con ID " + idBook + " no encontrado."));
 
-        if (!list.getBooks().contains(book)) {
-            BookListItem addedBook = new BookListItem();
-            addedBook.setList(list);
-            addedBook.setBook(book);
-            addedBook.setDateAdded(Date.valueOf(LocalDate.now()));
-            addedBook.setId(new BookListItemId(list.getId(), book.getId()));
-
-            list.getBooks().add(addedBook);
-            list = listRepository.save(list);
+        // Los libros de la lista no se cargan hasta construir la respuesta, que ya incluye el añadido
+        if (bookItemRepository.insertIfAbsent(idList, book.getId(), Date.valueOf(LocalDate.now())) > 0) {
+            listRepository.addToBookCount(idList, 1);
+            recommendationCache.invalidateList(idUser, idList);
+            eventPublisher.publishEvent(new ActivityEvent(idUser, ActivityType.ADDED_TO_LIST, idBook, idList, 0));
         }
 
         return listMapper.toDTO(list);
@@ -216,6 +292,7 @@ public class BookListService {
      * @throws EntityNotFoundException La lista no existe o el libro no pertenece a esta
      * @throws AccessDeniedException El usuario no es el propietario de la lista
      */
+    @Transactional
     public BookListDTO deleteBookFromList(Long idUser, Long idList, Long idBook) {
         BookList list = listRepository.findByIdWithRelations(idList)
                 .orElseThrow(() -> new EntityNotFoundException("Lista con ID " + idList + " no encontrada."));
@@ -224,43 +301,66 @@ public class BookListService {
             throw new AccessDeniedException("No tienes permiso para acceder a esta lista.");
         }
 
-        list.getBooks().removeIf(item -> item.getBook().getId().equals(idBook));
-        list = listRepository.save(list);
+        if (bookItemRepository.deleteByKey(idList, idBook) > 0) {
+            listRepository.addToBookCount(idList, -1);
+            recommendationCache.invalidateList(idUser, idList);
+        }
 
         return listMapper.toDTO(list);
     }
 
     /**
-     * Devuelve todas las listas de un usuario que no contienen un libro específico.
+     * Devuelve los resúmenes de las listas de un usuario que no contienen un libro específico.
      *
      * @param idBook ID del libro a excluir
      * @param idUser ID del usuario
      * @param page Número de la página
      * @param size Tamaño de la página
-     * @return Página con las listas resultantes de la búsqueda
+     * @return Página con los resúmenes de las listas resultantes de la búsqueda
      */
-    public Page<BookListDTO> getListsWithoutBook(Long idBook, Long idUser, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<BookListSummaryDTO> getListsWithoutBook(Long idBook, Long idUser, int page, int size) {
         Book book = bookRepository.findById(idBook)
                 .orElseThrow(() -> new EntityNotFoundException("Libro con ID " + idBook + " no encontrado."));
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<BookList> lists = bookItemRepository.findAllListsByUserIdAndBookIdNotIn(idUser, idBook, pageable);
+        Page<BookListSummaryRow> lists = listRepository.findSummariesByUserId(idUser, book.getId(), true,
+                summaryCovers, pageable);
 
-        return lists.map(listMapper::toDTO);
+        return lists.map(listMapper::toSummaryDTO);
     }
 
     /**
-     * Devuelve todas las listas de un usuario que tienen al menos un libro o un género asociado.
+     * Devuelve los resúmenes de todas las listas de un usuario que tienen al menos un libro o un género asociado.
      *
      * @param idUser ID del usuario
-     * @return Listado con las listas resultantes
+     * @return Listado con los resúmenes de las listas resultantes
      */
-    public List<BookListDTO> getAllListsExcludingEmpty(Long idUser) {
-        List<BookList> listas = listRepository.findAllByUserId(idUser);
+    @Transactional(readOnly = true)
+    public List<BookListSummaryDTO> getAllListsExcludingEmpty(Long idUser) {
+        Page<BookListSummaryRow> listas = listRepository.findSummariesByUserId(idUser, NO_BOOK, false,
+                summaryCovers, Pageable.unpaged());
 
-        List<BookList> listasFiltradas = listas.stream()
-                .filter(bookList -> bookList.getBooks().size() > 0 || bookList.getGenres().size() > 0).toList();
+        return listas.map(listMapper::toSummaryDTO).getContent();
+    }
+
+    /**
+     * Recalcula el número de libros de las listas a partir de sus libros.
+     * Se ejecuta periódicamente según la expresión {@code readtoowell.lists.reconcile-cron}.
+     */
+    @Transactional
+    @Scheduled(cron = "${readtoowell.lists.reconcile-cron:0 20 4 * * *}")
+    public void reconcile() {
+        listRepository.rebuildBookCounts();
+    }
 
-        return listasFiltradas.stream().map(listMapper::toDTO).toList();
+    /**
+     * Calcula los contadores al arrancar la aplicación si todavía hay listas sin contar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (listRepository.existsUncountedList()) {
+            reconcile();
+        }
     }
 }
@@ -0,0 +1,369 @@
+package es.readtoowell.api_biblioteca.service.book;
+
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.model.projection.BookSearchDocument;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Servicio que mantiene un índice invertido en memoria con los libros activos del catálogo.
+ * Permite buscar por título, autor o colección sin distinguir mayúsculas ni tildes, con
+ * coincidencia por prefijo, derivación ligera de palabras en español y ordenación por relevancia.
+ */
+@Service
+public class BookSearchService {
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double AUTHOR_WEIGHT = 2.0;
+    private static final double COLLECTION_WEIGHT = 1.0;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final Set<String> STOP_WORDS = Set.of("el", "la", "los", "las", "lo", "un", "una", "unos",
+            "unas", "de", "del", "al", "a", "y", "e", "o", "u", "en", "con", "por", "para", "que", "se", "su", "sus");
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedBook> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private volatile boolean ready = false;
+
+    /**
+     * Documento indexado: datos mínimos de un libro para filtrar y eliminarlo del índice.
+     */
+    private record IndexedBook(Long id, int pageNumber, int publicationYear, Set<String> terms) {}
+
+    /**
+     * Reconstruye el índice completo a partir de los libros activos de la base de datos.
+     * Se ejecuta al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        List<BookSearchDocument> docs = bookRepository.findSearchDocuments();
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            for (BookSearchDocument doc : docs) {
+                addDocument(doc.getId(), doc.getTitle(), doc.getAuthor(), doc.getCollectionName(),
+                        doc.getPageNumber(), doc.getPublicationYear());
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el índice ya se ha construido y puede responder búsquedas.
+     *
+     * @return 'true' si el índice está listo, 'false' en caso contrario
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Añade o reemplaza un libro en el índice. Si el libro no está activo, se elimina del índice.
+     *
+     * @param book Libro a indexar
+     */
+    public void indexBook(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(book.getId());
+            if (book.isActive()) {
+                String collectionName = book.getCollection() != null ? book.getCollection().getName() : null;
+                addDocument(book.getId(), book.getTitle(), book.getAuthor(), collectionName,
+                        book.getPageNumber(), book.getPublicationYear());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un libro del índice.
+     *
+     * @param idBook ID del libro a eliminar
+     */
+    public void removeBook(Long idBook) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(idBook);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca libros en el índice. Todas las palabras de la búsqueda deben coincidir (exacta o por prefijo)
+     * con el título, el autor o la colección. Los filtros de páginas y año se aplican dentro del índice.
+     *
+     * @param searchString Cadena de búsqueda, puede ser 'null' o vacía
+     * @param minPages Mínimo de páginas para filtrar
+     * @param maxPages Máximo de páginas para filtrar
+     * @param minYear Año de publicación mínimo para filtrar
+     * @param maxYear Año de publicación máximo para filtrar
+     * @param ranked 'true' para ordenar por relevancia, 'false' para ordenar por ID
+     * @param pageable Información de paginación
+     * @return Página con los IDs de los libros resultantes, en el orden de los resultados
+     */
+    public Page<Long> search(String searchString, Integer minPages, Integer maxPages, Integer minYear,
+                             Integer maxYear, boolean ranked, Pageable pageable) {
+        List<Map.Entry<Long, Double>> results = sortedMatches(searchString, minPages, maxPages, minYear, maxYear,
+                ranked);
+
+        int from = (int) Math.min(pageable.getOffset(), results.size());
+        int to = Math.min(from + pageable.getPageSize(), results.size());
+        List<Long> pageIds = results.subList(from, to).stream().map(Map.Entry::getKey).toList();
+
+        return new PageImpl<>(pageIds, pageable, results.size());
+    }
+
+    /**
+     * Busca libros en el índice continuando a partir del último resultado devuelto (paginación por cursor).
+     * Los resultados siguen el mismo orden que {@link #search}: por relevancia descendente y por ID,
+     * o solo por ID si {@code ranked} es 'false'.
+     *
+     * @param searchString Cadena de búsqueda, puede ser 'null' o vacía
+     * @param minPages Mínimo de páginas para filtrar
+     * @param maxPages Máximo de páginas para filtrar
+     * @param minYear Año de publicación mínimo para filtrar
+     * @param maxYear Año de publicación máximo para filtrar
+     * @param ranked 'true' para ordenar por relevancia, 'false' para ordenar por ID
+     * @param after Último resultado devuelto, 'null' para empezar desde el principio
+     * @param size Número máximo de resultados
+     * @return Porción con los resultados (ID y puntuación) siguientes a {@code after}
+     */
+    public Slice<SearchHit> searchAfter(String searchString, Integer minPages, Integer maxPages, Integer minYear,
+                                        Integer maxYear, boolean ranked, SearchHit after, int size) {
+        List<Map.Entry<Long, Double>> results = sortedMatches(searchString, minPages, maxPages, minYear, maxYear,
+                ranked);
+
+        int from = 0;
+        if (after != null) {
+            Comparator<Map.Entry<Long, Double>> order = order(ranked);
+            Map.Entry<Long, Double> last = Map.entry(after.bookId(), after.score());
+            while (from < results.size() && order.compare(results.get(from), last) <= 0) {
+                from++;
+            }
+        }
+        int to = Math.min(from + size, results.size());
+        List<SearchHit> hits = results.subList(from, to).stream()
+                .map(e -> new SearchHit(e.getKey(), e.getValue()))
+                .toList();
+
+        return new SliceImpl<>(hits, PageRequest.ofSize(size), to < results.size());
+    }
+
+    /**
+     * Resultado de una búsqueda: ID del libro y su puntuación de relevancia.
+     *
+     * @param bookId ID del libro
+     * @param score Puntuación de relevancia
+     */
+    public record SearchHit(Long bookId, double score) {}
+
+    /**
+     * Obtiene todos los libros que coinciden con la búsqueda y los filtros, ya ordenados.
+     */
+    private List<Map.Entry<Long, Double>> sortedMatches(String searchString, Integer minPages, Integer maxPages,
+                                                        Integer minYear, Integer maxYear, boolean ranked) {
+        List<String> queryTerms = analyze(searchString);
+
+        List<Map.Entry<Long, Double>> results;
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = queryTerms.isEmpty() ? matchAll() : matchTerms(queryTerms);
+
+            results = new ArrayList<>();
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                IndexedBook doc = documents.get(entry.getKey());
+                if (doc != null && inRange(doc, minPages, maxPages, minYear, maxYear)) {
+                    results.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        results.sort(order(ranked));
+        return results;
+    }
+
+    /**
+     * Orden de los resultados: por relevancia descendente y por ID, o solo por ID.
+     */
+    private static Comparator<Map.Entry<Long, Double>> order(boolean ranked) {
+        Comparator<Map.Entry<Long, Double>> byId = Map.Entry.comparingByKey();
+        return ranked ? Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(byId) : byId;
+    }
+
+    /**
+     * Normaliza un texto y lo divide en términos indexables: minúsculas, sin tildes, sin palabras
+     * vacías (salvo que la cadena solo contenga palabras vacías) y con la derivación aplicada.
+     *
+     * @param text Texto a analizar
+     * @return Lista de términos resultantes
+     */
+    static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = Arrays.stream(normalized.split("[^\\p{Alnum}]+"))
+                .filter(t -> !t.isEmpty())
+                .toList();
+        List<String> withoutStopWords = tokens.stream().filter(t -> !STOP_WORDS.contains(t)).toList();
+
+        return (withoutStopWords.isEmpty() ? tokens : withoutStopWords).stream()
+                .map(BookSearchService::stem)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Aplica una derivación ligera para el español: elimina los plurales y la vocal final,
+     * de forma que "libro", "libros" y "libra" comparten raíz.
+     *
+     * @param token Término normalizado
+     * @return Raíz del término
+     */
+    static String stem(String token) {
+        String stem = token;
+        if (stem.length() > 4 && stem.endsWith("es")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.length() > 3 && stem.endsWith("s")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        if (stem.length() > 3 && (stem.endsWith("a") || stem.endsWith("o") || stem.endsWith("e"))) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    /**
+     * Añade un documento al índice. Debe llamarse con el bloqueo de escritura adquirido.
+     */
+    private void addDocument(Long id, String title, String author, String collectionName,
+                             int pageNumber, int publicationYear) {
+        Set<String> terms = new HashSet<>();
+        addField(id, title, TITLE_WEIGHT, terms);
+        addField(id, author, AUTHOR_WEIGHT, terms);
+        addField(id, collectionName, COLLECTION_WEIGHT, terms);
+
+        documents.put(id, new IndexedBook(id, pageNumber, publicationYear, terms));
+    }
+
+    /**
+     * Añade los términos de un campo a las listas de apariciones con el peso del campo.
+     */
+    private void addField(Long id, String value, double weight, Set<String> terms) {
+        for (String term : analyze(value)) {
+            postings.computeIfAbsent(term, t -> new HashMap<>()).merge(id, weight, Double::sum);
+            terms.add(term);
+        }
+    }
+
+    /**
+     * Elimina un documento del índice. Debe llamarse con el bloqueo de escritura adquirido.
+     */
+    private void removeDocument(Long id) {
+        IndexedBook doc = documents.remove(id);
+        if (doc == null) {
+            return;
+        }
+
+        for (String term : doc.terms()) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Devuelve todos los documentos con puntuación cero, para búsquedas sin texto.
+     */
+    private Map<Long, Double> matchAll() {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long id : documents.keySet()) {
+            scores.put(id, 0.0);
+        }
+        return scores;
+    }
+
+    /**
+     * Intersecta los documentos que coinciden con cada término y acumula su puntuación.
+     * Una coincidencia exacta puntúa el peso completo del campo; una por prefijo, una fracción.
+     */
+    private Map<Long, Double> matchTerms(List<String> queryTerms) {
+        Map<Long, Double> scores = null;
+
+        for (String queryTerm : queryTerms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Double>> entry :
+                    postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).entrySet()) {
+                double factor = entry.getKey().equals(queryTerm) ? 1.0 : PREFIX_FACTOR;
+                for (Map.Entry<Long, Double> posting : entry.getValue().entrySet()) {
+                    termScores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+                }
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Long, Double> intersection = new HashMap<>();
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    Double termScore = termScores.get(entry.getKey());
+                    if (termScore != null) {
+                        intersection.put(entry.getKey(), entry.getValue() + termScore);
+                    }
+                }
+                scores = intersection;
+            }
+
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        return scores;
+    }
+
+    /**
+     * Comprueba si un documento cumple los filtros de páginas y año de publicación.
+     */
+    private boolean inRange(IndexedBook doc, Integer minPages, Integer maxPages, Integer minYear, Integer maxYear) {
+        return (minPages == null || doc.pageNumber() >= minPages)
+                && (maxPages == null || doc.pageNumber() <= maxPages)
+                && (minYear == null || doc.publicationYear() >= minYear)
+                && (maxYear == null || doc.publicationYear() <= maxYear);
+    }
+}
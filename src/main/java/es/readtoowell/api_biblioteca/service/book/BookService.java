@@ -1,29 +1,45 @@
 package es.readtoowell.api_biblioteca.service.book;
 
+import es.readtoowell.api_biblioteca.config.CompositeQueryExecutor;
+import es.readtoowell.api_biblioteca.config.datasource.AfterCommit;
 import es.readtoowell.api_biblioteca.mapper.*;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.*;
 import es.readtoowell.api_biblioteca.model.DTO.user.AuthorDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
+import es.readtoowell.api_biblioteca.model.enums.ReviewSort;
 import es.readtoowell.api_biblioteca.model.enums.Role;
 import es.readtoowell.api_biblioteca.model.enums.SuggestionStatus;
+import es.readtoowell.api_biblioteca.model.projection.BookDetailsRow;
+import es.readtoowell.api_biblioteca.model.projection.ReviewRow;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.*;
 import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -44,8 +60,6 @@ public class BookService {
     @Autowired
     private UserLibraryBookRepository libraryRepository;
     @Autowired
-    private BookListItemRepository listItemRepository;
-    @Autowired
     private UserRepository userRepository;
     @Autowired
     private CollectionMapper collectionMapper;
@@ -53,6 +67,19 @@ public class BookService {
     private SuggestionRepository suggestionRepository;
     @Autowired
     private SuggestionService suggestionService;
+    @Autowired
+    private BookSearchService bookSearchService;
+    @Autowired
+    private BookSimilarityService similarityService;
+    @Autowired
+    private GenreIndex genreIndex;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    @Autowired
+    private CompositeQueryExecutor compositeQueryExecutor;
+
+    @Value("${readtoowell.book-details.review-page-size:10}")
+    private int reviewPageSize;
 
     /**
      * Devuelve todos los libros.
@@ -62,6 +89,7 @@ public class BookService {
      * @param size Tamaño de la página
      * @return Página con los libros resultantes como DTOs
      */
+    @Transactional(readOnly = true)
     public Page<BookDTO> getAllBooks(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "publicationYear"));
         Page<Book> books = bookRepository.findAllByActiveTrue(pageable);
@@ -69,6 +97,27 @@ public class BookService {
         return books.map(bookMapper::toDTO);
     }
 
+    /**
+     * Devuelve los libros activos usando paginación por cursor, ordenados por año de publicación
+     * descendente y por ID descendente.
+     *
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con los libros resultantes como DTOs y el cursor de la siguiente
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BookDTO> getAllBooks(String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 2);
+        int year = anterior != null ? Math.toIntExact(anterior.getLong(0)) : Integer.MAX_VALUE;
+        long lastId = anterior != null ? anterior.getLong(1) : Long.MAX_VALUE;
+
+        Slice<Book> books = bookRepository.findActiveAfter(year, lastId, PageRequest.ofSize(size));
+
+        return CursorCodec.toCursorPage(books, bookMapper::toDTO,
+                b -> CursorCodec.encode(b.getPublicationYear(), b.getId()));
+    }
+
     /**
      * Devuelve un libro según su ID.
      *
@@ -76,6 +125,9 @@ public class BookService {
      * @return DTO con los datos del libro
      * @throws EntityNotFoundException El libro no existe
      */
+    // Solo lectura aunque se use antes de borrar o reactivar el libro en la misma petición: sin sesión abierta
+    // durante la vista, esas operaciones guardan una entidad nueva creada a partir del DTO, no la cargada aquí
+    @Transactional(readOnly = true)
     public BookDTO getBook(Long idBook) {
         Book book = bookRepository.findById(idBook)
                 .orElseThrow(() -> new EntityNotFoundException("El libro con ID " + idBook + " no existe."));
@@ -89,11 +141,9 @@ public class BookService {
      * @param genreIds Lista con los IDs de los géneros asociados al libro
      * @return DTO con los datos del libro creado
      */
-    public BookDTO createBook(BookDTO bookDTO, List<Long> genreIds, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public BookDTO createBook(BookDTO bookDTO, List<Long> genreIds) {
         Book book = new Book();
 
         List<Genre> genres = new ArrayList<>(genreRepository.findAllById(genreIds));
@@ -105,9 +155,10 @@ public class BookService {
         fillBookData(null, book, bookDTO);
 
         // Comprobar las solicitudes aceptadas (pendientes de añadir)
-        updateAcceptedSuggestions(bookDTO, user);
+        updateAcceptedSuggestions(bookDTO);
 
         book = bookRepository.save(book);
+        indexBookAfterCommit(book);
 
         return bookMapper.toDTO(book);
     }
@@ -122,11 +173,9 @@ public class BookService {
      * @throws EntityNotFoundException El libro no existe
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public BookDTO updateBook(Long idBook, BookDTO book, List<Long> genreIds, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public BookDTO updateBook(Long idBook, BookDTO book, List<Long> genreIds) {
         Book libro = bookRepository.findById(idBook)
                 .orElseThrow(() -> new EntityNotFoundException("El libro con ID " + idBook + " no existe."));
 
@@ -140,13 +189,27 @@ public class BookService {
         fillBookData(idBook, libro, book);
 
         // Comprobar las solicitudes aceptadas (pendientes de añadir)
-        updateAcceptedSuggestions(book, user);
+        updateAcceptedSuggestions(book);
 
         libro = bookRepository.save(libro);
+        indexBookAfterCommit(libro);
 
         return bookMapper.toDTO(libro);
     }
 
+    /**
+     * Actualiza el libro en los índices en memoria de búsqueda y de géneros al confirmarse la transacción,
+     * para que las búsquedas no devuelvan un libro cuyos cambios todavía pueden deshacerse.
+     *
+     * @param book Libro guardado, con sus géneros y su colección cargados
+     */
+    private void indexBookAfterCommit(Book book) {
+        AfterCommit.run(() -> {
+            bookSearchService.indexBook(book);
+            genreIndex.indexBook(book);
+        });
+    }
+
     /**
      * Rellena los campos de una entidad {@code Book} con los datos de un {@code BookDTO}.
      *
@@ -218,14 +281,13 @@ public class BookService {
      * coincide con los datos del libro que se está añadiendo/actualizando.
      *
      * @param book  Datos del libro que se añade/actualiza
-     * @param user  Usuario autenticado
      */
-    private void updateAcceptedSuggestions(BookDTO book, User user) {
+    private void updateAcceptedSuggestions(BookDTO book) {
         List<Suggestion> suggestions = suggestionRepository.findByStatus(SuggestionStatus.ACCEPTED.getValue());
         for (Suggestion sug : suggestions) {
             if (sug.getTitle().equals(book.getTitle()) && sug.getAuthor().equals(book.getAuthor())
                     && sug.getPublicationYear() == book.getPublicationYear()) {
-                suggestionService.updateStatusSuggestion(sug.getId(), SuggestionStatus.ADDED.getValue(), user);
+                suggestionService.updateStatusSuggestion(sug.getId(), SuggestionStatus.ADDED.getValue());
             }
         }
     }
@@ -237,14 +299,18 @@ public class BookService {
      * @return DTO con los datos del libro borrado
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public BookDTO deleteBook(BookDTO book, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public BookDTO deleteBook(BookDTO book) {
         Book libro = bookMapper.toEntity(book);
         libro.delete();
         libro = bookRepository.save(libro);
+        Long idLibro = libro.getId();
+        AfterCommit.run(() -> {
+            bookSearchService.removeBook(idLibro);
+            genreIndex.removeBook(idLibro);
+        });
+        similarityService.removeBook(idLibro);
         return bookMapper.toDTO(libro);
     }
 
@@ -253,16 +319,18 @@ public class BookService {
      *
      * @param book DTO con los datos del libro a reactivar
      * @return DTO con los datos del libro reactivado
+     * @throws EntityNotFoundException El libro no existe
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public BookDTO reactivateBook(BookDTO book, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
-        Book libro = bookMapper.toEntity(book);
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public BookDTO reactivateBook(BookDTO book) {
+        // Se carga el libro guardado: el construido a partir del DTO no trae la colección
+        Book libro = bookRepository.findWithGenresById(book.getId())
+                .orElseThrow(() -> new EntityNotFoundException("El libro con ID " + book.getId() + " no existe."));
         libro.reactivate();
         libro = bookRepository.save(libro);
+        indexBookAfterCommit(libro);
         return bookMapper.toDTO(libro);
     }
 
@@ -279,94 +347,287 @@ public class BookService {
      * @param size Tamaño de la página
      * @return Página con los libros resultantes como DTOs
      */
+    @Transactional(readOnly = true)
     public Page<BookDTO> filterBooks(String searchString, Integer minPages, Integer maxPages,
                                   Integer minYear, Integer maxYear, int page, int size) {
-        Page<Book> librosFiltrados = bookRepository.filterBooks(searchString, minPages, maxPages, minYear,
-                maxYear, PageRequest.of(page, size));
+        return filterBooks(searchString, minPages, maxPages, minYear, maxYear, page, size, false);
+    }
 
-        return librosFiltrados.map(bookMapper::toDTO);
+    /**
+     * Busca libros por su título, autor o colección, pudiendo ordenarlos por relevancia.
+     * Permite filtrar por número de páginas y por año de publicación.
+     * Si el índice de búsqueda todavía no está disponible, se realiza la búsqueda en la base de datos.
+     *
+     * @param searchString Cadena que se compara con el título, autor o colección
+     * @param minPages Mínimo de páginas para filtrar
+     * @param maxPages Máximo de páginas para filtrar
+     * @param minYear Año de publicación mínimo para filtrar
+     * @param maxYear Año de publicación máximo para filtrar
+     * @param page Número de la página que se quiere devolver
+     * @param size Tamaño de la página
+     * @param ranked 'true' para ordenar los resultados por relevancia
+     * @return Página con los libros resultantes como DTOs
+     */
+    @Transactional(readOnly = true)
+    public Page<BookDTO> filterBooks(String searchString, Integer minPages, Integer maxPages,
+                                  Integer minYear, Integer maxYear, int page, int size, boolean ranked) {
+        if (!bookSearchService.isReady()) {
+            Page<Book> librosFiltrados = bookRepository.filterBooks(searchString, minPages, maxPages, minYear,
+                    maxYear, PageRequest.of(page, size));
+
+            return librosFiltrados.map(bookMapper::toDTO);
+        }
+
+        Page<Long> ids = bookSearchService.search(searchString, minPages, maxPages, minYear, maxYear,
+                ranked, PageRequest.of(page, size));
+
+        return loadBooksInOrder(ids);
+    }
+
+    /**
+     * Busca libros por su título, autor o colección usando paginación por cursor.
+     * Permite filtrar por número de páginas y por año de publicación.
+     * Si el índice de búsqueda todavía no está disponible, se realiza la búsqueda en la base de datos
+     * y los resultados se ordenan por ID.
+     *
+     * @param searchString Cadena que se compara con el título, autor o colección
+     * @param minPages Mínimo de páginas para filtrar
+     * @param maxPages Máximo de páginas para filtrar
+     * @param minYear Año de publicación mínimo para filtrar
+     * @param maxYear Año de publicación máximo para filtrar
+     * @param ranked 'true' para ordenar los resultados por relevancia
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con los libros resultantes como DTOs y el cursor de la siguiente
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BookDTO> filterBooks(String searchString, Integer minPages, Integer maxPages,
+                                              Integer minYear, Integer maxYear, boolean ranked,
+                                              String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 2);
+
+        if (!bookSearchService.isReady()) {
+            long lastId = anterior != null ? anterior.getLong(1) : 0L;
+            Slice<Book> librosFiltrados = bookRepository.filterBooksAfter(searchString, minPages, maxPages,
+                    minYear, maxYear, lastId, PageRequest.ofSize(size));
+
+            return CursorCodec.toCursorPage(librosFiltrados, bookMapper::toDTO,
+                    b -> CursorCodec.encode(0.0, b.getId()));
+        }
+
+        BookSearchService.SearchHit after = anterior != null
+                ? new BookSearchService.SearchHit(anterior.getLong(1), anterior.getDouble(0)) : null;
+        Slice<BookSearchService.SearchHit> hits = bookSearchService.searchAfter(searchString, minPages, maxPages,
+                minYear, maxYear, ranked, after, size);
+
+        Map<Long, Book> librosPorId = bookRepository.findAllById(
+                hits.getContent().stream().map(BookSearchService.SearchHit::bookId).toList()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<BookDTO> libros = hits.getContent().stream()
+                .map(hit -> librosPorId.get(hit.bookId()))
+                .filter(Objects::nonNull)
+                .map(bookMapper::toDTO)
+                .toList();
+
+        List<BookSearchService.SearchHit> content = hits.getContent();
+        String nextCursor = hits.hasNext() && !content.isEmpty()
+                ? CursorCodec.encode(content.get(content.size() - 1).score(), content.get(content.size() - 1).bookId())
+                : null;
+
+        return new CursorPageDTO<>(libros, size, hits.hasNext(), nextCursor);
+    }
+
+    /**
+     * Carga los libros de una página de IDs, respetando el orden de la página.
+     *
+     * @param ids Página con los IDs de los libros
+     * @return Página con los libros como DTOs
+     */
+    private Page<BookDTO> loadBooksInOrder(Page<Long> ids) {
+        Map<Long, Book> librosPorId = bookRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        List<BookDTO> libros = ids.getContent().stream()
+                .map(librosPorId::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toDTO)
+                .toList();
+
+        return new PageImpl<>(libros, ids.getPageable(), ids.getTotalElements());
     }
 
     /**
      * Busca los libros de un género específico.
+     * Si el índice de géneros está disponible, solo se devuelven libros activos, ordenados por ID.
      *
      * @param idGenre ID del género que se busca
      * @param page Número de la página que se quiere devolver
      * @param size Tamaño de la página
      * @return Página con los libros resultantes como DTOs
      */
+    @Transactional(readOnly = true)
     public Page<BookDTO> filterBooksByGenre(Long idGenre, int page, int size) {
-        Page<Book> librosFiltrados = bookRepository.findByGenresId(idGenre, PageRequest.of(page, size));
+        if (!genreIndex.isReady()) {
+            Page<Book> librosFiltrados = bookRepository.findByGenresId(idGenre, PageRequest.of(page, size));
 
-        return librosFiltrados.map(bookMapper::toDTO);
+            return librosFiltrados.map(bookMapper::toDTO);
+        }
+
+        return loadBooksInOrder(genreIndex.findByGenre(idGenre, PageRequest.of(page, size)));
     }
 
     /**
      * Devuelve los detalles completos de un libro para un usuario.
-     * Incluye la calificación, reseña y listas del usuario.
+     * Incluye la calificación, reseña y listas del usuario, y las reseñas más recientes de otros usuarios.
+     * Si hay más reseñas, {@code otherUsersReviewsCursor} permite seguir obteniéndolas con {@link #getBookReviews}.
+     * Los datos se obtienen en tres consultas en paralelo: el libro con sus géneros y colección; los datos
+     * del usuario, estadísticas y listas; y las reseñas de otros usuarios. Si las reseñas tardan demasiado,
+     * se devuelven los detalles sin ellas y con un cursor vacío, para obtenerlas después desde el principio.
      *
      * @param idBook ID del libro
      * @param user Usuario que consulta los detalles
      * @return DTO con los detalles completos del libro
-     * @throws EntityNotFoundException El libro o la colección no existen
+     * @throws EntityNotFoundException El libro no existe
      */
     public BookDetailsDTO getBookDetails(Long idBook, User user) {
-        Book libro = bookRepository.findById(idBook)
-                .orElseThrow(() -> new EntityNotFoundException("El libro con ID " + idBook + " no existe."));
-
-        BookDetailsDTO details = new BookDetailsDTO();
-
-        details.setBook(bookMapper.toDTO(libro));
-
-        Optional<UserLibraryBook> libroGuardado = libraryRepository.findByUserAndBook(user, libro);
-        if (libroGuardado.isPresent()) {
+        CompletableFuture<BookDetailsDTO> consultaLibro = compositeQueryExecutor.submit(() -> {
+            Book libro = bookRepository.findWithGenresById(idBook)
+                    .orElseThrow(() -> new EntityNotFoundException("El libro con ID " + idBook + " no existe."));
+
+            BookDetailsDTO libroDTO = new BookDetailsDTO();
+            libroDTO.setBook(bookMapper.toDTO(libro));
+            if (libro.getCollection() != null) {
+                libroDTO.setCollectionName(libro.getCollection().getName()); // Nombre, el número se guarda en el libro
+            }
+            return libroDTO;
+        });
+        CompletableFuture<List<BookDetailsRow>> consultaContexto = compositeQueryExecutor.submit(
+                () -> bookRepository.findDetailsContext(idBook, user.getId(), 0));
+        CompletableFuture<CursorPageDTO<ReviewDTO>> consultaReseñas = compositeQueryExecutor.submitOptional(
+                () -> getBookReviews(idBook, user, ReviewSort.RECENT.getTag(), null, reviewPageSize));
+
+        BookDetailsDTO details = compositeQueryExecutor.join(consultaLibro);
+        List<BookDetailsRow> filas = compositeQueryExecutor.join(consultaContexto);
+        CursorPageDTO<ReviewDTO> reseñas = compositeQueryExecutor.joinOrDefault(consultaReseñas, null);
+
+        BookDetailsRow contexto = filas.get(0);
+        if (Boolean.TRUE.equals(contexto.getSaved())) {
             details.setSaved(true);
-            UserLibraryBook lib = libroGuardado.get();
-            details.setReadingStatus(lib.getReadingStatus());
-            details.setRating(lib.getRating());
-            details.setReview(lib.getReview());
-            details.setDateStart(lib.getDateStart());
-            details.setDateFinish(lib.getDateFinish());
+            details.setReadingStatus(contexto.getReadingStatus());
+            details.setRating(contexto.getRating());
+            details.setReview(contexto.getReview());
+            details.setDateStart(contexto.getDateStart());
+            details.setDateFinish(contexto.getDateFinish());
         } else {
             details.setReadingStatus(0);
             details.setRating(0);
         }
 
-        if (libro.getCollectionId() != null) {
-            Collection collection = collectionRepository.findById(libro.getCollectionId())
-                    .orElseThrow(() -> new EntityNotFoundException("La colección con ID " +
-                            libro.getCollectionId() + " no existe."));
-            details.setCollectionName(collection.getName()); // Nombre, el número se guarda en el libro
+        BookStats estadisticas = new BookStats();
+        if (contexto.getRatingCount() != null) {
+            estadisticas.setRatingSum(contexto.getRatingSum());
+            estadisticas.setRatingCount(contexto.getRatingCount());
+            estadisticas.setRatingHistogram(parseHistogram(contexto.getRatingHistogram()));
         }
-
-        double calificacionMedia = libraryRepository.findAverageRatingByBookId(libro.getId());
-        details.setAverageRating(BigDecimal.valueOf(calificacionMedia)
+        details.setAverageRating(BigDecimal.valueOf(estadisticas.getAverageRating())
                 .setScale(2, RoundingMode.HALF_UP).doubleValue());
+        details.setRatingCount(estadisticas.getRatingCount());
+        details.setRatingHistogram(estadisticas.getRatingHistogram());
 
-        List<UserLibraryBook> reviews = libraryRepository.findAllWithReviewByBookIdExcludingUser(libro.getId(),
-                                                                                                user.getId());
-        List<ReviewDTO> otherReviews = reviews.stream().map(r -> {
-            ReviewDTO review = new ReviewDTO();
-            review.setUsername(r.getUser().getUsername());
-            review.setProfileName(r.getUser().getProfileName());
-            review.setRating(r.getRating());
-            review.setReview(r.getReview());
-            return review;
-        }).toList();
-        details.setOtherUsersReviews(otherReviews);
-
-        List<BookList> listas = listItemRepository.findAllListsByUserIdAndBookId(user.getId(), libro.getId());
-        List<SimpleBookListDTO> listasDTO = listas.stream().map(lista -> {
+        List<SimpleBookListDTO> listasDTO = new ArrayList<>();
+        for (BookDetailsRow fila : filas) {
+            if ("L".equals(fila.getItemKind())) {
                 SimpleBookListDTO simpleList = new SimpleBookListDTO();
-                simpleList.setId(lista.getId());
-                simpleList.setName(lista.getName());
-                return simpleList;
-        }).toList();
+                simpleList.setId(fila.getItemId());
+                simpleList.setName(fila.getItemName());
+                listasDTO.add(simpleList);
+            }
+        }
+
+        details.setOtherUsersReviewCount(contexto.getReviewCount() != null ? contexto.getReviewCount() : 0);
+        if (reseñas != null) {
+            details.setOtherUsersReviews(reseñas.getContent());
+            details.setOtherUsersReviewsCursor(reseñas.getNextCursor());
+        } else {
+            details.setOtherUsersReviews(new ArrayList<>());
+            if (details.getOtherUsersReviewCount() > 0) {
+                details.setOtherUsersReviewsCursor(""); // Cursor vacío: primera porción de las reseñas
+            }
+        }
         details.setLists(listasDTO);
 
         return details;
     }
 
+    /**
+     * Devuelve las reseñas de un libro escritas por otros usuarios usando paginación por cursor.
+     * Con el orden {@code recientes}, la primera porción coincide con las reseñas incluidas en los detalles del libro.
+     *
+     * @param idBook ID del libro
+     * @param user Usuario que consulta las reseñas, cuya reseña se excluye
+     * @param sort Orden de las reseñas: {@code recientes} o {@code calificacion}
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con las reseñas como DTOs y el cursor de la siguiente
+     * @throws ValidationException El orden o el cursor son inválidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ReviewDTO> getBookReviews(Long idBook, User user, String sort, String cursor, int size) {
+        ReviewSort orden;
+        try {
+            orden = ReviewSort.fromTag(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("El orden de las reseñas es inválido.");
+        }
+
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 2);
+        long lastUserId = anterior != null ? anterior.getLong(1) : Long.MAX_VALUE;
+
+        if (orden == ReviewSort.RATING) {
+            Slice<ReviewRow> reviews = libraryRepository.findReviewsByRating(idBook, user.getId(),
+                    anterior != null ? anterior.getDouble(0) : Double.MAX_VALUE, lastUserId,
+                    PageRequest.ofSize(size));
+
+            return CursorCodec.toCursorPage(reviews, BookService::toReviewDTO,
+                    r -> CursorCodec.encode(r.getRating(), r.getUserId()));
+        }
+
+        Slice<ReviewRow> reviews = CursorCodec.sliceByDateDesc(anterior, size,
+                (fecha, lastId, pageable) ->
+                        libraryRepository.findReviewsByRecency(idBook, user.getId(), fecha, lastId, pageable),
+                (lastId, pageable) -> libraryRepository.findUndatedReviews(idBook, user.getId(), lastId, pageable));
+
+        return CursorCodec.toCursorPage(reviews, BookService::toReviewDTO,
+                r -> CursorCodec.encode(r.getDateReview(), r.getUserId()));
+    }
+
+    private static ReviewDTO toReviewDTO(ReviewRow row) {
+        ReviewDTO review = new ReviewDTO();
+        review.setUsername(row.getUsername());
+        review.setProfileName(row.getProfileName());
+        review.setRating(row.getRating());
+        review.setReview(row.getReview());
+        review.setDateReview(row.getDateReview());
+        return review;
+    }
+
+    /**
+     * Convierte el histograma de calificaciones, con los valores separados por comas, en un array.
+     */
+    private static int[] parseHistogram(String histograma) {
+        int[] result = new int[BookStats.HISTOGRAM_BUCKETS];
+        if (histograma == null || histograma.isBlank()) {
+            return result;
+        }
+
+        String[] valores = histograma.split(",");
+        for (int i = 0; i < Math.min(valores.length, result.length); i++) {
+            result[i] = Integer.parseInt(valores[i].trim());
+        }
+        return result;
+    }
+
     /**
      * Devuelve los libros escritos por un autor que tiene cuenta de usuario.
      *
@@ -375,6 +636,7 @@ public class BookService {
      * @throws EntityNotFoundException El usuario no existe
      * @throws IllegalStateException El usuario no tiene el rol de autor
      */
+    @Transactional(readOnly = true)
     public AuthorDTO getBooksByAuthor(Long idAuthor) {
         User author = userRepository.findById(idAuthor)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idAuthor + " no existe."));
@@ -399,6 +661,7 @@ public class BookService {
      * @param authorName Nombre del autor
      * @return Lista con los libros escritos por el autor
      */
+    @Transactional(readOnly = true)
     public Page<BookDTO> getAllBooksByAuthor(String authorName, int page, int size) {
         Page<Book> books = bookRepository.findBooksByAuthor(authorName,
                 PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "publicationYear")));
@@ -413,6 +676,7 @@ public class BookService {
      * @return Lista con el resto de libros de la colección
      * @throws EntityNotFoundException El libro no existe
      */
+    @Transactional(readOnly = true)
     public List<BookDTO> getOtherBooksFromCollection(Long idBook) {
         bookRepository.findById(idBook)
                 .orElseThrow(() -> new EntityNotFoundException("El libro con ID " + idBook + " no existe."));
@@ -427,6 +691,7 @@ public class BookService {
      *
      * @return Lista con todos los géneros
      */
+    @Transactional(readOnly = true)
     public List<GenreDTO> getGenres() {
         List<Genre> genres = genreRepository.findAll();
 
@@ -438,15 +703,12 @@ public class BookService {
      *
      * @param page Número de la página que se quiere devolver
      * @param size Tamaño de la página
-     * @param user Usario autenticado
      * @return Página con los libros resultantes como DTOs
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public Page<BookDTO> getDeletedBooks(int page, int size, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Page<BookDTO> getDeletedBooks(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "publicationYear"));
         Page<Book> books = bookRepository.findAllByActiveFalse(pageable);
 
@@ -458,6 +720,7 @@ public class BookService {
      *
      * @return Lista con las colecciones
      */
+    @Transactional(readOnly = true)
     public List<CollectionDTO> getCollections() {
         List<Collection> collections = collectionRepository.findAll();
 
@@ -471,6 +734,7 @@ public class BookService {
      * @return Colección creada
      * @throws ValidationException Ya existe una colección con el nombre indicado
      */
+    @Transactional
     public CollectionDTO createCollection(CollectionDTO collection) {
         Optional<Collection> existingCollection = collectionRepository.findByName(collection.getName());
 
@@ -479,6 +743,7 @@ public class BookService {
         }
 
         Collection newCollection = collectionRepository.save(collectionMapper.toEntity(collection));
+        referenceDataCache.evictCollections();
 
         return collectionMapper.toDTO(newCollection);
     }
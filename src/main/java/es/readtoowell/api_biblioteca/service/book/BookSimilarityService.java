@@ -0,0 +1,330 @@
+package es.readtoowell.api_biblioteca.service.book;
+
+import es.readtoowell.api_biblioteca.model.entity.BookNeighbor;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import es.readtoowell.api_biblioteca.repository.book.BookNeighborRepository;
+import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Servicio encargado de precalcular, para cada libro, los libros más parecidos (sus vecinos)
+ * y de generar recomendaciones combinando los vecinos de varios libros.
+ * <p>
+ * La similitud entre dos libros combina el índice de Jaccard de sus géneros y la similitud coseno
+ * de su aparición conjunta en bibliotecas de usuarios y listas. El cálculo se hace periódicamente
+ * en segundo plano, de modo que una recomendación solo necesita leer los vecinos de sus libros de partida.
+ */
+@Service
+public class BookSimilarityService {
+    /**
+     * Las bibliotecas y listas con más libros que este límite no se tienen en cuenta para la coaparición:
+     * aportan poca información y su coste crece con el cuadrado de su tamaño.
+     */
+    private static final int MAX_BASKET_SIZE = 1000;
+
+    private static final Comparator<Map.Entry<Long, Double>> BY_SCORE =
+            Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    @Autowired
+    private BookNeighborRepository neighborRepository;
+    @Autowired
+    private UserLibraryBookRepository libraryRepository;
+    @Value("${readtoowell.recommendations.neighbors.top-k:50}")
+    private int topK;
+    @Value("${readtoowell.recommendations.neighbors.genre-weight:0.5}")
+    private double genreWeight;
+    @Value("${readtoowell.recommendations.neighbors.co-occurrence-weight:0.5}")
+    private double coOccurrenceWeight;
+    @Value("${readtoowell.recommendations.neighbors.batch-size:500}")
+    private int batchSize;
+
+    private volatile boolean available;
+
+    /**
+     * Indica si ya se han calculado los vecinos de los libros.
+     *
+     * @return 'true' si se pueden generar recomendaciones a partir de los vecinos, 'false' en caso contrario
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Busca los libros más parecidos a un conjunto de libros, sumando la similitud de cada candidato
+     * con cada uno de los libros de partida. Se excluyen los libros de partida y los libros que
+     * ya están en la biblioteca del usuario.
+     *
+     * @param idUser ID del usuario
+     * @param seeds IDs de los libros de partida
+     * @param limit Número máximo de libros a devolver
+     * @return Lista con los IDs de los libros recomendados, ordenados por relevancia
+     */
+    public List<Long> recommend(Long idUser, Collection<Long> seeds, int limit) {
+        if (seeds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> excluidos = new HashSet<>(libraryRepository.findBookIdsByUserId(idUser));
+        excluidos.addAll(seeds);
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (BookNeighbor neighbor : neighborRepository.findByIdBookIdIn(seeds)) {
+            Long id = neighbor.getId().getNeighborId();
+            if (!excluidos.contains(id)) {
+                scores.merge(id, neighbor.getSimilarity(), Double::sum);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(BY_SCORE)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Busca los libros más parecidos a los libros leídos por un usuario con una calificación
+     * superior o igual a 3 sobre 5.
+     *
+     * @param idUser ID del usuario
+     * @param limit Número máximo de libros a devolver
+     * @return Lista con los IDs de los libros recomendados, ordenados por relevancia
+     */
+    public List<Long> recommendFromReadBooks(Long idUser, int limit) {
+        return recommend(idUser, libraryRepository.findWellRatedReadBookIds(idUser), limit);
+    }
+
+    /**
+     * Elimina las relaciones de similitud de un libro, para que deje de recomendarse.
+     *
+     * @param idBook ID del libro
+     */
+    public void removeBook(Long idBook) {
+        neighborRepository.deleteByBook(idBook);
+    }
+
+    /**
+     * Calcula los vecinos al arrancar la aplicación si todavía no existen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (neighborRepository.count() == 0) {
+            rebuildNeighbors();
+        } else {
+            available = true;
+        }
+    }
+
+    /**
+     * Recalcula los vecinos de todos los libros activos.
+     * Los vecinos se guardan por grupos de {@code batchSize} libros, con una inserción y un borrado por grupo.
+     * Se ejecuta periódicamente según la expresión {@code readtoowell.recommendations.neighbors-cron}.
+     */
+    @Scheduled(cron = "${readtoowell.recommendations.neighbors-cron:0 0 4 * * *}")
+    public void rebuildNeighbors() {
+        Map<Long, List<Map.Entry<Long, Double>>> vecinos = computeNeighbors(
+                neighborRepository.findActiveBookGenres(),
+                neighborRepository.findActiveLibraryBooks(),
+                neighborRepository.findActiveListBooks());
+
+        List<Long> libros = new ArrayList<>(vecinos.keySet());
+        libros.sort(null);
+        for (int inicio = 0; inicio < libros.size(); inicio += batchSize) {
+            List<Long> grupo = libros.subList(inicio, Math.min(inicio + batchSize, libros.size()));
+
+            List<Long> ids = new ArrayList<>();
+            List<Long> idsVecinos = new ArrayList<>();
+            List<Double> similitudes = new ArrayList<>();
+            for (Long libro : grupo) {
+                for (Map.Entry<Long, Double> vecino : vecinos.get(libro)) {
+                    ids.add(libro);
+                    idsVecinos.add(vecino.getKey());
+                    similitudes.add(vecino.getValue());
+                }
+            }
+
+            Long[] idsArray = ids.toArray(Long[]::new);
+            Long[] idsVecinosArray = idsVecinos.toArray(Long[]::new);
+            if (idsArray.length > 0) {
+                neighborRepository.upsertNeighbors(idsArray, idsVecinosArray, similitudes.toArray(Double[]::new));
+            }
+            neighborRepository.deleteNeighborsNotIn(grupo.toArray(Long[]::new), idsArray, idsVecinosArray);
+        }
+        neighborRepository.deleteBooksNotIn(vecinos.keySet().toArray(Long[]::new));
+
+        available = true;
+    }
+
+    /**
+     * Calcula los {@code topK} vecinos de cada libro.
+     *
+     * @param genreRows Géneros de cada libro
+     * @param libraryRows Libros de cada biblioteca
+     * @param listRows Libros de cada lista
+     * @return Mapa con los vecinos de cada libro, ordenados por similitud
+     */
+    private Map<Long, List<Map.Entry<Long, Double>>> computeNeighbors(List<BookGroupRow> genreRows,
+                                                                      List<BookGroupRow> libraryRows,
+                                                                      List<BookGroupRow> listRows) {
+        // Géneros de cada libro, y libros agrupados por su conjunto de géneros
+        Map<Long, Set<Long>> generosPorLibro = groupBy(genreRows, BookGroupRow::getBookId, BookGroupRow::getGroupId);
+        Map<Set<Long>, List<Long>> librosPorGeneros = new HashMap<>();
+        for (Map.Entry<Long, Set<Long>> entry : generosPorLibro.entrySet()) {
+            librosPorGeneros.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+        }
+        librosPorGeneros.values().forEach(libros -> libros.sort(null));
+
+        List<Set<Long>> conjuntos = new ArrayList<>(librosPorGeneros.keySet());
+        Map<Long, List<Integer>> conjuntosPorGenero = new HashMap<>();
+        for (int i = 0; i < conjuntos.size(); i++) {
+            for (Long genero : conjuntos.get(i)) {
+                conjuntosPorGenero.computeIfAbsent(genero, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // Bibliotecas y listas en las que aparece cada libro
+        List<List<Long>> cestas = new ArrayList<>();
+        cestas.addAll(groupBy(libraryRows, BookGroupRow::getGroupId, BookGroupRow::getBookId).values()
+                .stream().map(ArrayList::new).toList());
+        cestas.addAll(groupBy(listRows, BookGroupRow::getGroupId, BookGroupRow::getBookId).values()
+                .stream().map(ArrayList::new).toList());
+        cestas.removeIf(cesta -> cesta.size() < 2 || cesta.size() > MAX_BASKET_SIZE);
+
+        Map<Long, List<Integer>> cestasPorLibro = new HashMap<>();
+        for (int i = 0; i < cestas.size(); i++) {
+            for (Long libro : cestas.get(i)) {
+                cestasPorLibro.computeIfAbsent(libro, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Set<Long> libros = new HashSet<>(generosPorLibro.keySet());
+        libros.addAll(cestasPorLibro.keySet());
+
+        Map<Set<Long>, List<Map.Entry<Integer, Double>>> rankingPorConjunto = new HashMap<>();
+        Map<Long, List<Map.Entry<Long, Double>>> result = new HashMap<>();
+
+        for (Long libro : libros) {
+            Map<Long, Double> scores = new HashMap<>();
+            Set<Long> generos = generosPorLibro.get(libro);
+
+            // Libros que aparecen junto a este en alguna biblioteca o lista
+            Map<Long, Integer> coapariciones = new HashMap<>();
+            List<Integer> cestasLibro = cestasPorLibro.getOrDefault(libro, List.of());
+            for (Integer cesta : cestasLibro) {
+                for (Long otro : cestas.get(cesta)) {
+                    if (!otro.equals(libro)) {
+                        coapariciones.merge(otro, 1, Integer::sum);
+                    }
+                }
+            }
+            for (Map.Entry<Long, Integer> entry : coapariciones.entrySet()) {
+                Long otro = entry.getKey();
+                double coseno = entry.getValue()
+                        / Math.sqrt((double) cestasLibro.size() * cestasPorLibro.get(otro).size());
+                scores.put(otro, coOccurrenceWeight * coseno
+                        + genreWeight * jaccard(generos, generosPorLibro.get(otro)));
+            }
+
+            // Libros que solo comparten géneros: basta con los topK mejores que no se hayan puntuado ya
+            if (generos != null) {
+                List<Map.Entry<Integer, Double>> ranking = rankingPorConjunto.computeIfAbsent(generos,
+                        g -> rankGenreSets(g, conjuntos, conjuntosPorGenero));
+                int nuevos = 0;
+                for (Map.Entry<Integer, Double> conjunto : ranking) {
+                    if (nuevos >= topK) {
+                        break;
+                    }
+                    for (Long otro : librosPorGeneros.get(conjuntos.get(conjunto.getKey()))) {
+                        if (nuevos >= topK) {
+                            break;
+                        }
+                        if (!otro.equals(libro) && !scores.containsKey(otro)) {
+                            scores.put(otro, genreWeight * conjunto.getValue());
+                            nuevos++;
+                        }
+                    }
+                }
+            }
+
+            result.put(libro, scores.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0)
+                    .sorted(BY_SCORE)
+                    .limit(topK)
+                    .toList());
+        }
+
+        return result;
+    }
+
+    /**
+     * Ordena los conjuntos de géneros que comparten algún género con uno dado según su índice de Jaccard.
+     *
+     * @param generos Conjunto de géneros de referencia
+     * @param conjuntos Todos los conjuntos de géneros distintos
+     * @param conjuntosPorGenero Índices de los conjuntos que contienen cada género
+     * @return Lista con el índice de cada conjunto y su similitud, de mayor a menor similitud
+     */
+    private List<Map.Entry<Integer, Double>> rankGenreSets(Set<Long> generos, List<Set<Long>> conjuntos,
+                                                          Map<Long, List<Integer>> conjuntosPorGenero) {
+        Map<Integer, Integer> compartidos = new HashMap<>();
+        for (Long genero : generos) {
+            for (Integer conjunto : conjuntosPorGenero.get(genero)) {
+                compartidos.merge(conjunto, 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<Integer, Double>> ranking = new ArrayList<>(compartidos.size());
+        for (Map.Entry<Integer, Integer> entry : compartidos.entrySet()) {
+            int union = generos.size() + conjuntos.get(entry.getKey()).size() - entry.getValue();
+            ranking.add(Map.entry(entry.getKey(), (double) entry.getValue() / union));
+        }
+        ranking.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        return ranking;
+    }
+
+    /**
+     * Calcula el índice de Jaccard entre dos conjuntos de géneros.
+     *
+     * @param a Primer conjunto, puede ser 'null'
+     * @param b Segundo conjunto, puede ser 'null'
+     * @return Tamaño de la intersección entre tamaño de la unión, 0 si alguno de los conjuntos no existe
+     */
+    private static double jaccard(Set<Long> a, Set<Long> b) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        int compartidos = 0;
+        for (Long genero : a) {
+            if (b.contains(genero)) {
+                compartidos++;
+            }
+        }
+        return (double) compartidos / (a.size() + b.size() - compartidos);
+    }
+
+    private static Map<Long, Set<Long>> groupBy(List<BookGroupRow> rows,
+                                                Function<BookGroupRow, Long> key,
+                                                Function<BookGroupRow, Long> value) {
+        Map<Long, Set<Long>> grouped = new HashMap<>();
+        for (BookGroupRow row : rows) {
+            grouped.computeIfAbsent(key.apply(row), k -> new HashSet<>()).add(value.apply(row));
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,138 @@
+package es.readtoowell.api_biblioteca.service.book;
+
+import es.readtoowell.api_biblioteca.model.entity.BookStats;
+import es.readtoowell.api_biblioteca.repository.book.BookStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Servicio encargado de mantener las estadísticas agregadas de calificación de los libros.
+ * Las estadísticas se actualizan de forma incremental con cada cambio en las bibliotecas de los usuarios
+ * y se recalculan periódicamente para corregir cualquier desviación.
+ */
+@Service
+public class BookStatsService {
+    @Autowired
+    private BookStatsRepository statsRepository;
+
+    /**
+     * Devuelve las estadísticas de un libro.
+     *
+     * @param idBook ID del libro
+     * @return Un {@code Optional} con las estadísticas. Si el libro no está en ninguna biblioteca, estará vacío.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookStats> getStats(Long idBook) {
+        return statsRepository.findById(idBook);
+    }
+
+    /**
+     * Devuelve la calificación media de un libro.
+     *
+     * @param idBook ID del libro
+     * @return Calificación media del libro, 0 si no tiene calificaciones
+     */
+    @Transactional(readOnly = true)
+    public double getAverageRating(Long idBook) {
+        return statsRepository.findById(idBook)
+                .map(BookStats::getAverageRating)
+                .orElse(0.0);
+    }
+
+    /**
+     * Devuelve las calificaciones medias de varios libros en una sola consulta.
+     *
+     * @param bookIds IDs de los libros
+     * @return Mapa con la calificación media de cada libro. Los libros sin calificaciones tienen valor 0.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Double> getAverageRatings(Collection<Long> bookIds) {
+        Map<Long, Double> ratings = new HashMap<>();
+        for (Long id : bookIds) {
+            ratings.put(id, 0.0);
+        }
+        if (!bookIds.isEmpty()) {
+            for (BookStats stats : statsRepository.findAllById(bookIds)) {
+                ratings.put(stats.getBookId(), stats.getAverageRating());
+            }
+        }
+        return ratings;
+    }
+
+    /**
+     * Registra que un usuario ha añadido un libro a su biblioteca.
+     *
+     * @param idBook ID del libro
+     */
+    @Transactional
+    public void registerReader(Long idBook) {
+        statsRepository.insertIfAbsent(idBook);
+        statsRepository.addReaders(idBook, 1);
+    }
+
+    /**
+     * Registra que un usuario ha eliminado un libro de su biblioteca, quitando también su calificación.
+     *
+     * @param idBook ID del libro
+     * @param rating Calificación que tenía el libro en la biblioteca, 0 si no estaba calificado
+     */
+    @Transactional
+    public void unregisterReader(Long idBook, double rating) {
+        statsRepository.addReaders(idBook, -1);
+        if (rating > 0) {
+            statsRepository.addRating(idBook, rating, BookStats.histogramBucket(rating), -1);
+        }
+    }
+
+    /**
+     * Actualiza las estadísticas de un libro cuando un usuario cambia su calificación.
+     *
+     * @param idBook ID del libro
+     * @param oldRating Calificación anterior, 0 si no estaba calificado
+     * @param newRating Nueva calificación
+     */
+    @Transactional
+    public void updateRating(Long idBook, double oldRating, double newRating) {
+        if (oldRating == newRating) {
+            return;
+        }
+
+        statsRepository.insertIfAbsent(idBook);
+        if (oldRating > 0) {
+            statsRepository.addRating(idBook, oldRating, BookStats.histogramBucket(oldRating), -1);
+        }
+        if (newRating > 0) {
+            statsRepository.addRating(idBook, newRating, BookStats.histogramBucket(newRating), 1);
+        }
+    }
+
+    /**
+     * Recalcula las estadísticas de todos los libros a partir de las bibliotecas de los usuarios.
+     * Se ejecuta periódicamente según la expresión {@code readtoowell.stats.reconcile-cron}.
+     */
+    @Transactional
+    @Scheduled(cron = "${readtoowell.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        statsRepository.rebuildAll();
+        statsRepository.deleteOrphans();
+    }
+
+    /**
+     * Construye las estadísticas al arrancar la aplicación si todavía no existen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (statsRepository.count() == 0) {
+            reconcile();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package es.readtoowell.api_biblioteca.service.book;
+
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.model.entity.Genre;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de los géneros del catálogo.
+ * Guarda, para cada género, un mapa de bits con los IDs de sus libros y, para cada libro, un mapa de bits
+ * con los IDs de sus géneros. Así, filtrar por género, contar géneros en común o excluir los libros de
+ * una biblioteca se resuelven con operaciones entre mapas de bits, sin consultar {@code libro_genero}.
+ */
+@Component
+public class GenreIndex {
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BitSet> booksByGenre = new HashMap<>();
+    private final Map<Long, BitSet> genresByBook = new HashMap<>();
+    private final BitSet activeBooks = new BitSet();
+    private volatile boolean ready = false;
+
+    /**
+     * Reconstruye el índice completo a partir de la base de datos.
+     * Se ejecuta al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BookGroupRow> rows = bookRepository.findAllBookGenres();
+        List<Long> activeIds = bookRepository.findActiveIds();
+
+        lock.writeLock().lock();
+        try {
+            booksByGenre.clear();
+            genresByBook.clear();
+            activeBooks.clear();
+            for (BookGroupRow row : rows) {
+                addGenre(row.getBookId(), row.getGroupId());
+            }
+            for (Long id : activeIds) {
+                activeBooks.set(bit(id));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el índice ya se ha construido y puede responder consultas.
+     *
+     * @return 'true' si el índice está listo, 'false' en caso contrario
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Añade o reemplaza los géneros de un libro en el índice y actualiza si está activo.
+     *
+     * @param book Libro a indexar
+     */
+    public void indexBook(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeGenres(book.getId());
+            if (book.getGenres() != null) {
+                for (Genre genre : book.getGenres()) {
+                    addGenre(book.getId(), genre.getId());
+                }
+            }
+            activeBooks.set(bit(book.getId()), book.isActive());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marca un libro como inactivo, de modo que deja de aparecer en los resultados.
+     * Sus géneros se conservan para las estadísticas de lectura.
+     *
+     * @param idBook ID del libro
+     */
+    public void removeBook(Long idBook) {
+        lock.writeLock().lock();
+        try {
+            activeBooks.clear(bit(idBook));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve los libros activos de un género, ordenados por ID.
+     *
+     * @param idGenre ID del género
+     * @param pageable Información de paginación
+     * @return Página con los IDs de los libros del género
+     */
+    public Page<Long> findByGenre(Long idGenre, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet libros = activeWithAnyGenre(List.of(idGenre));
+
+            List<Long> content = new ArrayList<>(pageable.getPageSize());
+            int skip = (int) pageable.getOffset();
+            for (int i = libros.nextSetBit(0); i >= 0 && content.size() < pageable.getPageSize();
+                 i = libros.nextSetBit(i + 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    content.add((long) i);
+                }
+            }
+
+            return new PageImpl<>(content, pageable, libros.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cuenta cuántos de los géneros indicados tiene cada libro activo que tenga al menos uno de ellos.
+     *
+     * @param genreIds IDs de los géneros
+     * @param excludedBooks IDs de los libros que no se deben incluir (por ejemplo, los de la biblioteca del usuario)
+     * @return Mapa con el número de géneros en común de cada libro
+     */
+    public Map<Long, Integer> countSharedGenres(Collection<Long> genreIds, Collection<Long> excludedBooks) {
+        lock.readLock().lock();
+        try {
+            BitSet candidatos = activeWithAnyGenre(genreIds);
+            for (Long id : excludedBooks) {
+                candidatos.clear(bit(id));
+            }
+
+            BitSet generos = new BitSet();
+            for (Long id : genreIds) {
+                generos.set(bit(id));
+            }
+
+            Map<Long, Integer> result = new HashMap<>();
+            for (int i = candidatos.nextSetBit(0); i >= 0; i = candidatos.nextSetBit(i + 1)) {
+                BitSet comunes = (BitSet) genresByBook.get((long) i).clone();
+                comunes.and(generos);
+                result.put((long) i, comunes.cardinality());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve los géneros que más se repiten entre los libros indicados, estén activos o no.
+     *
+     * @param bookIds IDs de los libros (pueden repetirse)
+     * @param limit Número máximo de géneros a devolver
+     * @return Lista con los IDs de los géneros, de más a menos frecuente y por ID en caso de empate
+     */
+    public List<Long> findTopGenres(Collection<Long> bookIds, int limit) {
+        Map<Long, Integer> counts = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long id : bookIds) {
+                BitSet generos = genresByBook.get(id);
+                if (generos == null) {
+                    continue;
+                }
+                for (int g = generos.nextSetBit(0); g >= 0; g = generos.nextSetBit(g + 1)) {
+                    counts.merge((long) g, 1, Integer::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private BitSet activeWithAnyGenre(Collection<Long> genreIds) {
+        BitSet result = new BitSet();
+        for (Long id : genreIds) {
+            BitSet libros = booksByGenre.get(id);
+            if (libros != null) {
+                result.or(libros);
+            }
+        }
+        result.and(activeBooks);
+        return result;
+    }
+
+    private void addGenre(Long idBook, Long idGenre) {
+        booksByGenre.computeIfAbsent(idGenre, k -> new BitSet()).set(bit(idBook));
+        genresByBook.computeIfAbsent(idBook, k -> new BitSet()).set(bit(idGenre));
+    }
+
+    private void removeGenres(Long idBook) {
+        BitSet generos = genresByBook.remove(idBook);
+        if (generos == null) {
+            return;
+        }
+        for (int g = generos.nextSetBit(0); g >= 0; g = generos.nextSetBit(g + 1)) {
+            BitSet libros = booksByGenre.get((long) g);
+            if (libros != null) {
+                libros.clear(bit(idBook));
+            }
+        }
+    }
+
+    private static int bit(Long id) {
+        return Math.toIntExact(id);
+    }
+}
@@ -0,0 +1,60 @@
+package es.readtoowell.api_biblioteca.service.book;
+
+import es.readtoowell.api_biblioteca.mapper.BookMapper;
+import es.readtoowell.api_biblioteca.model.DTO.book.RatedBookDTO;
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Componente que convierte una lista ordenada de IDs de libros en {@code RatedBookDTO}.
+ * Carga los libros (con sus géneros y colección) y sus calificaciones medias en un número
+ * constante de consultas, independientemente del número de libros, y respeta el orden recibido.
+ */
+@Component
+public class RatedBookHydrator {
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookStatsService bookStatsService;
+    @Autowired
+    private BookMapper bookMapper;
+
+    /**
+     * Construye los DTOs de los libros indicados, en el mismo orden que los IDs.
+     * Los IDs que no correspondan a ningún libro se ignoran.
+     *
+     * @param bookIds IDs de los libros, ordenados por relevancia
+     * @return Lista de libros con su calificación media
+     */
+    public List<RatedBookDTO> hydrate(List<Long> bookIds) {
+        if (bookIds == null || bookIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Book> librosPorId = bookRepository.findAllWithGenresByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity(), (a, b) -> a));
+        Map<Long, Double> calificaciones = bookStatsService.getAverageRatings(bookIds);
+
+        List<RatedBookDTO> result = new ArrayList<>(bookIds.size());
+        for (Long id : bookIds) {
+            Book book = librosPorId.get(id);
+            if (book == null) {
+                continue;
+            }
+
+            RatedBookDTO dto = new RatedBookDTO();
+            dto.setBook(bookMapper.toDTO(book));
+            dto.setAverageRating(calificaciones.getOrDefault(id, 0.0));
+            result.add(dto);
+        }
+        return result;
+    }
+}
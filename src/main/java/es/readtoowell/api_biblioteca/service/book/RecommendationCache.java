@@ -0,0 +1,168 @@
+package es.readtoowell.api_biblioteca.service.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import es.readtoowell.api_biblioteca.config.datasource.AfterCommit;
+import es.readtoowell.api_biblioteca.model.DTO.book.RatedBookDTO;
+import es.readtoowell.api_biblioteca.model.enums.RecommendationStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de las recomendaciones calculadas para cada usuario y estrategia.
+ * Las entradas caducan tras un tiempo configurable y el número máximo de entradas está acotado;
+ * además, se invalidan explícitamente cuando cambian los datos de los que dependen
+ * (favoritos, biblioteca o listas del usuario).
+ */
+@Component
+public class RecommendationCache {
+    static final String METRIC_NAME = "readtoowell.recommendations.cache";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Value("${readtoowell.recommendations.cache.ttl-minutes:10}")
+    private long ttlMinutes;
+    @Value("${readtoowell.recommendations.cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<Key, List<RatedBookDTO>> cache;
+    private final Map<RecommendationStrategy, Counter> hits = new EnumMap<>(RecommendationStrategy.class);
+    private final Map<RecommendationStrategy, Counter> misses = new EnumMap<>(RecommendationStrategy.class);
+
+    /**
+     * Clave de una entrada de la caché. El ID de la lista solo se utiliza en la estrategia {@code LIST}.
+     */
+    private record Key(Long userId, RecommendationStrategy strategy, Long listId) {}
+
+    /**
+     * Crea la caché y registra los contadores de aciertos y fallos de cada estrategia.
+     */
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxSize)
+                .build();
+
+        for (RecommendationStrategy strategy : RecommendationStrategy.values()) {
+            hits.put(strategy, Counter.builder(METRIC_NAME)
+                    .description("Consultas de recomendaciones resueltas por la caché")
+                    .tag("strategy", strategy.getTag())
+                    .tag("result", "hit")
+                    .register(meterRegistry));
+            misses.put(strategy, Counter.builder(METRIC_NAME)
+                    .description("Consultas de recomendaciones que han tenido que calcularse")
+                    .tag("strategy", strategy.getTag())
+                    .tag("result", "miss")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Devuelve las recomendaciones de un usuario para una estrategia. Si no están en la caché,
+     * se calculan con {@code loader} y se guardan. Las peticiones simultáneas de la misma entrada
+     * esperan al primer cálculo en lugar de repetirlo.
+     *
+     * @param userId ID del usuario
+     * @param strategy Estrategia de recomendación
+     * @param loader Función que calcula las recomendaciones
+     * @return Lista con libros recomendados, 'null' si {@code loader} devuelve 'null' (no se guarda)
+     */
+    public List<RatedBookDTO> get(Long userId, RecommendationStrategy strategy, Supplier<List<RatedBookDTO>> loader) {
+        return get(userId, strategy, null, loader);
+    }
+
+    /**
+     * Devuelve las recomendaciones de un usuario para una estrategia y una lista concreta.
+     *
+     * @param userId ID del usuario
+     * @param strategy Estrategia de recomendación
+     * @param listId ID de la lista, 'null' si la estrategia no depende de ninguna lista
+     * @param loader Función que calcula las recomendaciones
+     * @return Lista con libros recomendados, 'null' si {@code loader} devuelve 'null' (no se guarda)
+     */
+    public List<RatedBookDTO> get(Long userId, RecommendationStrategy strategy, Long listId,
+                                  Supplier<List<RatedBookDTO>> loader) {
+        Key key = new Key(userId, strategy, listId);
+
+        List<RatedBookDTO> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.get(strategy).increment();
+            return cached;
+        }
+
+        misses.get(strategy).increment();
+        return cache.get(key, k -> {
+            List<RatedBookDTO> result = loader.get();
+            return result == null ? null : Collections.unmodifiableList(result);
+        });
+    }
+
+    /**
+     * Invalida las recomendaciones de un usuario para las estrategias indicadas.
+     * Si hay una transacción en curso, se invalidan de nuevo al confirmarla: una consulta que llegue antes
+     * de la confirmación todavía calcula las recomendaciones con los datos anteriores.
+     *
+     * @param userId ID del usuario
+     * @param strategies Estrategias a invalidar
+     */
+    public void invalidate(Long userId, RecommendationStrategy... strategies) {
+        Set<RecommendationStrategy> set = EnumSet.noneOf(RecommendationStrategy.class);
+        Collections.addAll(set, strategies);
+
+        invalidateNow(userId, set);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            AfterCommit.run(() -> invalidateNow(userId, set));
+        }
+    }
+
+    /**
+     * Invalida todas las recomendaciones de un usuario.
+     *
+     * @param userId ID del usuario
+     */
+    public void invalidateAll(Long userId) {
+        invalidate(userId, RecommendationStrategy.values());
+    }
+
+    /**
+     * Invalida las recomendaciones basadas en una lista concreta de un usuario.
+     * Al igual que {@link #invalidate}, se repite al confirmarse la transacción en curso.
+     *
+     * @param userId ID del usuario
+     * @param listId ID de la lista
+     */
+    public void invalidateList(Long userId, Long listId) {
+        Key key = new Key(userId, RecommendationStrategy.LIST, listId);
+
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            AfterCommit.run(() -> cache.invalidate(key));
+        }
+    }
+
+    private void invalidateNow(Long userId, Set<RecommendationStrategy> set) {
+        if (set.contains(RecommendationStrategy.LIST)) {
+            cache.asMap().keySet().removeIf(k -> Objects.equals(k.userId(), userId) && set.contains(k.strategy()));
+            return;
+        }
+        for (RecommendationStrategy strategy : set) {
+            cache.invalidate(new Key(userId, strategy, null));
+        }
+    }
+}
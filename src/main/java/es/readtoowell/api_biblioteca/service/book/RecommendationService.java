@@ -1,11 +1,11 @@
 package es.readtoowell.api_biblioteca.service.book;
 
-import es.readtoowell.api_biblioteca.mapper.BookMapper;
 import es.readtoowell.api_biblioteca.model.DTO.book.RatedBookDTO;
 import es.readtoowell.api_biblioteca.model.entity.Book;
 import es.readtoowell.api_biblioteca.model.entity.BookList;
 import es.readtoowell.api_biblioteca.model.entity.BookListItem;
 import es.readtoowell.api_biblioteca.model.entity.Genre;
+import es.readtoowell.api_biblioteca.model.enums.RecommendationStrategy;
 import es.readtoowell.api_biblioteca.repository.book.BookListRepository;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
 import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
@@ -14,28 +14,45 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Servicio encargado de gestionar la lógica relacionada con las recomendaciones.
+ * Los resultados se guardan en {@link RecommendationCache} por usuario y estrategia.
+ * Las recomendaciones a partir de libros utilizan los vecinos precalculados por {@link BookSimilarityService}
+ * cuando están disponibles.
  */
 @Service
 public class RecommendationService {
+    private static final int MAX_RECOMMENDATIONS = 30;
+
     @Autowired
     private BookRepository bookRepository;
     @Autowired
     private UserService userService;
     @Autowired
-    private UserLibraryBookRepository libraryRepository;
-    @Autowired
     private BookListRepository listRepository;
     @Autowired
-    private BookMapper bookMapper;
+    private RatedBookHydrator ratedBookHydrator;
+    @Autowired
+    private RecommendationCache recommendationCache;
+    @Autowired
+    private BookSimilarityService similarityService;
+    @Autowired
+    private GenreIndex genreIndex;
+    @Autowired
+    private UserLibraryBookRepository libraryRepository;
+    @Autowired
+    private BookStatsService bookStatsService;
 
     /**
      * Busca posibles recomendaciones a partir de los libros favoritos de un usuario.
@@ -43,13 +60,21 @@ public class RecommendationService {
      * @param idUser ID del usuario
      * @return Lista con libros recomendados
      */
+    @Transactional(readOnly = true)
     public List<RatedBookDTO> getRecommendationsByFavoriteBooks(Long idUser) {
+        return recommendationCache.get(idUser, RecommendationStrategy.FAVORITE_BOOKS,
+                () -> computeRecommendationsByFavoriteBooks(idUser));
+    }
+
+    private List<RatedBookDTO> computeRecommendationsByFavoriteBooks(Long idUser) {
         List<Long> favBooksIds = userService.getFavorites(idUser).getFavoriteBooks()
                 .stream().map(book -> book.getId()).toList();
 
-        List<Book> libros = bookRepository.findSimilarBooksByFavoriteBooks(favBooksIds, idUser);
+        List<Long> libros = similarityService.isAvailable()
+                ? similarityService.recommend(idUser, favBooksIds, MAX_RECOMMENDATIONS)
+                : bookRepository.findSimilarBooksByFavoriteBooks(favBooksIds, idUser);
 
-        return fromBookToRatedBookDTO(libros);
+        return ratedBookHydrator.hydrate(libros);
     }
 
     /**
@@ -58,13 +83,19 @@ public class RecommendationService {
      * @param idUser ID del usuario
      * @return Lista con libros recomendados
      */
+    @Transactional(readOnly = true)
     public List<RatedBookDTO> getRecommendationsByFavoriteGenres(Long idUser) {
+        return recommendationCache.get(idUser, RecommendationStrategy.FAVORITE_GENRES,
+                () -> computeRecommendationsByFavoriteGenres(idUser));
+    }
+
+    private List<RatedBookDTO> computeRecommendationsByFavoriteGenres(Long idUser) {
         List<Long> favGenresIds = userService.getFavorites(idUser).getFavoriteGenres()
                 .stream().map(genre -> genre.getId()).toList();
 
-        List<Book> libros = bookRepository.findBooksWithSimilarGenres(favGenresIds, idUser);
+        List<Long> libros = findBooksWithSimilarGenres(favGenresIds, idUser);
 
-        return fromBookToRatedBookDTO(libros);
+        return ratedBookHydrator.hydrate(libros);
     }
 
     /**
@@ -74,10 +105,15 @@ public class RecommendationService {
      * @param idUser ID del usuario
      * @return Lista con libros recomendados
      */
+    @Transactional(readOnly = true)
     public List<RatedBookDTO> getRecommendationsByReadBooks(Long idUser) {
-        List<Book> libros = bookRepository.findBooksSimilarToReadOnes(idUser);
+        return recommendationCache.get(idUser, RecommendationStrategy.READ_BOOKS, () -> {
+            List<Long> libros = similarityService.isAvailable()
+                    ? similarityService.recommendFromReadBooks(idUser, MAX_RECOMMENDATIONS)
+                    : bookRepository.findBooksSimilarToReadOnes(idUser);
 
-        return fromBookToRatedBookDTO(libros);
+            return ratedBookHydrator.hydrate(libros);
+        });
     }
 
     /**
@@ -90,20 +126,28 @@ public class RecommendationService {
      * @throws EntityNotFoundException La lista no existe
      * @throws AccessDeniedException El usuario no es propietario de la lista
      */
+    @Transactional(readOnly = true)
     public List<RatedBookDTO> getRecommendationsByList(Long idUser, Long idList) {
+        return recommendationCache.get(idUser, RecommendationStrategy.LIST, idList,
+                () -> computeRecommendationsByList(idUser, idList));
+    }
+
+    private List<RatedBookDTO> computeRecommendationsByList(Long idUser, Long idList) {
         BookList lista = listRepository.findById(idList)
                 .orElseThrow(() -> new EntityNotFoundException("La lista con ID " + idList + " no existe."));
         if (lista.getUser().getId() != idUser) {
             throw new AccessDeniedException("Solo el propietario de la lista puede acceder a esta.");
         }
 
-        List<Book> libros;
+        List<Long> libros;
 
         if (lista.getBooks().size() > 0) {
             if (lista.getBooks().size() > 3) { // Si la lista tiene más de 3 libros, usarlos para buscar recomendaciones
 
                 List<Long> bookIds = lista.getBooks().stream().map(book -> book.getId().getBookId()).toList();
-                libros = bookRepository.findSimilarBooksByFavoriteBooks(bookIds, idUser);
+                libros = similarityService.isAvailable()
+                        ? similarityService.recommend(idUser, bookIds, MAX_RECOMMENDATIONS)
+                        : bookRepository.findSimilarBooksByFavoriteBooks(bookIds, idUser);
 
             } else { // Si tiene entre 1 y 3 libros, usar los libros y los géneros de la lista
 
@@ -120,20 +164,20 @@ public class RecommendationService {
                 }
 
                 List<Long> genresIds = new ArrayList<>(allGenresIds);
-                libros = bookRepository.findBooksWithSimilarGenres(genresIds, idUser);
+                libros = findBooksWithSimilarGenres(genresIds, idUser);
             }
         } else {
             if (lista.getGenres().size() > 0) { // Si tiene géneros, buscar según estos
 
                 List<Long> genreIds = lista.getGenres().stream().map(genre -> genre.getId()).toList();
-                libros = bookRepository.findBooksWithSimilarGenres(genreIds, idUser);
+                libros = findBooksWithSimilarGenres(genreIds, idUser);
 
             } else { // Si no tiene ni libros ni géneros, no hay información para buscar recomendaciones
                 return null;
             }
         }
 
-        return fromBookToRatedBookDTO(libros);
+        return ratedBookHydrator.hydrate(libros);
     }
 
     /**
@@ -143,26 +187,51 @@ public class RecommendationService {
      * @param idUser ID del usuario
      * @return Lista con libros recomendados
      */
+    @Transactional(readOnly = true)
     public List<RatedBookDTO> getGeneralRecommendations(Long idUser) {
-        int minYear = LocalDate.now().getYear() - 5;
-        List<Book> libros = bookRepository.findGeneralRecommendations(idUser, minYear);
+        return recommendationCache.get(idUser, RecommendationStrategy.GENERAL, () -> {
+            int minYear = LocalDate.now().getYear() - 5;
+            List<Long> libros = bookRepository.findGeneralRecommendations(idUser, minYear);
 
-        return fromBookToRatedBookDTO(libros);
+            return ratedBookHydrator.hydrate(libros);
+        });
     }
 
     /**
-     * Convierte una lista de {@code Book} en una lista de {@code RatedBookDTO}, calculando la calificación
-     * media de cada libro.
+     * Busca los libros activos que comparten más géneros con los indicados, ignorando los libros de la
+     * biblioteca del usuario. A igualdad de géneros en común, se ordenan por calificación media.
+     * Si el índice de géneros todavía no está disponible, se realiza la búsqueda en la base de datos.
      *
-     * @param libros Lista de libros
-     * @return Lista de libros con calificación media de cada uno
+     * @param genreIds IDs de los géneros
+     * @param idUser ID del usuario
+     * @return Lista con los IDs de los libros resultantes, ordenados por relevancia
      */
-    private List<RatedBookDTO> fromBookToRatedBookDTO(List<Book> libros) {
-        return libros.stream().map(book -> {
-            RatedBookDTO dto = new RatedBookDTO();
-            dto.setBook(bookMapper.toDTO(book));
-            dto.setAverageRating(libraryRepository.findAverageRatingByBookId(book.getId()));
-            return dto;
-        }).toList();
+    private List<Long> findBooksWithSimilarGenres(List<Long> genreIds, Long idUser) {
+        if (!genreIndex.isReady()) {
+            return bookRepository.findBooksWithSimilarGenres(genreIds, idUser);
+        }
+
+        Map<Long, Integer> comunes = genreIndex.countSharedGenres(genreIds,
+                libraryRepository.findBookIdsByUserId(idUser));
+
+        // Agrupar por número de géneros en común y quedarse con los grupos necesarios para llenar el resultado
+        TreeMap<Integer, List<Long>> porComunes = new TreeMap<>(Comparator.reverseOrder());
+        comunes.forEach((id, n) -> porComunes.computeIfAbsent(n, k -> new ArrayList<>()).add(id));
+
+        List<Long> candidatos = new ArrayList<>();
+        for (List<Long> grupo : porComunes.values()) {
+            candidatos.addAll(grupo);
+            if (candidatos.size() >= MAX_RECOMMENDATIONS) {
+                break;
+            }
+        }
+
+        Map<Long, Double> calificaciones = bookStatsService.getAverageRatings(candidatos);
+        return candidatos.stream()
+                .sorted(Comparator.<Long>comparingInt(comunes::get).reversed()
+                        .thenComparing(Comparator.<Long>comparingDouble(calificaciones::get).reversed())
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(MAX_RECOMMENDATIONS)
+                .toList();
     }
 }
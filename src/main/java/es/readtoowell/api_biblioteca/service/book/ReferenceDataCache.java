@@ -0,0 +1,68 @@
+package es.readtoowell.api_biblioteca.service.book;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acceso a la caché de segundo nivel de Hibernate que guarda los datos de referencia
+ * (géneros, formatos, colecciones, tipos y duraciones de objetivo) y las consultas sobre ellos.
+ */
+@Component
+public class ReferenceDataCache {
+    /**
+     * Región de la caché de consultas con las búsquedas de colecciones.
+     * Debe coincidir con la indicada en {@code CollectionRepository}.
+     */
+    public static final String COLLECTIONS_REGION = "colecciones";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Vacía las consultas de colecciones guardadas en la caché, para que la siguiente consulta
+     * incluya las colecciones creadas.
+     */
+    public void evictCollections() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(COLLECTIONS_REGION);
+    }
+
+    /**
+     * Devuelve las estadísticas de uso de la caché de segundo nivel: aciertos, fallos, inserciones
+     * y número de elementos de cada región, además de los totales de la caché de consultas.
+     * Solo se recogen si {@code readtoowell.metrics.hibernate-statistics.enabled} está activo.
+     *
+     * @return Mapa con las estadísticas de cada región y de la caché de consultas
+     */
+    public Map<String, Object> getStatistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regiones = new TreeMap<>();
+        for (String region : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = stats.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                regiones.put(region, Map.of(
+                        "hits", regionStats.getHitCount(),
+                        "misses", regionStats.getMissCount(),
+                        "puts", regionStats.getPutCount(),
+                        "elements", regionStats.getElementCountInMemory()));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", stats.isStatisticsEnabled());
+        result.put("queryCache", Map.of(
+                "hits", stats.getQueryCacheHitCount(),
+                "misses", stats.getQueryCacheMissCount(),
+                "puts", stats.getQueryCachePutCount()));
+        result.put("regions", regiones);
+        return result;
+    }
+}
@@ -1,21 +1,26 @@
 package es.readtoowell.api_biblioteca.service.book;
 
 import es.readtoowell.api_biblioteca.mapper.SuggestionMapper;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.SuggestionDTO;
 import es.readtoowell.api_biblioteca.model.entity.Suggestion;
 import es.readtoowell.api_biblioteca.model.entity.User;
-import es.readtoowell.api_biblioteca.model.enums.Role;
 import es.readtoowell.api_biblioteca.model.enums.SuggestionStatus;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.SuggestionRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Date;
 import java.time.LocalDate;
@@ -29,6 +34,8 @@ public class SuggestionService {
     private SuggestionRepository suggestionRepository;
     @Autowired
     private SuggestionMapper suggestionMapper;
+    @Autowired
+    private UserRepository userRepository;
 
     /**
      * Añade una sugerencia de libro por parte de un usuario.
@@ -37,7 +44,12 @@ public class SuggestionService {
      * @param user Usuario que envía la sugerencia
      * @return DTO con los datos de la sugerencia enviada
      */
+    @Transactional
     public SuggestionDTO sendSuggestion(SuggestionDTO suggestionDTO, User user) {
+        // La sugerencia devuelta incluye los datos del usuario, que llega como referencia sin cargar
+        User usuario = userRepository.findById(user.getId())
+                .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + user.getId() + " no existe."));
+
         Suggestion suggestion = new Suggestion();
 
         suggestion.setTitle(suggestionDTO.getTitle().trim());
@@ -46,7 +58,7 @@ public class SuggestionService {
         suggestion.setStatus(SuggestionStatus.PENDING.getValue());
         suggestion.setActive(true);
         suggestion.setDateSent(Date.valueOf(LocalDate.now()));
-        suggestion.setUser(user);
+        suggestion.setUser(usuario);
 
         suggestion = suggestionRepository.save(suggestion);
 
@@ -63,13 +75,12 @@ public class SuggestionService {
      * @throws EntityNotFoundException La sugerencia no existe
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public SuggestionDTO updateStatusSuggestion(Long idSuggestion, int newStatus, User user) {
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public SuggestionDTO updateStatusSuggestion(Long idSuggestion, int newStatus) {
         if (newStatus < 0 || newStatus > 3) {
             throw new ValidationException("El nuevo estado de la sugerencia es inválido.");
         }
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
 
         Suggestion suggestion = suggestionRepository.findById(idSuggestion)
                 .orElseThrow(() -> new EntityNotFoundException("La sugerencia con ID " + idSuggestion + " no existe."));
@@ -93,11 +104,9 @@ public class SuggestionService {
      * @return Página con las sugerencias como DTOs
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public Page<SuggestionDTO> getAllSuggestions(int page, int size, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Page<SuggestionDTO> getAllSuggestions(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateSent"));
 
         return suggestionRepository.findAll(pageable).map(suggestionMapper::toDTO);
@@ -113,19 +122,67 @@ public class SuggestionService {
      * @throws ValidationException El estado de sugerencia es inválido
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public Page<SuggestionDTO> getSuggestionsWithStatus(int page, int size, int status, User user) {
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Page<SuggestionDTO> getSuggestionsWithStatus(int page, int size, int status) {
         if (status < 0 || status > 3) {
             throw new ValidationException("El estado es inválido.");
         }
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateSent"));
 
         return suggestionRepository.findByStatus(status, pageable).map(suggestionMapper::toDTO);
     }
 
+    /**
+     * Devuelve todas las sugerencias usando paginación por cursor, de más a menos reciente.
+     *
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con las sugerencias como DTOs y el cursor de la siguiente
+     * @throws AccessDeniedException El usuario no es un administrador
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageDTO<SuggestionDTO> getAllSuggestions(String cursor, int size) {
+        return findSuggestionsSentBefore(null, cursor, size);
+    }
+
+    /**
+     * Devuelve todas las sugerencias con un estado específico usando paginación por cursor, de más a menos reciente.
+     *
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @param status Estado de las sugerencias para filtrar
+     * @return Porción con las sugerencias filtradas como DTOs y el cursor de la siguiente
+     * @throws ValidationException El estado de sugerencia o el cursor son inválidos
+     * @throws AccessDeniedException El usuario no es un administrador
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageDTO<SuggestionDTO> getSuggestionsWithStatus(String cursor, int size, int status) {
+        if (status < 0 || status > 3) {
+            throw new ValidationException("El estado es inválido.");
+        }
+
+        return findSuggestionsSentBefore(status, cursor, size);
+    }
+
+    /**
+     * Busca la porción de sugerencias siguiente al cursor indicado.
+     */
+    private CursorPageDTO<SuggestionDTO> findSuggestionsSentBefore(Integer status, String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 2);
+
+        Slice<Suggestion> sugerencias = CursorCodec.sliceByDateDesc(anterior, size,
+                (fecha, lastId, pageable) -> suggestionRepository.findSentBefore(status, fecha, lastId, pageable),
+                (lastId, pageable) -> suggestionRepository.findUnsentBefore(status, lastId, pageable));
+
+        return CursorCodec.toCursorPage(sugerencias, suggestionMapper::toDTO,
+                s -> CursorCodec.encode(s.getDateSent(), s.getId()));
+    }
+
     /**
      * Devuelve una sugerencia.
      *
@@ -134,11 +191,9 @@ public class SuggestionService {
      * @throws EntityNotFoundException La sugerencia no existe
      * @throws AccessDeniedException El usuario no es un administrador
      */
-    public SuggestionDTO getSuggestion(Long idSuggestion, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SuggestionDTO getSuggestion(Long idSuggestion) {
         Suggestion suggestion = suggestionRepository.findById(idSuggestion)
                 .orElseThrow(() -> new EntityNotFoundException("La sugerencia con ID " + idSuggestion + " no existe."));
 
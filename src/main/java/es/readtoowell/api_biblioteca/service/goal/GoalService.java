@@ -3,6 +3,7 @@ package es.readtoowell.api_biblioteca.service.goal;
 import es.readtoowell.api_biblioteca.model.DTO.GoalDTO;
 import es.readtoowell.api_biblioteca.mapper.GoalMapper;
 import es.readtoowell.api_biblioteca.model.entity.*;
+import es.readtoowell.api_biblioteca.model.projection.ReadingTotalsRow;
 import es.readtoowell.api_biblioteca.repository.goal.GoalDurationRepository;
 import es.readtoowell.api_biblioteca.repository.goal.GoalRepository;
 import es.readtoowell.api_biblioteca.repository.goal.GoalTypeRepository;
@@ -10,8 +11,11 @@ import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepositor
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -22,6 +26,8 @@ import java.util.stream.Collectors;
 
 /**
  * Servicio encargado de gestionar la lógica relacionada con los objetivos de lectura.
+ * El progreso de los objetivos se actualiza de forma incremental con los eventos de lectura
+ * y se recalcula periódicamente para corregir cualquier desviación.
  */
 @Service
 public class GoalService {
@@ -44,11 +50,10 @@ public class GoalService {
      * @param idUser ID del usuario
      * @return Lista con los objetivos como DTOs
      */
+    @Transactional(readOnly = true)
     public List<GoalDTO> getGoalsInProgress(Long idUser) {
         List<Goal> objetivos = goalRepository.findByUserId(idUser);
 
-        objetivos.forEach(g -> updateGoals(idUser, 0));
-
         return objetivos.stream()
                 .filter(goal -> !isGoalCompleted(goal))
                 .map(goalMapper::toDTO)
@@ -61,6 +66,7 @@ public class GoalService {
      * @param idUser ID del usuario
      * @return Lista con los objetivos como DTOs
      */
+    @Transactional(readOnly = true)
     public List<GoalDTO> getFinishedGoals(Long idUser) {
         List<Goal> objetivos = goalRepository.findByUserId(idUser);
 
@@ -76,7 +82,20 @@ public class GoalService {
      * @param idUser ID del usuario
      * @return Objetivos completados en el año actual por el usuario
      */
+    @Transactional(readOnly = true)
     public List<GoalDTO> getFinishedGoalsActualYear(Long idUser) {
+        return getFinishedGoalsByYear(idUser, LocalDate.now().getYear());
+    }
+
+    /**
+     * Devuelve los objetivos completados por un usuario cuyo periodo termina en el año indicado.
+     *
+     * @param idUser ID del usuario
+     * @param year Año en el que terminan los objetivos
+     * @return Objetivos completados en el año por el usuario
+     */
+    @Transactional(readOnly = true)
+    public List<GoalDTO> getFinishedGoalsByYear(Long idUser, int year) {
         List<GoalDTO> objetivos = getFinishedGoals(idUser);
 
         return objetivos.stream()
@@ -85,7 +104,7 @@ public class GoalService {
                     LocalDate finishDate = goal.getDateFinish().toInstant()
                             .atZone(ZoneId.systemDefault())
                             .toLocalDate();
-                    return finishDate.getYear() == LocalDate.now().getYear() &&
+                    return finishDate.getYear() == year &&
                             goal.getCurrentAmount() >= goal.getAmount(); // Sólo se devuelven los completados
                 })
                 .collect(Collectors.toList());
@@ -111,6 +130,7 @@ public class GoalService {
      * @throws EntityNotFoundException El usuario, tipo o duración de objetivo no existen
      * @throws IllegalArgumentException Objetivo en curso repetido o duración inválida
      */
+    @Transactional
     public GoalDTO createGoal(Long idUser, GoalDTO goal) {
         User user = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado"));
@@ -132,17 +152,14 @@ public class GoalService {
 
         LocalDate fechaInicio;
         LocalDate fechaFin;
-        List<Book> booksReadYet;
 
         if (duration.getId() == 1) {
             fechaInicio = LocalDate.of(LocalDate.now().getYear(), 1, 1);
             fechaFin = LocalDate.of(LocalDate.now().getYear(), 12, 31);
-            booksReadYet = libraryRepository.findBooksReadActualYear(idUser);
         } else if (duration.getId() == 2) {
             YearMonth mesActual = YearMonth.now();
             fechaInicio = mesActual.atDay(1);
             fechaFin = mesActual.atEndOfMonth();
-            booksReadYet = libraryRepository.findBooksReadActualMonth(idUser);
         } else {
             throw new IllegalArgumentException("Duración de objetivo inválida");
         }
@@ -157,12 +174,12 @@ public class GoalService {
         objetivo.setType(type);
 
         // Establecer la cantidad actual por si ya se ha hecho progreso
+        ReadingTotalsRow leidos = libraryRepository.sumBooksReadBetween(idUser,
+                goal.getDateStart(), goal.getDateFinish());
         if (type.getName().equals("Libros")) {
-            int librosTotal = booksReadYet.size();
-            objetivo.setCurrentAmount(librosTotal);
+            objetivo.setCurrentAmount((int) leidos.getBooks());
         } else if (type.getName().equals("Páginas")) {
-            int paginasTotal = booksReadYet.stream().mapToInt(Book::getPageNumber).sum();
-            objetivo.setCurrentAmount(paginasTotal);
+            objetivo.setCurrentAmount((int) leidos.getPages());
         }
 
         objetivo = goalRepository.save(objetivo);
@@ -179,6 +196,7 @@ public class GoalService {
      * @throws EntityNotFoundException El objetivo no existe
      * @throws AccessDeniedException El usuario no es propietario del objetivo
      */
+    @Transactional
     public GoalDTO deleteGoal(Long idUser, Long idGoal) {
         Goal goal = goalRepository.findById(idGoal)
                 .orElseThrow(() -> new EntityNotFoundException("Objetivo con ID " + idGoal + " no encontrado."));
@@ -193,36 +211,28 @@ public class GoalService {
     }
 
     /**
-     * Actualiza el progreso de los objetivos de un usuario.
+     * Aplica un evento de lectura a los objetivos en curso del usuario cuyo periodo incluye la fecha del evento.
+     * La actualización se hace con una única sentencia en la base de datos, sin cargar los objetivos.
      *
-     * @param idUser ID del usuario
-     * @param paginasProgreso Número de páginas del último progreso actualizado
-     * @throws IllegalArgumentException Tipo de objetivo inválido
+     * @param event Evento con los libros terminados y las páginas leídas
      */
-    public void updateGoals(Long idUser, int paginasProgreso) {
-        List<Goal> goals = goalRepository.findByUserId(idUser).stream()
-                .filter(goal -> !isGoalCompleted(goal)).toList();
-
-        List<Book> booksReadYear = libraryRepository.findBooksReadActualYear(idUser);
-        List<Book> booksReadMonth = libraryRepository.findBooksReadActualMonth(idUser);
-
-        for (Goal goal : goals) {
-            List<Book> booksRead = goal.getDuration().getName().equals("Anual")
-                    ? booksReadYear : booksReadMonth;
-
-            if (goal.getType().getName().equals("Libros")) {
-                int librosTotal = booksRead.size();
-                goal.setCurrentAmount(librosTotal);
-
-            } else if (goal.getType().getName().equals("Páginas")) {
-                int progresoTotal = goal.getCurrentAmount() + paginasProgreso;
-                goal.setCurrentAmount(progresoTotal);
+    @Transactional
+    @EventListener
+    public void onReadingProgress(ReadingProgressEvent event) {
+        if (event.books() == 0 && event.pages() == 0) {
+            return;
+        }
 
-            } else {
-                throw new IllegalArgumentException("Tipo de objetivo inválido.");
-            }
+        goalRepository.addProgress(event.userId(), event.date(), event.books(), event.pages());
+    }
 
-            goalRepository.save(goal);
-        }
+    /**
+     * Recalcula el progreso de los objetivos en curso a partir de las bibliotecas de los usuarios.
+     * Se ejecuta periódicamente según la expresión {@code readtoowell.goals.reconcile-cron}.
+     */
+    @Transactional
+    @Scheduled(cron = "${readtoowell.goals.reconcile-cron:0 45 3 * * *}")
+    public void reconcile() {
+        goalRepository.reconcileInProgress();
     }
 }
@@ -0,0 +1,15 @@
+package es.readtoowell.api_biblioteca.service.goal;
+
+import java.time.LocalDate;
+
+/**
+ * Evento de lectura de un usuario: libros terminados y páginas leídas en una fecha.
+ * Lo publica el servicio de bibliotecas y lo aplica {@link GoalService} a los objetivos en curso
+ * cuyo periodo incluye la fecha. Las cantidades pueden ser negativas para deshacer un evento anterior.
+ *
+ * @param userId ID del usuario
+ * @param date Fecha en la que se produce la lectura
+ * @param books Número de libros terminados
+ * @param pages Número de páginas leídas
+ */
+public record ReadingProgressEvent(Long userId, LocalDate date, int books, int pages) {}
@@ -0,0 +1,18 @@
+package es.readtoowell.api_biblioteca.service.library;
+
+import java.time.LocalDate;
+
+/**
+ * Evento que indica que ha cambiado la fecha de fin o la calificación de un libro de la biblioteca de un usuario.
+ * Contiene el estado anterior y el nuevo para que {@link ReadingStatsService} pueda actualizar
+ * las estadísticas de lectura de forma incremental.
+ *
+ * @param userId ID del usuario
+ * @param bookId ID del libro
+ * @param previousFinish Fecha de fin anterior, 'null' si el libro no estaba terminado
+ * @param previousRating Calificación anterior, 0 si no estaba calificado
+ * @param finish Nueva fecha de fin, 'null' si el libro ya no está terminado o se ha eliminado
+ * @param rating Nueva calificación, 0 si no está calificado
+ */
+public record ReadingStateChangedEvent(Long userId, Long bookId, LocalDate previousFinish, double previousRating,
+                                       LocalDate finish, double rating) {}
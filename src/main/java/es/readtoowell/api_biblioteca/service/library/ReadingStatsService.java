@@ -0,0 +1,112 @@
+package es.readtoowell.api_biblioteca.service.library;
+
+import es.readtoowell.api_biblioteca.model.entity.BookStats;
+import es.readtoowell.api_biblioteca.model.entity.Genre;
+import es.readtoowell.api_biblioteca.model.entity.ReadingStats;
+import es.readtoowell.api_biblioteca.repository.library.ReadingStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Servicio encargado de mantener las estadísticas de lectura anuales y mensuales de los usuarios.
+ * Las estadísticas se actualizan de forma incremental con cada cambio en las bibliotecas de los usuarios
+ * y se recalculan periódicamente para corregir cualquier desviación.
+ */
+@Service
+public class ReadingStatsService {
+    @Autowired
+    private ReadingStatsRepository statsRepository;
+
+    /**
+     * Devuelve las estadísticas de lectura de un usuario en un año.
+     *
+     * @param idUser ID del usuario
+     * @param year Año de las estadísticas
+     * @return Lista con las estadísticas del año completo (mes 0) y de cada mes con lecturas
+     */
+    @Transactional(readOnly = true)
+    public List<ReadingStats> getStats(Long idUser, int year) {
+        return statsRepository.findByIdUserIdAndIdYear(idUser, year);
+    }
+
+    /**
+     * Devuelve los géneros más leídos por un usuario en un año.
+     *
+     * @param idUser ID del usuario
+     * @param year Año de las estadísticas
+     * @param limit Cantidad de géneros que se quieren buscar
+     * @return Lista con los géneros, de más a menos leído
+     */
+    @Transactional(readOnly = true)
+    public List<Genre> getTopGenres(Long idUser, int year, int limit) {
+        return statsRepository.findTopGenres(idUser, year, limit);
+    }
+
+    /**
+     * Actualiza las estadísticas cuando cambia la fecha de fin o la calificación de un libro de una biblioteca.
+     *
+     * @param event Evento con el estado anterior y el nuevo del libro
+     */
+    @Transactional
+    @EventListener
+    public void onReadingStateChanged(ReadingStateChangedEvent event) {
+        if (event.previousFinish() != null && event.previousFinish().equals(event.finish())) {
+            // Mismo periodo: solo puede haber cambiado la calificación
+            if (event.previousRating() != event.rating()) {
+                updateRating(event.userId(), event.finish(), event.previousRating(), -1);
+                updateRating(event.userId(), event.finish(), event.rating(), 1);
+            }
+            return;
+        }
+
+        if (event.previousFinish() != null) {
+            updateBook(event.userId(), event.bookId(), event.previousFinish(), event.previousRating(), -1);
+        }
+        if (event.finish() != null) {
+            updateBook(event.userId(), event.bookId(), event.finish(), event.rating(), 1);
+        }
+    }
+
+    private void updateBook(Long idUser, Long idBook, LocalDate fecha, double calificacion, int delta) {
+        statsRepository.addBook(idUser, idBook, fecha.getYear(), fecha.getMonthValue(), delta);
+        statsRepository.addGenres(idUser, idBook, fecha.getYear(), delta);
+        updateRating(idUser, fecha, calificacion, delta);
+    }
+
+    private void updateRating(Long idUser, LocalDate fecha, double calificacion, int delta) {
+        if (calificacion > 0) {
+            statsRepository.addRating(idUser, fecha.getYear(), fecha.getMonthValue(),
+                    BookStats.histogramBucket(calificacion), delta);
+        }
+    }
+
+    /**
+     * Recalcula las estadísticas de lectura de todos los usuarios a partir de sus bibliotecas.
+     * Se ejecuta periódicamente según la expresión {@code readtoowell.reading-stats.reconcile-cron}.
+     */
+    @Transactional
+    @Scheduled(cron = "${readtoowell.reading-stats.reconcile-cron:0 40 3 * * *}")
+    public void reconcile() {
+        statsRepository.rebuildAll();
+        statsRepository.deleteOrphans();
+        statsRepository.rebuildGenres();
+        statsRepository.deleteGenreOrphans();
+    }
+
+    /**
+     * Construye las estadísticas al arrancar la aplicación si todavía no existen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (statsRepository.count() == 0) {
+            reconcile();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -42,6 +43,7 @@ public class UserBookFormatService {
      * @param idUser ID del usuario
      * @return Lista con los formatos que un usuario tiene de un libro
      */
+    @Transactional(readOnly = true)
     public List<FormatDTO> getFormatsForUserBook(Long idBook, Long idUser) {
 
         return userFormatRepository.findFormatsByUserAndBook(idUser, idBook)
@@ -61,6 +63,7 @@ public class UserBookFormatService {
      * @throws EntityNotFoundException El usuario, libro o formato no existen
      * @throws IllegalStateException El usuario no tiene el libro en su biblioteca o el formato ya está asociado
      */
+    @Transactional
     public FormatDTO addFormatToBook(Long idBook, Long idUser, Long idFormat) {
         User user = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
@@ -97,6 +100,7 @@ public class UserBookFormatService {
      * @throws EntityNotFoundException El usuario, libro o formato no existen
      * @throws IllegalStateException El usuario no tiene el libro en su biblioteca o el formato no está asociado
      */
+    @Transactional
     public void removeFormatFromBook(Long idBook, Long idUser, Long idFormat) {
         User user = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
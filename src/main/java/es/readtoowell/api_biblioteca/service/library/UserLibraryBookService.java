@@ -1,32 +1,56 @@
 package es.readtoowell.api_biblioteca.service.library;
 
+import es.readtoowell.api_biblioteca.config.CompositeQueryExecutor;
 import es.readtoowell.api_biblioteca.mapper.GenreMapper;
 import es.readtoowell.api_biblioteca.mapper.GoalMapper;
 import es.readtoowell.api_biblioteca.mapper.UserLibraryBookMapper;
 import es.readtoowell.api_biblioteca.model.DTO.*;
+import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.RatingDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.SimpleBookDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
 import es.readtoowell.api_biblioteca.model.entity.id.UserLibraryBookId;
+import es.readtoowell.api_biblioteca.model.enums.ActivityType;
 import es.readtoowell.api_biblioteca.model.enums.ReadingStatus;
+import es.readtoowell.api_biblioteca.model.enums.RecommendationStrategy;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import es.readtoowell.api_biblioteca.model.projection.BookRow;
+import es.readtoowell.api_biblioteca.model.projection.LibraryBookRow;
+import es.readtoowell.api_biblioteca.model.projection.RatedBookRow;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import es.readtoowell.api_biblioteca.repository.book.GenreRepository;
 import es.readtoowell.api_biblioteca.repository.goal.GoalRepository;
 import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
+import es.readtoowell.api_biblioteca.service.activity.ActivityEvent;
+import es.readtoowell.api_biblioteca.service.book.BookStatsService;
+import es.readtoowell.api_biblioteca.service.book.RecommendationCache;
 import es.readtoowell.api_biblioteca.service.goal.GoalService;
+import es.readtoowell.api_biblioteca.service.goal.ReadingProgressEvent;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -45,9 +69,21 @@ public class UserLibraryBookService {
     @Autowired
     private GoalMapper goalMapper;
     @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
     private GenreMapper genreMapper;
     @Autowired
     private GoalService goalService;
+    @Autowired
+    private BookStatsService bookStatsService;
+    @Autowired
+    private RecommendationCache recommendationCache;
+    @Autowired
+    private ReadingStatsService readingStatsService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CompositeQueryExecutor compositeQueryExecutor;
 
     /**
      * Devuelve los libros de la biblioteca de un usuario.
@@ -57,11 +93,13 @@ public class UserLibraryBookService {
      * @param size Tamaño de la página
      * @return Página con los libros de la biblioteca del usuario como DTOs
      */
+    @Transactional(readOnly = true)
     public Page<UserLibraryBookDTO> getLibraryFromUser(User user, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<UserLibraryBook> libros = libraryRepository.findByUser(user, pageable);
+        Page<LibraryBookRow> libros = libraryRepository.findByUser(user.getId(), pageable);
+        Map<Long, List<GenreDTO>> generos = genresOf(libros.getContent());
 
-        return libros.map(libraryMapper::toDTO);
+        return libros.map(l -> libraryMapper.toDTO(l, generos.getOrDefault(l.getBookId(), List.of())));
     }
 
     /**
@@ -74,6 +112,7 @@ public class UserLibraryBookService {
      * @return Página con los libros de la biblioteca del usuario filtrados como DTOs
      * @throws ValidationException El estado de lectura es inválido
      */
+    @Transactional(readOnly = true)
     public Page<UserLibraryBookDTO> getLibraryByStatus(User user, int status, int page, int size) {
         if (status < 0 || status > 4) {
             throw new ValidationException("El estado de lectura indicado es inválido.");
@@ -88,9 +127,91 @@ public class UserLibraryBookService {
             pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateStart"));
         }
 
-        Page<UserLibraryBook> libros = libraryRepository.findByUserAndReadingStatus(user, status, pageable);
+        Page<LibraryBookRow> libros = libraryRepository.findByUserAndReadingStatus(user.getId(), status, pageable);
+        Map<Long, List<GenreDTO>> generos = genresOf(libros.getContent());
 
-        return libros.map(libraryMapper::toDTO);
+        return libros.map(l -> libraryMapper.toDTO(l, generos.getOrDefault(l.getBookId(), List.of())));
+    }
+
+    /**
+     * Devuelve los libros de la biblioteca de un usuario usando paginación por cursor, ordenados por ID del libro.
+     *
+     * @param user Usuario propietario de la biblioteca
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con los libros de la biblioteca del usuario como DTOs y el cursor de la siguiente
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserLibraryBookDTO> getLibraryFromUser(User user, String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 1);
+        long lastBookId = anterior != null ? anterior.getLong(0) : 0L;
+
+        Slice<LibraryBookRow> libros = libraryRepository.findByUserAfter(user.getId(), lastBookId,
+                PageRequest.ofSize(size));
+        Map<Long, List<GenreDTO>> generos = genresOf(libros.getContent());
+
+        return CursorCodec.toCursorPage(libros,
+                l -> libraryMapper.toDTO(l, generos.getOrDefault(l.getBookId(), List.of())),
+                l -> CursorCodec.encode(l.getBookId()));
+    }
+
+    /**
+     * Devuelve los libros de la biblioteca de un usuario con un estado de lectura concreto
+     * usando paginación por cursor.
+     * Los libros leídos se ordenan por fecha de fin y el resto (salvo los pendientes) por fecha de inicio,
+     * de más reciente a más antigua y con los libros sin fecha al final. Los pendientes se ordenan por ID del libro.
+     *
+     * @param user Usuario propietario de la biblioteca
+     * @param status Estado por el que se quiere filtrar
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con los libros de la biblioteca del usuario filtrados como DTOs y el cursor de la siguiente
+     * @throws ValidationException El estado de lectura o el cursor son inválidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserLibraryBookDTO> getLibraryByStatus(User user, int status, String cursor, int size) {
+        if (status < 0 || status > 4) {
+            throw new ValidationException("El estado de lectura indicado es inválido.");
+        }
+
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 2);
+
+        if (status == ReadingStatus.PENDING.getValue()) {
+            long lastBookId = anterior != null ? anterior.getLong(1) : 0L;
+            Slice<LibraryBookRow> libros = libraryRepository.findByUserAndStatusAfter(user.getId(), status,
+                    lastBookId, PageRequest.ofSize(size));
+            Map<Long, List<GenreDTO>> generos = genresOf(libros.getContent());
+
+            return CursorCodec.toCursorPage(libros,
+                    l -> libraryMapper.toDTO(l, generos.getOrDefault(l.getBookId(), List.of())),
+                    l -> CursorCodec.encode(null, l.getBookId()));
+        }
+
+        Long idUser = user.getId();
+        Slice<LibraryBookRow> libros;
+        Function<LibraryBookRow, Date> fechaOrden;
+        if (status == ReadingStatus.READ.getValue()) {
+            libros = CursorCodec.sliceByDateDesc(anterior, size,
+                    (fecha, lastBookId, p) ->
+                            libraryRepository.findByUserAndStatusFinishedBefore(idUser, status, fecha, lastBookId, p),
+                    (lastBookId, p) ->
+                            libraryRepository.findByUserAndStatusUnfinishedBefore(idUser, status, lastBookId, p));
+            fechaOrden = LibraryBookRow::getDateFinish;
+        } else {
+            libros = CursorCodec.sliceByDateDesc(anterior, size,
+                    (fecha, lastBookId, p) ->
+                            libraryRepository.findByUserAndStatusStartedBefore(idUser, status, fecha, lastBookId, p),
+                    (lastBookId, p) ->
+                            libraryRepository.findByUserAndStatusUnstartedBefore(idUser, status, lastBookId, p));
+            fechaOrden = LibraryBookRow::getDateStart;
+        }
+
+        Map<Long, List<GenreDTO>> generos = genresOf(libros.getContent());
+
+        return CursorCodec.toCursorPage(libros,
+                l -> libraryMapper.toDTO(l, generos.getOrDefault(l.getBookId(), List.of())),
+                l -> CursorCodec.encode(fechaOrden.apply(l), l.getBookId()));
     }
 
     /**
@@ -102,6 +223,7 @@ public class UserLibraryBookService {
      * @throws EntityNotFoundException El libro no existe
      * @throws IllegalStateException El libro ya está en la biblioteca
      */
+    @Transactional
     public UserLibraryBookDTO addBookToLibrary(Long idBook, User user) {
         Book book = bookRepository.findById(idBook)
                 .orElseThrow(() -> new EntityNotFoundException("Libro con ID " + idBook + " no encontrado."));
@@ -121,6 +243,8 @@ public class UserLibraryBookService {
         libro.setRating(0);
 
         libro = libraryRepository.save(libro);
+        bookStatsService.registerReader(book.getId());
+        recommendationCache.invalidateAll(user.getId()); // Las recomendaciones excluyen los libros de la biblioteca
 
         return libraryMapper.toDTO(libro);
     }
@@ -134,6 +258,7 @@ public class UserLibraryBookService {
      * @throws EntityNotFoundException El libro no existe
      * @throws IllegalStateException El libro no pertenece a la biblioteca del usuario
      */
+    @Transactional
     public UserLibraryBookDTO deleteBookFromLibrary(Long idBook, User user) {
         Book book = bookRepository.findById(idBook)
                 .orElseThrow(() -> new EntityNotFoundException("Libro con ID " + idBook + " no encontrado."));
@@ -142,6 +267,14 @@ public class UserLibraryBookService {
                 .orElseThrow(() -> new IllegalStateException("El libro no pertenece a la biblioteca del usuario."));
 
         libraryRepository.delete(libroBiblio);
+        bookStatsService.unregisterReader(book.getId(), libroBiblio.getRating());
+        recommendationCache.invalidateAll(user.getId());
+        // Deja de contar en los objetivos y las estadísticas
+        publishGoalProgress(user.getId(), goalCredit(libroBiblio, book), GoalCredit.NONE);
+        if (libroBiblio.getDateFinish() != null) {
+            publishReadingState(user.getId(), book.getId(), libroBiblio.getDateFinish(),
+                    libroBiblio.getRating(), null, 0);
+        }
 
         return libraryMapper.toDTO(libroBiblio);
     }
@@ -155,6 +288,7 @@ public class UserLibraryBookService {
      * @return DTO con los datos del libro actualizado
      * @throws ValidationException La calificación es inválida
      */
+    @Transactional
     public RatingDTO rateBook(Long idBook, User user, double calificacion) {
         if (calificacion < 0.5 || calificacion > 5 || calificacion % 0.5 != 0) { // Comprobar que la nota sea válida
             throw new ValidationException("La calificación debe estar entre 0.5 y 5, en incrementos de 0.5.");
@@ -170,18 +304,29 @@ public class UserLibraryBookService {
                     return libraryMapper.toEntity(dto);
                 });
 
+        double calificacionAnterior = libro.getRating();
+        Date fechaFinAnterior = libro.getDateFinish();
+        GoalCredit creditoAnterior = goalCredit(libro, book);
+
         libro.setRating(calificacion);
         libro.setReadingStatus(ReadingStatus.READ.getValue());
-        libro.setDateStart(Date.valueOf(LocalDate.now()));
-        libro.setDateFinish(Date.valueOf(LocalDate.now()));
-
-        goalService.updateGoals(user.getId(), 0);
+        libro.setDateStart(today());
+        libro.setDateFinish(today());
 
         libro = libraryRepository.save(libro);
+        publishGoalProgress(user.getId(), creditoAnterior, goalCredit(libro, book));
+        publishReadingState(user.getId(), idBook, fechaFinAnterior, calificacionAnterior,
+                libro.getDateFinish(), calificacion);
+        bookStatsService.updateRating(idBook, calificacionAnterior, calificacion);
+        recommendationCache.invalidate(user.getId(), RecommendationStrategy.READ_BOOKS);
+        if (calificacionAnterior != calificacion) {
+            eventPublisher.publishEvent(new ActivityEvent(user.getId(), ActivityType.RATED, idBook, null,
+                    calificacion));
+        }
 
         RatingDTO ratedBook = new RatingDTO();
         ratedBook.setLibraryBook(libraryMapper.toDTO(libro));
-        ratedBook.setAverageRating(libraryRepository.findAverageRatingByBookId(idBook));
+        ratedBook.setAverageRating(bookStatsService.getAverageRating(idBook));
 
         return ratedBook;
     }
@@ -197,6 +342,7 @@ public class UserLibraryBookService {
      * @throws EntityNotFoundException El libro no existe
      * @throws IllegalStateException El libro no pertenece a la biblioteca del usuario
      */
+    @Transactional
     public UserLibraryBookDTO reviewBook(Long idBook, User user, String review) {
         if (review.length() > 2000) {
             throw new ValidationException("La reseña es demasiado larga.");
@@ -209,8 +355,12 @@ public class UserLibraryBookService {
                 .orElseThrow(() -> new IllegalStateException("El libro no pertenece a la biblioteca del usuario."));
 
         libro.setReview(review);
+        libro.setDateReview(review.isBlank() ? null : Timestamp.from(Instant.now()));
 
         libro = libraryRepository.save(libro);
+        if (!review.isBlank()) {
+            eventPublisher.publishEvent(new ActivityEvent(user.getId(), ActivityType.REVIEWED, idBook, null, 0));
+        }
 
         return libraryMapper.toDTO(libro);
     }
@@ -226,6 +376,7 @@ public class UserLibraryBookService {
      * @throws EntityNotFoundException El libro no existe
      * @throws IllegalStateException El libro no pertenece a la biblioteca del usuario
      */
+    @Transactional
     public UserLibraryBookDTO updateReadingStatus(Long idBook, User user, int status) {
         if (status < 0 || status > 4) {
             throw new ValidationException("El estado de lectura proporcionado es inválido.");
@@ -238,17 +389,18 @@ public class UserLibraryBookService {
                 .orElseThrow(() -> new IllegalStateException("El libro no pertenece a la biblioteca del usuario."));
 
         int lastStatus = libro.getReadingStatus();
+        Date fechaFinAnterior = libro.getDateFinish();
+        GoalCredit creditoAnterior = goalCredit(libro, book);
 
         libro.setReadingStatus(status);
 
         if (status == ReadingStatus.READING.getValue()) {
-            libro.setDateStart(Date.valueOf(LocalDate.now())); // Si pasa a "Leyendo", actualizar fecha inicio
+            libro.setDateStart(today()); // Si pasa a "Leyendo", actualizar fecha inicio
         } else if (status == ReadingStatus.READ.getValue()) {
-            libro.setDateFinish(Date.valueOf(LocalDate.now())); // Si pasa a "Leído", actualizar fecha fin
+            libro.setDateFinish(today()); // Si pasa a "Leído", actualizar fecha fin
             if (libro.getDateStart() == null) {
-                libro.setDateStart(Date.valueOf(LocalDate.now()));
+                libro.setDateStart(today());
             }
-            goalService.updateGoals(user.getId(), libro.getBook().getPageNumber());
         } else if (status == ReadingStatus.PENDING.getValue() && (lastStatus == ReadingStatus.PAUSED.getValue()
                     || lastStatus == ReadingStatus.ABANDONED.getValue())) {
             libro.setDateStart(null); // Si pasa de "Pausado" o "Abandonado" a "Pendiente", quitar fecha inicio
@@ -256,6 +408,22 @@ public class UserLibraryBookService {
 
         libro = libraryRepository.save(libro);
 
+        publishGoalProgress(user.getId(), creditoAnterior, goalCredit(libro, book));
+        if (status == ReadingStatus.READ.getValue()) {
+            publishReadingState(user.getId(), idBook, fechaFinAnterior, libro.getRating(),
+                    libro.getDateFinish(), libro.getRating());
+        }
+
+        // Las recomendaciones por libros leídos solo dependen de los libros en estado "Leído"
+        if (lastStatus != status && (lastStatus == ReadingStatus.READ.getValue()
+                || status == ReadingStatus.READ.getValue())) {
+            recommendationCache.invalidate(user.getId(), RecommendationStrategy.READ_BOOKS);
+        }
+        if (lastStatus != status) {
+            eventPublisher.publishEvent(new ActivityEvent(user.getId(), ActivityType.STATUS_CHANGED, idBook, null,
+                    status));
+        }
+
         return libraryMapper.toDTO(libro);
     }
 
@@ -271,6 +439,7 @@ public class UserLibraryBookService {
      * @throws EntityNotFoundException El libro no existe
      * @throws IllegalStateException El libro no pertenece a la biblioteca o no está en estado 'Leyendo'
      */
+    @Transactional
     public UserLibraryBookDTO updateProgress(Long idBook, User user, int progreso, String tipoProgreso) {
         if (!tipoProgreso.equals("porcentaje") && !tipoProgreso.equals("paginas")) {
             throw new ValidationException("El tipo de progreso de lectura proporcionado es inválido.");
@@ -289,19 +458,19 @@ public class UserLibraryBookService {
             throw new IllegalStateException("No se puede actualizar el progreso de un libro que no esté en 'Leyendo'");
         }
 
-        int anteriorProgreso = libro.getProgress();
-        String anteriorTipoProgreso = libro.getProgressType();
+        Date fechaFinAnterior = libro.getDateFinish();
+        GoalCredit creditoAnterior = goalCredit(libro, book);
 
         int progresoTotal = progreso;
         if (tipoProgreso.equals("porcentaje") && progreso >= 100) {
             progresoTotal = 100;
             libro.setReadingStatus(ReadingStatus.READ.getValue());
-            libro.setDateFinish(Date.valueOf(LocalDate.now()));
+            libro.setDateFinish(today());
 
         } else if (tipoProgreso.equals("paginas") && progreso >= book.getPageNumber()) {
             progresoTotal = book.getPageNumber();
             libro.setReadingStatus(ReadingStatus.READ.getValue());
-            libro.setDateFinish(Date.valueOf(LocalDate.now()));
+            libro.setDateFinish(today());
         }
 
         libro.setProgress(progresoTotal);
@@ -309,73 +478,199 @@ public class UserLibraryBookService {
 
         libro = libraryRepository.save(libro);
 
-        // Actualizar los objetivos en curso con las páginas correspondientes
-        if (tipoProgreso.equals(anteriorTipoProgreso)) { // Si es el mismo tipo de progreso, restar
-            progresoTotal -= anteriorProgreso;
-        } else if (tipoProgreso.equals("porcentaje")) { // Si antes eran páginas y ahora porcentaje:
-            int paginasAhora = (int) Math.floor((progresoTotal / 100.0) * book.getPageNumber());
-            progresoTotal = paginasAhora - anteriorProgreso;
-        } else { // Si antes era porcentaje y ahora son páginas:
-            int paginasAntes = (int) Math.floor((anteriorProgreso / 100.0) * book.getPageNumber());
-            progresoTotal -= paginasAntes;
+        if (libro.getReadingStatus() == ReadingStatus.READ.getValue()) {
+            recommendationCache.invalidate(user.getId(), RecommendationStrategy.READ_BOOKS);
         }
 
-        goalService.updateGoals(user.getId(), progresoTotal);
+        // Actualizar los objetivos en curso con las páginas correspondientes
+        publishGoalProgress(user.getId(), creditoAnterior, goalCredit(libro, book));
+        if (libro.getReadingStatus() == ReadingStatus.READ.getValue()) {
+            publishReadingState(user.getId(), idBook, fechaFinAnterior, libro.getRating(),
+                    libro.getDateFinish(), libro.getRating());
+        }
 
         return libraryMapper.toDTO(libro);
     }
 
     /**
-     * Devuelve el resumen anual de un usuario.
+     * Lo que un libro de la biblioteca aporta a los objetivos: libros terminados y páginas leídas,
+     * y la fecha a la que cuentan.
+     */
+    private record GoalCredit(LocalDate date, int books, int pages) {
+        static final GoalCredit NONE = new GoalCredit(null, 0, 0);
+    }
+
+    /**
+     * Calcula lo que aporta un libro a los objetivos con los mismos criterios que la reconciliación:
+     * un libro con fecha de fin cuenta entero en esa fecha, y uno que se está leyendo cuenta su progreso hoy.
      *
-     * @param user Usuario que consulta el resumen
-     * @return DTO con los datos del resumen anual
+     * @param libro Libro de la biblioteca
+     * @param book Datos del libro
+     * @return Aportación del libro a los objetivos
      */
-    public YearRecapDTO getYearRecap(User user) {
-        YearRecapDTO recap = new YearRecapDTO();
+    private static GoalCredit goalCredit(UserLibraryBook libro, Book book) {
+        if (libro.getDateFinish() != null) {
+            return new GoalCredit(toLocalDate(libro.getDateFinish()), 1, book.getPageNumber());
+        }
+        if (libro.getReadingStatus() != ReadingStatus.READING.getValue()) {
+            return GoalCredit.NONE;
+        }
 
-        // Objetivos completados en el año actual
-        List<GoalDTO> goalsDTO = new ArrayList<>(goalService.getFinishedGoalsActualYear(user.getId()));
-        // Se añaden también los objetivos anuales del año anterior
-        List<GoalDTO> lastYearAnnualGoalsDtos = goalRepository.findAnnualGoalsByYear(user.getId(),
-                        LocalDate.now().getYear() -1)
-                .stream()
-                .filter(goal -> goal.getCurrentAmount() >= goal.getAmount()) // Solo los que están completados
-                .map(goalMapper::toDTO)
-                .toList();
-        if (!lastYearAnnualGoalsDtos.isEmpty()) {
-            goalsDTO.addAll(lastYearAnnualGoalsDtos);
+        int paginas = "porcentaje".equals(libro.getProgressType())
+                ? (int) Math.floor((libro.getProgress() / 100.0) * book.getPageNumber())
+                : libro.getProgress();
+        return new GoalCredit(LocalDate.now(), 0, paginas);
+    }
+
+    /**
+     * Publica la diferencia entre lo que aportaba un libro a los objetivos antes de un cambio y lo que
+     * aporta después: se resta lo anterior en su fecha y se suma lo nuevo en la suya.
+     *
+     * @param idUser ID del usuario
+     * @param anterior Aportación antes del cambio
+     * @param nueva Aportación después del cambio
+     */
+    private void publishGoalProgress(Long idUser, GoalCredit anterior, GoalCredit nueva) {
+        if (Objects.equals(anterior.date(), nueva.date())) {
+            int libros = nueva.books() - anterior.books();
+            int paginas = nueva.pages() - anterior.pages();
+            if (nueva.date() != null && (libros != 0 || paginas != 0)) {
+                eventPublisher.publishEvent(new ReadingProgressEvent(idUser, nueva.date(), libros, paginas));
+            }
+            return;
         }
-        recap.setAnnualGoals(goalsDTO);
 
-        // Total de libros leídos
-        long numBooks = libraryRepository.findBooksReadActualYear(user.getId()).size();
-        recap.setTotalBooksRead(numBooks);
+        if (anterior.date() != null && (anterior.books() != 0 || anterior.pages() != 0)) {
+            eventPublisher.publishEvent(new ReadingProgressEvent(idUser, anterior.date(),
+                    -anterior.books(), -anterior.pages()));
+        }
+        if (nueva.date() != null && (nueva.books() != 0 || nueva.pages() != 0)) {
+            eventPublisher.publishEvent(new ReadingProgressEvent(idUser, nueva.date(), nueva.books(), nueva.pages()));
+        }
+    }
 
-        // Total de páginas leídas
-        long numPages = libraryRepository.sumPagesReadInCurrentYear(user.getId());
-        recap.setTotalPagesRead(numPages);
+    /**
+     * Publica el cambio de fecha de fin o calificación de un libro para las estadísticas de lectura.
+     * No se publica nada si ninguno de los dos ha cambiado.
+     *
+     * @param idUser ID del usuario
+     * @param idBook ID del libro
+     * @param fechaFinAnterior Fecha de fin anterior, 'null' si no tenía
+     * @param calificacionAnterior Calificación anterior, 0 si no tenía
+     * @param fechaFin Nueva fecha de fin, 'null' si ya no tiene
+     * @param calificacion Nueva calificación, 0 si no tiene
+     */
+    private void publishReadingState(Long idUser, Long idBook, Date fechaFinAnterior,
+                                     double calificacionAnterior, Date fechaFin, double calificacion) {
+        LocalDate anterior = fechaFinAnterior != null ? toLocalDate(fechaFinAnterior) : null;
+        LocalDate nueva = fechaFin != null ? toLocalDate(fechaFin) : null;
+
+        if (!Objects.equals(anterior, nueva) || calificacionAnterior != calificacion) {
+            eventPublisher.publishEvent(new ReadingStateChangedEvent(idUser, idBook, anterior,
+                    calificacionAnterior, nueva, calificacion));
+        }
+    }
 
+    private static LocalDate toLocalDate(Date fecha) {
+        return Instant.ofEpochMilli(fecha.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static Date today() {
+        return java.sql.Date.valueOf(LocalDate.now());
+    }
+
+    /**
+     * Devuelve el resumen anual de un usuario a partir de sus estadísticas de lectura precalculadas.
+     * Los objetivos, las estadísticas, los géneros más leídos y los libros mejor valorados se consultan
+     * en paralelo. Si los géneros o los libros tardan demasiado, el resumen se devuelve sin ellos.
+     *
+     * @param user Usuario que consulta el resumen
+     * @param year Año del resumen
+     * @return DTO con los datos del resumen anual
+     */
+    public YearRecapDTO getYearRecap(User user, int year) {
+        Long idUser = user.getId();
+
+        // Objetivos completados en el año
+        CompletableFuture<List<GoalDTO>> consultaObjetivos = compositeQueryExecutor.submit(() -> {
+            List<GoalDTO> goalsDTO = new ArrayList<>(goalService.getFinishedGoalsByYear(idUser, year));
+            // Se añaden también los objetivos anuales del año anterior
+            goalRepository.findAnnualGoalsByYear(idUser, year - 1).stream()
+                    .filter(goal -> goal.getCurrentAmount() >= goal.getAmount()) // Solo los que están completados
+                    .map(goalMapper::toDTO)
+                    .forEach(goalsDTO::add);
+            return goalsDTO;
+        });
+        // Libros y páginas leídos en el año (mes 0) y en cada mes, e histograma de calificaciones
+        CompletableFuture<List<ReadingStats>> consultaEstadisticas =
+                compositeQueryExecutor.submit(() -> readingStatsService.getStats(idUser, year));
         // Géneros más leídos (5) y libros mejor valorados (4)
-        List<Genre> topGenres = libraryRepository.findTopGenresForCurrentYear(user.getId(), 5);
-        List<Book> topBooks = libraryRepository.findTopRatedBooksByUserForCurrentYear(user.getId(), 4);
+        CompletableFuture<List<GenreDTO>> consultaGeneros = compositeQueryExecutor.submitOptional(
+                () -> readingStatsService.getTopGenres(idUser, year, 5).stream()
+                        .map(genreMapper::toDTO)
+                        .collect(Collectors.toList()));
+        CompletableFuture<List<SimpleBookDTO>> consultaLibros = compositeQueryExecutor.submitOptional(
+                () -> libraryRepository.findTopRatedByYear(idUser, year, PageRequest.ofSize(4)).stream()
+                        .map(UserLibraryBookService::toSimpleBookDTO)
+                        .collect(Collectors.toList()));
 
-        recap.setMostReadGenres(topGenres.stream().map(genreMapper::toDTO).collect(Collectors.toList()));
-        recap.setTopRatedBooks(topBooks.stream().map(b -> {
-            SimpleBookDTO book = new SimpleBookDTO(); // SimpleBookDTO porque no se necesitan todos los datos de BookDTO
+        YearRecapDTO recap = new YearRecapDTO();
+        recap.setYear(year);
+        recap.setAnnualGoals(compositeQueryExecutor.join(consultaObjetivos));
+
+        int[] librosPorMes = new int[12];
+        long[] paginasPorMes = new long[12];
+        recap.setRatingHistogram(new int[BookStats.HISTOGRAM_BUCKETS]);
+        for (ReadingStats stats : compositeQueryExecutor.join(consultaEstadisticas)) {
+            int mes = stats.getId().getMonth();
+            if (mes == 0) {
+                recap.setTotalBooksRead(stats.getBooksRead());
+                recap.setTotalPagesRead(stats.getPagesRead());
+                recap.setRatingHistogram(stats.getRatingHistogram());
+            } else {
+                librosPorMes[mes - 1] = stats.getBooksRead();
+                paginasPorMes[mes - 1] = stats.getPagesRead();
+            }
+        }
+        recap.setBooksReadByMonth(librosPorMes);
+        recap.setPagesReadByMonth(paginasPorMes);
 
-            book.setId(b.getId());
-            book.setTitle(b.getTitle());
-            book.setAuthor(b.getAuthor());
-            book.setCover(b.getCover());
+        recap.setMostReadGenres(compositeQueryExecutor.joinOrDefault(consultaGeneros, new ArrayList<>()));
+        recap.setTopRatedBooks(compositeQueryExecutor.joinOrDefault(consultaLibros, new ArrayList<>()));
 
-            Optional<UserLibraryBook> libBook = libraryRepository.findByUserAndBook(user, b);
+        return recap;
+    }
 
-            book.setRating(libBook.get().getRating());
+    /**
+     * Obtiene los géneros de los libros de una página con una sola consulta.
+     * Los nombres de los géneros se toman de la caché de géneros.
+     *
+     * @param rows Libros de la página
+     * @return Mapa con los géneros de cada libro, por ID del libro
+     */
+    private Map<Long, List<GenreDTO>> genresOf(List<? extends BookRow> rows) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
 
-            return book;
-        }).collect(Collectors.toList()));
+        Map<Long, GenreDTO> generos = genreRepository.findAll().stream()
+                .collect(Collectors.toMap(Genre::getId, genreMapper::toDTO));
 
-        return recap;
+        return bookRepository.findGenresOfBooks(rows.stream().map(BookRow::getBookId).toList()).stream()
+                .filter(g -> generos.containsKey(g.getGroupId()))
+                .collect(Collectors.groupingBy(BookGroupRow::getBookId,
+                        Collectors.mapping(g -> generos.get(g.getGroupId()), Collectors.toList())));
+    }
+
+    private static SimpleBookDTO toSimpleBookDTO(RatedBookRow row) {
+        SimpleBookDTO book = new SimpleBookDTO(); // SimpleBookDTO porque no se necesitan todos los datos de BookDTO
+
+        book.setId(row.getId());
+        book.setTitle(row.getTitle());
+        book.setAuthor(row.getAuthor());
+        book.setCover(row.getCover());
+        book.setRating(row.getRating());
+
+        return book;
     }
 }
@@ -1,23 +1,27 @@
 package es.readtoowell.api_biblioteca.service.user;
 
 import es.readtoowell.api_biblioteca.mapper.AuthorRequestMapper;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.entity.AuthorRequest;
 import es.readtoowell.api_biblioteca.model.DTO.AuthorRequestDTO;
 import es.readtoowell.api_biblioteca.model.entity.RequestBook;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.model.enums.RequestStatus;
-import es.readtoowell.api_biblioteca.model.enums.Role;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.user.AuthorRequestRepository;
-import es.readtoowell.api_biblioteca.repository.user.RequestBookRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Date;
 import java.time.LocalDate;
@@ -34,7 +38,7 @@ public class AuthorRequestService {
     @Autowired
     private AuthorRequestMapper requestMapper;
     @Autowired
-    private RequestBookRepository requestBookRepository;
+    private UserRepository userRepository;
     @Autowired
     private UserService userService;
 
@@ -46,11 +50,15 @@ public class AuthorRequestService {
      * @return DTO con los datos de la solicitud enviada
      * @throws IllegalStateException El usuario tiene una solicitud pendiente o aceptada
      */
+    @Transactional
     public AuthorRequestDTO sendAuthorRequest(User user, AuthorRequestDTO dto) {
         if (requestRepository.existsByUserIdAndStatusIn(user.getId(),
                 List.of(RequestStatus.PENDING.getValue(), RequestStatus.ACCEPETD.getValue()))) {
             throw new IllegalStateException("El usuario ya tiene una solicitud en proceso o aceptada.");
         }
+        // El usuario autenticado es solo una referencia y la solicitud devuelta incluye sus datos
+        User usuario = userRepository.findById(user.getId())
+                .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + user.getId() + " no existe."));
 
         AuthorRequest request = new AuthorRequest();
         request.setName(dto.getName().trim());
@@ -58,28 +66,20 @@ public class AuthorRequestService {
         request.setDateSent(Date.valueOf(LocalDate.now()));
         request.setActive(true);
         request.setStatus(RequestStatus.PENDING.getValue());
-        request.setUser(user);
+        request.setUser(usuario);
 
-        final AuthorRequest savedRequest = requestRepository.save(request);
-
-        // Libros asociados a la solicitud
+        // Libros asociados a la solicitud: se guardan en cascada con ella, en una sola inserción por lotes
         List<RequestBook> books = dto.getBooks().stream().map(req -> {
             RequestBook book = new RequestBook();
             book.setTitle(req.getTitle().trim());
             book.setPublicationYear(req.getPublicationYear());
-            book.setRequest(savedRequest);
+            book.setRequest(request);
             return book;
         }).collect(Collectors.toList());
 
-        savedRequest.setBooks(books);
-
-        requestBookRepository.saveAll(books);
-
-        AuthorRequest savedRequest2 = requestRepository.save(savedRequest);
+        request.setBooks(books);
 
-        AuthorRequest requestWithBooks = requestRepository.findByIdWithBooks(savedRequest2.getId()).get();
-
-        return requestMapper.toDTO(requestWithBooks);
+        return requestMapper.toDTO(requestRepository.save(request));
     }
 
     /**
@@ -92,13 +92,12 @@ public class AuthorRequestService {
      * @throws EntityNotFoundException La solicitud no existe
      * @throws AccessDeniedException El usuario autenticado no tiene rol de admin
      */
-    public AuthorRequestDTO updateStatusRequest(Long idRequest, int newStatus, User user) {
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public AuthorRequestDTO updateStatusRequest(Long idRequest, int newStatus) {
         if (newStatus < 0 || newStatus > 2) {
             throw new ValidationException("El nuevo estado de la solicitud es inválido.");
         }
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
 
         AuthorRequest request = requestRepository.findByIdWithBooks(idRequest)
                 .orElseThrow(() -> new EntityNotFoundException("La solicitud con ID " + idRequest + " no existe."));
@@ -125,11 +124,9 @@ public class AuthorRequestService {
      * @return Página con las solicitudes como DTOs
      * @throws AccessDeniedException El usuario autenticado no tiene rol de admin
      */
-    public Page<AuthorRequestDTO> getAllRequests(int page, int size, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Page<AuthorRequestDTO> getAllRequests(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateSent"));
 
         return requestRepository.findAll(pageable).map(requestMapper::toDTO);
@@ -146,19 +143,69 @@ public class AuthorRequestService {
      * @throws ValidationException Estado de solicitud inválido
      * @throws AccessDeniedException El usuario autenticado no tiene rol de admin
      */
-    public Page<AuthorRequestDTO> getRequestsWithStatus(int page, int size, int status, User user) {
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Page<AuthorRequestDTO> getRequestsWithStatus(int page, int size, int status) {
         if (status < 0 || status > 2) {
             throw new ValidationException("El estado de la solicitud es inválido.");
         }
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateSent"));
 
         return requestRepository.findByStatus(status, pageable).map(requestMapper::toDTO);
     }
 
+    /**
+     * Devuelve todas las solicitudes de verificación de autor usando paginación por cursor.
+     * Las solicitudes se devuelven ordenadas de más a menos reciente.
+     *
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con las solicitudes como DTOs y el cursor de la siguiente
+     * @throws AccessDeniedException El usuario autenticado no tiene rol de admin
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageDTO<AuthorRequestDTO> getAllRequests(String cursor, int size) {
+        return findRequestsSentBefore(null, cursor, size);
+    }
+
+    /**
+     * Devuelve todas las solicitudes de verificación de autor con un estado específico usando paginación por cursor.
+     * Las solicitudes se devuelven ordenadas de más a menos reciente.
+     *
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @param status Estado por el que se quieren filtrar
+     * @return Porción con las solicitudes filtradas como DTOs y el cursor de la siguiente
+     * @throws ValidationException Estado de solicitud o cursor inválidos
+     * @throws AccessDeniedException El usuario autenticado no tiene rol de admin
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageDTO<AuthorRequestDTO> getRequestsWithStatus(String cursor, int size, int status) {
+        if (status < 0 || status > 2) {
+            throw new ValidationException("El estado de la solicitud es inválido.");
+        }
+
+        return findRequestsSentBefore(status, cursor, size);
+    }
+
+    /**
+     * Busca la porción de solicitudes siguiente al cursor indicado.
+     */
+    private CursorPageDTO<AuthorRequestDTO> findRequestsSentBefore(Integer status, String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 2);
+
+        Slice<AuthorRequest> solicitudes = CursorCodec.sliceByDateDesc(anterior, size,
+                (fecha, lastId, pageable) -> requestRepository.findSentBefore(status, fecha, lastId, pageable),
+                (lastId, pageable) -> requestRepository.findUnsentBefore(status, lastId, pageable));
+
+        return CursorCodec.toCursorPage(solicitudes, requestMapper::toDTO,
+                r -> CursorCodec.encode(r.getDateSent(), r.getId()));
+    }
+
     /**
      * Devuelve una solicitud de verificación de autor.
      *
@@ -167,11 +214,9 @@ public class AuthorRequestService {
      * @throws EntityNotFoundException La solicitud no existe
      * @throws AccessDeniedException El usuario autenticado no tiene rol de admin
      */
-    public AuthorRequestDTO getRequest(Long idRequest, User user) {
-        if (user.getRole() != Role.ADMIN.getValue()) {
-            throw new AccessDeniedException("Solo los admins pueden realizar esta acción.");
-        }
-
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public AuthorRequestDTO getRequest(Long idRequest) {
         AuthorRequest request = requestRepository.findByIdWithBooks(idRequest)
                 .orElseThrow(() -> new EntityNotFoundException("La solicitud con ID " + idRequest + " no existe."));
 
@@ -184,6 +229,7 @@ public class AuthorRequestService {
      * @param user Usuario del que se comprueban las solicitudes
      * @return 'true' si tiene alguna solicitud pendiente, 'false' en caso contrario
      */
+    @Transactional(readOnly = true)
     public boolean checkIfPendingRequest(User user) {
         return requestRepository.existsByUserIdAndStatusIn(user.getId(), List.of(RequestStatus.PENDING.getValue()));
     }
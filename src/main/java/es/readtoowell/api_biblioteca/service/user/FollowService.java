@@ -0,0 +1,184 @@
+package es.readtoowell.api_biblioteca.service.user;
+
+import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.entity.UserStats;
+import es.readtoowell.api_biblioteca.model.entity.id.FollowId;
+import es.readtoowell.api_biblioteca.repository.user.FollowRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Servicio encargado de mantener el grafo de seguimiento entre usuarios.
+ * Cada seguimiento es una fila de la tabla {@code seguimiento} que se inserta o elimina directamente, y los
+ * contadores de seguidores y seguidos de cada usuario se actualizan a la vez de forma incremental, de modo que
+ * ninguna operación depende del número de seguidores del usuario. Los contadores se recalculan periódicamente
+ * para corregir cualquier desviación.
+ */
+@Service
+public class FollowService {
+    @Autowired
+    private FollowRepository followRepository;
+    @Autowired
+    private UserStatsRepository statsRepository;
+
+    /**
+     * Registra que un usuario sigue a otro. Si ya le seguía, no se hace nada.
+     *
+     * @param idFollower ID del usuario seguidor
+     * @param idFollowed ID del usuario seguido
+     * @return 'true' si se ha creado el seguimiento, 'false' si ya existía
+     */
+    @Transactional
+    public boolean follow(Long idFollower, Long idFollowed) {
+        if (followRepository.insertIfAbsent(idFollower, idFollowed) == 0) {
+            return false;
+        }
+        statsRepository.addFollowing(idFollower, 1);
+        statsRepository.addFollowers(idFollowed, 1);
+        return true;
+    }
+
+    /**
+     * Registra que un usuario deja de seguir a otro. Si no le seguía, no se hace nada.
+     *
+     * @param idFollower ID del usuario seguidor
+     * @param idFollowed ID del usuario seguido
+     * @return 'true' si se ha eliminado el seguimiento, 'false' si no existía
+     */
+    @Transactional
+    public boolean unfollow(Long idFollower, Long idFollowed) {
+        if (followRepository.deleteByKey(idFollower, idFollowed) == 0) {
+            return false;
+        }
+        statsRepository.addFollowing(idFollower, -1);
+        statsRepository.addFollowers(idFollowed, -1);
+        return true;
+    }
+
+    /**
+     * Comprueba si un usuario sigue a otro.
+     *
+     * @param idFollower ID del usuario seguidor
+     * @param idFollowed ID del usuario seguido
+     * @return 'true' si le sigue, 'false' en caso contrario
+     */
+    @Transactional(readOnly = true)
+    public boolean isFollowing(Long idFollower, Long idFollowed) {
+        return followRepository.existsById(new FollowId(idFollower, idFollowed));
+    }
+
+    /**
+     * Devuelve los contadores de seguimiento de un usuario.
+     *
+     * @param idUser ID del usuario
+     * @return Un {@code Optional} con los contadores. Si el usuario no sigue ni es seguido por nadie, estará vacío.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserStats> getStats(Long idUser) {
+        return statsRepository.findById(idUser);
+    }
+
+    /**
+     * Devuelve la porción de seguidores de un usuario siguiente al ID indicado, ordenados por ID.
+     *
+     * @param idUser ID del usuario
+     * @param lastId ID del último seguidor devuelto, 0 para obtener la primera porción
+     * @param size Tamaño de la porción
+     * @return Porción con los seguidores
+     */
+    @Transactional(readOnly = true)
+    public Slice<User> getFollowers(Long idUser, long lastId, int size) {
+        return followRepository.findFollowersAfter(idUser, lastId, PageRequest.ofSize(size));
+    }
+
+    /**
+     * Devuelve la porción de usuarios seguidos por un usuario siguiente al ID indicado, ordenados por ID.
+     *
+     * @param idUser ID del usuario
+     * @param lastId ID del último usuario seguido devuelto, 0 para obtener la primera porción
+     * @param size Tamaño de la porción
+     * @return Porción con los usuarios seguidos
+     */
+    @Transactional(readOnly = true)
+    public Slice<User> getFollowing(Long idUser, long lastId, int size) {
+        return followRepository.findFollowingAfter(idUser, lastId, PageRequest.ofSize(size));
+    }
+
+    /**
+     * Devuelve todos los seguidores de un usuario.
+     *
+     * @param idUser ID del usuario
+     * @return Lista con los seguidores, ordenados por ID
+     */
+    @Transactional(readOnly = true)
+    public List<User> getAllFollowers(Long idUser) {
+        return followRepository.findAllFollowers(idUser);
+    }
+
+    /**
+     * Devuelve todos los usuarios seguidos por un usuario.
+     *
+     * @param idUser ID del usuario
+     * @return Lista con los usuarios seguidos, ordenados por ID
+     */
+    @Transactional(readOnly = true)
+    public List<User> getAllFollowing(Long idUser) {
+        return followRepository.findAllFollowing(idUser);
+    }
+
+    /**
+     * Devuelve los usuarios seguidos por un usuario que tienen al menos un número de seguidores.
+     *
+     * @param idUser ID del usuario
+     * @param minFollowers Número mínimo de seguidores
+     * @return Lista con los IDs de los usuarios seguidos
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getFollowedWithFollowersAtLeast(Long idUser, int minFollowers) {
+        return followRepository.findFollowedWithFollowersAtLeast(idUser, minFollowers);
+    }
+
+    /**
+     * Elimina los seguimientos de un usuario que se va a borrar, descontándolos de los contadores
+     * del resto de usuarios.
+     *
+     * @param idUser ID del usuario
+     */
+    @Transactional
+    public void removeUser(Long idUser) {
+        statsRepository.discountFollowsOf(idUser);
+        followRepository.deleteAllByUser(idUser);
+        statsRepository.deleteById(idUser);
+    }
+
+    /**
+     * Recalcula los contadores de todos los usuarios a partir de los seguimientos.
+     * Se ejecuta periódicamente según la expresión {@code readtoowell.follows.reconcile-cron}.
+     */
+    @Transactional
+    @Scheduled(cron = "${readtoowell.follows.reconcile-cron:0 15 4 * * *}")
+    public void reconcile() {
+        statsRepository.rebuildAll();
+        statsRepository.deleteOrphans();
+    }
+
+    /**
+     * Construye los contadores al arrancar la aplicación si todavía no existen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (statsRepository.count() == 0) {
+            reconcile();
+        }
+    }
+}
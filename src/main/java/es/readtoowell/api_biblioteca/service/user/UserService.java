@@ -1,6 +1,10 @@
 package es.readtoowell.api_biblioteca.service.user;
 
+import es.readtoowell.api_biblioteca.config.CustomUserDetails;
+import es.readtoowell.api_biblioteca.config.security.PrincipalCache;
 import es.readtoowell.api_biblioteca.model.DTO.AuthorRequestDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.DTO.user.FollowCountsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UpdateProfileDTO;
 import es.readtoowell.api_biblioteca.model.entity.Book;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserDTO;
@@ -8,22 +12,28 @@ import es.readtoowell.api_biblioteca.mapper.UserMapper;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserFavoritesDTO;
 import es.readtoowell.api_biblioteca.model.entity.Genre;
 import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.enums.RecommendationStrategy;
 import es.readtoowell.api_biblioteca.model.enums.Role;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
 import es.readtoowell.api_biblioteca.repository.book.GenreRepository;
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
+import es.readtoowell.api_biblioteca.service.book.RecommendationCache;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -40,6 +50,12 @@ public class UserService {
     private GenreRepository genreRepository;
     @Autowired
     private BookRepository bookRepository;
+    @Autowired
+    private RecommendationCache recommendationCache;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private FollowService followService;
 
     /**
      * Devuelve todos los usuarios.
@@ -48,6 +64,7 @@ public class UserService {
      * @param size Tamaño de la página
      * @return Página con los usuarios como DTOs
      */
+    @Transactional(readOnly = true)
     public Page<UserDTO> getAllUsers(int page, int size) {
         Page<User> users = userRepository.findAll(PageRequest.of(page, size, Sort.by("username")));
         return users.map(userMapper::toDTO);
@@ -60,6 +77,7 @@ public class UserService {
      * @return DTO con los datos del usuario
      * @throws EntityNotFoundException El usuario no existe
      */
+    @Transactional(readOnly = true)
     public UserDTO getUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + id + " no existe."));
@@ -68,6 +86,9 @@ public class UserService {
 
     /**
      * Devuelve el usuario autenticado.
+     * Si el usuario se autenticó con un token, se devuelve una referencia a partir de su ID, sin consultar
+     * la base de datos. Solo se puede usar su ID: los servicios que necesitan sus datos lo cargan en su
+     * propia transacción.
      *
      * @return Usuario autenticado, 'null' si no hay ninguno
      */
@@ -76,6 +97,8 @@ public class UserService {
 
         if (principal instanceof User) {
             return (User) principal;
+        } else if (principal instanceof CustomUserDetails details) {
+            return userRepository.getReferenceById(details.getId());
         } else if (principal instanceof UserDetails) {
             String username = ((UserDetails) principal).getUsername();
             return userRepository.findByEmail(username).orElse(null);
@@ -89,6 +112,7 @@ public class UserService {
      * @param user DTO con los datos del usuario a crear
      * @return DTO con los datos del usuario creado
      */
+    @Transactional
     public UserDTO createUser(UserDTO user) {
         user.setRole(Role.USER.getValue());
         User entity = userRepository.save(userMapper.toEntity(user));
@@ -102,11 +126,14 @@ public class UserService {
      * @return DTO con los datos del usuario eliminado
      * @throws EntityNotFoundException El usuario no existe
      */
+    @Transactional
     public UserDTO deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + id + " no existe."));
 
+        followService.removeUser(id);
         userRepository.delete(user);
+        principalCache.invalidate(id);
 
         return userMapper.toDTO(user);
     }
@@ -119,6 +146,7 @@ public class UserService {
      * @return DTO con los datos del usuario actualizado
      * @throws EntityNotFoundException El usuario no existe
      */
+    @Transactional
     public UserDTO updateUser(Long idUser, UserDTO user) {
         User usuario = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
@@ -132,6 +160,7 @@ public class UserService {
         usuario.setProfilePic(user.getProfilePic());
 
         usuario = userRepository.save(usuario);
+        principalCache.invalidate(idUser);
 
         return userMapper.toDTO(usuario);
     }
@@ -144,6 +173,7 @@ public class UserService {
      * @return Datos actualizados del usuario
      * @throws EntityNotFoundException El usuario no existe
      */
+    @Transactional
     public UserDTO updateUserProfile(Long idUser, UpdateProfileDTO user) {
         User usuario = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
@@ -163,12 +193,29 @@ public class UserService {
      * @param id ID del usuario del que se consultan los seguidos
      * @return Lista con los usuarios seguidos como DTOs
      */
+    @Transactional(readOnly = true)
     public List<UserDTO> getFollows(Long id) {
-        return userRepository.findById(id)
-                .map(user -> user.getFollowedUsers().stream()
-                        .map(userMapper::toDTO)
-                        .collect(Collectors.toList()))
-                .orElse(Collections.emptyList());
+        return followService.getAllFollowing(id).stream()
+                .map(userMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Devuelve los usuarios que sigue un usuario específico usando paginación por cursor, ordenados por ID.
+     *
+     * @param id ID del usuario del que se consultan los seguidos
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con los usuarios seguidos como DTOs y el cursor de la siguiente
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserDTO> getFollows(Long id, String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 1);
+
+        Slice<User> seguidos = followService.getFollowing(id, anterior != null ? anterior.getLong(0) : 0L, size);
+
+        return CursorCodec.toCursorPage(seguidos, userMapper::toDTO, u -> CursorCodec.encode(u.getId()));
     }
 
     /**
@@ -177,12 +224,45 @@ public class UserService {
      * @param id ID del usuario del que se consultan los seguidores
      * @return Lista con los usuarios seguidores como DTOs
      */
+    @Transactional(readOnly = true)
     public List<UserDTO> getFollowers(Long id) {
-        return userRepository.findById(id)
-                .map(user -> user.getFollowers().stream()
-                        .map(userMapper::toDTO)
-                        .collect(Collectors.toList()))
-                .orElse(Collections.emptyList());
+        return followService.getAllFollowers(id).stream()
+                .map(userMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Devuelve los seguidores de un usuario específico usando paginación por cursor, ordenados por ID.
+     *
+     * @param id ID del usuario del que se consultan los seguidores
+     * @param cursor Cursor devuelto en la porción anterior, vacío para obtener la primera
+     * @param size Tamaño de la porción
+     * @return Porción con los usuarios seguidores como DTOs y el cursor de la siguiente
+     * @throws ValidationException El cursor es inválido
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserDTO> getFollowers(Long id, String cursor, int size) {
+        CursorCodec.Cursor anterior = CursorCodec.decode(cursor, 1);
+
+        Slice<User> seguidores = followService.getFollowers(id, anterior != null ? anterior.getLong(0) : 0L, size);
+
+        return CursorCodec.toCursorPage(seguidores, userMapper::toDTO, u -> CursorCodec.encode(u.getId()));
+    }
+
+    /**
+     * Devuelve los contadores de seguidores y seguidos de un usuario y si otro usuario le sigue.
+     *
+     * @param id ID del usuario del que se consultan los contadores
+     * @param idViewer ID del usuario que hace la consulta
+     * @return DTO con los contadores de seguimiento
+     */
+    @Transactional(readOnly = true)
+    public FollowCountsDTO getFollowCounts(Long id, Long idViewer) {
+        boolean seguido = !id.equals(idViewer) && followService.isFollowing(idViewer, id);
+
+        return followService.getStats(id)
+                .map(stats -> new FollowCountsDTO(stats.getFollowerCount(), stats.getFollowingCount(), seguido))
+                .orElseGet(() -> new FollowCountsDTO(0, 0, seguido));
     }
 
     /**
@@ -194,6 +274,7 @@ public class UserService {
      * @throws EntityNotFoundException Alguno de los usuarios no existe
      * @throws IllegalStateException Alguno de los usuarios es un administrador o se intenta seguir al propio usuario
      */
+    @Transactional
     public UserDTO followUser(Long idUser, Long idFollowedUser) {
         User user = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
@@ -207,11 +288,7 @@ public class UserService {
             throw new IllegalStateException("Un usuario no puede seguirse a sí mismo.");
         }
 
-        user.getFollowedUsers().add(followedUser);
-        followedUser.getFollowers().add(user);
-
-        userRepository.save(user);
-        userRepository.save(followedUser);
+        followService.follow(idUser, idFollowedUser);
 
         return userMapper.toDTO(followedUser);
     }
@@ -225,6 +302,7 @@ public class UserService {
      * @throws EntityNotFoundException Alguno de los usuarios no existe
      * @throws IllegalStateException Alguno de los usuarios es un admin o se intena dejar de seguir al propio usuario
      */
+    @Transactional
     public UserDTO unfollowUser(Long idUser, Long idUnfollowedUser) {
         User user = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
@@ -239,11 +317,7 @@ public class UserService {
             throw new IllegalStateException("Un usuario no puede dejar de seguirse a sí mismo.");
         }
 
-        user.getFollowedUsers().remove(unfollowedUser);
-        unfollowedUser.getFollowers().remove(user);
-
-        userRepository.save(user);
-        userRepository.save(unfollowedUser);
+        followService.unfollow(idUser, idUnfollowedUser);
 
         return userMapper.toDTO(unfollowedUser);
     }
@@ -256,6 +330,7 @@ public class UserService {
      * @param size Tamaño de la página
      * @return Página con los usuarios encontrados como DTOs
      */
+    @Transactional(readOnly = true)
     public Page<UserDTO> searchUsers(String searchString, Long idUser, int page, int size) {
         Page<User> users =  userRepository.searchUsers(searchString, idUser, PageRequest.of(page, size));
         return users.map(userMapper::toDTO);
@@ -269,6 +344,7 @@ public class UserService {
      * @return DTO con los datos del usuario actualizado
      * @throws EntityNotFoundException El usuario no existe o no tiene ninguna solicitud pendiente
      */
+    @Transactional
     public UserDTO promoteToAuthor(AuthorRequestDTO request) {
         Long idUser = request.getUser().getId();
         User user = userRepository.findById(idUser)
@@ -282,6 +358,7 @@ public class UserService {
         request.setActive(false);
 
         user = userRepository.save(user);
+        principalCache.invalidate(idUser);
 
         return userMapper.toDTO(user);
     }
@@ -289,12 +366,13 @@ public class UserService {
     /**
      * Añade géneros favoritos a un usuario.
      *
-     * @param user Usuario que añade sus géneros favoritos
+     * @param idUser ID del usuario que añade sus géneros favoritos
      * @param genreIds Lista de IDs de los géneros seleccionados
      * @throws ValidationException Hay más géneros de los que se pueden añadir
-     * @throws EntityNotFoundException Alguno de los géneros no existe
+     * @throws EntityNotFoundException El usuario o alguno de los géneros no existen
      */
-    public void addFavoriteGenres(User user, List<Long> genreIds) {
+    @Transactional
+    public void addFavoriteGenres(Long idUser, List<Long> genreIds) {
         if (genreIds.size() > 5) {
             throw new ValidationException("Sólo se pueden elegir 5 géneros favoritos como máximo.");
         }
@@ -305,19 +383,23 @@ public class UserService {
             throw new EntityNotFoundException("Uno o más géneros no existen.");
         }
 
+        User user = userRepository.findById(idUser)
+                .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
         user.setFavoriteGenres(newGenres);
         userRepository.save(user);
+        recommendationCache.invalidate(user.getId(), RecommendationStrategy.FAVORITE_GENRES);
     }
 
     /**
      * Añade libros favoritos a un usuario.
      *
-     * @param user Usuario que añade sus libros favoritos
+     * @param idUser ID del usuario que añade sus libros favoritos
      * @param bookIds Lista de IDs de los libros seleccionados
      * @throws ValidationException Hay más libros de los que se pueden añadir
-     * @throws EntityNotFoundException Alguno de los libros no existe
+     * @throws EntityNotFoundException El usuario o alguno de los libros no existen
      */
-    public void addFavoriteBooks(User user, List<Long> bookIds) {
+    @Transactional
+    public void addFavoriteBooks(Long idUser, List<Long> bookIds) {
         if (bookIds.size() > 4) {
             throw new ValidationException("Sólo se pueden elegir 4 libros favoritos como máximo.");
         }
@@ -328,8 +410,11 @@ public class UserService {
             throw new EntityNotFoundException("Uno o más libros no existen.");
         }
 
+        User user = userRepository.findById(idUser)
+                .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
         user.setFavoriteBooks(newBooks);
         userRepository.save(user);
+        recommendationCache.invalidate(user.getId(), RecommendationStrategy.FAVORITE_BOOKS);
     }
 
     /**
@@ -339,12 +424,17 @@ public class UserService {
      * @return DTO con los datos de los libros y géneros favoritos del usuario
      * @throws EntityNotFoundException El usuario no existe
      */
+    @Transactional(readOnly = true)
     public UserFavoritesDTO getFavorites(Long idUser) {
         User user = userRepository.findById(idUser)
                 .orElseThrow(() -> new EntityNotFoundException("El usuario con ID " + idUser + " no existe."));
 
         UserFavoritesDTO favoritos = new UserFavoritesDTO();
 
+        // Se cargan dentro de la transacción, ya que se serializan después de cerrarse la sesión
+        Hibernate.initialize(user.getFavoriteGenres());
+        user.getFavoriteBooks().forEach(book -> Hibernate.initialize(book.getGenres()));
+
         favoritos.setUser(user);
         favoritos.setFavoriteGenres(user.getFavoriteGenres());
         favoritos.setFavoriteBooks(user.getFavoriteBooks());
@@ -353,13 +443,18 @@ public class UserService {
     }
 
     /**
-     * Verifica si un usuario tiene el rol de administrador.
+     * Verifica si el usuario autenticado tiene el rol de administrador.
+     * Se comprueba con las autoridades de la autenticación, sin cargar el usuario de la base de datos.
      *
-     * @param user Usuario a verificar
      * @return 'true' si tiene rol administrador, 'false' en caso contrario
      */
-    public Boolean verifyAdmin(User user) {
-        return user.getRole() == Role.ADMIN.getValue();
+    public Boolean verifyAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> ("ROLE_" + Role.ADMIN.name()).equals(a.getAuthority()));
     }
 
     /**
@@ -369,6 +464,7 @@ public class UserService {
      * @param size Tamaño de la página
      * @return Página con los usuarios resultantes como DTOs
      */
+    @Transactional(readOnly = true)
     public Page<UserDTO> getAuthors(int page, int size) {
         Page<User> users = userRepository.findAuthors(PageRequest.of(page, size));
         return users.map(userMapper::toDTO);
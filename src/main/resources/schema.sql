@@ -0,0 +1,11 @@
+-- Se ejecuta antes de que arranque Hibernate.
+-- Las secuencias de los identificadores de estas tablas avanzan de 50 en 50, igual que el 'allocationSize'
+-- de sus entidades, para que Hibernate reserve los identificadores por bloques y pueda agrupar las inserciones.
+-- En una base de datos nueva no existen todavía y las crea Hibernate con el incremento correcto.
+ALTER SEQUENCE IF EXISTS libro_solicitud_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS sugerencia_id_sugerencia_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS objetivo_id_objetivo_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS lista_id_lista_seq INCREMENT BY 50;
+
+-- El índice de las reseñas por fecha incluye el ID del autor, que desempata en la paginación por cursor
+DROP INDEX IF EXISTS idx_libro_biblioteca_resenas;
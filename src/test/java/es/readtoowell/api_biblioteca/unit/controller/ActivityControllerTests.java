@@ -0,0 +1,77 @@
+package es.readtoowell.api_biblioteca.unit.controller;
+
+import es.readtoowell.api_biblioteca.config.security.JwtFilter;
+import es.readtoowell.api_biblioteca.controller.activity.ActivityController;
+import es.readtoowell.api_biblioteca.model.DTO.ActivityDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.service.activity.ActivityService;
+import es.readtoowell.api_biblioteca.service.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Clase de pruebas para el controlador de actividad.
+ */
+@WebMvcTest(controllers = ActivityController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(MockitoExtension.class)
+public class ActivityControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private ActivityService activityService;
+    @MockitoBean
+    private UserService userService;
+    @MockitoBean
+    private JwtFilter jwtFilter;
+
+    /**
+     * Método de prueba. Devolver la actividad de los usuarios seguidos
+     */
+    @Test
+    public void ActivityController_GetFeed_ReturnActivities() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        ActivityDTO actividad = new ActivityDTO();
+        actividad.setId(9L);
+
+        given(userService.getAuthenticatedUser()).willReturn(user);
+        given(activityService.getFeed(1L, "abc", 10))
+                .willReturn(new CursorPageDTO<>(List.of(actividad), 10, true, "def"));
+
+        ResultActions response = mockMvc.perform(get("/actividad")
+                .param("cursor", "abc")
+                .param("size", "10"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(9))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    /**
+     * Método de prueba. Devolver la actividad sin usuario autenticado
+     */
+    @Test
+    public void ActivityController_GetFeed_Forbidden() throws Exception {
+        given(userService.getAuthenticatedUser()).willReturn(null);
+
+        ResultActions response = mockMvc.perform(get("/actividad"));
+
+        response.andExpect(status().isForbidden());
+    }
+}
@@ -19,11 +19,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -72,11 +79,15 @@ class AuthenticationControllerTests {
      */
     @Test
     public void AuthenticationController_Register_ReturnLogged() throws Exception {
-        given(authenticationService.register(ArgumentMatchers.any())).willReturn(authenticatedUserDTO);
+        given(authenticationService.register(ArgumentMatchers.any()))
+                .willReturn(CompletableFuture.completedFuture(authenticatedUserDTO));
 
-        ResultActions response = mockMvc.perform(post("/auth/register")
+        MvcResult result = mockMvc.perform(post("/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(registerDTO)));
+                .content(objectMapper.writeValueAsString(registerDTO)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
 
         response.andExpect(status().isCreated());
     }
@@ -86,11 +97,15 @@ class AuthenticationControllerTests {
      */
     @Test
     public void AuthenticationController_Login_ReturnLogged() throws Exception {
-        given(authenticationService.login(ArgumentMatchers.any())).willReturn(authenticatedUserDTO);
+        given(authenticationService.login(ArgumentMatchers.any()))
+                .willReturn(CompletableFuture.completedFuture(authenticatedUserDTO));
 
-        ResultActions response = mockMvc.perform(post("/auth/login")
+        MvcResult result = mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(loginDTO)));
+                .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
 
         response.andExpect(status().isOk());
     }
@@ -103,14 +118,34 @@ class AuthenticationControllerTests {
         AuthenticatedUserDTO failedLoginDTO = new AuthenticatedUserDTO();
         failedLoginDTO.setToken(null);
 
-        given(authenticationService.login(ArgumentMatchers.any())).willReturn(failedLoginDTO);
+        given(authenticationService.login(ArgumentMatchers.any()))
+                .willReturn(CompletableFuture.completedFuture(failedLoginDTO));
 
         loginDTO.setEmail("noexiste@email.es");
+        MvcResult result = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        response.andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Método de prueba. Inicio de sesión con la cola de hashes de contraseñas llena
+     */
+    @Test
+    public void AuthenticationController_Login_HashingQueueFull() throws Exception {
+        given(authenticationService.login(ArgumentMatchers.any()))
+                .willThrow(new RejectedExecutionException("El servidor está ocupado."));
+
         ResultActions response = mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginDTO)));
 
-        response.andExpect(status().isUnauthorized());
+        response.andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
     }
 
     /**
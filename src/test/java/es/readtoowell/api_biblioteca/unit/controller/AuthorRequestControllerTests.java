@@ -105,7 +105,7 @@ public class AuthorRequestControllerTests {
     @Test
     public void AuthorRequestController_UpdateStatusRequest_ReturnUpdated() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(requestService.updateStatusRequest(any(), anyInt(), any())).willReturn(requestDTO);
+        given(requestService.updateStatusRequest(any(), anyInt())).willReturn(requestDTO);
 
         ResultActions response = mockMvc.perform(put("/solicitud-autor/1?newStatus=0"));
 
@@ -118,7 +118,7 @@ public class AuthorRequestControllerTests {
     @Test
     public void AuthorRequestController_GetAllRequests_ReturnRequests() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(requestService.getAllRequests(anyInt(), anyInt(), any())).willReturn(requestsPage);
+        given(requestService.getAllRequests(anyInt(), anyInt())).willReturn(requestsPage);
 
         ResultActions response = mockMvc.perform(get("/solicitud-autor"));
 
@@ -131,7 +131,7 @@ public class AuthorRequestControllerTests {
     @Test
     public void AuthorRequestController_GetRequestsWithStatus_ReturnRequests() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(requestService.getRequestsWithStatus(anyInt(), anyInt(), anyInt(), any())).willReturn(requestsPage);
+        given(requestService.getRequestsWithStatus(anyInt(), anyInt(), anyInt())).willReturn(requestsPage);
 
         ResultActions response = mockMvc.perform(get("/solicitud-autor/estado"));
 
@@ -144,7 +144,7 @@ public class AuthorRequestControllerTests {
     @Test
     public void AuthorRequestController_GetRequest_ReturnRequest() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(requestService.getRequest(any(), any())).willReturn(requestDTO);
+        given(requestService.getRequest(any())).willReturn(requestDTO);
 
         ResultActions response = mockMvc.perform(get("/solicitud-autor/1"));
 
@@ -171,7 +171,7 @@ public class AuthorRequestControllerTests {
     public void AuthorRequestController_UnauthenticatedUser() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(null);
 
-        ResultActions response = mockMvc.perform(get("/solicitud-autor/1"));
+        ResultActions response = mockMvc.perform(get("/solicitud-autor/comprobar-pendiente"));
 
         response.andExpect(status().isForbidden());
     }
@@ -3,10 +3,12 @@ package es.readtoowell.api_biblioteca.unit.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import es.readtoowell.api_biblioteca.config.security.JwtFilter;
 import es.readtoowell.api_biblioteca.controller.book.BookController;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookDetailsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.CollectionDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.ReviewDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.AuthorDTO;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.service.book.BookService;
@@ -30,12 +32,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -111,7 +117,7 @@ public class BookControllerTests {
     @Test
     public void BookController_CreateBook_ReturnNewBook() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.createBook(any(), any(), any())).willReturn(bookDTO);
+        given(bookService.createBook(any(), any())).willReturn(bookDTO);
 
         ResultActions response = mockMvc.perform(post("/libros?genreIds=1&genreIds=2")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -126,7 +132,7 @@ public class BookControllerTests {
     @Test
     public void BookController_CreateBook_InvalidBookParams() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.createBook(any(), any(), any())).willReturn(bookDTO);
+        given(bookService.createBook(any(), any())).willReturn(bookDTO);
 
         bookDTO.setTitle("");
         bookDTO.setIsbn("isbn incorrecto");
@@ -143,7 +149,7 @@ public class BookControllerTests {
     @Test
     public void BookController_UpdateBook_ReturnUpdatedBook() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.updateBook(any(), any(), any(), any())).willReturn(bookDTO);
+        given(bookService.updateBook(any(), any(), any())).willReturn(bookDTO);
 
         ResultActions response = mockMvc.perform(put("/libros/1?genreIds=1&genreIds=2")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -158,7 +164,7 @@ public class BookControllerTests {
     @Test
     public void BookController_UpdateBook_InvalidBookParams() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.updateBook(any(), any(), any(), any())).willReturn(bookDTO);
+        given(bookService.updateBook(any(), any(), any())).willReturn(bookDTO);
 
         bookDTO.setAuthor("");
         bookDTO.setPageNumber(-89);
@@ -175,7 +181,7 @@ public class BookControllerTests {
     @Test
     public void BookController_DeleteBook_ReturnDeleted() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.deleteBook(any(), any())).willReturn(bookDTO);
+        given(bookService.deleteBook(any())).willReturn(bookDTO);
 
         ResultActions response = mockMvc.perform(delete("/libros/1"));
 
@@ -188,7 +194,7 @@ public class BookControllerTests {
     @Test
     public void BookController_ReactivateBook_ReturnReactivated() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.reactivateBook(any(), any())).willReturn(bookDTO);
+        given(bookService.reactivateBook(any())).willReturn(bookDTO);
 
         ResultActions response = mockMvc.perform(put("/libros/reactivar/1"));
 
@@ -201,7 +207,7 @@ public class BookControllerTests {
     @Test
     public void BookController_SearchBooks_ReturnBooks() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.filterBooks(any(), any(), any(), any(), any(), anyInt(), anyInt()))
+        given(bookService.filterBooks(any(), any(), any(), any(), any(), anyInt(), anyInt(), anyBoolean()))
                 .willReturn(booksPage);
 
         ResultActions response = mockMvc.perform(get("/libros/buscar"));
@@ -209,6 +215,36 @@ public class BookControllerTests {
         response.andExpect(status().isOk());
     }
 
+    /**
+     * Método de prueba. Devolver todos los libros con paginación por cursor
+     */
+    @Test
+    public void BookController_GetBooksByCursor_ReturnSlice() throws Exception {
+        given(bookService.getAllBooks("", 10))
+                .willReturn(new CursorPageDTO<>(booksList, 10, true, "siguiente"));
+
+        ResultActions response = mockMvc.perform(get("/libros?cursor="));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("siguiente"))
+                .andExpect(jsonPath("$.content.length()").value(3));
+    }
+
+    /**
+     * Método de prueba. Buscar libros con paginación por cursor
+     */
+    @Test
+    public void BookController_SearchBooksByCursor_ReturnSlice() throws Exception {
+        given(userService.getAuthenticatedUser()).willReturn(new User());
+        given(bookService.filterBooks(any(), any(), any(), any(), any(), anyBoolean(), eq("abc"), anyInt()))
+                .willReturn(new CursorPageDTO<>(booksList, 10, false, null));
+
+        ResultActions response = mockMvc.perform(get("/libros/buscar?cursor=abc"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     /**
      * Método de prueba. Filtrar libros por un género concreto
      */
@@ -235,6 +271,36 @@ public class BookControllerTests {
         response.andExpect(status().isOk());
     }
 
+    /**
+     * Método de prueba. Devolver las reseñas de un libro paginadas por cursor
+     */
+    @Test
+    public void BookController_GetBookReviews_ReturnReviews() throws Exception {
+        ReviewDTO review = new ReviewDTO();
+        review.setUsername("Usuario");
+        given(userService.getAuthenticatedUser()).willReturn(new User());
+        given(bookService.getBookReviews(any(), any(), eq("calificacion"), eq("abc"), eq(5)))
+                .willReturn(new CursorPageDTO<>(List.of(review), 5, true, "def"));
+
+        ResultActions response = mockMvc.perform(get("/libros/1/resenas?sort=calificacion&cursor=abc&size=5"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].username").value("Usuario"))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    /**
+     * Método de prueba. Devolver las reseñas de un libro sin usuario autenticado
+     */
+    @Test
+    public void BookController_GetBookReviews_Forbidden() throws Exception {
+        given(userService.getAuthenticatedUser()).willReturn(null);
+
+        ResultActions response = mockMvc.perform(get("/libros/1/resenas"));
+
+        response.andExpect(status().isForbidden());
+    }
+
     /**
      * Método de prueba. Devolver los libros escritos por un autor registrado
      */
@@ -291,7 +357,8 @@ public class BookControllerTests {
 
         ResultActions response = mockMvc.perform(get("/libros/generos"));
 
-        response.andExpect(status().isOk());
+        response.andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"));
     }
 
     /**
@@ -300,7 +367,7 @@ public class BookControllerTests {
     @Test
     public void BookController_GetDeletedBooks_ReturnBooks() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(bookService.getDeletedBooks(anyInt(), anyInt(), any())).willReturn(booksPage);
+        given(bookService.getDeletedBooks(anyInt(), anyInt())).willReturn(booksPage);
 
         ResultActions response = mockMvc.perform(get("/libros/desactivados"));
 
@@ -321,7 +388,8 @@ public class BookControllerTests {
 
         ResultActions response = mockMvc.perform(get("/libros/colecciones"));
 
-        response.andExpect(status().isOk());
+        response.andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"));
     }
 
     /**
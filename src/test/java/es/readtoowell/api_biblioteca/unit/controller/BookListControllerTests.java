@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import es.readtoowell.api_biblioteca.config.security.JwtFilter;
 import es.readtoowell.api_biblioteca.controller.book.BookListController;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.BookListSummaryDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDetailsDTO;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.service.book.BookListService;
@@ -29,6 +30,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -49,17 +51,21 @@ public class BookListControllerTests {
     @Autowired
     private ObjectMapper objectMapper;
 
-    private Page<BookListDTO> listsPage;
-    private List<BookListDTO> listsList;
+    private Page<BookListSummaryDTO> listsPage;
+    private List<BookListSummaryDTO> listsList;
     private BookListDTO list;
 
     @BeforeEach
     public void init() {
         listsList = new ArrayList<>();
         list = new BookListDTO();
-        listsList.add(list);
-        listsList.add(list);
-        listsList.add(list);
+        BookListSummaryDTO summary = new BookListSummaryDTO();
+        summary.setId(1L);
+        summary.setBookCount(2);
+        summary.setCovers(List.of("portada1.jpg", "portada2.jpg"));
+        listsList.add(summary);
+        listsList.add(summary);
+        listsList.add(summary);
 
         listsPage = new PageImpl<>(listsList);
     }
@@ -74,7 +80,10 @@ public class BookListControllerTests {
 
         ResultActions response = mockMvc.perform(get("/listas"));
 
-        response.andExpect(status().isOk());
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].bookCount").value(2))
+                .andExpect(jsonPath("$.content[0].covers[1]").value("portada2.jpg"))
+                .andExpect(jsonPath("$.content[0].books").doesNotExist());
     }
 
     /**
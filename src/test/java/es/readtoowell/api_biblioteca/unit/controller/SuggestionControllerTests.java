@@ -104,7 +104,7 @@ public class SuggestionControllerTests {
     @Test
     public void SuggestionController_UpdateStatusSuggestion_ReturnUpdated() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(suggestionService.updateStatusSuggestion(any(), anyInt(), any())).willReturn(suggestionDTO);
+        given(suggestionService.updateStatusSuggestion(any(), anyInt())).willReturn(suggestionDTO);
 
         ResultActions response = mockMvc.perform(put("/sugerencias/1?newStatus=0"));
 
@@ -117,7 +117,7 @@ public class SuggestionControllerTests {
     @Test
     public void SuggestionController_GetAllSuggestions_ReturnSuggestions() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(suggestionService.getAllSuggestions(anyInt(), anyInt(), any())).willReturn(suggestionsPage);
+        given(suggestionService.getAllSuggestions(anyInt(), anyInt())).willReturn(suggestionsPage);
 
         ResultActions response = mockMvc.perform(get("/sugerencias"));
 
@@ -130,7 +130,7 @@ public class SuggestionControllerTests {
     @Test
     public void SuggestionController_GetSuggestionsWithStatus_ReturnSuggestions() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(suggestionService.getSuggestionsWithStatus(anyInt(), anyInt(), anyInt(), any())).willReturn(suggestionsPage);
+        given(suggestionService.getSuggestionsWithStatus(anyInt(), anyInt(), anyInt())).willReturn(suggestionsPage);
 
         ResultActions response = mockMvc.perform(get("/sugerencias/estado?status=0"));
 
@@ -143,7 +143,7 @@ public class SuggestionControllerTests {
     @Test
     public void SuggestionController_GetSuggestion_ReturnSuggestion() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(suggestionService.getSuggestion(any(), any())).willReturn(suggestionDTO);
+        given(suggestionService.getSuggestion(any())).willReturn(suggestionDTO);
 
         ResultActions response = mockMvc.perform(get("/sugerencias/1"));
 
@@ -157,7 +157,9 @@ public class SuggestionControllerTests {
     public void SuggestionController_UnathenticatedUser() throws Exception {
         given(userService.getAuthenticatedUser()).willReturn(null);
 
-        ResultActions response = mockMvc.perform(get("/sugerencias/1"));
+        ResultActions response = mockMvc.perform(post("/sugerencias/enviar-sugerencia")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(suggestionDTO)));
 
         response.andExpect(status().isForbidden());
     }
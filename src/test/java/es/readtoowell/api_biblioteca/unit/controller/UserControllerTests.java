@@ -3,6 +3,8 @@ package es.readtoowell.api_biblioteca.unit.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import es.readtoowell.api_biblioteca.config.security.JwtFilter;
 import es.readtoowell.api_biblioteca.controller.user.UserController;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.DTO.user.FollowCountsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UpdateProfileDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserFavoritesDTO;
@@ -28,6 +30,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -238,6 +241,40 @@ public class UserControllerTests {
         response.andExpect(status().isOk());
     }
 
+    /**
+     * Método de prueba. Devolver los seguidores de un usuario con paginación por cursor
+     */
+    @Test
+    public void UserController_GetFollowersByCursor_ReturnUsers() throws Exception {
+        given(userService.getAuthenticatedUser()).willReturn(new User());
+        given(userService.getFollowers(any(), anyString(), anyInt()))
+                .willReturn(new CursorPageDTO<>(usersList, 3, true, "Mw"));
+
+        ResultActions response = mockMvc.perform(get("/usuarios/1/seguidores")
+                .param("cursor", "")
+                .param("size", "3"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("Mw"));
+    }
+
+    /**
+     * Método de prueba. Devolver los contadores de seguimiento de un usuario
+     */
+    @Test
+    public void UserController_GetFollowCounts_ReturnCounts() throws Exception {
+        User user = new User();
+        user.setId(2L);
+        given(userService.getAuthenticatedUser()).willReturn(user);
+        given(userService.getFollowCounts(1L, 2L)).willReturn(new FollowCountsDTO(10, 4, true));
+
+        ResultActions response = mockMvc.perform(get("/usuarios/1/seguimiento"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.followerCount").value(10))
+                .andExpect(jsonPath("$.followedByMe").value(true));
+    }
+
     /**
      * Método de prueba. Seguir a un usuario
      */
@@ -321,8 +358,7 @@ public class UserControllerTests {
      */
     @Test
     public void UserController_VerifyAdmin_ReturnBoolean() throws Exception {
-        given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(userService.verifyAdmin(any())).willReturn(false);
+        given(userService.verifyAdmin()).willReturn(false);
 
         ResultActions response = mockMvc.perform(get("/usuarios/verificar-admin"));
 
@@ -3,6 +3,7 @@ package es.readtoowell.api_biblioteca.unit.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import es.readtoowell.api_biblioteca.config.security.JwtFilter;
 import es.readtoowell.api_biblioteca.controller.library.UserLibraryBookController;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.UserLibraryBookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.YearRecapDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.RatingDTO;
@@ -22,12 +23,14 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -75,6 +78,37 @@ public class UserLibraryBookControllerTests {
         response.andExpect(status().isOk());
     }
 
+    /**
+     * Método de prueba. Devolver los libros de la biblioteca de un usuario con paginación por cursor
+     */
+    @Test
+    public void UserLibraryBookController_GetLibraryBooksByCursor_ReturnSlice() throws Exception {
+        given(userService.getAuthenticatedUser()).willReturn(new User());
+        given(libraryService.getLibraryFromUser(any(), eq("abc"), anyInt()))
+                .willReturn(new CursorPageDTO<>(List.of(new UserLibraryBookDTO()), 10, true, "siguiente"));
+
+        ResultActions response = mockMvc.perform(get("/biblioteca/todos?cursor=abc"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("siguiente"));
+    }
+
+    /**
+     * Método de prueba. Devolver los libros de la biblioteca de un usuario con un estado de lectura concreto
+     * con paginación por cursor
+     */
+    @Test
+    public void UserLibraryBookController_GetLibraryBooksByStatusAndCursor_ReturnSlice() throws Exception {
+        given(userService.getAuthenticatedUser()).willReturn(new User());
+        given(libraryService.getLibraryByStatus(any(), eq(2), eq(""), anyInt()))
+                .willReturn(new CursorPageDTO<>(List.of(), 10, false, null));
+
+        ResultActions response = mockMvc.perform(get("/biblioteca?status=2&cursor="));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     /**
      * Método de prueba. Devolver los libros de la biblioteca de un usuario con un estado de lectura concreto
      */
@@ -176,13 +210,30 @@ public class UserLibraryBookControllerTests {
         YearRecapDTO yearRecapDTO = new YearRecapDTO();
 
         given(userService.getAuthenticatedUser()).willReturn(new User());
-        given(libraryService.getYearRecap(any())).willReturn(yearRecapDTO);
+        given(libraryService.getYearRecap(any(), eq(LocalDate.now().getYear()))).willReturn(yearRecapDTO);
 
         ResultActions response = mockMvc.perform(get("/biblioteca/resumen-anual"));
 
         response.andExpect(status().isOk());
     }
 
+    /**
+     * Método de prueba. Devolver el resumen de un año anterior
+     */
+    @Test
+    public void UserLibraryBookController_GetYearRecap_PastYear() throws Exception {
+        YearRecapDTO yearRecapDTO = new YearRecapDTO();
+        yearRecapDTO.setYear(2023);
+
+        given(userService.getAuthenticatedUser()).willReturn(new User());
+        given(libraryService.getYearRecap(any(), eq(2023))).willReturn(yearRecapDTO);
+
+        ResultActions response = mockMvc.perform(get("/biblioteca/resumen-anual?year=2023"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.year").value(2023));
+    }
+
     /**
      * Método de prueba. Usuario no autenticado
      */
@@ -0,0 +1,177 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.DTO.ActivityDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.entity.Activity;
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.entity.UserStats;
+import es.readtoowell.api_biblioteca.model.enums.ActivityType;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
+import es.readtoowell.api_biblioteca.repository.activity.ActivityRepository;
+import es.readtoowell.api_biblioteca.repository.activity.FeedEntryRepository;
+import es.readtoowell.api_biblioteca.repository.book.BookListRepository;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
+import es.readtoowell.api_biblioteca.service.activity.ActivityEvent;
+import es.readtoowell.api_biblioteca.service.activity.ActivityService;
+import es.readtoowell.api_biblioteca.service.book.BookStatsService;
+import es.readtoowell.api_biblioteca.service.user.FollowService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de pruebas para el servicio de actividad de los usuarios seguidos.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ActivityServiceTests {
+    @Mock
+    private ActivityRepository activityRepository;
+    @Mock
+    private FeedEntryRepository feedRepository;
+    @Mock
+    private FollowService followService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private BookListRepository listRepository;
+    @Mock
+    private BookStatsService bookStatsService;
+    @InjectMocks
+    private ActivityService activityService;
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(activityService, "fanOutThreshold", 100);
+        ReflectionTestUtils.setField(activityService, "inboxSize", 50);
+        ReflectionTestUtils.setField(activityService, "retentionDays", 30);
+    }
+
+    @Test
+    public void ActivityService_OnActivity_FewFollowers_FansOut() {
+        when(followService.getStats(1L)).thenReturn(Optional.of(stats(1L, 10)));
+        when(activityRepository.save(any())).thenAnswer(inv -> {
+            Activity actividad = inv.getArgument(0);
+            actividad.setId(7L);
+            return actividad;
+        });
+
+        activityService.onActivity(new ActivityEvent(1L, ActivityType.RATED, 2L, null, 4.5));
+
+        ArgumentCaptor<Activity> captor = ArgumentCaptor.forClass(Activity.class);
+        verify(activityRepository).save(captor.capture());
+        assertTrue(captor.getValue().isFannedOut());
+        assertEquals(ActivityType.RATED.getValue(), captor.getValue().getType());
+        assertEquals(4.5, captor.getValue().getValue());
+        verify(feedRepository).fanOut(1L, 7L);
+    }
+
+    @Test
+    public void ActivityService_OnActivity_ManyFollowers_NotFannedOut() {
+        when(followService.getStats(1L)).thenReturn(Optional.of(stats(1L, 100)));
+        when(activityRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        activityService.onActivity(new ActivityEvent(1L, ActivityType.REVIEWED, 2L, null, 0));
+
+        ArgumentCaptor<Activity> captor = ArgumentCaptor.forClass(Activity.class);
+        verify(activityRepository).save(captor.capture());
+        assertFalse(captor.getValue().isFannedOut());
+        verify(feedRepository, never()).fanOut(anyLong(), anyLong());
+    }
+
+    @Test
+    public void ActivityService_GetFeed_MergesInboxAndPulledActivities() {
+        when(feedRepository.findInboxBefore(eq(1L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(activity(9L, 2L), activity(5L, 2L)));
+        when(followService.getFollowedWithFollowersAtLeast(1L, 100)).thenReturn(List.of(3L));
+        when(activityRepository.findNotFannedOutBefore(eq(List.of(3L)), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(activity(8L, 3L)));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(2L), user(3L)));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book(20L)));
+        when(bookStatsService.getAverageRatings(any())).thenReturn(Map.of(20L, 4.0));
+
+        CursorPageDTO<ActivityDTO> result = activityService.getFeed(1L, "", 2);
+
+        assertEquals(List.of(9L, 8L), result.getContent().stream().map(ActivityDTO::getId).toList());
+        assertEquals(3L, result.getContent().get(1).getUserId());
+        assertEquals(4.0, result.getContent().get(0).getBook().getRating());
+        assertTrue(result.isHasNext());
+        assertEquals(8L, CursorCodec.decode(result.getNextCursor(), 1).getLong(0));
+    }
+
+    @Test
+    public void ActivityService_GetFeed_LastPage_NoCursor() {
+        when(feedRepository.findInboxBefore(eq(1L), eq(8L), any(Pageable.class)))
+                .thenReturn(List.of(activity(5L, 2L)));
+        when(followService.getFollowedWithFollowersAtLeast(1L, 100)).thenReturn(List.of());
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(2L)));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book(20L)));
+        when(bookStatsService.getAverageRatings(any())).thenReturn(Map.of());
+
+        CursorPageDTO<ActivityDTO> result = activityService.getFeed(1L, CursorCodec.encode(8L), 2);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(activityRepository, never()).findNotFannedOutBefore(any(), anyLong(), any());
+    }
+
+    @Test
+    public void ActivityService_Trim_RemovesEntriesBeforeActivities() {
+        activityService.trim();
+
+        InOrder orden = inOrder(feedRepository, activityRepository);
+        orden.verify(feedRepository).deleteForActivitiesBefore(any());
+        orden.verify(activityRepository).deleteOlderThan(any());
+        orden.verify(feedRepository).trimInboxes(50);
+    }
+
+    private static UserStats stats(Long idUser, int seguidores) {
+        UserStats stats = new UserStats();
+        stats.setUserId(idUser);
+        stats.setFollowerCount(seguidores);
+        return stats;
+    }
+
+    private static Activity activity(Long id, Long idUser) {
+        Activity actividad = new Activity();
+        actividad.setId(id);
+        actividad.setUserId(idUser);
+        actividad.setType(ActivityType.STATUS_CHANGED.getValue());
+        actividad.setBookId(20L);
+        return actividad;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("usuario" + id);
+        return user;
+    }
+
+    private static Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Libro");
+        return book;
+    }
+}
@@ -9,6 +9,7 @@ import es.readtoowell.api_biblioteca.model.DTO.user.UserDTO;
 import es.readtoowell.api_biblioteca.model.entity.User;
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import es.readtoowell.api_biblioteca.service.auth.AuthenticationService;
+import es.readtoowell.api_biblioteca.service.auth.PasswordHashingService;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,13 +18,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -36,7 +43,7 @@ public class AuthenticationServiceTests {
     @Mock
     private JwtUtil jwtUtil;
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     @Mock
     private UserMapper userMapper;
     @InjectMocks
@@ -60,6 +67,8 @@ public class AuthenticationServiceTests {
 
         user = new User();
         user.setEmail("email");
+
+        ReflectionTestUtils.setField(authenticationService, "taskExecutor", (Executor) Runnable::run);
     }
 
     /**
@@ -68,11 +77,12 @@ public class AuthenticationServiceTests {
     @Test
     public void AuthenticationService_Register_ReturnsAuthenticatedUserDto() {
         when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(passwordHashingService.encode("Contraseña123_")).thenReturn(CompletableFuture.completedFuture("hash"));
         when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(jwtUtil.generateToken(any())).thenReturn("Token para usuario");
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("Token para usuario");
         when(userMapper.toDTO(any())).thenReturn(new UserDTO());
 
-        AuthenticatedUserDTO result = authenticationService.register(registerDTO);
+        AuthenticatedUserDTO result = authenticationService.register(registerDTO).join();
 
         assertNotNull(result);
         assertNotNull(result.getToken());
@@ -117,15 +127,37 @@ public class AuthenticationServiceTests {
     @Test
     public void AuthenticationService_Login_ReturnsAuthenticatedUserDto() {
         when(userRepository.findByEmail(any())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(any(), any())).thenReturn(true);
-        when(jwtUtil.generateToken(any())).thenReturn("Token para usuario");
+        when(passwordHashingService.matches(any(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("Token para usuario");
         when(userMapper.toDTO(any())).thenReturn(new UserDTO());
 
-        AuthenticatedUserDTO result = authenticationService.login(loginDTO);
+        AuthenticatedUserDTO result = authenticationService.login(loginDTO).join();
 
         assertNotNull(result);
         assertNotNull(result.getToken());
         assertNotNull(result.getUser());
+        verify(passwordHashingService, never()).encode(any());
+    }
+
+    /**
+     * Método de prueba. Iniciar sesión con una contraseña cuyo hash usa un factor de trabajo antiguo.
+     */
+    @Test
+    public void AuthenticationService_Login_RehashesOutdatedPassword() {
+        user.setId(1L);
+        user.setPassword("hash antiguo");
+
+        when(userRepository.findByEmail(any())).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("Contraseña123_", "hash antiguo"))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordHashingService.needsRehash("hash antiguo")).thenReturn(true);
+        when(passwordHashingService.encode("Contraseña123_")).thenReturn(CompletableFuture.completedFuture("hash nuevo"));
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("Token para usuario");
+        when(userMapper.toDTO(any())).thenReturn(new UserDTO());
+
+        authenticationService.login(loginDTO).join();
+
+        verify(userRepository).updatePassword(1L, "hash nuevo");
     }
 
     /**
@@ -149,13 +181,14 @@ public class AuthenticationServiceTests {
     @Test
     public void AuthenticationService_Login_IncorrectPassword() {
         when(userRepository.findByEmail(any())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(any(), any())).thenReturn(false);
+        when(passwordHashingService.matches(any(), any())).thenReturn(CompletableFuture.completedFuture(false));
 
-        ValidationException exception = Assertions.assertThrows(
-                ValidationException.class,
-                () -> authenticationService.login(loginDTO)
+        CompletionException exception = Assertions.assertThrows(
+                CompletionException.class,
+                () -> authenticationService.login(loginDTO).join()
         );
 
-        assertEquals("La contraseña es incorrecta", exception.getMessage());
+        assertInstanceOf(ValidationException.class, exception.getCause());
+        assertEquals("La contraseña es incorrecta", exception.getCause().getMessage());
     }
 }
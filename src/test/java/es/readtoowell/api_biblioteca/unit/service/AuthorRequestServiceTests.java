@@ -2,10 +2,14 @@ package es.readtoowell.api_biblioteca.unit.service;
 
 import es.readtoowell.api_biblioteca.mapper.AuthorRequestMapper;
 import es.readtoowell.api_biblioteca.model.DTO.AuthorRequestDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.DTO.RequestBookDTO;
 import es.readtoowell.api_biblioteca.model.entity.AuthorRequest;
 import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.enums.Role;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.user.AuthorRequestRepository;
-import es.readtoowell.api_biblioteca.repository.user.RequestBookRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import es.readtoowell.api_biblioteca.service.user.AuthorRequestService;
 import es.readtoowell.api_biblioteca.service.user.UserService;
 import jakarta.persistence.EntityNotFoundException;
@@ -20,7 +24,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.access.AccessDeniedException;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,7 +34,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * Clase de pruebas para el servicio de solicitudes de autor.
@@ -40,9 +46,9 @@ public class AuthorRequestServiceTests {
     @Mock
     private AuthorRequestMapper requestMapper;
     @Mock
-    private RequestBookRepository requestBookRepository;
-    @Mock
     private UserService userService;
+    @Mock
+    private UserRepository userRepository;
     @InjectMocks
     private AuthorRequestService requestService;
 
@@ -69,14 +75,21 @@ public class AuthorRequestServiceTests {
     public void AuthorRequestService_SendAuthorRequest_ReturnAuthorRequestDto() {
         when(requestRepository.existsByUserIdAndStatusIn(any(), anyList())).thenReturn(false);
         when(requestRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(requestBookRepository.saveAll(any())).thenReturn(null);
-        when(requestRepository.findByIdWithBooks(any())).thenReturn(Optional.of(request));
         when(requestMapper.toDTO(any())).thenReturn(requestDTO);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        RequestBookDTO libro = new RequestBookDTO();
+        libro.setTitle(" Título ");
+        libro.setPublicationYear(2020);
+        requestDTO.setBooks(List.of(libro));
 
         AuthorRequestDTO result = requestService.sendAuthorRequest(user, requestDTO);
 
         assertNotNull(result);
         assertEquals(requestDTO.getName(), result.getName());
+        verify(requestRepository, times(1)).save(argThat(guardada -> guardada.getBooks().size() == 1
+                && guardada.getBooks().get(0).getRequest() == guardada
+                && guardada.getBooks().get(0).getTitle().equals("Título")));
+        verify(requestRepository, never()).findByIdWithBooks(any());
     }
 
     @Test
@@ -93,14 +106,13 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_UpdateStatusRequest_ReturnAuthorRequestDto() {
-        user.setRole(2);
         request.setStatus(0);
         when(requestRepository.findByIdWithBooks(any())).thenReturn(Optional.of(request));
         when(requestRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         requestDTO.setStatus(2);
         when(requestMapper.toDTO(any())).thenReturn(requestDTO);
 
-        AuthorRequestDTO result = requestService.updateStatusRequest(1L, 2, user);
+        AuthorRequestDTO result = requestService.updateStatusRequest(1L, 2);
 
         assertNotNull(result);
         assertNotEquals(result.getStatus(), 0);
@@ -109,11 +121,9 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_UpdateStatusRequest_InvalidStatus() {
-        user.setRole(2);
-
         ValidationException exception = Assertions.assertThrows(
                 ValidationException.class,
-                () -> requestService.updateStatusRequest(1L, 100, user)
+                () -> requestService.updateStatusRequest(1L, 100)
         );
 
         assertEquals("El nuevo estado de la solicitud es inválido.", exception.getMessage());
@@ -121,24 +131,23 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_UpdateStatusRequest_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = Assertions.assertThrows(
                 AccessDeniedException.class,
-                () -> requestService.updateStatusRequest(1L, 1, user)
+                () -> MethodSecurity.secured(requestService).updateStatusRequest(1L, 1)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void AuthorRequestService_UpdateStatusRequest_UnexistentRequest() {
-        user.setRole(2);
         when(requestRepository.findByIdWithBooks(any())).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = Assertions.assertThrows(
                 EntityNotFoundException.class,
-                () -> requestService.updateStatusRequest(1L, 1, user)
+                () -> requestService.updateStatusRequest(1L, 1)
         );
 
         assertEquals("La solicitud con ID 1 no existe.", exception.getMessage());
@@ -146,12 +155,11 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_GetAllRequests_ReturnRequests() {
-        user.setRole(2);
         Page<AuthorRequest> page = new PageImpl<>(List.of(request));
         when(requestRepository.findAll(any(Pageable.class))).thenReturn(page);
         when(requestMapper.toDTO(any())).thenReturn(requestDTO);
 
-        Page<AuthorRequestDTO> result = requestService.getAllRequests(0, 5, user);
+        Page<AuthorRequestDTO> result = requestService.getAllRequests(0, 5);
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.getContent().size());
@@ -159,24 +167,53 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_GetAllRequests_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = Assertions.assertThrows(
                 AccessDeniedException.class,
-                () -> requestService.getAllRequests(0, 10, user)
+                () -> MethodSecurity.secured(requestService).getAllRequests(0, 10)
+        );
+
+        assertEquals("Access Denied", exception.getMessage());
+    }
+
+    @Test
+    public void AuthorRequestService_GetAllRequestsByCursor_ReturnFirstSlice() {
+        request.setId(2L);
+        AuthorRequest sinEnviar = new AuthorRequest();
+        sinEnviar.setId(9L);
+
+        when(requestRepository.findSentBefore(null, CursorCodec.MAX_DATE, Long.MAX_VALUE, PageRequest.ofSize(5)))
+                .thenReturn(new SliceImpl<>(List.of(request), PageRequest.ofSize(5), false));
+        // Las solicitudes sin fecha completan la porción
+        when(requestRepository.findUnsentBefore(null, Long.MAX_VALUE, PageRequest.ofSize(4)))
+                .thenReturn(new SliceImpl<>(List.of(sinEnviar), PageRequest.ofSize(4), false));
+        when(requestMapper.toDTO(any(AuthorRequest.class))).thenReturn(requestDTO);
+
+        CursorPageDTO<AuthorRequestDTO> result = requestService.getAllRequests("", 5);
+
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void AuthorRequestService_GetRequestsWithStatusByCursor_InvalidStatus() {
+        ValidationException exception = Assertions.assertThrows(
+                ValidationException.class,
+                () -> requestService.getRequestsWithStatus("", 10, 5)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("El estado de la solicitud es inválido.", exception.getMessage());
     }
 
     @Test
     public void AuthorRequestService_GetRequestsWithStatus_ReturnRequests() {
-        user.setRole(2);
         Page<AuthorRequest> page = new PageImpl<>(List.of(request));
         when(requestRepository.findByStatus(anyInt(), any(Pageable.class))).thenReturn(page);
         when(requestMapper.toDTO(any())).thenReturn(requestDTO);
 
-        Page<AuthorRequestDTO> result = requestService.getRequestsWithStatus(0, 5, 0, user);
+        Page<AuthorRequestDTO> result = requestService.getRequestsWithStatus(0, 5, 0);
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.getContent().size());
@@ -184,11 +221,9 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_GetRequestsWithStatus_InvalidStatus() {
-        user.setRole(2);
-
         ValidationException exception = Assertions.assertThrows(
                 ValidationException.class,
-                () -> requestService.getRequestsWithStatus(0, 10, 20, user)
+                () -> requestService.getRequestsWithStatus(0, 10, 20)
         );
 
         assertEquals("El estado de la solicitud es inválido.", exception.getMessage());
@@ -196,23 +231,22 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_GetRequestsWithStatus_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = Assertions.assertThrows(
                 AccessDeniedException.class,
-                () -> requestService.getRequestsWithStatus(0, 10, 2, user)
+                () -> MethodSecurity.secured(requestService).getRequestsWithStatus(0, 10, 2)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void AuthorRequestService_GetRequest_ReturnAuthorRequestDto() {
-        user.setRole(2);
         when(requestRepository.findByIdWithBooks(any())).thenReturn(Optional.of(request));
         when(requestMapper.toDTO(any())).thenReturn(requestDTO);
 
-        AuthorRequestDTO result = requestService.getRequest(1L, user);
+        AuthorRequestDTO result = requestService.getRequest(1L);
 
         assertNotNull(result);
         assertEquals(requestDTO.getName(), result.getName());
@@ -220,24 +254,23 @@ public class AuthorRequestServiceTests {
 
     @Test
     public void AuthorRequestService_GetRequest_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = Assertions.assertThrows(
                 AccessDeniedException.class,
-                () -> requestService.getRequest(1L, user)
+                () -> MethodSecurity.secured(requestService).getRequest(1L)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void AuthorRequestService_GetRequest_UnexistentRequest() {
-        user.setRole(2);
         when(requestRepository.findByIdWithBooks(any())).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = Assertions.assertThrows(
                 EntityNotFoundException.class,
-                () -> requestService.getRequest(1L, user)
+                () -> requestService.getRequest(1L)
         );
 
         assertEquals("La solicitud con ID 1 no existe.", exception.getMessage());
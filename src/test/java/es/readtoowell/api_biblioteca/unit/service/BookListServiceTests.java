@@ -6,15 +6,22 @@ import es.readtoowell.api_biblioteca.mapper.GenreMapper;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListDetailsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookListItemDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.BookListSummaryDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
 import es.readtoowell.api_biblioteca.model.entity.id.BookListItemId;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.BookListItemRepository;
 import es.readtoowell.api_biblioteca.repository.book.BookListRepository;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
 import es.readtoowell.api_biblioteca.repository.book.GenreRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
+import es.readtoowell.api_biblioteca.model.enums.ActivityType;
+import es.readtoowell.api_biblioteca.model.projection.BookListSummaryRow;
+import es.readtoowell.api_biblioteca.service.activity.ActivityEvent;
 import es.readtoowell.api_biblioteca.service.book.BookListService;
+import es.readtoowell.api_biblioteca.service.book.RecommendationCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,15 +29,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Clase de pruebas para el servicio de listas de libros.
@@ -51,6 +59,12 @@ public class BookListServiceTests {
     private BookListItemRepository bookItemRepository;
     @Mock
     private BookListItemMapper bookItemMapper;
+    @Mock
+    private RecommendationCache recommendationCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private UserRepository userRepository;
     @InjectMocks
     private BookListService listService;
 
@@ -60,6 +74,8 @@ public class BookListServiceTests {
     private BookListItemDTO bookItemDTO;
     private Genre genre;
     private GenreDTO genreDTO;
+    private BookListSummaryRow summaryRow;
+    private BookListSummaryDTO summaryDTO;
 
     @BeforeEach
     public void setup() {
@@ -94,6 +110,13 @@ public class BookListServiceTests {
         genreDTO = new GenreDTO();
         genreDTO.setId(1L);
         genreDTO.setName("Fantasía");
+
+        summaryRow = mock(BookListSummaryRow.class);
+        summaryDTO = new BookListSummaryDTO();
+        summaryDTO.setId(1L);
+        summaryDTO.setName("Lista de prueba");
+
+        ReflectionTestUtils.setField(listService, "summaryCovers", 4);
     }
 
     @Test
@@ -102,15 +125,16 @@ public class BookListServiceTests {
         int size = 10;
         Long idUser = 1L;
         Pageable pageable = PageRequest.of(page, size);
-        Page<BookList> bookListPage = new PageImpl<>(List.of(bookList));
 
-        when(listRepository.findByUserId(idUser, pageable)).thenReturn(bookListPage);
-        when(listMapper.toDTO(bookList)).thenReturn(bookListDTO);
+        when(listRepository.findSummariesByUserId(idUser, 0L, true, 4, pageable))
+                .thenReturn(new PageImpl<>(List.of(summaryRow)));
+        when(listMapper.toSummaryDTO(summaryRow)).thenReturn(summaryDTO);
 
-        Page<BookListDTO> result = listService.getListsByUser(idUser, page, size);
+        Page<BookListSummaryDTO> result = listService.getListsByUser(idUser, page, size);
 
         assertEquals(1, result.getTotalElements());
-        assertEquals(bookListDTO.getId(), result.getContent().get(0).getId());
+        assertEquals(summaryDTO.getId(), result.getContent().get(0).getId());
+        verify(listMapper, never()).toDTO(any());
     }
 
     @Test
@@ -164,12 +188,53 @@ public class BookListServiceTests {
         assertEquals("No tienes permiso para consultar esta lista.", exception.getMessage());
     }
 
+    @Test
+    public void BookListService_GetListDetailsByCursor_ReturnDetailsWithSlice() {
+        Long idUser = 1L, idList = 1L;
+        Book book = new Book();
+        book.setId(4L);
+        bookItem.setBook(book);
+        Date fechaAñadido = new Date(1700000000000L);
+        bookItem.setDateAdded(fechaAñadido);
+        bookList.getUser().setId(idUser);
+
+        when(listRepository.findByIdWithRelations(idList)).thenReturn(Optional.of(bookList));
+        when(bookItemRepository.findByListIdAddedBefore(idList, CursorCodec.MAX_DATE, Long.MAX_VALUE,
+                PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(bookItem), PageRequest.ofSize(1), true));
+        when(bookItemMapper.toDTO(bookItem)).thenReturn(bookItemDTO);
+        when(genreMapper.toDTO(genre)).thenReturn(genreDTO);
+
+        BookListDetailsDTO result = listService.getListDetails(idUser, idList, "", 1);
+
+        assertNull(result.getBooks());
+        assertEquals(1, result.getBooksSlice().getContent().size());
+        assertEquals(CursorCodec.encode(fechaAñadido, 4L), result.getBooksSlice().getNextCursor());
+    }
+
+    @Test
+    public void BookListService_GetListDetailsByCursor_UserIsNotOwner() {
+        User otherUser = new User();
+        otherUser.setId(2L);
+        bookList.setUser(otherUser);
+
+        when(listRepository.findByIdWithRelations(100L)).thenReturn(Optional.of(bookList));
+
+        AccessDeniedException exception = assertThrows(
+                AccessDeniedException.class,
+                () -> listService.getListDetails(1L, 100L, "", 10)
+        );
+
+        assertEquals("No tienes permiso para consultar esta lista.", exception.getMessage());
+    }
+
     @Test
     public void BookListService_CreateList_ReturnBookListDto() {
         User user = new User();
         user.setId(1L);
         List<Long> genreIds = List.of(1L);
 
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(genreRepository.findAllById(genreIds)).thenReturn(List.of(genre));
         when(listRepository.save(any(BookList.class))).thenAnswer(invocation -> {
             BookList saved = invocation.getArgument(0);
@@ -293,14 +358,37 @@ public class BookListServiceTests {
 
         when(listRepository.findByIdWithRelations(idList)).thenReturn(Optional.of(bookList));
         when(bookRepository.findById(idBook)).thenReturn(Optional.of(book));
-        when(listRepository.save(any())).thenReturn(bookList);
+        when(bookItemRepository.insertIfAbsent(eq(idList), eq(idBook), any())).thenReturn(1);
         when(listMapper.toDTO(bookList)).thenReturn(bookListDTO);
 
         BookListDTO result = listService.addBookToList(idUser, idList, idBook);
 
         assertNotNull(result);
         assertEquals(bookListDTO, result);
-        verify(listRepository).save(any());
+        verify(listRepository).addToBookCount(idList, 1);
+        verify(listRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(new ActivityEvent(idUser, ActivityType.ADDED_TO_LIST, idBook, idList, 0));
+    }
+
+    @Test
+    public void BookListService_AddBookToList_AlreadyInList_CountUnchanged() {
+        Long idList = 1L;
+        Long idBook = 2L;
+
+        bookList.getUser().setId(1L);
+
+        Book book = new Book();
+        book.setId(idBook);
+
+        when(listRepository.findByIdWithRelations(idList)).thenReturn(Optional.of(bookList));
+        when(bookRepository.findById(idBook)).thenReturn(Optional.of(book));
+        when(bookItemRepository.insertIfAbsent(eq(idList), eq(idBook), any())).thenReturn(0);
+        when(listMapper.toDTO(bookList)).thenReturn(bookListDTO);
+
+        listService.addBookToList(1L, idList, idBook);
+
+        verify(listRepository, never()).addToBookCount(anyLong(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -363,14 +451,29 @@ public class BookListServiceTests {
         bookList.setBooks(new ArrayList<>(Set.of(item)));
 
         when(listRepository.findByIdWithRelations(idList)).thenReturn(Optional.of(bookList));
-        when(listRepository.save(any())).thenReturn(bookList);
+        when(bookItemRepository.deleteByKey(idList, idBook)).thenReturn(1);
         when(listMapper.toDTO(bookList)).thenReturn(bookListDTO);
 
         BookListDTO result = listService.deleteBookFromList(idUser, idList, idBook);
 
         assertNotNull(result);
         assertEquals(bookListDTO, result);
-        verify(listRepository).save(any());
+        verify(listRepository).addToBookCount(idList, -1);
+        verify(recommendationCache).invalidateList(idUser, idList);
+    }
+
+    @Test
+    public void BookListService_DeleteBookFromList_NotInList_CountUnchanged() {
+        bookList.getUser().setId(1L);
+
+        when(listRepository.findByIdWithRelations(1L)).thenReturn(Optional.of(bookList));
+        when(bookItemRepository.deleteByKey(1L, 2L)).thenReturn(0);
+        when(listMapper.toDTO(bookList)).thenReturn(bookListDTO);
+
+        listService.deleteBookFromList(1L, 1L, 2L);
+
+        verify(listRepository, never()).addToBookCount(anyLong(), anyInt());
+        verifyNoInteractions(recommendationCache);
     }
 
     @Test
@@ -404,19 +507,19 @@ public class BookListServiceTests {
         Long idUser = 1L;
         Long idBook = 200L;
         Pageable pageable = PageRequest.of(0, 10);
-        Page<BookList> pageResult = new PageImpl<>(List.of(bookList));
         Book book = new Book();
         book.setId(idBook);
 
         when(bookRepository.findById(idBook)).thenReturn(Optional.of(book));
-        when(bookItemRepository.findAllListsByUserIdAndBookIdNotIn(idUser, idBook, pageable)).thenReturn(pageResult);
-        when(listMapper.toDTO(bookList)).thenReturn(bookListDTO);
+        when(listRepository.findSummariesByUserId(idUser, idBook, true, 4, pageable))
+                .thenReturn(new PageImpl<>(List.of(summaryRow)));
+        when(listMapper.toSummaryDTO(summaryRow)).thenReturn(summaryDTO);
 
-        Page<BookListDTO> result = listService.getListsWithoutBook(idBook, idUser, 0, 10);
+        Page<BookListSummaryDTO> result = listService.getListsWithoutBook(idBook, idUser, 0, 10);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        assertEquals(bookListDTO, result.getContent().get(0));
+        assertEquals(summaryDTO, result.getContent().get(0));
     }
 
     @Test
@@ -435,29 +538,36 @@ public class BookListServiceTests {
 
     @Test
     public void BookListService_GetAllListsExcludingEmpty_ReturnLists() {
-        bookList.setBooks(List.of(new BookListItem()));
-        bookList.setGenres(Set.of());
+        when(listRepository.findSummariesByUserId(1L, 0L, false, 4, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of(summaryRow)));
+        when(listMapper.toSummaryDTO(summaryRow)).thenReturn(summaryDTO);
 
-        when(listRepository.findAllByUserId(1L)).thenReturn(List.of(bookList));
-        when(listMapper.toDTO(bookList)).thenReturn(bookListDTO);
-
-        List<BookListDTO> result = listService.getAllListsExcludingEmpty(1L);
+        List<BookListSummaryDTO> result = listService.getAllListsExcludingEmpty(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals(bookListDTO, result.get(0));
+        assertEquals(summaryDTO, result.get(0));
     }
 
     @Test
     public void BookListService_GetAllListsExcludingEmpty_AllListsAreEmpty() {
-        bookList.setBooks(List.of());
-        bookList.setGenres(Set.of());
+        when(listRepository.findSummariesByUserId(1L, 0L, false, 4, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of()));
 
-        when(listRepository.findAllByUserId(1L)).thenReturn(List.of(bookList));
-
-        List<BookListDTO> result = listService.getAllListsExcludingEmpty(1L);
+        List<BookListSummaryDTO> result = listService.getAllListsExcludingEmpty(1L);
 
         assertNotNull(result);
         assertEquals(0, result.size());
     }
+
+    @Test
+    public void BookListService_Initialize_RebuildsOnlyUncountedLists() {
+        when(listRepository.existsUncountedList()).thenReturn(false, true);
+
+        listService.initialize();
+        verify(listRepository, never()).rebuildBookCounts();
+
+        listService.initialize();
+        verify(listRepository).rebuildBookCounts();
+    }
 }
@@ -0,0 +1,179 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.model.entity.Collection;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import es.readtoowell.api_biblioteca.service.book.BookSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Clase de pruebas para el servicio de búsqueda de libros.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BookSearchServiceTests {
+    @Mock
+    private BookRepository bookRepository;
+    @InjectMocks
+    private BookSearchService bookSearchService;
+
+    @BeforeEach
+    public void init() {
+        when(bookRepository.findSearchDocuments()).thenReturn(List.of());
+        bookSearchService.rebuildIndex();
+
+        Collection coleccion = new Collection();
+        coleccion.setId(1L);
+        coleccion.setName("El Señor de los Anillos");
+
+        bookSearchService.indexBook(book(1L, "La Comunidad del Anillo", "J. R. R. Tolkien", coleccion, 423, 1954));
+        bookSearchService.indexBook(book(2L, "El Hobbit", "J. R. R. Tolkien", null, 310, 1937));
+        bookSearchService.indexBook(book(3L, "Canción de hielo y fuego", "George R. R. Martin", null, 694, 1996));
+        bookSearchService.indexBook(book(4L, "Los anillos de Saturno", "W. G. Sebald", null, 296, 1995));
+    }
+
+    private Book book(Long id, String title, String author, Collection collection, int pages, int year) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setCollection(collection);
+        book.setPageNumber(pages);
+        book.setPublicationYear(year);
+        book.setActive(true);
+        return book;
+    }
+
+    @Test
+    public void BookSearchService_RebuildIndex_IsReady() {
+        assertTrue(bookSearchService.isReady());
+    }
+
+    @Test
+    public void BookSearchService_Search_IgnoresAccentsAndCase() {
+        Page<Long> result = bookSearchService.search("CANCION", null, null, null, null,
+                false, PageRequest.of(0, 10));
+
+        assertEquals(List.of(3L), result.getContent());
+    }
+
+    @Test
+    public void BookSearchService_Search_MatchesPluralAndSingular() {
+        Page<Long> result = bookSearchService.search("anillos", null, null, null, null,
+                false, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 4L), result.getContent());
+    }
+
+    @Test
+    public void BookSearchService_Search_MatchesPrefix() {
+        Page<Long> result = bookSearchService.search("tolk", null, null, null, null,
+                false, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L), result.getContent());
+    }
+
+    @Test
+    public void BookSearchService_Search_RequiresAllTerms() {
+        Page<Long> result = bookSearchService.search("hobbit tolkien", null, null, null, null,
+                false, PageRequest.of(0, 10));
+
+        assertEquals(List.of(2L), result.getContent());
+    }
+
+    @Test
+    public void BookSearchService_Search_Ranked_TitleBeforeCollection() {
+        Page<Long> result = bookSearchService.search("señor anillos", null, null, null, null,
+                true, PageRequest.of(0, 10));
+
+        // Solo el libro 1 pertenece a la colección, que contiene ambos términos
+        assertEquals(List.of(1L), result.getContent());
+
+        Page<Long> ranked = bookSearchService.search("anillo", null, null, null, null,
+                true, PageRequest.of(0, 10));
+
+        // El libro 1 coincide en título y colección, el libro 4 solo en el título
+        assertEquals(List.of(1L, 4L), ranked.getContent());
+    }
+
+    @Test
+    public void BookSearchService_Search_FiltersByRanges() {
+        Page<Long> result = bookSearchService.search(null, 300, 500, 1900, 1960,
+                false, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L), result.getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    public void BookSearchService_Search_Paginates() {
+        Page<Long> result = bookSearchService.search(null, null, null, null, null,
+                false, PageRequest.of(1, 3));
+
+        assertEquals(List.of(4L), result.getContent());
+        assertEquals(4, result.getTotalElements());
+    }
+
+    @Test
+    public void BookSearchService_IndexBook_InactiveBookIsRemoved() {
+        Book hobbit = book(2L, "El Hobbit", "J. R. R. Tolkien", null, 310, 1937);
+        hobbit.delete();
+
+        bookSearchService.indexBook(hobbit);
+        Page<Long> result = bookSearchService.search("hobbit", null, null, null, null,
+                false, PageRequest.of(0, 10));
+
+        assertTrue(result.getContent().isEmpty());
+    }
+
+    @Test
+    public void BookSearchService_RemoveBook_NotReturned() {
+        bookSearchService.removeBook(3L);
+        Page<Long> result = bookSearchService.search("martin", null, null, null, null,
+                false, PageRequest.of(0, 10));
+
+        assertTrue(result.getContent().isEmpty());
+    }
+
+    @Test
+    public void BookSearchService_SearchAfter_ContinuesFromLastHit() {
+        Slice<BookSearchService.SearchHit> first = bookSearchService.searchAfter(null, null, null, null, null,
+                false, null, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), first.getContent().stream().map(BookSearchService.SearchHit::bookId).toList());
+        assertTrue(first.hasNext());
+
+        Slice<BookSearchService.SearchHit> second = bookSearchService.searchAfter(null, null, null, null, null,
+                false, first.getContent().get(2), 3);
+
+        assertEquals(List.of(4L), second.getContent().stream().map(BookSearchService.SearchHit::bookId).toList());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    public void BookSearchService_SearchAfter_Ranked_KeepsRelevanceOrder() {
+        Slice<BookSearchService.SearchHit> first = bookSearchService.searchAfter("anillo", null, null, null, null,
+                true, null, 1);
+
+        assertEquals(1L, first.getContent().get(0).bookId());
+        assertTrue(first.hasNext());
+
+        Slice<BookSearchService.SearchHit> second = bookSearchService.searchAfter("anillo", null, null, null, null,
+                true, first.getContent().get(0), 1);
+
+        assertEquals(4L, second.getContent().get(0).bookId());
+        assertFalse(second.hasNext());
+    }
+}
@@ -1,18 +1,29 @@
 package es.readtoowell.api_biblioteca.unit.service;
 
+import es.readtoowell.api_biblioteca.config.CompositeQueryExecutor;
 import es.readtoowell.api_biblioteca.mapper.BookMapper;
 import es.readtoowell.api_biblioteca.mapper.CollectionMapper;
 import es.readtoowell.api_biblioteca.mapper.GenreMapper;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.BookDetailsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.CollectionDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.ReviewDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.AuthorDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
+import es.readtoowell.api_biblioteca.model.enums.Role;
+import es.readtoowell.api_biblioteca.model.projection.BookDetailsRow;
+import es.readtoowell.api_biblioteca.model.projection.ReviewRow;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.*;
 import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
+import es.readtoowell.api_biblioteca.service.book.BookSearchService;
 import es.readtoowell.api_biblioteca.service.book.BookService;
+import es.readtoowell.api_biblioteca.service.book.BookSimilarityService;
+import es.readtoowell.api_biblioteca.service.book.GenreIndex;
+import es.readtoowell.api_biblioteca.service.book.ReferenceDataCache;
 import es.readtoowell.api_biblioteca.service.book.SuggestionService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
@@ -21,17 +32,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -52,8 +71,6 @@ public class BookServiceTests {
     @Mock
     private UserLibraryBookRepository libraryRepository;
     @Mock
-    private BookListItemRepository listItemRepository;
-    @Mock
     private UserRepository userRepository;
     @Mock
     private CollectionMapper collectionMapper;
@@ -61,6 +78,16 @@ public class BookServiceTests {
     private SuggestionRepository suggestionRepository;
     @Mock
     private SuggestionService suggestionService;
+    @Mock
+    private BookSearchService bookSearchService;
+    @Mock
+    private BookSimilarityService similarityService;
+    @Mock
+    private GenreIndex genreIndex;
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    @Spy
+    private CompositeQueryExecutor compositeQueryExecutor = CompositeQueries.executor(200L);
     @InjectMocks
     private BookService bookService;
 
@@ -77,6 +104,8 @@ public class BookServiceTests {
         bookDTO.setId(1L);
 
         user = new User();
+
+        ReflectionTestUtils.setField(bookService, "reviewPageSize", 10);
     }
 
     @Test
@@ -96,6 +125,36 @@ public class BookServiceTests {
         verify(bookMapper).toDTO(book);
     }
 
+    @Test
+    public void BookService_GetAllBooksByCursor_ReturnBooksAndNextCursor() {
+        book.setPublicationYear(2000);
+
+        when(bookRepository.findActiveAfter(Integer.MAX_VALUE, Long.MAX_VALUE, PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(book), PageRequest.ofSize(1), true));
+        when(bookMapper.toDTO(book)).thenReturn(bookDTO);
+
+        CursorPageDTO<BookDTO> result = bookService.getAllBooks("", 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(CursorCodec.encode(2000, 1L), result.getNextCursor());
+
+        when(bookRepository.findActiveAfter(2000, 1L, PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(1), false));
+
+        CursorPageDTO<BookDTO> next = bookService.getAllBooks(result.getNextCursor(), 1);
+
+        assertTrue(next.getContent().isEmpty());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    public void BookService_GetAllBooksByCursor_InvalidCursor() {
+        assertThrows(ValidationException.class, () -> bookService.getAllBooks("cursor-invalido", 10));
+        verify(bookRepository, never()).findActiveAfter(anyInt(), any(), any());
+    }
+
     @Test
     public void BookService_GetBook_ReturnBook() {
         book.setTitle("Libro");
@@ -127,8 +186,6 @@ public class BookServiceTests {
 
     @Test
     public void BookService_CreateBook_ReturnCreated() {
-        user.setRole(2);
-
         bookDTO.setTitle("Nuevo libro");
         bookDTO.setAuthor("Autor");
         bookDTO.setPublisher("Editorial");
@@ -155,7 +212,7 @@ public class BookServiceTests {
         when(bookRepository.save(any(Book.class))).thenReturn(savedBook);
         when(bookMapper.toDTO(savedBook)).thenReturn(savedBookDTO);
 
-        BookDTO result = bookService.createBook(bookDTO, List.of(1L), user);
+        BookDTO result = bookService.createBook(bookDTO, List.of(1L));
 
         assertNotNull(result);
         assertEquals(10L, result.getId());
@@ -166,20 +223,18 @@ public class BookServiceTests {
 
     @Test
     public void BookService_CreateBook_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
-                () -> bookService.createBook(bookDTO, List.of(1L), user)
+                () -> MethodSecurity.secured(bookService).createBook(bookDTO, List.of(1L))
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void BookService_UpdateBook_ReturnUpdated() {
-        user.setRole(2);
-
         bookDTO.setTitle("Nuevo título");
         bookDTO.setAuthor("Autor");
         bookDTO.setPublisher("Editorial");
@@ -204,7 +259,7 @@ public class BookServiceTests {
         when(bookRepository.save(any(Book.class))).thenReturn(savedBook);
         when(bookMapper.toDTO(savedBook)).thenReturn(savedBookDTO);
 
-        BookDTO result = bookService.updateBook(1L, bookDTO, List.of(1L), user);
+        BookDTO result = bookService.updateBook(1L, bookDTO, List.of(1L));
 
         assertEquals(1L, result.getId());
         assertEquals("Nuevo título", result.getTitle());
@@ -213,14 +268,38 @@ public class BookServiceTests {
     }
 
     @Test
-    public void BookService_UpdateBook_UnexistentBook() {
-        user.setRole(2);
+    public void BookService_UpdateBook_IndexedOnlyAfterCommit() {
+        bookDTO.setTitle("Nuevo título");
+        bookDTO.setAuthor("Autor");
+        bookDTO.setPublisher("Editorial");
+        bookDTO.setSynopsis("sinopsis....");
 
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.save(book)).thenReturn(book);
+        when(bookMapper.toDTO(book)).thenReturn(bookDTO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookService.updateBook(1L, bookDTO, List.of());
+
+            verifyNoInteractions(bookSearchService, genreIndex);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(bookSearchService).indexBook(book);
+        verify(genreIndex).indexBook(book);
+    }
+
+    @Test
+    public void BookService_UpdateBook_UnexistentBook() {
         when(bookRepository.findById(1L)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> bookService.updateBook(1L, new BookDTO(), List.of(1L), user)
+                () -> bookService.updateBook(1L, new BookDTO(), List.of(1L))
         );
 
         assertEquals("El libro con ID 1 no existe.", exception.getMessage());
@@ -228,20 +307,18 @@ public class BookServiceTests {
 
     @Test
     public void BookService_UpdateBook_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
-                () -> bookService.updateBook(1L, bookDTO, List.of(1L), user)
+                () -> MethodSecurity.secured(bookService).updateBook(1L, bookDTO, List.of(1L))
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void BookService_DeleteBook_ReturnDeleted() {
-        user.setRole(2);
-
         bookDTO.setTitle("Libro a borrar");
 
         book.setTitle("Libro a borrar");
@@ -259,53 +336,66 @@ public class BookServiceTests {
         when(bookRepository.save(book)).thenReturn(deletedBook);
         when(bookMapper.toDTO(deletedBook)).thenReturn(deletedBookDTO);
 
-        BookDTO result = bookService.deleteBook(bookDTO, user);
+        BookDTO result = bookService.deleteBook(bookDTO);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(bookRepository).save(book);
+        verify(similarityService).removeBook(1L);
     }
 
     @Test
     public void BookService_DeleteBook_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
-                () -> bookService.deleteBook(bookDTO, user)
+                () -> MethodSecurity.secured(bookService).deleteBook(bookDTO)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void BookService_ReactivateBook_ReturnReactivated() {
-        user.setRole(2);
-
         bookDTO.setId(2L);
         bookDTO.setTitle("Libro reactivado");
 
         book.setId(2L);
         book.setTitle("Libro reactivado");
-
-        Book reactivatedBook = new Book();
-        reactivatedBook.setId(2L);
-        reactivatedBook.setTitle("Libro reactivado");
-        reactivatedBook.reactivate();
+        book.setCollection(new Collection());
+        book.delete();
 
         BookDTO reactivatedBookDTO = new BookDTO();
         reactivatedBookDTO.setId(2L);
         reactivatedBookDTO.setTitle("Libro reactivado");
 
-        when(bookMapper.toEntity(bookDTO)).thenReturn(book);
-        when(bookRepository.save(book)).thenReturn(reactivatedBook);
-        when(bookMapper.toDTO(reactivatedBook)).thenReturn(reactivatedBookDTO);
+        when(bookRepository.findWithGenresById(2L)).thenReturn(Optional.of(book));
+        when(bookRepository.save(book)).thenReturn(book);
+        when(bookMapper.toDTO(book)).thenReturn(reactivatedBookDTO);
 
-        BookDTO result = bookService.reactivateBook(bookDTO, user);
+        BookDTO result = bookService.reactivateBook(bookDTO);
 
         assertEquals(2L, result.getId());
         assertEquals("Libro reactivado", result.getTitle());
+        assertTrue(book.isActive());
+        assertNotNull(book.getCollection());
         verify(bookRepository).save(book);
+        verify(bookSearchService).indexBook(book);
+        verify(genreIndex).indexBook(book);
+    }
+
+    @Test
+    public void BookService_ReactivateBook_UnexistentBook() {
+        bookDTO.setId(2L);
+        when(bookRepository.findWithGenresById(2L)).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(
+                EntityNotFoundException.class,
+                () -> bookService.reactivateBook(bookDTO)
+        );
+
+        assertEquals("El libro con ID 2 no existe.", exception.getMessage());
     }
 
     @Test
@@ -320,6 +410,60 @@ public class BookServiceTests {
         assertEquals(1, result.getTotalElements());
     }
 
+    @Test
+    public void BookService_FilterBooks_IndexReady_ReturnBooksInIndexOrder() {
+        Book otherBook = new Book();
+        otherBook.setId(2L);
+        BookDTO otherBookDTO = new BookDTO();
+        otherBookDTO.setId(2L);
+
+        when(bookSearchService.isReady()).thenReturn(true);
+        when(bookSearchService.search(any(), any(), any(), any(), any(), eq(true), any()))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L), PageRequest.of(0, 10), 2));
+        when(bookRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(book, otherBook));
+        when(bookMapper.toDTO(book)).thenReturn(bookDTO);
+        when(bookMapper.toDTO(otherBook)).thenReturn(otherBookDTO);
+
+        Page<BookDTO> result = bookService
+                .filterBooks("test", null, null, null, null, 0, 10, true);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        assertEquals(1L, result.getContent().get(1).getId());
+        verify(bookRepository, never()).filterBooks(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void BookService_FilterBooksByCursor_IndexReady_ContinuesFromCursor() {
+        BookSearchService.SearchHit hit = new BookSearchService.SearchHit(1L, 3.0);
+
+        when(bookSearchService.isReady()).thenReturn(true);
+        when(bookSearchService.searchAfter(eq("test"), any(), any(), any(), any(), eq(true),
+                eq(new BookSearchService.SearchHit(2L, 4.5)), eq(1)))
+                .thenReturn(new SliceImpl<>(List.of(hit), PageRequest.ofSize(1), true));
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(book));
+        when(bookMapper.toDTO(book)).thenReturn(bookDTO);
+
+        CursorPageDTO<BookDTO> result = bookService.filterBooks("test", null, null, null, null, true,
+                CursorCodec.encode(4.5, 2L), 1);
+
+        assertEquals(1L, result.getContent().get(0).getId());
+        assertEquals(CursorCodec.encode(3.0, 1L), result.getNextCursor());
+        verify(bookRepository, never()).filterBooksAfter(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void BookService_FilterBooksByCursor_IndexNotReady_UsesDatabase() {
+        when(bookRepository.filterBooksAfter(any(), any(), any(), any(), any(), eq(0L), any()))
+                .thenReturn(new SliceImpl<>(List.of(book), PageRequest.ofSize(10), false));
+        when(bookMapper.toDTO(book)).thenReturn(bookDTO);
+
+        CursorPageDTO<BookDTO> result = bookService.filterBooks("test", null, null, null, null, false, "", 10);
+
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+    }
+
     @Test
     public void BookService_FilterBooksByGenre_ReturnBooks() {
         Page<Book> bookPage = new PageImpl<>(List.of(book));
@@ -333,29 +477,41 @@ public class BookServiceTests {
     }
 
     @Test
-    public void BookService_GetBookDetails_ReturnBookDetaisl() {
-        user.setUsername("Usuario");
-        user.setProfileName("Usuario");
-
-        UserLibraryBook savedBook = new UserLibraryBook();
-        savedBook.setBook(book);
-        savedBook.setUser(user);
-        savedBook.setRating(4);
-        savedBook.setReview("Muy bueno");
-        savedBook.setReadingStatus(2);
+    public void BookService_FilterBooksByGenre_IndexReady_ReturnBooksInIndexOrder() {
+        Book b1 = new Book(); b1.setId(1L);
+        Book b2 = new Book(); b2.setId(2L);
+        BookDTO dto1 = new BookDTO(); dto1.setId(1L);
+        BookDTO dto2 = new BookDTO(); dto2.setId(2L);
+        Pageable pageable = PageRequest.of(0, 2);
+
+        when(genreIndex.isReady()).thenReturn(true);
+        when(genreIndex.findByGenre(3L, pageable)).thenReturn(new PageImpl<>(List.of(1L, 2L), pageable, 5));
+        when(bookRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(b2, b1));
+        when(bookMapper.toDTO(b1)).thenReturn(dto1);
+        when(bookMapper.toDTO(b2)).thenReturn(dto2);
+
+        Page<BookDTO> result = bookService.filterBooksByGenre(3L, 0, 2);
+
+        assertEquals(List.of(dto1, dto2), result.getContent());
+        assertEquals(5, result.getTotalElements());
+        verify(bookRepository, never()).findByGenresId(any(), any());
+    }
 
-        BookList list = new BookList();
-        list.setId(1L);
-        list.setName("Favoritos");
+    @Test
+    public void BookService_GetBookDetails_ReturnBookDetaisl() {
+        Collection collection = new Collection();
+        collection.setName("Saga");
+        book.setCollection(collection);
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findWithGenresById(1L)).thenReturn(Optional.of(book));
         when(bookMapper.toDTO(book)).thenReturn(bookDTO);
-        when(libraryRepository.findByUserAndBook(user, book)).thenReturn(Optional.of(savedBook));
-        when(libraryRepository.findAverageRatingByBookId(1L)).thenReturn(4.5);
-        when(libraryRepository.findAllWithReviewByBookIdExcludingUser(1L, user.getId()))
-                .thenReturn(List.of(savedBook));
-        when(listItemRepository.findAllListsByUserIdAndBookId(user.getId(), book.getId()))
-                .thenReturn(List.of(list));
+        when(bookRepository.findDetailsContext(eq(1L), any(), eq(0))).thenReturn(List.of(
+                detailsRow(true, 2, 4.0, "Muy bueno", 9.0, 2, "0,0,0,0,0,0,0,1,1,0", 3L,
+                        "L", 1L, "Favoritos", null, null, null, null)));
+        when(libraryRepository.findReviewsByRecency(eq(1L), any(), eq(CursorCodec.MAX_DATE), eq(Long.MAX_VALUE),
+                any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(reviewRow(7L, "Usuario", 5.0, "Genial", new java.util.Date(1000L))),
+                        PageRequest.ofSize(1), true));
 
         BookDetailsDTO result = bookService.getBookDetails(1L, user);
 
@@ -363,15 +519,71 @@ public class BookServiceTests {
         assertEquals(2, result.getReadingStatus());
         assertEquals(4, result.getRating());
         assertEquals("Muy bueno", result.getReview());
+        assertEquals("Saga", result.getCollectionName());
         assertEquals(1, result.getOtherUsersReviews().size());
         assertEquals("Usuario", result.getOtherUsersReviews().get(0).getUsername());
-        assertEquals("Usuario", result.getOtherUsersReviews().get(0).getProfileName());
+        assertEquals(3, result.getOtherUsersReviewCount());
+        assertEquals(new java.util.Date(1000L), result.getOtherUsersReviews().get(0).getDateReview());
+        assertEquals(CursorCodec.encode(new java.util.Date(1000L), 7L), result.getOtherUsersReviewsCursor());
+        assertEquals(1, result.getLists().size());
+        assertEquals("Favoritos", result.getLists().get(0).getName());
         assertEquals(4.5, result.getAverageRating());
+        assertEquals(2, result.getRatingCount());
+        assertEquals(1, result.getRatingHistogram()[7]);
+        verify(bookRepository, never()).findById(any());
+    }
+
+    @Test
+    public void BookService_GetBookDetails_NotSavedWithoutStats() {
+        when(bookRepository.findWithGenresById(1L)).thenReturn(Optional.of(book));
+        when(bookMapper.toDTO(book)).thenReturn(bookDTO);
+        when(bookRepository.findDetailsContext(eq(1L), any(), eq(0))).thenReturn(List.of(
+                detailsRow(false, null, null, null, null, null, null, 0L,
+                        null, null, null, null, null, null, null)));
+        when(libraryRepository.findReviewsByRecency(eq(1L), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(10), false));
+        when(libraryRepository.findUndatedReviews(eq(1L), any(), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(10), false));
+
+        BookDetailsDTO result = bookService.getBookDetails(1L, user);
+
+        assertFalse(result.isSaved());
+        assertEquals(0, result.getReadingStatus());
+        assertEquals(0, result.getAverageRating());
+        assertEquals(10, result.getRatingHistogram().length);
+        assertTrue(result.getOtherUsersReviews().isEmpty());
+        assertNull(result.getOtherUsersReviewsCursor());
+        assertTrue(result.getLists().isEmpty());
+        assertNull(result.getCollectionName());
+    }
+
+    @Test
+    public void BookService_GetBookDetails_SlowReviewsOmitted() {
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        when(bookRepository.findWithGenresById(1L)).thenReturn(Optional.of(book));
+        when(bookMapper.toDTO(book)).thenReturn(bookDTO);
+        when(bookRepository.findDetailsContext(eq(1L), any(), eq(0))).thenReturn(List.of(
+                detailsRow(false, null, null, null, 9.0, 2, "0,0,0,0,0,0,0,1,1,0", 3L,
+                        null, null, null, null, null, null, null)));
+        when(libraryRepository.findReviewsByRecency(eq(1L), any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    bloqueo.await();
+                    return new SliceImpl<>(List.of(), PageRequest.ofSize(10), true);
+                });
+
+        BookDetailsDTO result = bookService.getBookDetails(1L, user);
+        bloqueo.countDown();
+
+        assertEquals(bookDTO, result.getBook());
+        assertEquals(4.5, result.getAverageRating());
+        assertTrue(result.getOtherUsersReviews().isEmpty());
+        assertEquals(3, result.getOtherUsersReviewCount());
+        assertEquals("", result.getOtherUsersReviewsCursor());
     }
 
     @Test
     public void BookService_GetBookDetails_UnexistentBook() {
-        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bookRepository.findWithGenresById(99L)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -381,6 +593,179 @@ public class BookServiceTests {
         assertEquals("El libro con ID 99 no existe.", exception.getMessage());
     }
 
+    @Test
+    public void BookService_GetBookReviews_ReturnRecentReviews() {
+        user.setId(1L);
+        java.util.Date fecha = new java.util.Date(1000L);
+
+        when(libraryRepository.findReviewsByRecency(eq(1L), eq(1L), eq(CursorCodec.MAX_DATE), eq(Long.MAX_VALUE),
+                any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(reviewRow(7L, "Usuario", 3.0, "Entretenido", fecha)),
+                        PageRequest.ofSize(1), true));
+
+        CursorPageDTO<ReviewDTO> result = bookService.getBookReviews(1L, user, "recientes", "", 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals("Usuario", result.getContent().get(0).getUsername());
+        assertEquals("Entretenido", result.getContent().get(0).getReview());
+        assertEquals(fecha, result.getContent().get(0).getDateReview());
+        assertTrue(result.isHasNext());
+        assertEquals(CursorCodec.encode(fecha, 7L), result.getNextCursor());
+    }
+
+    @Test
+    public void BookService_GetBookReviews_ReturnReviewsByRatingAfterCursor() {
+        user.setId(1L);
+
+        when(libraryRepository.findReviewsByRating(eq(1L), eq(1L), eq(4.5), eq(7L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(reviewRow(3L, "Otro", 4.0, "Bueno", null)),
+                        PageRequest.ofSize(10), false));
+
+        CursorPageDTO<ReviewDTO> result = bookService.getBookReviews(1L, user, "calificacion",
+                CursorCodec.encode(4.5, 7L), 10);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(4.0, result.getContent().get(0).getRating());
+        assertFalse(result.isHasNext());
+        verify(libraryRepository, never()).findReviewsByRecency(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void BookService_GetBookReviews_InvalidSort() {
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookService.getBookReviews(1L, user, "popularidad", "", 10)
+        );
+
+        assertEquals("El orden de las reseñas es inválido.", exception.getMessage());
+    }
+
+    private ReviewRow reviewRow(Long userId, String username, double rating, String review, java.util.Date date) {
+        return new ReviewRow() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getProfileName() {
+                return null;
+            }
+
+            @Override
+            public double getRating() {
+                return rating;
+            }
+
+            @Override
+            public String getReview() {
+                return review;
+            }
+
+            @Override
+            public java.util.Date getDateReview() {
+                return date;
+            }
+        };
+    }
+
+    private BookDetailsRow detailsRow(Boolean saved, Integer readingStatus, Double rating, String review,
+                                      Double ratingSum, Integer ratingCount, String histogram, Long reviewCount,
+                                      String itemKind, Long itemId, String itemName, String itemProfileName,
+                                      Double itemRating, String itemText, java.util.Date itemDate) {
+        return new BookDetailsRow() {
+            @Override
+            public Boolean getSaved() {
+                return saved;
+            }
+
+            @Override
+            public Integer getReadingStatus() {
+                return readingStatus;
+            }
+
+            @Override
+            public Double getRating() {
+                return rating;
+            }
+
+            @Override
+            public String getReview() {
+                return review;
+            }
+
+            @Override
+            public java.util.Date getDateStart() {
+                return null;
+            }
+
+            @Override
+            public java.util.Date getDateFinish() {
+                return null;
+            }
+
+            @Override
+            public Double getRatingSum() {
+                return ratingSum;
+            }
+
+            @Override
+            public Integer getRatingCount() {
+                return ratingCount;
+            }
+
+            @Override
+            public String getRatingHistogram() {
+                return histogram;
+            }
+
+            @Override
+            public Long getReviewCount() {
+                return reviewCount;
+            }
+
+            @Override
+            public String getItemKind() {
+                return itemKind;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public String getItemName() {
+                return itemName;
+            }
+
+            @Override
+            public String getItemProfileName() {
+                return itemProfileName;
+            }
+
+            @Override
+            public Double getItemRating() {
+                return itemRating;
+            }
+
+            @Override
+            public String getItemText() {
+                return itemText;
+            }
+
+            @Override
+            public java.util.Date getItemDate() {
+                return itemDate;
+            }
+        };
+    }
+
     @Test
     public void BookService_GetBooksByAuthor_ReturnBooks() {
         user.setRole(1);
@@ -473,13 +858,12 @@ public class BookServiceTests {
 
     @Test
     public void BookService_GetDeletedBooks_ReturnBooks() {
-        user.setRole(2);
         Page<Book> deletedBooks = new PageImpl<>(List.of(book));
 
         when(bookRepository.findAllByActiveFalse(any(Pageable.class))).thenReturn(deletedBooks);
         when(bookMapper.toDTO(book)).thenReturn(bookDTO);
 
-        Page<BookDTO> result = bookService.getDeletedBooks(0, 10, user);
+        Page<BookDTO> result = bookService.getDeletedBooks(0, 10);
 
         assertEquals(1, result.getTotalElements());
         verify(bookMapper).toDTO(book);
@@ -487,10 +871,10 @@ public class BookServiceTests {
 
     @Test
     public void BookService_GetDeletedBooks_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         assertThrows(AccessDeniedException.class,
-                () -> bookService.getDeletedBooks(0, 10, user));
+                () -> MethodSecurity.secured(bookService).getDeletedBooks(0, 10));
     }
 
     @Test
@@ -520,6 +904,7 @@ public class BookServiceTests {
         CollectionDTO result = bookService.createCollection(dto);
 
         assertEquals("Nueva colección", result.getName());
+        verify(referenceDataCache).evictCollections();
     }
 
     @Test
@@ -0,0 +1,133 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.entity.BookNeighbor;
+import es.readtoowell.api_biblioteca.model.entity.id.BookNeighborId;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import es.readtoowell.api_biblioteca.repository.book.BookNeighborRepository;
+import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
+import es.readtoowell.api_biblioteca.service.book.BookSimilarityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de pruebas para el servicio de similitud entre libros.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BookSimilarityServiceTests {
+    @Mock
+    private BookNeighborRepository neighborRepository;
+    @Mock
+    private UserLibraryBookRepository libraryRepository;
+    @InjectMocks
+    private BookSimilarityService similarityService;
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(similarityService, "topK", 2);
+        ReflectionTestUtils.setField(similarityService, "genreWeight", 0.5);
+        ReflectionTestUtils.setField(similarityService, "coOccurrenceWeight", 0.5);
+        ReflectionTestUtils.setField(similarityService, "batchSize", 2);
+    }
+
+    private BookGroupRow row(Long groupId, Long bookId) {
+        return new BookGroupRow() {
+            @Override
+            public Long getGroupId() {
+                return groupId;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+        };
+    }
+
+    private BookNeighbor neighbor(Long bookId, Long neighborId, double similarity) {
+        return new BookNeighbor(new BookNeighborId(bookId, neighborId), similarity);
+    }
+
+    @Test
+    public void BookSimilarityService_RebuildNeighbors_CombinesGenresAndCoOccurrence() {
+        // Géneros: 1 y 2 -> {1, 2}, 3 -> {1}, 4 -> {3}
+        when(neighborRepository.findActiveBookGenres()).thenReturn(List.of(
+                row(1L, 1L), row(2L, 1L), row(1L, 2L), row(2L, 2L), row(1L, 3L), row(3L, 4L)));
+        // Los libros 1 y 4 aparecen juntos en dos bibliotecas
+        when(neighborRepository.findActiveLibraryBooks()).thenReturn(List.of(
+                row(10L, 1L), row(10L, 4L), row(11L, 1L), row(11L, 4L)));
+        when(neighborRepository.findActiveListBooks()).thenReturn(List.of());
+
+        similarityService.rebuildNeighbors();
+
+        // Dos grupos de dos libros: una inserción y un borrado por grupo
+        ArgumentCaptor<Long[]> books = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<Double[]> similarities = ArgumentCaptor.forClass(Double[].class);
+        verify(neighborRepository, times(2)).upsertNeighbors(books.capture(), ids.capture(),
+                similarities.capture());
+
+        assertArrayEquals(new Long[]{1L, 1L, 2L, 2L}, books.getAllValues().get(0));
+        assertArrayEquals(new Long[]{2L, 4L, 1L, 3L}, ids.getAllValues().get(0));
+        assertArrayEquals(new Double[]{0.5, 0.5, 0.5, 0.25}, similarities.getAllValues().get(0));
+
+        assertArrayEquals(new Long[]{3L, 3L, 4L}, books.getAllValues().get(1));
+        assertArrayEquals(new Long[]{1L, 2L, 1L}, ids.getAllValues().get(1));
+        assertArrayEquals(new Double[]{0.25, 0.25, 0.5}, similarities.getAllValues().get(1));
+
+        verify(neighborRepository).deleteNeighborsNotIn(eq(new Long[]{1L, 2L}), any(), any());
+        verify(neighborRepository).deleteNeighborsNotIn(eq(new Long[]{3L, 4L}), any(), any());
+        ArgumentCaptor<Long[]> computedBooks = ArgumentCaptor.forClass(Long[].class);
+        verify(neighborRepository).deleteBooksNotIn(computedBooks.capture());
+        Long[] computed = computedBooks.getValue();
+        Arrays.sort(computed);
+        assertArrayEquals(new Long[]{1L, 2L, 3L, 4L}, computed);
+
+        assertTrue(similarityService.isAvailable());
+    }
+
+    @Test
+    public void BookSimilarityService_Initialize_NeighborsExist() {
+        when(neighborRepository.count()).thenReturn(10L);
+
+        similarityService.initialize();
+
+        assertTrue(similarityService.isAvailable());
+        verify(neighborRepository, never()).findActiveBookGenres();
+    }
+
+    @Test
+    public void BookSimilarityService_Recommend_MergesNeighborsAndExcludesLibrary() {
+        List<Long> seeds = List.of(1L, 2L);
+
+        when(libraryRepository.findBookIdsByUserId(5L)).thenReturn(List.of(1L, 2L, 6L));
+        when(neighborRepository.findByIdBookIdIn(seeds)).thenReturn(List.of(
+                neighbor(1L, 3L, 0.4), neighbor(1L, 4L, 0.6), neighbor(1L, 6L, 0.9),
+                neighbor(2L, 3L, 0.4), neighbor(2L, 1L, 1.0), neighbor(2L, 7L, 0.1)));
+
+        List<Long> result = similarityService.recommend(5L, seeds, 2);
+
+        assertEquals(List.of(3L, 4L), result);
+    }
+
+    @Test
+    public void BookSimilarityService_Recommend_NoSeeds() {
+        List<Long> result = similarityService.recommend(5L, List.of(), 30);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(neighborRepository, libraryRepository);
+    }
+}
@@ -0,0 +1,106 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.entity.BookStats;
+import es.readtoowell.api_biblioteca.repository.book.BookStatsRepository;
+import es.readtoowell.api_biblioteca.service.book.BookStatsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de pruebas para el servicio de estadísticas de libros.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BookStatsServiceTests {
+    @Mock
+    private BookStatsRepository statsRepository;
+    @InjectMocks
+    private BookStatsService statsService;
+
+    private BookStats stats(Long bookId, double sum, int count) {
+        BookStats stats = new BookStats();
+        stats.setBookId(bookId);
+        stats.setRatingSum(sum);
+        stats.setRatingCount(count);
+        return stats;
+    }
+
+    @Test
+    public void BookStatsService_GetAverageRating_ReturnAverage() {
+        when(statsRepository.findById(1L)).thenReturn(Optional.of(stats(1L, 7.5, 2)));
+
+        assertEquals(3.75, statsService.getAverageRating(1L));
+    }
+
+    @Test
+    public void BookStatsService_GetAverageRating_NoStats_ReturnZero() {
+        when(statsRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertEquals(0, statsService.getAverageRating(1L));
+    }
+
+    @Test
+    public void BookStatsService_GetAverageRatings_ReturnAllRequestedBooks() {
+        when(statsRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stats(1L, 8, 2)));
+
+        Map<Long, Double> result = statsService.getAverageRatings(List.of(1L, 2L));
+
+        assertEquals(2, result.size());
+        assertEquals(4.0, result.get(1L));
+        assertEquals(0.0, result.get(2L));
+    }
+
+    @Test
+    public void BookStatsService_UpdateRating_ReplacesOldRating() {
+        statsService.updateRating(1L, 3, 4.5);
+
+        verify(statsRepository).insertIfAbsent(1L);
+        verify(statsRepository).addRating(1L, 3, 6, -1);
+        verify(statsRepository).addRating(1L, 4.5, 9, 1);
+    }
+
+    @Test
+    public void BookStatsService_UpdateRating_FirstRating_OnlyAdds() {
+        statsService.updateRating(1L, 0, 0.5);
+
+        verify(statsRepository).addRating(1L, 0.5, 1, 1);
+        verify(statsRepository, never()).addRating(eq(1L), anyDouble(), anyInt(), eq(-1));
+    }
+
+    @Test
+    public void BookStatsService_UpdateRating_SameRating_NoChanges() {
+        statsService.updateRating(1L, 4, 4);
+
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    public void BookStatsService_UnregisterReader_RemovesRating() {
+        statsService.unregisterReader(1L, 2.5);
+
+        verify(statsRepository).addReaders(1L, -1);
+        verify(statsRepository).addRating(1L, 2.5, 5, -1);
+    }
+
+    @Test
+    public void BookStatsService_Initialize_EmptyTable_Rebuilds() {
+        when(statsRepository.count()).thenReturn(0L);
+
+        statsService.initialize();
+
+        verify(statsRepository).rebuildAll();
+        verify(statsRepository).deleteOrphans();
+    }
+}
@@ -0,0 +1,34 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.config.CompositeQueryExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Utilidades para probar los servicios que construyen sus respuestas con consultas en paralelo.
+ */
+final class CompositeQueries {
+    private CompositeQueries() {
+    }
+
+    /**
+     * Crea un ejecutor de consultas en paralelo con un gestor de transacciones simulado.
+     *
+     * @param optionalTimeoutMs Tiempo máximo de las consultas opcionales, en milisegundos
+     * @return Ejecutor inicializado
+     */
+    static CompositeQueryExecutor executor(long optionalTimeoutMs) {
+        CompositeQueryExecutor executor = new CompositeQueryExecutor();
+        ReflectionTestUtils.setField(executor, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(executor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executor, "threads", 4);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 10);
+        ReflectionTestUtils.setField(executor, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(executor, "optionalTimeoutMs", optionalTimeoutMs);
+        executor.init();
+        return executor;
+    }
+}
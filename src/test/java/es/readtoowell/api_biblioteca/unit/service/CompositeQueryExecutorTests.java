@@ -0,0 +1,104 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.config.CompositeQueryExecutor;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Clase de pruebas para el ejecutor de consultas en paralelo.
+ */
+public class CompositeQueryExecutorTests {
+    private CompositeQueryExecutor executor;
+    private final CountDownLatch bloqueo = new CountDownLatch(1);
+
+    @BeforeEach
+    public void init() {
+        executor = CompositeQueries.executor(50L);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        bloqueo.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void CompositeQueryExecutor_Join_ReturnResults() {
+        CompletableFuture<String> primera = executor.submit(() -> "a");
+        CompletableFuture<Integer> segunda = executor.submit(() -> 2);
+
+        assertEquals("a", executor.join(primera));
+        assertEquals(2, executor.join(segunda));
+    }
+
+    @Test
+    public void CompositeQueryExecutor_Join_RethrowsQueryException() {
+        CompletableFuture<String> consulta = executor.submit(() -> {
+            throw new EntityNotFoundException("El libro con ID 1 no existe.");
+        });
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> executor.join(consulta));
+
+        assertEquals("El libro con ID 1 no existe.", exception.getMessage());
+    }
+
+    @Test
+    public void CompositeQueryExecutor_Join_TimeoutWhenQueryIsSlow() {
+        ReflectionTestUtils.setField(executor, "timeoutMs", 50L);
+        CompletableFuture<String> consulta = executor.submit(this::lenta);
+
+        assertThrows(QueryTimeoutException.class, () -> executor.join(consulta));
+    }
+
+    @Test
+    public void CompositeQueryExecutor_JoinOrDefault_FallbackWhenQueryIsSlowOrFails() {
+        CompletableFuture<String> lenta = executor.submitOptional(this::lenta);
+        CompletableFuture<String> fallida = executor.submitOptional(() -> {
+            throw new IllegalStateException("Error");
+        });
+
+        assertEquals("por defecto", executor.joinOrDefault(lenta, "por defecto"));
+        assertEquals("por defecto", executor.joinOrDefault(fallida, "por defecto"));
+    }
+
+    @Test
+    public void CompositeQueryExecutor_SubmitOptional_UsesOptionalTimeout() {
+        executor.shutdown();
+        ReflectionTestUtils.setField(executor, "optionalTimeoutMs", 800L);
+        executor.init();
+        PlatformTransactionManager transactionManager =
+                (PlatformTransactionManager) ReflectionTestUtils.getField(executor, "transactionManager");
+
+        executor.join(executor.submit(() -> "a"));
+        executor.joinOrDefault(executor.submitOptional(() -> "b"), "por defecto");
+
+        ArgumentCaptor<TransactionDefinition> definiciones = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definiciones.capture());
+        assertEquals(2, definiciones.getAllValues().get(0).getTimeout());
+        assertEquals(1, definiciones.getAllValues().get(1).getTimeout());
+    }
+
+    private String lenta() {
+        try {
+            bloqueo.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "lenta";
+    }
+}
@@ -0,0 +1,96 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.config.ConcurrencyLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para el filtro que limita las peticiones procesadas a la vez.
+ */
+public class ConcurrencyLimitFilterTests {
+
+    @Test
+    public void ConcurrencyLimitFilter_DoFilter_ReleasesPermit() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/libros/1"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    public void ConcurrencyLimitFilter_DoFilter_ServiceUnavailableWhenBusy() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch iniciado = new CountDownLatch(1);
+
+        CompletableFuture<Void> enCurso = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/libros/1"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            iniciado.countDown();
+                            try {
+                                bloqueo.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        iniciado.await();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/libros/2"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(chain.getRequest());
+
+        bloqueo.countDown();
+        enCurso.join();
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    public void ConcurrencyLimitFilter_DoFilter_ActuatorNotLimited() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(0, 10);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        request.setRequestURI("/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    public void ConcurrencyLimitFilter_DoFilter_CompositeRouteTakesSeveralPermits() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(4, 100, List.of("/libros/*/detalles"), 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/libros/1/detalles");
+        int[] libresDurante = new int[1];
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> libresDurante[0] = filter.getAvailablePermits());
+
+        assertEquals(1, libresDurante[0]);
+        assertEquals(4, filter.getAvailablePermits());
+    }
+}
@@ -0,0 +1,78 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.config.datasource.DatabaseUsage;
+import es.readtoowell.api_biblioteca.config.datasource.DatabaseUsageFilter;
+import es.readtoowell.api_biblioteca.config.datasource.DatabaseUsageListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para el registro del uso de la base de datos por petición.
+ */
+public class DatabaseUsageFilterTests {
+
+    @Test
+    public void DatabaseUsageFilter_DoFilter_RecordsUsageByEndpoint() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DatabaseUsageFilter filter = new DatabaseUsageFilter(registry);
+        DatabaseUsageListener listener = new DatabaseUsageListener();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/listas/1/libros/2");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/listas/{idList}/libros/{idBook}");
+            listener.jdbcConnectionAcquisitionEnd();
+            listener.jdbcExecuteStatementEnd();
+            listener.jdbcExecuteBatchEnd();
+            listener.transactionCompletion(true);
+        });
+
+        DistributionSummary conexiones = registry.find("readtoowell.request.db.connections")
+                .tag("uri", "/listas/{idList}/libros/{idBook}").tag("method", "POST").summary();
+        assertNotNull(conexiones);
+        assertEquals(1.0, conexiones.totalAmount());
+        assertEquals(1.0, registry.get("readtoowell.request.db.transactions").tag("outcome", "commit")
+                .summary().totalAmount());
+        assertEquals(0.0, registry.get("readtoowell.request.db.transactions").tag("outcome", "rollback")
+                .summary().totalAmount());
+        assertEquals(2.0, registry.get("readtoowell.request.db.statements").summary().totalAmount());
+        assertNull(DatabaseUsage.current());
+    }
+
+    @Test
+    public void DatabaseUsage_Propagate_CountsWorkOnOtherThreads() {
+        DatabaseUsageListener listener = new DatabaseUsageListener();
+        DatabaseUsage uso = DatabaseUsage.start();
+        try {
+            CompletableFuture.supplyAsync(DatabaseUsage.propagate(() -> {
+                listener.jdbcConnectionAcquisitionEnd();
+                listener.transactionCompletion(false);
+                return null;
+            })).join();
+        } finally {
+            DatabaseUsage.stop();
+        }
+
+        assertEquals(1, uso.getConnections());
+        assertEquals(1, uso.getRollbacks());
+        assertEquals(0, uso.getCommits());
+    }
+
+    @Test
+    public void DatabaseUsageListener_NoRequest_Ignored() {
+        DatabaseUsageListener listener = new DatabaseUsageListener();
+
+        assertDoesNotThrow(() -> {
+            listener.jdbcConnectionAcquisitionEnd();
+            listener.transactionCompletion(true);
+        });
+        assertNull(DatabaseUsage.current());
+    }
+}
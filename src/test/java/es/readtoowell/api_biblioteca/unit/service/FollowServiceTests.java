@@ -0,0 +1,87 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.entity.id.FollowId;
+import es.readtoowell.api_biblioteca.repository.user.FollowRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserStatsRepository;
+import es.readtoowell.api_biblioteca.service.user.FollowService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de pruebas para el servicio del grafo de seguimiento entre usuarios.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FollowServiceTests {
+    @Mock
+    private FollowRepository followRepository;
+    @Mock
+    private UserStatsRepository statsRepository;
+    @InjectMocks
+    private FollowService followService;
+
+    @Test
+    public void FollowService_Follow_UpdatesCounters() {
+        when(followRepository.insertIfAbsent(1L, 2L)).thenReturn(1);
+
+        assertTrue(followService.follow(1L, 2L));
+
+        verify(statsRepository).addFollowing(1L, 1);
+        verify(statsRepository).addFollowers(2L, 1);
+    }
+
+    @Test
+    public void FollowService_Follow_AlreadyFollowing_CountersUnchanged() {
+        when(followRepository.insertIfAbsent(1L, 2L)).thenReturn(0);
+
+        assertFalse(followService.follow(1L, 2L));
+
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    public void FollowService_Unfollow_UpdatesCounters() {
+        when(followRepository.deleteByKey(1L, 2L)).thenReturn(1);
+
+        assertTrue(followService.unfollow(1L, 2L));
+
+        verify(statsRepository).addFollowing(1L, -1);
+        verify(statsRepository).addFollowers(2L, -1);
+    }
+
+    @Test
+    public void FollowService_Unfollow_NotFollowing_CountersUnchanged() {
+        when(followRepository.deleteByKey(1L, 2L)).thenReturn(0);
+
+        assertFalse(followService.unfollow(1L, 2L));
+
+        verify(statsRepository, never()).addFollowing(anyLong(), anyInt());
+        verify(statsRepository, never()).addFollowers(anyLong(), anyInt());
+    }
+
+    @Test
+    public void FollowService_IsFollowing_LooksUpKey() {
+        when(followRepository.existsById(new FollowId(1L, 2L))).thenReturn(true);
+
+        assertTrue(followService.isFollowing(1L, 2L));
+        assertFalse(followService.isFollowing(2L, 1L));
+    }
+
+    @Test
+    public void FollowService_RemoveUser_DiscountsBeforeDeleting() {
+        followService.removeUser(1L);
+
+        InOrder orden = inOrder(statsRepository, followRepository);
+        orden.verify(statsRepository).discountFollowsOf(1L);
+        orden.verify(followRepository).deleteAllByUser(1L);
+        orden.verify(statsRepository).deleteById(1L);
+    }
+}
@@ -0,0 +1,117 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.model.entity.Genre;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import es.readtoowell.api_biblioteca.service.book.GenreIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Clase de pruebas para el índice de géneros.
+ */
+@ExtendWith(MockitoExtension.class)
+public class GenreIndexTests {
+    @Mock
+    private BookRepository bookRepository;
+    @InjectMocks
+    private GenreIndex genreIndex;
+
+    @BeforeEach
+    public void init() {
+        // Libro 1 -> {1, 2}, libro 2 -> {1}, libro 3 -> {2, 3}, libro 4 -> {1} (inactivo)
+        when(bookRepository.findAllBookGenres()).thenReturn(List.of(
+                row(1L, 1L), row(2L, 1L), row(1L, 2L), row(2L, 3L), row(3L, 3L), row(1L, 4L)));
+        when(bookRepository.findActiveIds()).thenReturn(List.of(1L, 2L, 3L));
+        genreIndex.rebuild();
+    }
+
+    private BookGroupRow row(Long genreId, Long bookId) {
+        return new BookGroupRow() {
+            @Override
+            public Long getGroupId() {
+                return genreId;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+        };
+    }
+
+    private Genre genre(Long id) {
+        Genre genre = new Genre();
+        genre.setId(id);
+        return genre;
+    }
+
+    @Test
+    public void GenreIndex_Rebuild_IsReady() {
+        assertTrue(genreIndex.isReady());
+    }
+
+    @Test
+    public void GenreIndex_FindByGenre_OnlyActiveBooks() {
+        Page<Long> result = genreIndex.findByGenre(1L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L), result.getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    public void GenreIndex_FindByGenre_Paginates() {
+        Page<Long> result = genreIndex.findByGenre(1L, PageRequest.of(1, 1));
+
+        assertEquals(List.of(2L), result.getContent());
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    public void GenreIndex_CountSharedGenres_ExcludesBooks() {
+        Map<Long, Integer> result = genreIndex.countSharedGenres(List.of(1L, 2L), List.of(2L));
+
+        assertEquals(Map.of(1L, 2, 3L, 1), result);
+    }
+
+    @Test
+    public void GenreIndex_FindTopGenres_IncludesInactiveBooks() {
+        List<Long> result = genreIndex.findTopGenres(List.of(1L, 3L, 4L), 2);
+
+        assertEquals(List.of(1L, 2L), result);
+    }
+
+    @Test
+    public void GenreIndex_IndexBook_ReplacesGenres() {
+        Book book = new Book();
+        book.setId(2L);
+        book.setGenres(List.of(genre(3L)));
+        book.setActive(true);
+
+        genreIndex.indexBook(book);
+
+        assertEquals(List.of(1L), genreIndex.findByGenre(1L, PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(2L, 3L), genreIndex.findByGenre(3L, PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void GenreIndex_RemoveBook_NotReturned() {
+        genreIndex.removeBook(1L);
+
+        assertEquals(List.of(2L), genreIndex.findByGenre(1L, PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(1L), genreIndex.findTopGenres(List.of(1L), 1));
+    }
+}
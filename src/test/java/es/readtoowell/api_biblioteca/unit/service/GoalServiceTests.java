@@ -3,12 +3,14 @@ package es.readtoowell.api_biblioteca.unit.service;
 import es.readtoowell.api_biblioteca.mapper.GoalMapper;
 import es.readtoowell.api_biblioteca.model.DTO.GoalDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
+import es.readtoowell.api_biblioteca.model.projection.ReadingTotalsRow;
 import es.readtoowell.api_biblioteca.repository.goal.GoalDurationRepository;
 import es.readtoowell.api_biblioteca.repository.goal.GoalRepository;
 import es.readtoowell.api_biblioteca.repository.goal.GoalTypeRepository;
 import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import es.readtoowell.api_biblioteca.service.goal.GoalService;
+import es.readtoowell.api_biblioteca.service.goal.ReadingProgressEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,8 +28,10 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 /**
  * Clase de pruebas para el servicio de objetivos de lectura.
@@ -93,6 +97,8 @@ public class GoalServiceTests {
         List<GoalDTO> result = goalService.getGoalsInProgress(userId);
 
         assertEquals(1, result.size());
+        verify(goalRepository, never()).save(any());
+        verifyNoInteractions(libraryRepository);
     }
 
     @Test
@@ -129,16 +135,25 @@ public class GoalServiceTests {
         User user = new User();
         user.setId(userId);
 
-        Book book1 = new Book();
-        Book book2 = new Book();
+        ReadingTotalsRow totals = new ReadingTotalsRow() {
+            @Override
+            public long getBooks() {
+                return 2;
+            }
+
+            @Override
+            public long getPages() {
+                return 600;
+            }
+        };
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(typeRepository.findByName("Libros")).thenReturn(Optional.of(type));
         when(durationRepository.findByName("Anual")).thenReturn(Optional.of(duration));
         when(goalRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
-        when(libraryRepository.findBooksReadActualYear(userId)).thenReturn(List.of(book1, book2));
+        when(libraryRepository.sumBooksReadBetween(eq(userId), any(), any())).thenReturn(totals);
         when(goalMapper.toEntity(any())).thenReturn(new Goal());
-        when(goalRepository.save(any())).thenReturn(new Goal());
+        when(goalRepository.save(any())).thenAnswer(i -> i.getArgument(0));
         when(goalMapper.toDTO(any())).thenReturn(dto);
 
         GoalDTO result = goalService.createGoal(userId, dto);
@@ -147,6 +162,7 @@ public class GoalServiceTests {
         assertEquals("Anual", result.getDuration());
         assertEquals(5, result.getAmount());
         assertEquals(1L, result.getUser().getId());
+        verify(goalRepository).save(argThat(goal -> goal.getCurrentAmount() == 2));
     }
 
     @Test
@@ -206,25 +222,25 @@ public class GoalServiceTests {
     }
 
     @Test
-    public void GoalService_UpdateGoals_UpdatesGoals() {
-        Long userId = 1L;
-        Goal goal = new Goal();
-        goal.setType(type);
-        goal.setDuration(duration);
-        goal.setAmount(10);
-        goal.setCurrentAmount(0);
-        goal.setDateFinish(Date.from(LocalDate.now().plusDays(10).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+    public void GoalService_OnReadingProgress_AddsProgress() {
+        LocalDate hoy = LocalDate.now();
 
-        Book book1 = new Book();
-        Book book2 = new Book();
+        goalService.onReadingProgress(new ReadingProgressEvent(1L, hoy, 1, 250));
 
-        when(goalRepository.findByUserId(userId)).thenReturn(List.of(goal));
-        when(libraryRepository.findBooksReadActualYear(userId)).thenReturn(List.of(book1, book2));
-        when(libraryRepository.findBooksReadActualMonth(userId)).thenReturn(Collections.emptyList());
+        verify(goalRepository).addProgress(1L, hoy, 1, 250);
+    }
+
+    @Test
+    public void GoalService_OnReadingProgress_IgnoresEmptyEvent() {
+        goalService.onReadingProgress(new ReadingProgressEvent(1L, LocalDate.now(), 0, 0));
 
-        goalService.updateGoals(userId, 0);
+        verify(goalRepository, never()).addProgress(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void GoalService_Reconcile_RecalculatesGoals() {
+        goalService.reconcile();
 
-        verify(goalRepository).save(goal);
-        assertEquals(2, goal.getCurrentAmount());
+        verify(goalRepository).reconcileInProgress();
     }
 }
@@ -0,0 +1,43 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.enums.Role;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+/**
+ * Utilidades para probar las anotaciones {@code @PreAuthorize} de los servicios sin levantar el contexto de Spring.
+ */
+final class MethodSecurity {
+    private MethodSecurity() {
+    }
+
+    /**
+     * Envuelve un servicio en un proxy que aplica sus anotaciones {@code @PreAuthorize},
+     * igual que hace Spring con los beans de la aplicación.
+     *
+     * @param target Servicio a envolver
+     * @return Proxy del servicio
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T secured(T target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(AuthorizationManagerBeforeMethodInterceptor.preAuthorize());
+        return (T) factory.getProxy();
+    }
+
+    /**
+     * Autentica en el contexto de seguridad a un usuario con el rol indicado.
+     *
+     * @param role Rol del usuario autenticado
+     */
+    static void authenticateAs(Role role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "prueba@email.es", null, List.of(new SimpleGrantedAuthority("ROLE_" + role.name()))));
+    }
+}
@@ -0,0 +1,103 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.service.auth.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para el servicio de cálculo de hashes de contraseñas.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PasswordHashingServiceTests {
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    @InjectMocks
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 1);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    public void PasswordHashingService_EncodeAndMatch_ReturnMatches() {
+        passwordHashingService.init();
+
+        String hash = passwordHashingService.encode("Contraseña123_").join();
+
+        assertTrue(passwordHashingService.matches("Contraseña123_", hash).join());
+        assertFalse(passwordHashingService.matches("otra contraseña", hash).join());
+        assertEquals(1, meterRegistry.get("readtoowell.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("readtoowell.password.hash").tag("operation", "match").timer().count());
+    }
+
+    @Test
+    public void PasswordHashingService_NeedsRehash_LowerWorkFactor() {
+        passwordHashingService.init();
+        String hashAntiguo = new BCryptPasswordEncoder(4).encode("Contraseña123_");
+        String hashActual = new BCryptPasswordEncoder(5).encode("Contraseña123_");
+        ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", new BCryptPasswordEncoder(5));
+
+        assertTrue(passwordHashingService.needsRehash(hashAntiguo));
+        assertFalse(passwordHashingService.needsRehash(hashActual));
+    }
+
+    @Test
+    public void PasswordHashingService_Encode_RejectedWhenQueueIsFull() throws Exception {
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch iniciado = new CountDownLatch(1);
+        ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                iniciado.countDown();
+                try {
+                    bloqueo.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        });
+        passwordHashingService.init();
+
+        CompletableFuture<String> enCurso = passwordHashingService.encode("a");
+        iniciado.await();
+        CompletableFuture<String> enCola = passwordHashingService.encode("b");
+
+        assertThrows(RejectedExecutionException.class, () -> passwordHashingService.encode("c"));
+        assertEquals(1, meterRegistry.get("readtoowell.password.hash.rejected").counter().count());
+
+        bloqueo.countDown();
+        assertEquals("hash", enCurso.join());
+        assertEquals("hash", enCola.join());
+    }
+}
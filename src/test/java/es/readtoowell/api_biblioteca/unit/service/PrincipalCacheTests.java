@@ -0,0 +1,118 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import es.readtoowell.api_biblioteca.config.CustomUserDetails;
+import es.readtoowell.api_biblioteca.config.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para la caché de usuarios autenticados.
+ */
+public class PrincipalCacheTests {
+    private PrincipalCache principalCache;
+
+    private final CustomUserDetails principal =
+            new CustomUserDetails(1L, "prueba@email.es", null, List.of());
+
+    @BeforeEach
+    public void init() {
+        principalCache = new PrincipalCache();
+        ReflectionTestUtils.setField(principalCache, "maxSize", 100L);
+        principalCache.init();
+    }
+
+    @Test
+    public void PrincipalCache_Get_ReturnCached() {
+        principalCache.put("token", principal, Instant.now().plus(Duration.ofHours(1)), Instant.now());
+
+        assertSame(principal, principalCache.get("token"));
+        assertNull(principalCache.get("otro-token"));
+    }
+
+    @Test
+    public void PrincipalCache_Put_ExpiredTokenNotCached() {
+        principalCache.put("token", principal, Instant.now().minusSeconds(1), Instant.now());
+
+        assertNull(principalCache.get("token"));
+    }
+
+    @Test
+    public void PrincipalCache_Invalidate_RemovesUserEntries() {
+        CustomUserDetails otro = new CustomUserDetails(2L, "otro@email.es", null, List.of());
+        Instant expiration = Instant.now().plus(Duration.ofHours(1));
+        principalCache.put("token-1", principal, expiration, Instant.now());
+        principalCache.put("token-2", principal, expiration, Instant.now());
+        principalCache.put("token-3", otro, expiration, Instant.now());
+
+        principalCache.invalidate(1L);
+
+        assertNull(principalCache.get("token-1"));
+        assertNull(principalCache.get("token-2"));
+        assertSame(otro, principalCache.get("token-3"));
+    }
+
+    @Test
+    public void PrincipalCache_IsStale_OnlyTokensIssuedBeforeInvalidation() {
+        Instant antes = Instant.now().minusSeconds(60);
+
+        assertFalse(principalCache.isStale(1L, antes));
+
+        principalCache.invalidate(1L);
+
+        assertTrue(principalCache.isStale(1L, antes));
+        assertFalse(principalCache.isStale(1L, Instant.now().plusSeconds(60)));
+        assertFalse(principalCache.isStale(2L, antes));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void PrincipalCache_Get_DiscardsEntryCheckedBeforeInvalidation() {
+        principalCache.put("token", principal, Instant.now().plus(Duration.ofHours(1)), Instant.now().minusSeconds(60));
+
+        // Invalidación registrada mientras se guardaba la entrada, sin llegar a borrarla
+        Cache<Long, Instant> invalidations = (Cache<Long, Instant>) ReflectionTestUtils
+                .getField(principalCache, "invalidations");
+        invalidations.put(1L, Instant.now());
+
+        assertNull(principalCache.get("token"));
+    }
+
+    @Test
+    public void PrincipalCache_Put_NotCachedIfInvalidatedAfterCheck() {
+        Instant antes = Instant.now().minusSeconds(60);
+        principalCache.invalidate(1L);
+
+        principalCache.put("token", principal, Instant.now().plus(Duration.ofHours(1)), antes);
+
+        assertNull(principalCache.get("token"));
+    }
+
+    @Test
+    public void PrincipalCache_Invalidate_DiscardsEntriesReloadedBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            principalCache.invalidate(1L);
+
+            // Petición con un token anterior entre la invalidación y la confirmación: recarga la fila sin confirmar
+            assertTrue(principalCache.isStale(1L, Instant.now().minusSeconds(60)));
+            principalCache.put("token", principal, Instant.now().plus(Duration.ofHours(1)), Instant.now());
+            assertSame(principal, principalCache.get("token"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(principalCache.get("token"));
+    }
+}
@@ -0,0 +1,84 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.mapper.BookMapper;
+import es.readtoowell.api_biblioteca.model.DTO.book.BookDTO;
+import es.readtoowell.api_biblioteca.model.DTO.book.RatedBookDTO;
+import es.readtoowell.api_biblioteca.model.entity.Book;
+import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import es.readtoowell.api_biblioteca.service.book.BookStatsService;
+import es.readtoowell.api_biblioteca.service.book.RatedBookHydrator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de pruebas para la carga por lotes de libros recomendados.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RatedBookHydratorTests {
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private BookStatsService bookStatsService;
+    @Mock
+    private BookMapper bookMapper;
+    @InjectMocks
+    private RatedBookHydrator ratedBookHydrator;
+
+    private Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
+
+    @Test
+    public void RatedBookHydrator_Hydrate_KeepsRankingOrder() {
+        List<Long> ids = List.of(3L, 1L, 2L);
+
+        when(bookRepository.findAllWithGenresByIdIn(ids)).thenReturn(List.of(book(1L), book(2L), book(3L)));
+        when(bookStatsService.getAverageRatings(ids)).thenReturn(Map.of(1L, 4.0, 2L, 0.0, 3L, 3.5));
+        when(bookMapper.toDTO(any(Book.class))).thenAnswer(i -> {
+            BookDTO dto = new BookDTO();
+            dto.setId(((Book) i.getArgument(0)).getId());
+            return dto;
+        });
+
+        List<RatedBookDTO> result = ratedBookHydrator.hydrate(ids);
+
+        assertEquals(List.of(3L, 1L, 2L), result.stream().map(r -> r.getBook().getId()).toList());
+        assertEquals(3.5, result.get(0).getAverageRating());
+        assertEquals(4.0, result.get(1).getAverageRating());
+        verify(bookRepository, times(1)).findAllWithGenresByIdIn(ids);
+        verify(bookStatsService, times(1)).getAverageRatings(ids);
+    }
+
+    @Test
+    public void RatedBookHydrator_Hydrate_IgnoresMissingBooks() {
+        List<Long> ids = List.of(1L, 99L);
+
+        when(bookRepository.findAllWithGenresByIdIn(ids)).thenReturn(List.of(book(1L)));
+        when(bookStatsService.getAverageRatings(ids)).thenReturn(Map.of(1L, 4.0, 99L, 0.0));
+        when(bookMapper.toDTO(any(Book.class))).thenReturn(new BookDTO());
+
+        List<RatedBookDTO> result = ratedBookHydrator.hydrate(ids);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    public void RatedBookHydrator_Hydrate_EmptyList_NoQueries() {
+        List<RatedBookDTO> result = ratedBookHydrator.hydrate(List.of());
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookRepository, bookStatsService);
+    }
+}
@@ -0,0 +1,93 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.repository.library.ReadingStatsRepository;
+import es.readtoowell.api_biblioteca.service.library.ReadingStateChangedEvent;
+import es.readtoowell.api_biblioteca.service.library.ReadingStatsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Clase de pruebas para el servicio de estadísticas de lectura.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReadingStatsServiceTests {
+    @Mock
+    private ReadingStatsRepository statsRepository;
+    @InjectMocks
+    private ReadingStatsService statsService;
+
+    @Test
+    public void ReadingStatsService_OnReadingStateChanged_AddsFinishedBook() {
+        statsService.onReadingStateChanged(new ReadingStateChangedEvent(1L, 2L, null, 0,
+                LocalDate.of(2025, 5, 3), 4.5));
+
+        verify(statsRepository).addBook(1L, 2L, 2025, 5, 1);
+        verify(statsRepository).addGenres(1L, 2L, 2025, 1);
+        verify(statsRepository).addRating(1L, 2025, 5, 9, 1);
+    }
+
+    @Test
+    public void ReadingStatsService_OnReadingStateChanged_MovesBookToNewDate() {
+        statsService.onReadingStateChanged(new ReadingStateChangedEvent(1L, 2L, LocalDate.of(2024, 12, 30), 3,
+                LocalDate.of(2025, 1, 2), 3));
+
+        verify(statsRepository).addBook(1L, 2L, 2024, 12, -1);
+        verify(statsRepository).addGenres(1L, 2L, 2024, -1);
+        verify(statsRepository).addRating(1L, 2024, 12, 6, -1);
+        verify(statsRepository).addBook(1L, 2L, 2025, 1, 1);
+        verify(statsRepository).addGenres(1L, 2L, 2025, 1);
+        verify(statsRepository).addRating(1L, 2025, 1, 6, 1);
+    }
+
+    @Test
+    public void ReadingStatsService_OnReadingStateChanged_SameDateOnlyUpdatesRating() {
+        LocalDate fecha = LocalDate.of(2025, 5, 3);
+
+        statsService.onReadingStateChanged(new ReadingStateChangedEvent(1L, 2L, fecha, 0, fecha, 2));
+
+        verify(statsRepository).addRating(1L, 2025, 5, 4, 1);
+        verify(statsRepository, never()).addRating(anyLong(), anyInt(), anyInt(), anyInt(), eq(-1));
+        verify(statsRepository, never()).addBook(any(), any(), anyInt(), anyInt(), anyInt());
+        verify(statsRepository, never()).addGenres(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void ReadingStatsService_OnReadingStateChanged_RemovedBook() {
+        statsService.onReadingStateChanged(new ReadingStateChangedEvent(1L, 2L, LocalDate.of(2025, 5, 3), 0,
+                null, 0));
+
+        verify(statsRepository).addBook(1L, 2L, 2025, 5, -1);
+        verify(statsRepository).addGenres(1L, 2L, 2025, -1);
+        verify(statsRepository, never()).addRating(any(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void ReadingStatsService_Initialize_EmptyTable_Reconciles() {
+        when(statsRepository.count()).thenReturn(0L);
+
+        statsService.initialize();
+
+        verify(statsRepository).rebuildAll();
+        verify(statsRepository).deleteOrphans();
+        verify(statsRepository).rebuildGenres();
+        verify(statsRepository).deleteGenreOrphans();
+    }
+
+    @Test
+    public void ReadingStatsService_Initialize_ExistingStats_DoesNothing() {
+        when(statsRepository.count()).thenReturn(3L);
+
+        statsService.initialize();
+
+        verify(statsRepository, never()).rebuildAll();
+    }
+}
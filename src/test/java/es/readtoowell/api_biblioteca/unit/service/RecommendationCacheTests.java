@@ -0,0 +1,150 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.model.DTO.book.RatedBookDTO;
+import es.readtoowell.api_biblioteca.model.enums.RecommendationStrategy;
+import es.readtoowell.api_biblioteca.service.book.RecommendationCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para la caché de recomendaciones.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RecommendationCacheTests {
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private RecommendationCache recommendationCache;
+
+    private AtomicInteger calls;
+
+    @BeforeEach
+    public void init() {
+        ReflectionTestUtils.setField(recommendationCache, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(recommendationCache, "maxSize", 100L);
+        recommendationCache.init();
+        calls = new AtomicInteger();
+    }
+
+    private List<RatedBookDTO> load() {
+        calls.incrementAndGet();
+        return List.of(new RatedBookDTO());
+    }
+
+    private double count(RecommendationStrategy strategy, String result) {
+        return meterRegistry.get("readtoowell.recommendations.cache")
+                .tag("strategy", strategy.getTag())
+                .tag("result", result)
+                .counter().count();
+    }
+
+    @Test
+    public void RecommendationCache_Get_SecondCallIsHit() {
+        List<RatedBookDTO> first = recommendationCache.get(1L, RecommendationStrategy.FAVORITE_BOOKS, this::load);
+        List<RatedBookDTO> second = recommendationCache.get(1L, RecommendationStrategy.FAVORITE_BOOKS, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+        assertEquals(1, count(RecommendationStrategy.FAVORITE_BOOKS, "miss"));
+        assertEquals(1, count(RecommendationStrategy.FAVORITE_BOOKS, "hit"));
+        assertEquals(0, count(RecommendationStrategy.GENERAL, "hit"));
+    }
+
+    @Test
+    public void RecommendationCache_Get_KeyedByUserAndStrategy() {
+        recommendationCache.get(1L, RecommendationStrategy.FAVORITE_BOOKS, this::load);
+        recommendationCache.get(2L, RecommendationStrategy.FAVORITE_BOOKS, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.FAVORITE_GENRES, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 6L, this::load);
+
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void RecommendationCache_Get_NullResultNotCached() {
+        assertNull(recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, () -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void RecommendationCache_Invalidate_OnlyGivenStrategy() {
+        recommendationCache.get(1L, RecommendationStrategy.FAVORITE_BOOKS, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.FAVORITE_GENRES, this::load);
+
+        recommendationCache.invalidate(1L, RecommendationStrategy.FAVORITE_BOOKS);
+        recommendationCache.get(1L, RecommendationStrategy.FAVORITE_BOOKS, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.FAVORITE_GENRES, this::load);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void RecommendationCache_InvalidateAll_OnlyGivenUser() {
+        recommendationCache.get(1L, RecommendationStrategy.READ_BOOKS, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+        recommendationCache.get(2L, RecommendationStrategy.READ_BOOKS, this::load);
+
+        recommendationCache.invalidateAll(1L);
+        recommendationCache.get(1L, RecommendationStrategy.READ_BOOKS, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+        recommendationCache.get(2L, RecommendationStrategy.READ_BOOKS, this::load);
+
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void RecommendationCache_InvalidateList_OnlyGivenList() {
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 6L, this::load);
+
+        recommendationCache.invalidateList(1L, 5L);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 6L, this::load);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void RecommendationCache_Invalidate_DiscardsEntriesComputedBeforeCommit() {
+        recommendationCache.get(1L, RecommendationStrategy.READ_BOOKS, this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            recommendationCache.invalidateAll(1L);
+            recommendationCache.invalidateList(1L, 5L);
+
+            // Consultas entre la invalidación y la confirmación: calculan con los datos sin confirmar
+            recommendationCache.get(1L, RecommendationStrategy.READ_BOOKS, this::load);
+            recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+            assertEquals(3, calls.get());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        recommendationCache.get(1L, RecommendationStrategy.READ_BOOKS, this::load);
+        recommendationCache.get(1L, RecommendationStrategy.LIST, 5L, this::load);
+        assertEquals(5, calls.get());
+    }
+}
@@ -1,6 +1,5 @@
 package es.readtoowell.api_biblioteca.unit.service;
 
-import es.readtoowell.api_biblioteca.mapper.BookMapper;
 import es.readtoowell.api_biblioteca.model.DTO.book.RatedBookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserFavoritesDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
@@ -8,9 +7,15 @@ import es.readtoowell.api_biblioteca.model.entity.id.BookListItemId;
 import es.readtoowell.api_biblioteca.repository.book.BookListRepository;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
 import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
+import es.readtoowell.api_biblioteca.service.book.BookStatsService;
+import es.readtoowell.api_biblioteca.service.book.GenreIndex;
+import es.readtoowell.api_biblioteca.service.book.BookSimilarityService;
+import es.readtoowell.api_biblioteca.service.book.RatedBookHydrator;
+import es.readtoowell.api_biblioteca.service.book.RecommendationCache;
 import es.readtoowell.api_biblioteca.service.book.RecommendationService;
 import es.readtoowell.api_biblioteca.service.user.UserService;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -21,10 +26,15 @@ import org.springframework.security.access.AccessDeniedException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -37,17 +47,34 @@ public class RecommendationServiceTests {
     @Mock
     private UserService userService;
     @Mock
-    private UserLibraryBookRepository libraryRepository;
+    private RatedBookHydrator ratedBookHydrator;
     @Mock
     private BookListRepository listRepository;
     @Mock
-    private BookMapper bookMapper;
+    private RecommendationCache recommendationCache;
+    @Mock
+    private BookSimilarityService similarityService;
+    @Mock
+    private GenreIndex genreIndex;
+    @Mock
+    private UserLibraryBookRepository libraryRepository;
+    @Mock
+    private BookStatsService bookStatsService;
     @InjectMocks
     private RecommendationService recommendationService;
 
+    @BeforeEach
+    public void init() {
+        // La caché se comporta como si estuviera vacía: siempre calcula las recomendaciones
+        lenient().when(recommendationCache.get(any(), any(), any(Supplier.class)))
+                .thenAnswer(inv -> inv.getArgument(2, Supplier.class).get());
+        lenient().when(recommendationCache.get(any(), any(), any(), any(Supplier.class)))
+                .thenAnswer(inv -> inv.getArgument(3, Supplier.class).get());
+    }
+
     @Test
     public void RecommendationService_GetRecommendationsByFavoriteBooks_ReturnBooks() {
-        List<Book> books = List.of(new Book());
+        List<Long> books = List.of(3L);
         Book b1 = new Book(); b1.setId(1L);
         Book b2 = new Book(); b2.setId(2L);
         UserFavoritesDTO favorites = new UserFavoritesDTO();
@@ -56,15 +83,36 @@ public class RecommendationServiceTests {
         favorites.setFavoriteBooks(List.of(b1, b2));
         when(bookRepository.findSimilarBooksByFavoriteBooks(anyList(), anyLong())).thenReturn(books);
 
+        when(ratedBookHydrator.hydrate(anyList())).thenReturn(List.of(new RatedBookDTO()));
+
         List<RatedBookDTO> result = recommendationService.getRecommendationsByFavoriteBooks(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
     }
 
+    @Test
+    public void RecommendationService_GetRecommendationsByFavoriteBooks_NeighborsAvailable() {
+        List<Long> books = List.of(3L, 4L);
+        Book b1 = new Book(); b1.setId(1L);
+        Book b2 = new Book(); b2.setId(2L);
+        UserFavoritesDTO favorites = new UserFavoritesDTO();
+        favorites.setFavoriteBooks(List.of(b1, b2));
+
+        when(userService.getFavorites(1L)).thenReturn(favorites);
+        when(similarityService.isAvailable()).thenReturn(true);
+        when(similarityService.recommend(1L, List.of(1L, 2L), 30)).thenReturn(books);
+        when(ratedBookHydrator.hydrate(books)).thenReturn(List.of(new RatedBookDTO(), new RatedBookDTO()));
+
+        List<RatedBookDTO> result = recommendationService.getRecommendationsByFavoriteBooks(1L);
+
+        assertEquals(2, result.size());
+        verify(bookRepository, never()).findSimilarBooksByFavoriteBooks(anyList(), anyLong());
+    }
+
     @Test
     public void RecommendationService_GetRecommendationsByFavoriteGenres_ReturnBooks() {
-        List<Book> books = List.of(new Book());
+        List<Long> books = List.of(3L);
         Genre g1 = new Genre(); g1.setId(1L);
         Genre g2 = new Genre(); g2.setId(2L);
         UserFavoritesDTO favorites = new UserFavoritesDTO();
@@ -73,30 +121,70 @@ public class RecommendationServiceTests {
         favorites.setFavoriteGenres(List.of(g1, g2));
         when(bookRepository.findBooksWithSimilarGenres(anyList(), anyLong())).thenReturn(books);
 
+        when(ratedBookHydrator.hydrate(anyList())).thenReturn(List.of(new RatedBookDTO()));
+
         List<RatedBookDTO> result = recommendationService.getRecommendationsByFavoriteGenres(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
     }
 
+    @Test
+    public void RecommendationService_GetRecommendationsByFavoriteGenres_IndexReady() {
+        Genre g1 = new Genre(); g1.setId(1L);
+        Genre g2 = new Genre(); g2.setId(2L);
+        UserFavoritesDTO favorites = new UserFavoritesDTO();
+        favorites.setFavoriteGenres(List.of(g1, g2));
+
+        when(userService.getFavorites(1L)).thenReturn(favorites);
+        when(genreIndex.isReady()).thenReturn(true);
+        when(libraryRepository.findBookIdsByUserId(1L)).thenReturn(List.of(9L));
+        when(genreIndex.countSharedGenres(List.of(1L, 2L), List.of(9L))).thenReturn(Map.of(3L, 1, 4L, 2, 5L, 1));
+        when(bookStatsService.getAverageRatings(anyList())).thenReturn(Map.of(3L, 2.0, 4L, 1.0, 5L, 4.5));
+        when(ratedBookHydrator.hydrate(List.of(4L, 5L, 3L))).thenReturn(List.of(new RatedBookDTO()));
+
+        List<RatedBookDTO> result = recommendationService.getRecommendationsByFavoriteGenres(1L);
+
+        assertEquals(1, result.size());
+        verify(bookRepository, never()).findBooksWithSimilarGenres(anyList(), anyLong());
+    }
+
     @Test
     public void RecommendationService_GetRecommendationsByBooksRead_ReturnBooks() {
-        List<Book> books = List.of(new Book());
+        List<Long> books = List.of(3L);
 
         when(bookRepository.findBooksSimilarToReadOnes(anyLong())).thenReturn(books);
 
+        when(ratedBookHydrator.hydrate(anyList())).thenReturn(List.of(new RatedBookDTO()));
+
         List<RatedBookDTO> result = recommendationService.getRecommendationsByReadBooks(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
     }
 
+    @Test
+    public void RecommendationService_GetRecommendationsByBooksRead_NeighborsAvailable() {
+        List<Long> books = List.of(3L);
+
+        when(similarityService.isAvailable()).thenReturn(true);
+        when(similarityService.recommendFromReadBooks(1L, 30)).thenReturn(books);
+        when(ratedBookHydrator.hydrate(books)).thenReturn(List.of(new RatedBookDTO()));
+
+        List<RatedBookDTO> result = recommendationService.getRecommendationsByReadBooks(1L);
+
+        assertEquals(1, result.size());
+        verify(bookRepository, never()).findBooksSimilarToReadOnes(anyLong());
+    }
+
     @Test
     public void RecommendationService_GetGeneralRecommendations_ReturnBooks() {
-        List<Book> books = List.of(new Book());
+        List<Long> books = List.of(3L);
 
         when(bookRepository.findGeneralRecommendations(anyLong(), anyInt())).thenReturn(books);
 
+        when(ratedBookHydrator.hydrate(anyList())).thenReturn(List.of(new RatedBookDTO()));
+
         List<RatedBookDTO> result = recommendationService.getGeneralRecommendations(1L);
 
         assertNotNull(result);
@@ -131,11 +219,13 @@ public class RecommendationServiceTests {
         bookList.setBooks(items);
         bookList.setGenres(new HashSet<>());
 
-        List<Book> recommendedBooks = List.of(new Book());
+        List<Long> recommendedBooks = List.of(5L);
 
         when(listRepository.findById(idList)).thenReturn(Optional.of(bookList));
         when(bookRepository.findSimilarBooksByFavoriteBooks(anyList(), any())).thenReturn(recommendedBooks);
 
+        when(ratedBookHydrator.hydrate(anyList())).thenReturn(List.of(new RatedBookDTO()));
+
         List<RatedBookDTO> result = recommendationService.getRecommendationsByList(idUser, idList);
 
         assertNotNull(result);
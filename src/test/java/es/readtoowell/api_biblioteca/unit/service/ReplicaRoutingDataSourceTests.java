@@ -0,0 +1,114 @@
+package es.readtoowell.api_biblioteca.unit.service;
+
+import es.readtoowell.api_biblioteca.config.CustomUserDetails;
+import es.readtoowell.api_biblioteca.config.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Clase de pruebas para el reparto de conexiones entre la base de datos principal y la réplica.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTests {
+    private static final String SERVICE_TRANSACTION = "es.readtoowell.api_biblioteca.service.book.BookService.getBook";
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    public void init() {
+        routing = new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1), 2000);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void clear() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_ReadOnlyServiceTransaction_UsesReplica() throws Exception {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        transaction(SERVICE_TRANSACTION, true);
+
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_RepositoryDefaultTransaction_UsesPrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        transaction("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_ReadAfterWrite_UsesPrimaryForSameUser() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        authenticate(1L);
+
+        transaction(SERVICE_TRANSACTION, false);
+        assertSame(primaryConnection, routing.getConnection());
+
+        transaction(SERVICE_TRANSACTION, true);
+        assertSame(primaryConnection, routing.getConnection());
+
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        authenticate(2L);
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    public void ReplicaRoutingDataSource_ReplicaLagging_UsesPrimaryUntilRecovered() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        transaction(SERVICE_TRANSACTION, true);
+
+        routing.recordReplicaLag(5000.0);
+        assertFalse(routing.isReplicaAvailable());
+        assertSame(primaryConnection, routing.getConnection());
+
+        routing.recordReplicaLag(null);
+        assertSame(primaryConnection, routing.getConnection());
+
+        routing.recordReplicaLag(100.0);
+        assertTrue(routing.isReplicaAvailable());
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    private void transaction(String name, boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void authenticate(Long idUser) {
+        CustomUserDetails principal = new CustomUserDetails(idUser, "prueba@email.es", null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -1,10 +1,14 @@
 package es.readtoowell.api_biblioteca.unit.service;
 
 import es.readtoowell.api_biblioteca.mapper.SuggestionMapper;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.SuggestionDTO;
 import es.readtoowell.api_biblioteca.model.entity.Suggestion;
 import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.enums.Role;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.SuggestionRepository;
+import es.readtoowell.api_biblioteca.repository.user.UserRepository;
 import es.readtoowell.api_biblioteca.service.book.SuggestionService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
@@ -16,7 +20,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
@@ -37,6 +43,8 @@ public class SuggestionServiceTests {
     private SuggestionRepository suggestionRepository;
     @Mock
     private SuggestionMapper suggestionMapper;
+    @Mock
+    private UserRepository userRepository;
     @InjectMocks
     private SuggestionService suggestionService;
 
@@ -59,6 +67,7 @@ public class SuggestionServiceTests {
         Suggestion suggestion = new Suggestion();
         suggestion.setId(1L);
 
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(suggestionRepository.save(any())).thenReturn(suggestion);
         when(suggestionMapper.toDTO(any())).thenReturn(suggestionDTO);
 
@@ -77,13 +86,11 @@ public class SuggestionServiceTests {
         suggestion.setStatus(0);
         suggestion.setActive(true);
 
-        user.setRole(2);
-
         when(suggestionRepository.findById(suggestionId)).thenReturn(Optional.of(suggestion));
         when(suggestionRepository.save(any())).thenReturn(suggestion);
         when(suggestionMapper.toDTO(any())).thenReturn(new SuggestionDTO());
 
-        SuggestionDTO result = suggestionService.updateStatusSuggestion(suggestionId, newStatus, user);
+        SuggestionDTO result = suggestionService.updateStatusSuggestion(suggestionId, newStatus);
 
         assertNotNull(result);
         assertEquals(newStatus, suggestion.getStatus());
@@ -98,13 +105,11 @@ public class SuggestionServiceTests {
         Suggestion suggestion = new Suggestion();
         suggestion.setStatus(0);
 
-        user.setRole(2);
-
         when(suggestionRepository.findById(suggestionId)).thenReturn(Optional.of(suggestion));
         when(suggestionRepository.save(any())).thenReturn(suggestion);
         when(suggestionMapper.toDTO(any())).thenReturn(new SuggestionDTO());
 
-        SuggestionDTO result = suggestionService.updateStatusSuggestion(suggestionId, newStatus, user);
+        SuggestionDTO result = suggestionService.updateStatusSuggestion(suggestionId, newStatus);
 
         assertNotNull(result);
         assertEquals(newStatus, suggestion.getStatus());
@@ -119,11 +124,9 @@ public class SuggestionServiceTests {
         Suggestion suggestion = new Suggestion();
         suggestion.setStatus(0);
 
-        user.setRole(2);
-
         ValidationException exception = assertThrows(
                 ValidationException.class,
-                () -> suggestionService.updateStatusSuggestion(suggestionId, newStatus, user)
+                () -> suggestionService.updateStatusSuggestion(suggestionId, newStatus)
         );
 
         assertEquals("El nuevo estado de la sugerencia es inválido.", exception.getMessage());
@@ -137,14 +140,14 @@ public class SuggestionServiceTests {
         Suggestion suggestion = new Suggestion();
         suggestion.setStatus(0);
 
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
-                () -> suggestionService.updateStatusSuggestion(suggestionId, newStatus, user)
+                () -> MethodSecurity.secured(suggestionService).updateStatusSuggestion(suggestionId, newStatus)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
@@ -155,13 +158,11 @@ public class SuggestionServiceTests {
         Suggestion suggestion = new Suggestion();
         suggestion.setStatus(0);
 
-        user.setRole(2);
-
         when(suggestionRepository.findById(suggestionId)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> suggestionService.updateStatusSuggestion(suggestionId, newStatus, user)
+                () -> suggestionService.updateStatusSuggestion(suggestionId, newStatus)
         );
 
         assertEquals("La sugerencia con ID 1 no existe.", exception.getMessage());
@@ -169,51 +170,48 @@ public class SuggestionServiceTests {
 
     @Test
     public void SuggestionService_GetAllSuggestions_ReturnSuggestions() {
-        user.setRole(2);
-
+        MethodSecurity.authenticateAs(Role.ADMIN);
         Page<Suggestion> page = new PageImpl<>(List.of(new Suggestion()));
         when(suggestionRepository.findAll(any(Pageable.class))).thenReturn(page);
         when(suggestionMapper.toDTO(any())).thenReturn(new SuggestionDTO());
 
-        Page<SuggestionDTO> result = suggestionService.getAllSuggestions(0, 5, user);
+        Page<SuggestionDTO> result = MethodSecurity.secured(suggestionService).getAllSuggestions(0, 5);
 
         assertEquals(1, result.getContent().size());
     }
 
     @Test
     public void SuggestionService_GetAllSuggestions_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
-                () -> suggestionService.getAllSuggestions(0, 5, user)
+                () -> MethodSecurity.secured(suggestionService).getAllSuggestions(0, 5)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void SuggestionService_GetSuggestionsWithStatus_ReturnSuggestions() {
-        user.setRole(2);
         int status = 0;
         Page<Suggestion> page = new PageImpl<>(List.of(new Suggestion()));
 
         when(suggestionRepository.findByStatus(anyInt(), any(Pageable.class))).thenReturn(page);
         when(suggestionMapper.toDTO(any())).thenReturn(new SuggestionDTO());
 
-        Page<SuggestionDTO> result = suggestionService.getSuggestionsWithStatus(0, 5, status, user);
+        Page<SuggestionDTO> result = suggestionService.getSuggestionsWithStatus(0, 5, status);
 
         assertEquals(1, result.getContent().size());
     }
 
     @Test
     public void SuggestionService_GetSuggestionsWithStatus_InvalidStatus() {
-        user.setRole(2);
         int status = 99;
 
         ValidationException exception = assertThrows(
                 ValidationException.class,
-                () -> suggestionService.getSuggestionsWithStatus(0, 5, status, user)
+                () -> suggestionService.getSuggestionsWithStatus(0, 5, status)
         );
 
         assertEquals("El estado es inválido.", exception.getMessage());
@@ -221,51 +219,87 @@ public class SuggestionServiceTests {
 
     @Test
     public void SuggestionService_GetSuggestionsWithStatus_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
         int status = 1;
 
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
-                () -> suggestionService.getSuggestionsWithStatus(0, 5, status, user)
+                () -> MethodSecurity.secured(suggestionService).getSuggestionsWithStatus(0, 5, status)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
-    public void SuggestionStatus_GetSuggestion_ReturnSuggestion() {
+    public void SuggestionService_GetSuggestionsWithStatusByCursor_ReturnSuggestionsAfterCursor() {
         user.setRole(2);
+        Suggestion suggestion = new Suggestion();
+        suggestion.setId(3L);
+        suggestion.setDateSent(new java.util.Date(5000L));
+
+        when(suggestionRepository.findSentBefore(1, new java.util.Date(9000L), 8L, PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(suggestion), PageRequest.ofSize(1), true));
+        when(suggestionMapper.toDTO(suggestion)).thenReturn(new SuggestionDTO());
+
+        CursorPageDTO<SuggestionDTO> result = suggestionService.getSuggestionsWithStatus(
+                CursorCodec.encode(new java.util.Date(9000L), 8L), 1, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(CursorCodec.encode(new java.util.Date(5000L), 3L), result.getNextCursor());
+    }
 
+    @Test
+    public void SuggestionService_GetAllSuggestionsByCursor_UserIsNotAdmin() {
+        MethodSecurity.authenticateAs(Role.USER);
+
+        AccessDeniedException exception = assertThrows(
+                AccessDeniedException.class,
+                () -> MethodSecurity.secured(suggestionService).getAllSuggestions("", 5)
+        );
+
+        assertEquals("Access Denied", exception.getMessage());
+    }
+
+    @Test
+    public void SuggestionService_GetAllSuggestionsByCursor_InvalidCursor() {
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> suggestionService.getAllSuggestions(CursorCodec.encode(1L), 5)
+        );
+
+        assertEquals("El cursor de paginación es inválido.", exception.getMessage());
+    }
+
+    @Test
+    public void SuggestionStatus_GetSuggestion_ReturnSuggestion() {
         Suggestion suggestion = new Suggestion();
         when(suggestionRepository.findById(1L)).thenReturn(Optional.of(suggestion));
         when(suggestionMapper.toDTO(any())).thenReturn(new SuggestionDTO());
 
-        SuggestionDTO result = suggestionService.getSuggestion(1L, user);
+        SuggestionDTO result = suggestionService.getSuggestion(1L);
 
         assertNotNull(result);
     }
 
     @Test
     public void SuggestionStatus_GetSuggestion_UserIsNotAdmin() {
-        user.setRole(0);
+        MethodSecurity.authenticateAs(Role.USER);
 
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
-                () -> suggestionService.getSuggestion(1L, user)
+                () -> MethodSecurity.secured(suggestionService).getSuggestion(1L)
         );
 
-        assertEquals("Solo los admins pueden realizar esta acción.", exception.getMessage());
+        assertEquals("Access Denied", exception.getMessage());
     }
 
     @Test
     public void SuggestionStatus_GetSuggestion_UnexistentSuggestion() {
-        user.setRole(2);
-
         when(suggestionRepository.findById(1L)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> suggestionService.getSuggestion(1L, user)
+                () -> suggestionService.getSuggestion(1L)
         );
 
         assertEquals("La sugerencia con ID 1 no existe.", exception.getMessage());
@@ -1,8 +1,10 @@
 package es.readtoowell.api_biblioteca.unit.service;
 
+import es.readtoowell.api_biblioteca.config.CompositeQueryExecutor;
 import es.readtoowell.api_biblioteca.mapper.GenreMapper;
 import es.readtoowell.api_biblioteca.mapper.GoalMapper;
 import es.readtoowell.api_biblioteca.mapper.UserLibraryBookMapper;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
 import es.readtoowell.api_biblioteca.model.DTO.GoalDTO;
 import es.readtoowell.api_biblioteca.model.DTO.UserLibraryBookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.YearRecapDTO;
@@ -10,21 +12,39 @@ import es.readtoowell.api_biblioteca.model.DTO.book.BookDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.GenreDTO;
 import es.readtoowell.api_biblioteca.model.DTO.book.RatingDTO;
 import es.readtoowell.api_biblioteca.model.entity.*;
+import es.readtoowell.api_biblioteca.model.entity.id.ReadingStatsId;
+import es.readtoowell.api_biblioteca.model.enums.ActivityType;
+import es.readtoowell.api_biblioteca.model.enums.RecommendationStrategy;
+import es.readtoowell.api_biblioteca.model.projection.BookGroupRow;
+import es.readtoowell.api_biblioteca.model.projection.LibraryBookRow;
+import es.readtoowell.api_biblioteca.model.projection.RatedBookRow;
+import es.readtoowell.api_biblioteca.pagination.CursorCodec;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
+import es.readtoowell.api_biblioteca.repository.book.GenreRepository;
 import es.readtoowell.api_biblioteca.repository.goal.GoalRepository;
 import es.readtoowell.api_biblioteca.repository.library.UserLibraryBookRepository;
+import es.readtoowell.api_biblioteca.service.book.BookStatsService;
+import es.readtoowell.api_biblioteca.service.book.RecommendationCache;
 import es.readtoowell.api_biblioteca.service.goal.GoalService;
+import es.readtoowell.api_biblioteca.service.activity.ActivityEvent;
+import es.readtoowell.api_biblioteca.service.goal.ReadingProgressEvent;
+import es.readtoowell.api_biblioteca.service.library.ReadingStateChangedEvent;
+import es.readtoowell.api_biblioteca.service.library.ReadingStatsService;
 import es.readtoowell.api_biblioteca.service.library.UserLibraryBookService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,9 +67,21 @@ public class UserLibraryBookServiceTests {
     @Mock
     private GoalMapper goalMapper;
     @Mock
+    private GenreRepository genreRepository;
+    @Mock
     private GenreMapper genreMapper;
     @Mock
     private GoalService goalService;
+    @Mock
+    private BookStatsService bookStatsService;
+    @Mock
+    private RecommendationCache recommendationCache;
+    @Mock
+    private ReadingStatsService readingStatsService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private CompositeQueryExecutor compositeQueryExecutor = CompositeQueries.executor(200L);
     @InjectMocks
     private UserLibraryBookService libraryService;
 
@@ -68,32 +100,45 @@ public class UserLibraryBookServiceTests {
     public void UserLibraryBookService_GetLibraryFromUser_ReturnBooks() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        List<UserLibraryBook> libros = List.of(libraryBook, libraryBook);
-        Page<UserLibraryBook> page = new PageImpl<>(libros);
-
-        when(libraryRepository.findByUser(user, pageable)).thenReturn(page);
-        when(libraryMapper.toDTO(any(UserLibraryBook.class))).thenReturn(new UserLibraryBookDTO());
+        user.setId(1L);
+        Genre genre = new Genre();
+        genre.setId(3L);
+        GenreDTO genreDTO = new GenreDTO();
+        BookGroupRow genero = mock(BookGroupRow.class);
+        when(genero.getGroupId()).thenReturn(3L);
+        when(genero.getBookId()).thenReturn(7L);
+        LibraryBookRow conGenero = libraryRow(7L);
+        LibraryBookRow sinGenero = libraryRow(8L);
+        Page<LibraryBookRow> page = new PageImpl<>(List.of(conGenero, sinGenero));
+
+        when(libraryRepository.findByUser(1L, pageable)).thenReturn(page);
+        when(genreRepository.findAll()).thenReturn(List.of(genre));
+        when(genreMapper.toDTO(genre)).thenReturn(genreDTO);
+        when(bookRepository.findGenresOfBooks(List.of(7L, 8L))).thenReturn(List.of(genero));
+        when(libraryMapper.toDTO(any(LibraryBookRow.class), anyList())).thenReturn(new UserLibraryBookDTO());
 
         Page<UserLibraryBookDTO> result = libraryService.getLibraryFromUser(user, 0, 10);
 
         assertEquals(2, result.getContent().size());
-        verify(libraryRepository).findByUser(user, pageable);
+        verify(libraryMapper).toDTO(conGenero, List.of(genreDTO));
+        verify(libraryMapper).toDTO(sinGenero, List.of());
     }
 
     @Test
     public void UserLibraryBookService_GetLibraryByStatus_ReturnBooks() {
         int status = 2;
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dateFinish"));
-        List<UserLibraryBook> libros = List.of(libraryBook);
-        Page<UserLibraryBook> page = new PageImpl<>(libros);
+        user.setId(1L);
+        Page<LibraryBookRow> page = new PageImpl<>(List.of(libraryRow(7L)));
 
-        when(libraryRepository.findByUserAndReadingStatus(user, status, pageable)).thenReturn(page);
-        when(libraryMapper.toDTO(any(UserLibraryBook.class))).thenReturn(new UserLibraryBookDTO());
+        when(libraryRepository.findByUserAndReadingStatus(1L, status, pageable)).thenReturn(page);
+        when(bookRepository.findGenresOfBooks(List.of(7L))).thenReturn(List.of());
+        when(libraryMapper.toDTO(any(LibraryBookRow.class), anyList())).thenReturn(new UserLibraryBookDTO());
 
         Page<UserLibraryBookDTO> result = libraryService.getLibraryByStatus(user, status, 0, 10);
 
         assertEquals(1, result.getContent().size());
-        verify(libraryRepository).findByUserAndReadingStatus(user, status, pageable);
+        verify(libraryRepository).findByUserAndReadingStatus(1L, status, pageable);
     }
 
     @Test
@@ -108,6 +153,92 @@ public class UserLibraryBookServiceTests {
         assertEquals("El estado de lectura indicado es inválido.", exception.getMessage());
     }
 
+    @Test
+    public void UserLibraryBookService_GetLibraryFromUserByCursor_ReturnBooksAfterCursor() {
+        user.setId(1L);
+        LibraryBookRow row = libraryRow(7L);
+
+        when(libraryRepository.findByUserAfter(1L, 5L, PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.ofSize(1), true));
+        when(bookRepository.findGenresOfBooks(List.of(7L))).thenReturn(List.of());
+        when(libraryMapper.toDTO(row, List.of())).thenReturn(new UserLibraryBookDTO());
+
+        CursorPageDTO<UserLibraryBookDTO> result = libraryService.getLibraryFromUser(user,
+                CursorCodec.encode(5L), 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(CursorCodec.encode(7L), result.getNextCursor());
+    }
+
+    @Test
+    public void UserLibraryBookService_GetLibraryByStatusByCursor_ReadOrderedByFinishDate() {
+        user.setId(1L);
+        LibraryBookRow row = libraryRow(7L);
+        java.util.Date fechaFin = new java.util.Date(1700000000000L);
+        when(row.getDateFinish()).thenReturn(fechaFin);
+
+        when(libraryRepository.findByUserAndStatusFinishedBefore(1L, 2, CursorCodec.MAX_DATE, Long.MAX_VALUE,
+                PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.ofSize(1), true));
+        when(bookRepository.findGenresOfBooks(List.of(7L))).thenReturn(List.of());
+        when(libraryMapper.toDTO(row, List.of())).thenReturn(new UserLibraryBookDTO());
+
+        CursorPageDTO<UserLibraryBookDTO> result = libraryService.getLibraryByStatus(user, 2, "", 1);
+
+        assertEquals(CursorCodec.encode(fechaFin, 7L), result.getNextCursor());
+        verify(libraryRepository, never()).findByUserAndStatusStartedBefore(any(), anyInt(), any(), any(), any());
+        verify(libraryRepository, never()).findByUserAndStatusUnfinishedBefore(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void UserLibraryBookService_GetLibraryByStatusByCursor_ReadingWithoutStartDate() {
+        user.setId(1L);
+        LibraryBookRow row = libraryRow(7L);
+
+        // No quedan libros con fecha de inicio: la porción sigue con los libros sin fecha
+        when(libraryRepository.findByUserAndStatusStartedBefore(1L, 1, new java.util.Date(1000L), 9L,
+                PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(1), false));
+        when(libraryRepository.findByUserAndStatusUnstartedBefore(1L, 1, Long.MAX_VALUE, PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.ofSize(1), true));
+        when(bookRepository.findGenresOfBooks(List.of(7L))).thenReturn(List.of());
+        when(libraryMapper.toDTO(row, List.of())).thenReturn(new UserLibraryBookDTO());
+
+        CursorPageDTO<UserLibraryBookDTO> result = libraryService.getLibraryByStatus(user, 1,
+                CursorCodec.encode(new java.util.Date(1000L), 9L), 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(CursorCodec.encode(null, 7L), result.getNextCursor());
+    }
+
+    @Test
+    public void UserLibraryBookService_GetLibraryByStatusByCursor_CursorWithoutDate() {
+        user.setId(1L);
+        LibraryBookRow row = libraryRow(5L);
+
+        when(libraryRepository.findByUserAndStatusUnstartedBefore(1L, 1, 7L, PageRequest.ofSize(1)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.ofSize(1), false));
+        when(bookRepository.findGenresOfBooks(List.of(5L))).thenReturn(List.of());
+        when(libraryMapper.toDTO(row, List.of())).thenReturn(new UserLibraryBookDTO());
+
+        CursorPageDTO<UserLibraryBookDTO> result = libraryService.getLibraryByStatus(user, 1,
+                CursorCodec.encode(null, 7L), 1);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        verify(libraryRepository, never()).findByUserAndStatusStartedBefore(any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    public void UserLibraryBookService_GetLibraryByStatusByCursor_InvalidStatus() {
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> libraryService.getLibraryByStatus(user, 200, "", 10)
+        );
+
+        assertEquals("El estado de lectura indicado es inválido.", exception.getMessage());
+    }
+
     @Test
     public void UserLibraryBookService_AddBookToLibrary_ReturnAdded() {
         Long bookId = 1L;
@@ -126,6 +257,8 @@ public class UserLibraryBookServiceTests {
         verify(libraryRepository).findByUserAndBook(user, book);
         verify(libraryRepository).save(any(UserLibraryBook.class));
         verify(libraryMapper).toDTO(any(UserLibraryBook.class));
+        verify(bookStatsService).registerReader(bookId);
+        verify(recommendationCache).invalidateAll(user.getId());
     }
 
     @Test
@@ -174,6 +307,27 @@ public class UserLibraryBookServiceTests {
         assertNotNull(result);
         verify(libraryRepository).delete(libraryBook);
         verify(libraryMapper).toDTO(libraryBook);
+        verify(bookStatsService).unregisterReader(book.getId(), libraryBook.getRating());
+        verify(recommendationCache).invalidateAll(user.getId());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void UserLibraryBookService_DeleteBookFromLibrary_SubtractFinishedBookFromGoals() {
+        Long bookId = 1L;
+        user.setId(1L);
+        book.setPageNumber(300);
+        libraryBook.setDateFinish(java.sql.Date.valueOf(LocalDate.of(2025, 3, 10)));
+
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(libraryRepository.findByUserAndBook(user, book)).thenReturn(Optional.of(libraryBook));
+        when(libraryMapper.toDTO(libraryBook)).thenReturn(new UserLibraryBookDTO());
+
+        libraryService.deleteBookFromLibrary(bookId, user);
+
+        verify(eventPublisher).publishEvent(new ReadingProgressEvent(1L, LocalDate.of(2025, 3, 10), -1, -300));
+        verify(eventPublisher).publishEvent(new ReadingStateChangedEvent(1L, book.getId(),
+                LocalDate.of(2025, 3, 10), libraryBook.getRating(), null, 0));
     }
 
     @Test
@@ -215,15 +369,20 @@ public class UserLibraryBookServiceTests {
         when(libraryRepository.findByUserAndBook(user, book)).thenReturn(Optional.of(libraryBook));
         when(libraryRepository.save(any(UserLibraryBook.class))).thenAnswer(i -> i.getArgument(0));
         when(libraryMapper.toDTO(any(UserLibraryBook.class))).thenReturn(new UserLibraryBookDTO() {{setRating(4.5);}});
-        when(libraryRepository.findAverageRatingByBookId(bookId)).thenReturn(4.0);
+        when(bookStatsService.getAverageRating(bookId)).thenReturn(4.0);
 
         RatingDTO result = libraryService.rateBook(bookId, user, 4.5);
 
         assertNotNull(result);
         assertEquals(4.0, result.getAverageRating());
         assertEquals(4.5, result.getLibraryBook().getRating());
-        verify(goalService).updateGoals(user.getId(), 0);
+        verify(eventPublisher).publishEvent(new ReadingProgressEvent(1L, LocalDate.now(), 1, 0));
+        verify(eventPublisher).publishEvent(new ReadingStateChangedEvent(1L, bookId, null, 0,
+                LocalDate.now(), 4.5));
+        verify(eventPublisher).publishEvent(new ActivityEvent(1L, ActivityType.RATED, bookId, null, 4.5));
         verify(libraryRepository).save(any(UserLibraryBook.class));
+        verify(bookStatsService).updateRating(bookId, 0, 4.5);
+        verify(recommendationCache).invalidate(user.getId(), RecommendationStrategy.READ_BOOKS);
     }
 
     @Test
@@ -339,7 +498,8 @@ public class UserLibraryBookServiceTests {
         UserLibraryBookDTO result = libraryService.updateReadingStatus(bookId, user, status);
 
         assertNotNull(result);
-        verify(goalService).updateGoals(user.getId(), 0);
+        verify(eventPublisher).publishEvent(new ReadingProgressEvent(1L, LocalDate.now(), 1, 0));
+        verify(recommendationCache).invalidate(user.getId(), RecommendationStrategy.READ_BOOKS);
     }
 
     @Test
@@ -414,7 +574,51 @@ public class UserLibraryBookServiceTests {
         UserLibraryBookDTO result = libraryService.updateProgress(bookId, user, 100, "porcentaje");
 
         assertNotNull(result);
-        verify(goalService).updateGoals(eq(user.getId()), anyInt());
+        // Ya contaban las 150 páginas del 50 %: se suman el libro y las 150 restantes
+        verify(eventPublisher).publishEvent(new ReadingProgressEvent(1L, LocalDate.now(), 1, 150));
+    }
+
+    @Test
+    public void UserLibraryBookService_RateThenDelete_GoalProgressCancelsOut() {
+        Long bookId = 1L;
+        user.setId(1L);
+        book.setId(bookId);
+        book.setPageNumber(300);
+        libraryBook.setReadingStatus(0);
+
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(libraryRepository.findByUserAndBook(user, book)).thenReturn(Optional.of(libraryBook));
+        when(libraryRepository.save(any(UserLibraryBook.class))).thenAnswer(i -> i.getArgument(0));
+        when(libraryMapper.toDTO(any(UserLibraryBook.class))).thenReturn(new UserLibraryBookDTO());
+
+        libraryService.rateBook(bookId, user, 4.5);
+        libraryService.deleteBookFromLibrary(bookId, user);
+
+        List<ReadingProgressEvent> eventos = readingProgressEvents();
+        assertEquals(new ReadingProgressEvent(1L, LocalDate.now(), 1, 300), eventos.get(0));
+        assertEquals(0, eventos.stream().mapToInt(ReadingProgressEvent::books).sum());
+        assertEquals(0, eventos.stream().mapToInt(ReadingProgressEvent::pages).sum());
+    }
+
+    @Test
+    public void UserLibraryBookService_UpdateReadingStatus_FinishAgainSameDayNotCreditedTwice() {
+        Long bookId = 1L;
+        user.setId(1L);
+        book.setId(bookId);
+        book.setPageNumber(300);
+        libraryBook.setBook(book);
+        libraryBook.setReadingStatus(2);
+        libraryBook.setDateFinish(java.sql.Date.valueOf(LocalDate.now()));
+
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(libraryRepository.findByUserAndBook(user, book)).thenReturn(Optional.of(libraryBook));
+        when(libraryRepository.save(any(UserLibraryBook.class))).thenAnswer(i -> i.getArgument(0));
+        when(libraryMapper.toDTO(any(UserLibraryBook.class))).thenReturn(new UserLibraryBookDTO());
+
+        libraryService.updateReadingStatus(bookId, user, 1);
+        libraryService.updateReadingStatus(bookId, user, 2);
+
+        assertTrue(readingProgressEvents().isEmpty());
     }
 
     @Test
@@ -542,32 +746,90 @@ public class UserLibraryBookServiceTests {
         List<GoalDTO> goalsActualYear = List.of(new GoalDTO(), new GoalDTO());
         List<Goal> lastYearAnnualGoals = List.of(new Goal());
 
-        when(goalService.getFinishedGoalsActualYear(user.getId())).thenReturn(goalsActualYear);
-        when(goalRepository.findAnnualGoalsByYear(eq(user.getId()), anyInt())).thenReturn(lastYearAnnualGoals);
+        when(goalService.getFinishedGoalsByYear(user.getId(), 2024)).thenReturn(goalsActualYear);
+        when(goalRepository.findAnnualGoalsByYear(user.getId(), 2023)).thenReturn(lastYearAnnualGoals);
         when(goalMapper.toDTO(any(Goal.class))).thenReturn(new GoalDTO());
 
-        when(libraryRepository.findBooksReadActualYear(user.getId())).thenReturn(List.of(new Book()));
-        when(libraryRepository.sumPagesReadInCurrentYear(user.getId())).thenReturn(1500L);
+        ReadingStats anual = new ReadingStats(new ReadingStatsId(1L, 2024, 0), 5, 1500L, new int[10]);
+        anual.getRatingHistogram()[7] = 2;
+        ReadingStats marzo = new ReadingStats(new ReadingStatsId(1L, 2024, 3), 2, 600L, new int[10]);
+        when(readingStatsService.getStats(user.getId(), 2024)).thenReturn(List.of(anual, marzo));
 
         Genre genre = new Genre();
-        book.setId(1L);
-        book.setTitle("Título");
-        book.setAuthor("Autor");
-        book.setCover("Portada");
-        book.setPageNumber(300);
-
-        when(libraryRepository.findTopGenresForCurrentYear(user.getId(), 5)).thenReturn(List.of(genre));
+        when(readingStatsService.getTopGenres(user.getId(), 2024, 5)).thenReturn(List.of(genre));
         when(genreMapper.toDTO(genre)).thenReturn(new GenreDTO());
 
-        when(libraryRepository.findTopRatedBooksByUserForCurrentYear(user.getId(), 4)).thenReturn(List.of(book));
-        when(libraryRepository.findByUserAndBook(user, book)).thenReturn(Optional.of(new UserLibraryBook()));
-
-        YearRecapDTO result = libraryService.getYearRecap(user);
+        RatedBookRow topBook = new RatedBookRow() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getTitle() {
+                return "Título";
+            }
+
+            @Override
+            public String getAuthor() {
+                return "Autor";
+            }
+
+            @Override
+            public String getCover() {
+                return "Portada";
+            }
+
+            @Override
+            public double getRating() {
+                return 4.5;
+            }
+        };
+        when(libraryRepository.findTopRatedByYear(eq(user.getId()), eq(2024), any(Pageable.class)))
+                .thenReturn(List.of(topBook));
+
+        YearRecapDTO result = libraryService.getYearRecap(user, 2024);
 
         assertNotNull(result);
+        assertEquals(2024, result.getYear());
         assertEquals(3, result.getAnnualGoals().size());
         assertEquals(1, result.getMostReadGenres().size());
         assertEquals(1, result.getTopRatedBooks().size());
+        assertEquals(4.5, result.getTopRatedBooks().get(0).getRating());
+        assertEquals(5, result.getTotalBooksRead());
         assertEquals(1500L, result.getTotalPagesRead());
+        assertEquals(2, result.getRatingHistogram()[7]);
+        assertEquals(2, result.getBooksReadByMonth()[2]);
+        assertEquals(600L, result.getPagesReadByMonth()[2]);
+        verify(libraryRepository, never()).findByUserAndBook(any(), any());
+    }
+
+    @Test
+    public void UserLibraryBookService_GetYearRecap_NoStats() {
+        user.setId(1L);
+
+        when(readingStatsService.getStats(user.getId(), 2024)).thenReturn(List.of());
+
+        YearRecapDTO result = libraryService.getYearRecap(user, 2024);
+
+        assertEquals(0, result.getTotalBooksRead());
+        assertEquals(10, result.getRatingHistogram().length);
+        assertEquals(12, result.getBooksReadByMonth().length);
+        assertTrue(result.getTopRatedBooks().isEmpty());
+    }
+
+    private static LibraryBookRow libraryRow(Long idBook) {
+        LibraryBookRow row = mock(LibraryBookRow.class);
+        when(row.getBookId()).thenReturn(idBook);
+        return row;
+    }
+
+    private List<ReadingProgressEvent> readingProgressEvents() {
+        ArgumentCaptor<Object> eventos = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeast(0)).publishEvent(eventos.capture());
+        return eventos.getAllValues().stream()
+                .filter(ReadingProgressEvent.class::isInstance)
+                .map(ReadingProgressEvent.class::cast)
+                .toList();
     }
 }
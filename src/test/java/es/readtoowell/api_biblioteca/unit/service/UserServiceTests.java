@@ -1,19 +1,28 @@
 package es.readtoowell.api_biblioteca.unit.service;
 
+import es.readtoowell.api_biblioteca.config.CustomUserDetails;
+import es.readtoowell.api_biblioteca.config.security.PrincipalCache;
 import es.readtoowell.api_biblioteca.mapper.UserMapper;
 import es.readtoowell.api_biblioteca.model.DTO.AuthorRequestDTO;
+import es.readtoowell.api_biblioteca.model.DTO.CursorPageDTO;
+import es.readtoowell.api_biblioteca.model.DTO.user.FollowCountsDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UpdateProfileDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserDTO;
 import es.readtoowell.api_biblioteca.model.DTO.user.UserFavoritesDTO;
 import es.readtoowell.api_biblioteca.model.entity.Book;
 import es.readtoowell.api_biblioteca.model.entity.Genre;
 import es.readtoowell.api_biblioteca.model.entity.User;
+import es.readtoowell.api_biblioteca.model.entity.UserStats;
+import es.readtoowell.api_biblioteca.model.enums.RecommendationStrategy;
 import es.readtoowell.api_biblioteca.repository.book.BookRepository;
 import es.readtoowell.api_biblioteca.repository.book.GenreRepository;
 import es.readtoowell.api_biblioteca.repository.user.UserRepository;
+import es.readtoowell.api_biblioteca.service.book.RecommendationCache;
+import es.readtoowell.api_biblioteca.service.user.FollowService;
 import es.readtoowell.api_biblioteca.service.user.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
+import org.hibernate.LazyInitializationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,7 +33,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -48,6 +60,12 @@ public class UserServiceTests {
     private GenreRepository genreRepository;
     @Mock
     private BookRepository bookRepository;
+    @Mock
+    private RecommendationCache recommendationCache;
+    @Mock
+    private PrincipalCache principalCache;
+    @Mock
+    private FollowService followService;
     @InjectMocks
     private UserService userService;
 
@@ -128,6 +146,21 @@ public class UserServiceTests {
         assertEquals(user, result);
     }
 
+    @Test
+    public void UserService_GetAuthenticatedUser_TokenPrincipal() {
+        CustomUserDetails details = new CustomUserDetails(1L, "prueba@email.es", null, List.of());
+        Authentication authentication = mock(Authentication.class);
+
+        when(authentication.getPrincipal()).thenReturn(details);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        User result = userService.getAuthenticatedUser();
+
+        assertEquals(user, result);
+        verify(userRepository, never()).findByEmail(any());
+    }
+
     @Test
     public void UserService_GetAuthenticatedUser_NoUser() {
         Authentication authentication = mock(Authentication.class);
@@ -165,7 +198,9 @@ public class UserServiceTests {
         UserDTO result = userService.deleteUser(userId);
 
         assertEquals(userDTO, result);
+        verify(followService).removeUser(1L);
         verify(userRepository).delete(user);
+        verify(principalCache).invalidate(1L);
     }
 
     @Test
@@ -267,10 +302,9 @@ public class UserServiceTests {
     public void UserService_GetFollows_ReturnUsers() {
         Long userId = 1L;
         User followed = new User();
-        user.getFollowedUsers().add(followed);
 
         UserDTO followedDTO = new UserDTO();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(followService.getAllFollowing(userId)).thenReturn(List.of(followed));
         when(userMapper.toDTO(followed)).thenReturn(followedDTO);
 
         List<UserDTO> result = userService.getFollows(userId);
@@ -283,10 +317,9 @@ public class UserServiceTests {
     public void UserService_GetFollowers_ReturnUsers() {
         Long userId = 1L;
         User follower = new User();
-        user.getFollowers().add(follower);
 
         UserDTO followerDTO = new UserDTO();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(followService.getAllFollowers(userId)).thenReturn(List.of(follower));
         when(userMapper.toDTO(follower)).thenReturn(followerDTO);
 
         List<UserDTO> result = userService.getFollowers(userId);
@@ -295,6 +328,55 @@ public class UserServiceTests {
         assertEquals(followerDTO, result.get(0));
     }
 
+    @Test
+    public void UserService_GetFollowersByCursor_ReturnNextCursor() {
+        Long userId = 1L;
+        User follower = new User();
+        follower.setId(7L);
+        UserDTO followerDTO = new UserDTO();
+
+        when(followService.getFollowers(userId, 0L, 1))
+                .thenReturn(new SliceImpl<>(List.of(follower), PageRequest.ofSize(1), true));
+        when(userMapper.toDTO(follower)).thenReturn(followerDTO);
+
+        CursorPageDTO<UserDTO> result = userService.getFollowers(userId, "", 1);
+
+        assertEquals(List.of(followerDTO), result.getContent());
+        assertTrue(result.isHasNext());
+
+        when(followService.getFollowers(userId, 7L, 1))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(1), false));
+
+        CursorPageDTO<UserDTO> siguiente = userService.getFollowers(userId, result.getNextCursor(), 1);
+
+        assertTrue(siguiente.getContent().isEmpty());
+        assertNull(siguiente.getNextCursor());
+    }
+
+    @Test
+    public void UserService_GetFollowCounts_ReturnCounts() {
+        when(followService.getStats(2L)).thenReturn(Optional.of(new UserStats(2L, 3, 5)));
+        when(followService.isFollowing(1L, 2L)).thenReturn(true);
+
+        FollowCountsDTO result = userService.getFollowCounts(2L, 1L);
+
+        assertEquals(3, result.getFollowerCount());
+        assertEquals(5, result.getFollowingCount());
+        assertTrue(result.isFollowedByMe());
+    }
+
+    @Test
+    public void UserService_GetFollowCounts_NoFollows() {
+        when(followService.getStats(2L)).thenReturn(Optional.empty());
+
+        FollowCountsDTO result = userService.getFollowCounts(2L, 2L);
+
+        assertEquals(0, result.getFollowerCount());
+        assertEquals(0, result.getFollowingCount());
+        assertFalse(result.isFollowedByMe());
+        verify(followService, never()).isFollowing(any(), any());
+    }
+
     @Test
     public void UserService_FollowUser_ReturnUser() {
         Long userId = 1L;
@@ -312,11 +394,9 @@ public class UserServiceTests {
 
         UserDTO result = userService.followUser(userId, followedId);
 
-        assertTrue(user.getFollowedUsers().contains(followed));
-        assertTrue(followed.getFollowers().contains(user));
         assertEquals(followedDTO, result);
-        verify(userRepository).save(user);
-        verify(userRepository).save(followed);
+        verify(followService).follow(userId, followedId);
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -387,9 +467,6 @@ public class UserServiceTests {
         User unfollowed = new User();
         unfollowed.setRole(0);
 
-        user.getFollowedUsers().add(unfollowed);
-        unfollowed.getFollowers().add(user);
-
         UserDTO dto = new UserDTO();
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
@@ -398,11 +475,9 @@ public class UserServiceTests {
 
         UserDTO result = userService.unfollowUser(userId, unfollowedId);
 
-        assertFalse(user.getFollowedUsers().contains(unfollowed));
-        assertFalse(unfollowed.getFollowers().contains(user));
         assertEquals(dto, result);
-        verify(userRepository).save(user);
-        verify(userRepository).save(unfollowed);
+        verify(followService).unfollow(userId, unfollowedId);
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -414,9 +489,6 @@ public class UserServiceTests {
         User unfollowed = new User();
         unfollowed.setRole(0);
 
-        user.getFollowedUsers().add(unfollowed);
-        unfollowed.getFollowers().add(user);
-
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(
@@ -436,9 +508,6 @@ public class UserServiceTests {
         User unfollowed = new User();
         unfollowed.setRole(0);
 
-        user.getFollowedUsers().add(unfollowed);
-        unfollowed.getFollowers().add(user);
-
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(userRepository.findById(unfollowedId)).thenReturn(Optional.empty());
 
@@ -504,30 +573,33 @@ public class UserServiceTests {
 
         assertEquals(userDTO, result);
         assertEquals(1, user.getRole());
+        verify(principalCache).invalidate(1L);
     }
 
     @Test
     public void UserService_AddFavoriteGenres_ReturnFavorites() {
         User user = new User();
+        user.setId(1L);
         List<Long> genreIds = List.of(1L, 2L);
         List<Genre> genres = List.of(new Genre(), new Genre());
 
         when(genreRepository.findAllById(genreIds)).thenReturn(genres);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
-        userService.addFavoriteGenres(user, genreIds);
+        userService.addFavoriteGenres(1L, genreIds);
 
         assertEquals(2, user.getFavoriteGenres().size());
         verify(userRepository).save(user);
+        verify(recommendationCache).invalidate(user.getId(), RecommendationStrategy.FAVORITE_GENRES);
     }
 
     @Test
     public void UserService_AddFavoriteGenres_TooManyGenres() {
-        User user = new User();
         List<Long> genreIds = List.of(1L, 2L, 3L, 4L, 5L, 6L);
 
         ValidationException exception = assertThrows(
                 ValidationException.class,
-                () -> userService.addFavoriteGenres(user, genreIds)
+                () -> userService.addFavoriteGenres(1L, genreIds)
         );
 
         assertEquals("Sólo se pueden elegir 5 géneros favoritos como máximo.", exception.getMessage());
@@ -535,7 +607,6 @@ public class UserServiceTests {
 
     @Test
     public void UserService_AddFavoriteGenres_UnexistentGenre() {
-        User user = new User();
         List<Long> genreIds = List.of(1L, 2L);
         List<Genre> genres = List.of(new Genre());
 
@@ -543,34 +614,56 @@ public class UserServiceTests {
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> userService.addFavoriteGenres(user, genreIds)
+                () -> userService.addFavoriteGenres(1L, genreIds)
         );
 
         assertEquals("Uno o más géneros no existen.", exception.getMessage());
     }
 
+    @Test
+    public void UserService_AddFavoriteGenres_IgnoresDetachedReference() {
+        // Referencia sin cargar como la del usuario autenticado: fuera de su sesión no se puede modificar
+        User referencia = mock(User.class);
+        lenient().when(userRepository.getReferenceById(1L)).thenReturn(referencia);
+        lenient().doThrow(new LazyInitializationException("could not initialize proxy - no Session"))
+                .when(referencia).setFavoriteGenres(any());
+        User user = new User();
+        user.setId(1L);
+        List<Long> genreIds = List.of(1L);
+
+        when(genreRepository.findAllById(genreIds)).thenReturn(List.of(new Genre()));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.addFavoriteGenres(1L, genreIds);
+
+        assertEquals(1, user.getFavoriteGenres().size());
+        verify(userRepository).save(user);
+    }
+
     @Test
     public void UserService_AddFavoriteBooks_ReturnFavorites() {
         User user = new User();
+        user.setId(1L);
         List<Long> bookIds = List.of(1L, 2L);
         List<Book> books = List.of(new Book(), new Book());
 
         when(bookRepository.findAllById(bookIds)).thenReturn(books);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
-        userService.addFavoriteBooks(user, bookIds);
+        userService.addFavoriteBooks(1L, bookIds);
 
         assertEquals(2, user.getFavoriteBooks().size());
         verify(userRepository).save(user);
+        verify(recommendationCache).invalidate(user.getId(), RecommendationStrategy.FAVORITE_BOOKS);
     }
 
     @Test
     public void UserService_AddFavoriteBooks_TooManyBooks() {
-        User user = new User();
         List<Long> bookIds = List.of(1L, 2L, 3L, 4L, 5L);
 
         ValidationException exception = assertThrows(
                 ValidationException.class,
-                () -> userService.addFavoriteBooks(user, bookIds)
+                () -> userService.addFavoriteBooks(1L, bookIds)
         );
 
         assertEquals("Sólo se pueden elegir 4 libros favoritos como máximo.", exception.getMessage());
@@ -578,7 +671,6 @@ public class UserServiceTests {
 
     @Test
     public void UserService_AddFavoriteBooks_UnexistentBook() {
-        User user = new User();
         List<Long> bookIds = List.of(1L, 2L);
         List<Book> books = List.of(new Book());
 
@@ -586,7 +678,7 @@ public class UserServiceTests {
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
-                () -> userService.addFavoriteBooks(user, bookIds)
+                () -> userService.addFavoriteBooks(1L, bookIds)
         );
 
         assertEquals("Uno o más libros no existen.", exception.getMessage());
@@ -621,18 +713,19 @@ public class UserServiceTests {
 
     @Test
     public void UserService_VerifyAdmin_UserIsAdmin() {
-        User user = new User();
-        user.setRole(2);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin@email.es", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
 
-        assertTrue(userService.verifyAdmin(user));
+        assertTrue(userService.verifyAdmin());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     public void UserService_VerifyAdmin_UserIsNotAdmin() {
-        User user = new User();
-        user.setRole(0);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "prueba@email.es", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
 
-        assertFalse(userService.verifyAdmin(user));
+        assertFalse(userService.verifyAdmin());
     }
 
     @Test